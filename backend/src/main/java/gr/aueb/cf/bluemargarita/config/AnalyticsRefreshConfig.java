@@ -0,0 +1,23 @@
+package gr.aueb.cf.bluemargarita.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler of the analytics materialized view refreshes. A single thread runs every
+ * refresh, scheduled or requested, so two refreshes of the same view never overlap
+ */
+@Configuration
+public class AnalyticsRefreshConfig {
+
+    @Bean(name = "analyticsRefreshScheduler")
+    public ThreadPoolTaskScheduler analyticsRefreshScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("analytics-refresh-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
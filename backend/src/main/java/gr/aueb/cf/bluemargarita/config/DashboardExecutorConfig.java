@@ -0,0 +1,56 @@
+package gr.aueb.cf.bluemargarita.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executor for the dashboard widgets, which are loaded concurrently.
+ * The limit also caps the pool connections the dashboard can take at once.
+ * On Java 21+ with spring.threads.virtual.enabled=true the widgets run on virtual threads
+ * under the same concurrency limit. The worker executor is a bean of its own, so the context
+ * shuts it down, and dashboardExecutor wraps it to propagate the caller's security context
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Value("${app.dashboard.max-concurrent-widgets:8}")
+    private int maxConcurrentWidgets;
+
+    @Bean(name = "dashboardExecutor")
+    public AsyncTaskExecutor dashboardExecutor(@Qualifier("dashboardWorkerExecutor") AsyncTaskExecutor workerExecutor) {
+        return new DelegatingSecurityContextAsyncTaskExecutor(workerExecutor);
+    }
+
+    @Bean(name = "dashboardWorkerExecutor", destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualThreadDashboardExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrentWidgets);
+        return executor;
+    }
+
+    @Bean(name = "dashboardWorkerExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformThreadDashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentWidgets);
+        executor.setMaxPoolSize(maxConcurrentWidgets);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setDaemon(true);
+        // when saturated the request thread loads the widget itself instead of failing it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,32 @@
+package gr.aueb.cf.bluemargarita.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executor for background jobs. Each job holds a pool connection per chunk,
+ * so only a couple run at once, and submissions beyond the queue are rejected
+ */
+@Configuration
+public class JobExecutorConfig {
+
+    @Value("${app.jobs.max-concurrent:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.jobs.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
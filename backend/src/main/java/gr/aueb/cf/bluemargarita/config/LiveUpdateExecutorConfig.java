@@ -0,0 +1,45 @@
+package gr.aueb.cf.bluemargarita.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Executors of the live update stream. Events are written to the connections by sender threads,
+ * at most one per connection at a time. SseEmitter.send blocks while the client is not reading,
+ * so the pool has a thread for every allowed connection (plus one for the sales totals update):
+ * a stalled client holds only its own sender. Threads are started on demand and stop when idle.
+ * The scheduler sends the keep-alive heartbeats and closes connections whose send has stalled
+ */
+@Configuration
+public class LiveUpdateExecutorConfig {
+
+    @Value("${app.live.max-connections:200}")
+    private int maxConnections;
+
+    @Bean(name = "liveUpdateExecutor")
+    public ThreadPoolTaskExecutor liveUpdateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConnections + 1);
+        executor.setMaxPoolSize(maxConnections + 1);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("live-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "liveUpdateScheduler")
+    public ThreadPoolTaskScheduler liveUpdateScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("live-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -3,7 +3,10 @@ package gr.aueb.cf.bluemargarita.core;
 
 import gr.aueb.cf.bluemargarita.core.exceptions.*;
 import gr.aueb.cf.bluemargarita.dto.ResponseMessageDTO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -53,4 +56,19 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
     public ResponseEntity<ResponseMessageDTO> handleConstraintViolationException(AppServerException e) {
         return new ResponseEntity<>(new ResponseMessageDTO(e.getCode(), e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // The content type is set explicitly, the request may only accept the stream it asked for
+    @ExceptionHandler({ServiceUnavailableException.class})
+    public ResponseEntity<ResponseMessageDTO> handleServiceUnavailable(ServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ResponseMessageDTO(e.getCode(), e.getMessage()));
+    }
+
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ResponseMessageDTO> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        return new ResponseEntity<>(new ResponseMessageDTO("ConcurrentModification",
+                "The record was changed by another user. Please reload and try again."), HttpStatus.CONFLICT);
+    }
 }
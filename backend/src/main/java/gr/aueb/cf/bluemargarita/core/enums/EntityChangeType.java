@@ -0,0 +1,7 @@
+package gr.aueb.cf.bluemargarita.core.enums;
+
+public enum EntityChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
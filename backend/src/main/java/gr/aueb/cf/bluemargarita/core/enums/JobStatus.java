@@ -0,0 +1,23 @@
+package gr.aueb.cf.bluemargarita.core.enums;
+
+public enum JobStatus {
+    QUEUED("Σε Αναμονή"),
+    RUNNING("Σε Εξέλιξη"),
+    COMPLETED("Ολοκληρώθηκε"),
+    FAILED("Απέτυχε"),
+    CANCELLED("Ακυρώθηκε");
+
+    private final String displayName;
+
+    JobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
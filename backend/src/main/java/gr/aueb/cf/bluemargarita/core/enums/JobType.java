@@ -0,0 +1,15 @@
+package gr.aueb.cf.bluemargarita.core.enums;
+
+public enum JobType {
+    PRICE_RECALCULATION("Επανυπολογισμός Τιμών");
+
+    private final String displayName;
+
+    JobType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
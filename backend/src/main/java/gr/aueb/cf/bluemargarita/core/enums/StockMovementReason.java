@@ -0,0 +1,17 @@
+package gr.aueb.cf.bluemargarita.core.enums;
+
+public enum StockMovementReason {
+    SALE("Πώληση"),
+    MANUAL("Χειροκίνητη Ενημέρωση"),
+    RESTORE("Επαναφορά από Διαγραφή Πώλησης");
+
+    private final String displayName;
+
+    StockMovementReason(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,18 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+
+/**
+ * Published when a product or its prices change: by ProductService for a single product,
+ * and with a null productId when many products are repriced at once (material cost change,
+ * bulk price recalculation)
+ */
+public record ProductChangedEvent(
+        Long productId,
+        EntityChangeType changeType
+) {
+
+    public static ProductChangedEvent manyProducts() {
+        return new ProductChangedEvent(null, EntityChangeType.UPDATED);
+    }
+}
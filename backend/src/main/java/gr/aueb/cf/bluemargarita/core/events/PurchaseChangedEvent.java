@@ -0,0 +1,11 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+
+/**
+ * Published by PurchaseService when a purchase is recorded, updated or deleted
+ */
+public record PurchaseChangedEvent(
+        Long purchaseId,
+        EntityChangeType changeType
+) {}
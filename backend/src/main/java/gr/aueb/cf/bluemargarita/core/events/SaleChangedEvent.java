@@ -0,0 +1,19 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+
+/**
+ * Published by SaleService when a sale is recorded, updated or deleted.
+ * Listeners react after the transaction commits.
+ * previous is the sale before the change (null when created), current
+ * the sale after it (null when deleted). transactionId is the PostgreSQL id of the
+ * transaction that made the change, so a listener can tell whether a database
+ * snapshot it read already contains it
+ */
+public record SaleChangedEvent(
+        Long saleId,
+        EntityChangeType changeType,
+        SaleSnapshot previous,
+        SaleSnapshot current,
+        Long transactionId
+) {}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The values of a sale that the in-memory sales counters need, copied when the event is
+ * created so listeners running after the commit never touch the entity
+ */
+public record SaleSnapshot(
+        Long locationId,
+        LocalDate saleDate,
+        BigDecimal finalTotalPrice,
+        List<Line> lines
+) {
+
+    /**
+     * One sale line, revenue is quantity * price at the time of the sale
+     */
+    public record Line(Long productId, BigDecimal quantity, BigDecimal revenue) {}
+}
@@ -0,0 +1,9 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+/**
+ * Published by SalesRollupService when the daily sales rollup has been rebuilt from the raw sales.
+ * Listeners react after the transaction commits
+ */
+public record SalesRollupRebuiltEvent(
+        int rowsWritten
+) {}
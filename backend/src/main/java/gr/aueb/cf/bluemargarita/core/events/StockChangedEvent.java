@@ -0,0 +1,36 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import java.util.List;
+
+/**
+ * Published by StockManagementService when stock or low stock alert levels change,
+ * whether manually or by a sale being recorded or deleted. Carries one entry per changed product
+ */
+public record StockChangedEvent(
+        List<StockLevelChange> changes
+) {
+
+    public record StockLevelChange(
+            Long productId,
+            String productCode,
+            Integer stock,
+            Integer lowStockAlert,
+            boolean wasLowStock
+    ) {
+
+        public boolean isLowStock() {
+            return isLowStock(stock, lowStockAlert);
+        }
+
+        /**
+         * Crossed the alert level with this change, as opposed to being low already
+         */
+        public boolean isNewLowStockAlert() {
+            return !wasLowStock && isLowStock();
+        }
+
+        public static boolean isLowStock(Integer stock, Integer lowStockAlert) {
+            return stock != null && lowStockAlert != null && stock <= lowStockAlert;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.core.events;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+import gr.aueb.cf.bluemargarita.core.enums.TaskStatus;
+
+/**
+ * Published by ToDoTaskService when a task is created, updated, completed/reopened or deleted.
+ * The status is null for a deleted task
+ */
+public record TaskChangedEvent(
+        Long taskId,
+        EntityChangeType changeType,
+        TaskStatus status
+) {}
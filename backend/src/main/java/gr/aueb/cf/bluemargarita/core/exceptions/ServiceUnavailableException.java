@@ -0,0 +1,18 @@
+package gr.aueb.cf.bluemargarita.core.exceptions;
+
+import lombok.Getter;
+
+/**
+ * A temporary capacity limit was reached, answered with 503 and a Retry-After header
+ */
+@Getter
+public class ServiceUnavailableException extends Exception {
+    private final String code;
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String code, String message, long retryAfterSeconds) {
+        super(message);
+        this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
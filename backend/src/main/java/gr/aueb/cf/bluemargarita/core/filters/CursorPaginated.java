@@ -0,0 +1,35 @@
+package gr.aueb.cf.bluemargarita.core.filters;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A keyset page. Carries no total count: clients follow nextCursor/previousCursor,
+ * which are null when there is nothing further in that direction
+ */
+@Getter
+public class CursorPaginated<T> {
+
+    List<T> data;
+    int numberOfElements; //count in current page
+    int pageSize;
+    String nextCursor;
+    String previousCursor;
+    boolean hasNext;
+    boolean hasPrevious;
+
+    public CursorPaginated(List<T> data, int pageSize, String nextCursor, String previousCursor) {
+        this.data = data;
+        this.numberOfElements = data.size();
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.hasNext = nextCursor != null;
+        this.hasPrevious = previousCursor != null;
+    }
+
+    protected CursorPaginated(CursorPaginated<T> page) {
+        this(page.getData(), page.getPageSize(), page.getNextCursor(), page.getPreviousCursor());
+    }
+}
@@ -3,6 +3,8 @@ package gr.aueb.cf.bluemargarita.core.filters;
 import lombok.*;
 import org.springframework.lang.Nullable;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,4 +33,14 @@ public class CustomerFilters extends GenericFilters{
 
     @Nullable
     private Boolean wholesaleOnly;
+
+    // Filters on the precomputed customer_stats
+    @Nullable
+    private BigDecimal minTotalRevenue;
+
+    @Nullable
+    private Integer minTotalOrders;
+
+    @Nullable
+    private Integer minRfmScore;
 }
@@ -20,6 +20,7 @@ public abstract class GenericFilters {
     private int pageSize;
     private Sort.Direction sortDirection;
     private String sortBy;
+    private String cursor; // keyset pagination position, only used by cursor pagination endpoints
 
     public int getPage() {
         return Math.max(page, 0);
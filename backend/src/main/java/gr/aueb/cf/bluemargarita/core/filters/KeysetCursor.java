@@ -0,0 +1,52 @@
+package gr.aueb.cf.bluemargarita.core.filters;
+
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position a keyset page continues from: the sort value and id of the last row the client saw
+ * (first row when paging backwards), with the sort it was produced under.
+ * Handed to clients as an opaque URL-safe token
+ */
+public record KeysetCursor(
+        String sortBy,
+        Sort.Direction direction,
+        String sortValue,
+        long id,
+        boolean backward
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor of(String sortBy, Sort.Direction direction, Object sortValue, long id, boolean backward) {
+        String value = sortValue instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(sortValue);
+        return new KeysetCursor(sortBy, direction, value, id, backward);
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), sortValue, String.valueOf(id),
+                backward ? "P" : "N");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) throws EntityInvalidArgumentException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[2],
+                    Long.parseLong(parts[3]), "P".equals(parts[4]));
+
+        } catch (IllegalArgumentException e) {
+            throw new EntityInvalidArgumentException("Cursor", "Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package gr.aueb.cf.bluemargarita.core.filters;
+
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A keyset (seek) page request: rows are ordered by one whitelisted, indexed sort attribute with
+ * the id as tie-breaker, and a page is read from the position in its cursor onwards. Unlike an
+ * OFFSET page, no earlier rows are scanned and no total count is needed, so every page costs the same
+ */
+@Getter
+public class KeysetPageRequest<T> {
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final int pageSize;
+    @Nullable
+    private final KeysetCursor cursor;
+    @Nullable
+    private final Comparable<?> cursorSortValue;
+    private final SortKey<T> sortKey;
+    private final Function<T, Long> idKey;
+
+    private KeysetPageRequest(String sortBy, Sort.Direction direction, int pageSize, @Nullable KeysetCursor cursor,
+                              @Nullable Comparable<?> cursorSortValue, SortKey<T> sortKey, Function<T, Long> idKey) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.pageSize = pageSize;
+        this.cursor = cursor;
+        this.cursorSortValue = cursorSortValue;
+        this.sortKey = sortKey;
+        this.idKey = idKey;
+    }
+
+    /**
+     * A sortable attribute: reads its value from a row and parses it back from a cursor
+     */
+    public record SortKey<T>(Function<T, ?> getter, Function<String, Comparable<?>> parser) {
+
+        public static <T> SortKey<T> ofDate(Function<T, LocalDate> getter) {
+            return new SortKey<>(getter, LocalDate::parse);
+        }
+
+        public static <T> SortKey<T> ofDecimal(Function<T, BigDecimal> getter) {
+            return new SortKey<>(getter, BigDecimal::new);
+        }
+
+        public static <T> SortKey<T> ofLong(Function<T, Long> getter) {
+            return new SortKey<>(getter, Long::valueOf);
+        }
+    }
+
+    /**
+     * @param filters the sort, page size and cursor requested by the client
+     * @param sortKeys the sortable attributes by name. Only not-null columns indexed together with the id belong here
+     * @param idKey the id getter, the tie-breaker of every sort
+     * @throws EntityInvalidArgumentException if the sort is not whitelisted, or the cursor is malformed
+     *         or was issued for a different sort
+     */
+    public static <T> KeysetPageRequest<T> of(GenericFilters filters, Map<String, SortKey<T>> sortKeys,
+                                              Function<T, Long> idKey) throws EntityInvalidArgumentException {
+
+        String sortBy = filters.getSortBy();
+        SortKey<T> sortKey = sortKeys.get(sortBy);
+        if (sortKey == null) {
+            throw new EntityInvalidArgumentException("Sort",
+                    "Cursor pagination can only sort by " + String.join(", ", sortKeys.keySet()));
+        }
+
+        KeysetCursor cursor = null;
+        Comparable<?> cursorSortValue = null;
+        if (filters.getCursor() != null && !filters.getCursor().isBlank()) {
+            cursor = KeysetCursor.decode(filters.getCursor());
+            if (!cursor.sortBy().equals(sortBy) || cursor.direction() != filters.getSortDirection()) {
+                throw new EntityInvalidArgumentException("Cursor", "The cursor belongs to a different sort order");
+            }
+            try {
+                cursorSortValue = sortKey.parser().apply(cursor.sortValue());
+            } catch (RuntimeException e) {
+                throw new EntityInvalidArgumentException("Cursor", "Invalid pagination cursor");
+            }
+        }
+
+        int pageSize = filters.getPageSize() > 0 ? filters.getPageSize() : 1;
+        return new KeysetPageRequest<>(sortBy, filters.getSortDirection(), pageSize, cursor, cursorSortValue,
+                sortKey, idKey);
+    }
+
+    public boolean isFirstPage() {
+        return cursor == null;
+    }
+
+    public boolean isBackward() {
+        return cursor != null && cursor.backward();
+    }
+
+    /**
+     * The order rows are read in: paging backwards reads the requested order in reverse
+     */
+    public Sort.Direction getQueryDirection() {
+        return isBackward()
+                ? (direction == Sort.Direction.ASC ? Sort.Direction.DESC : Sort.Direction.ASC)
+                : direction;
+    }
+
+    /**
+     * Builds the page from the rows read in query order, up to pageSize + 1 of them:
+     * the extra row only tells that there is more in the reading direction
+     */
+    public <D> CursorPaginated<D> toPage(List<T> rows, Function<T, D> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> pageRows = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+
+        if (isBackward()) {
+            Collections.reverse(pageRows);
+        }
+
+        boolean hasNext = isBackward() || hasMore;
+        boolean hasPrevious = isBackward() ? hasMore : !isFirstPage();
+
+        String nextCursor = hasNext && !pageRows.isEmpty() ? cursorAt(pageRows.get(pageRows.size() - 1), false) : null;
+        String previousCursor = hasPrevious && !pageRows.isEmpty() ? cursorAt(pageRows.get(0), true) : null;
+
+        return new CursorPaginated<>(pageRows.stream().map(mapper).toList(), pageSize, nextCursor, previousCursor);
+    }
+
+    private String cursorAt(T row, boolean backward) {
+        return KeysetCursor.of(sortBy, direction, sortKey.getter().apply(row), idKey.apply(row), backward).encode();
+    }
+}
@@ -3,6 +3,7 @@ package gr.aueb.cf.bluemargarita.core.filters;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -15,6 +16,9 @@ public class Paginated<T>{
     int numberOfElements; //count in current page
     int currentPage;
     int pageSize;
+    boolean hasNext;
+    boolean hasPrevious;
+    boolean totalElementsExact; //false when the total comes from the count cache
 
     public Paginated(Page<T> page){
         this.data = page.getContent();
@@ -23,6 +27,9 @@ public class Paginated<T>{
         this.numberOfElements = page.getNumberOfElements();
         this.currentPage = page.getNumber();
         this.pageSize = page.getSize();
+        this.hasNext = page.hasNext();
+        this.hasPrevious = page.hasPrevious();
+        this.totalElementsExact = true;
     }
 
     public Paginated(List<T> data, int currentPage, int pageSize,
@@ -33,5 +40,27 @@ public class Paginated<T>{
         this.totalElements = totalElements;
         this.totalPages = (int) Math.ceil((double) totalElements / pageSize);
         this.numberOfElements = data.size();
+        this.hasNext = (long) (currentPage + 1) * pageSize < totalElements;
+        this.hasPrevious = currentPage > 0;
+        this.totalElementsExact = true;
+    }
+
+    /**
+     * Builds a page from a slice, whose hasNext comes from reading one extra row instead of a count.
+     * A total that may be stale is raised to what the slice proves exists, so the page being
+     * viewed is never past the reported last page.
+     */
+    public Paginated(Slice<T> slice, long totalElements, boolean totalElementsExact){
+        this.data = slice.getContent();
+        this.numberOfElements = slice.getNumberOfElements();
+        this.currentPage = slice.getNumber();
+        this.pageSize = slice.getSize();
+        this.hasNext = slice.hasNext();
+        this.hasPrevious = slice.hasPrevious();
+        this.totalElementsExact = totalElementsExact;
+
+        long seen = (long) currentPage * pageSize + numberOfElements;
+        this.totalElements = totalElementsExact ? totalElements : Math.max(totalElements, seen + (hasNext ? 1 : 0));
+        this.totalPages = pageSize > 0 ? (int) Math.ceil((double) this.totalElements / pageSize) : 1;
     }
 }
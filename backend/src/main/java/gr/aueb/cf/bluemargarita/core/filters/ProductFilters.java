@@ -41,6 +41,12 @@ public class ProductFilters extends GenericFilters {
     @Nullable
     private BigDecimal maxPrice;
 
+    @Nullable
+    private BigDecimal minCost;
+
+    @Nullable
+    private BigDecimal maxCost;
+
     @Nullable
     private Integer minStock;
 
@@ -1,10 +1,13 @@
 package gr.aueb.cf.bluemargarita.core.specifications;
 
 import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.CustomerStats;
 import gr.aueb.cf.bluemargarita.model.Sale;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
@@ -69,4 +72,24 @@ public class CustomerSpecification {
         };
     }
 
+    /**
+     * Specification for customers whose customer_stats field is at least the given value
+     * (totalRevenue, totalOrders, rfmScore). Matched in a subquery on the stats table
+     */
+
+    public static Specification<Customer> customerStatsAtLeast(String field, Number value){
+        return(root, query, criteriaBuilder) -> {
+            if(value == null){
+                return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            }
+
+            Subquery<Long> matching = query.subquery(Long.class);
+            Root<CustomerStats> stats = matching.from(CustomerStats.class);
+            matching.select(stats.<Long>get("customerId"))
+                    .where(criteriaBuilder.ge(stats.<Number>get(field), value));
+
+            return root.get("id").in(matching);
+        };
+    }
+
 }
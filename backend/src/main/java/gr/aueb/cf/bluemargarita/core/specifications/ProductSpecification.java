@@ -81,6 +81,24 @@ public class ProductSpecification {
         };
     }
 
+    /**
+     * Filter products by total cost (material + procedure + labor) range
+     */
+    public static Specification<Product> productTotalCostBetween(BigDecimal minCost, BigDecimal maxCost) {
+        return (root, query, criteriaBuilder) -> {
+            if (minCost == null && maxCost == null) {
+                return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            }
+            if (minCost != null && maxCost != null) {
+                return criteriaBuilder.between(root.get("totalCost"), minCost, maxCost);
+            }
+            if (minCost != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("totalCost"), minCost);
+            }
+            return criteriaBuilder.lessThanOrEqualTo(root.get("totalCost"), maxCost);
+        };
+    }
+
     /**
      * Filter products that use a specific procedure by ID (for dropdown selection)
      */
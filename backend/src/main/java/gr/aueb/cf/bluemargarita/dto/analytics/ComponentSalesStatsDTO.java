@@ -0,0 +1,13 @@
+package gr.aueb.cf.bluemargarita.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sales of the products containing a material or procedure, read from sale_product_component
+ */
+public record ComponentSalesStatsDTO(
+        Long salesCount,
+        BigDecimal revenue,
+        LocalDate lastSaleDate
+) {}
@@ -12,6 +12,10 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * unavailableWidgets lists the widgets that failed or timed out and are returned empty.
+ * Widget load times are recorded by DashboardService as metrics, not returned with the overview
+ */
 public record DashboardOverviewDTO(
         SalesSummaryDTO weeklySales,
         SalesSummaryDTO monthlySales,
@@ -20,5 +24,6 @@ public record DashboardOverviewDTO(
         List<StockAlertDTO> lowStockProducts,
         List<ProductStatsSummaryDTO> topProductsThisMonth,
         DashboardToDoTasksDTO dashboardTasks,
-        List<MispricedProductAlertDTO> mispricedProducts
+        List<MispricedProductAlertDTO> mispricedProducts,
+        List<String> unavailableWidgets
 ){}
@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.dto.analytics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of comparing sales_daily_rollup with the raw sales/sale_product tables
+ */
+public record SalesRollupConsistencyDTO(
+        boolean consistent,
+        int mismatchesReported,
+        List<SalesRollupMismatchDTO> mismatches,
+        LocalDateTime checkedAt
+) {}
@@ -0,0 +1,22 @@
+package gr.aueb.cf.bluemargarita.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A rollup key whose totals differ from the raw sale tables
+ */
+public record SalesRollupMismatchDTO(
+        LocalDate saleDate,
+        Long productId,
+        Long locationId,
+        Long customerId,
+        BigDecimal rollupQuantity,
+        BigDecimal salesQuantity,
+        BigDecimal rollupRevenue,
+        BigDecimal salesRevenue,
+        BigDecimal rollupSuggestedRevenue,
+        BigDecimal salesSuggestedRevenue,
+        Long rollupSaleCount,
+        Long salesSaleCount
+) {}
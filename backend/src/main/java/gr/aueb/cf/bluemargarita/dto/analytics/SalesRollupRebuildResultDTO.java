@@ -0,0 +1,13 @@
+package gr.aueb.cf.bluemargarita.dto.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO containing the results of a full sales_daily_rollup backfill
+ */
+public record SalesRollupRebuildResultDTO(
+        int rowsDeleted,
+        int rowsWritten,
+        long durationMillis,
+        LocalDateTime rebuiltAt
+) {}
@@ -2,6 +2,7 @@ package gr.aueb.cf.bluemargarita.dto.category;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public record CategoryAnalyticsDTO(
         // Product metrics
@@ -20,5 +21,8 @@ public record CategoryAnalyticsDTO(
 
         // Yearly performance (current year)
         Integer yearlySalesCount,
-        BigDecimal yearlySalesRevenue
+        BigDecimal yearlySalesRevenue,
+
+        // When the sales figures were last computed
+        LocalDateTime statsRefreshedAt
 ) {}
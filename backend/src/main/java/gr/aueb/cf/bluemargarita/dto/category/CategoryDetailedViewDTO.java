@@ -36,6 +36,9 @@ public record CategoryDetailedViewDTO(
         Integer yearlySalesCount,
         BigDecimal yearlySalesRevenue,
 
+        // When the sales figures were last computed
+        LocalDateTime statsRefreshedAt,
+
         // Top performing products in this category
         List<ProductStatsSummaryDTO> topProducts
 ) {}
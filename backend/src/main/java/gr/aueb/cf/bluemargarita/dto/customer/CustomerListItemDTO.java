@@ -2,6 +2,9 @@ package gr.aueb.cf.bluemargarita.dto.customer;
 
 import gr.aueb.cf.bluemargarita.core.enums.GenderType;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 public record CustomerListItemDTO(
         Long customerId,
         String firstname,
@@ -10,5 +13,11 @@ public record CustomerListItemDTO(
         String address,
         String email,
         String tin,
-        GenderType gender
+        GenderType gender,
+
+        // From customer_stats
+        Integer totalOrders,
+        BigDecimal totalRevenue,
+        LocalDate lastOrderDate,
+        Integer rfmScore
 ) {}
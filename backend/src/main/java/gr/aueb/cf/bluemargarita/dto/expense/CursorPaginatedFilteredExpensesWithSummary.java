@@ -0,0 +1,21 @@
+package gr.aueb.cf.bluemargarita.dto.expense;
+
+import gr.aueb.cf.bluemargarita.core.filters.CursorPaginated;
+
+/**
+ * A keyset page of expenses. The summary covers every matching expense and is only sent
+ * with the first page. It is null on later pages, where clients keep the first page's summary
+ */
+public class CursorPaginatedFilteredExpensesWithSummary extends CursorPaginated<ExpenseReadOnlyDTO> {
+
+    ExpenseSummaryDTO summary;
+
+    public CursorPaginatedFilteredExpensesWithSummary(CursorPaginated<ExpenseReadOnlyDTO> page, ExpenseSummaryDTO summary) {
+        super(page);
+        this.summary = summary;
+    }
+
+    public ExpenseSummaryDTO getSummary() {
+        return summary;
+    }
+}
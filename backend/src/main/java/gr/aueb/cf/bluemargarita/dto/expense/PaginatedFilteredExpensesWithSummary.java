@@ -1,15 +1,16 @@
 package gr.aueb.cf.bluemargarita.dto.expense;
 
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class PaginatedFilteredExpensesWithSummary extends Paginated<ExpenseReadOnlyDTO> {
 
     ExpenseSummaryDTO summary;
 
-    public PaginatedFilteredExpensesWithSummary(Page<ExpenseReadOnlyDTO> page,
+    public PaginatedFilteredExpensesWithSummary(Slice<ExpenseReadOnlyDTO> slice,
                                                 ExpenseSummaryDTO summary){
-        super(page);
+        // the summary already counts every matching row, so the page needs no count of its own
+        super(slice, summary.totalCount(), true);
         this.summary = summary;
     }
 
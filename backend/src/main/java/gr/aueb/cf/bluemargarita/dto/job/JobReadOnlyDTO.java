@@ -0,0 +1,27 @@
+package gr.aueb.cf.bluemargarita.dto.job;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import gr.aueb.cf.bluemargarita.core.enums.JobStatus;
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a background job. The result holds the operation's own result DTO
+ * (e.g. PriceRecalculationResultDTO) once the job has completed or was cancelled
+ */
+public record JobReadOnlyDTO(
+        Long jobId,
+        JobType type,
+        JobStatus status,
+        Integer totalItems,
+        Integer processedItems,
+        Integer progressPercentage,
+        Boolean cancelRequested,
+        String createdByUsername,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String errorMessage,
+        @JsonRawValue String result
+) {}
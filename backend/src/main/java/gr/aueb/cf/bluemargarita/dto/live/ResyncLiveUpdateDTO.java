@@ -0,0 +1,8 @@
+package gr.aueb.cf.bluemargarita.dto.live;
+
+/**
+ * Tells the client that updates were lost and its view must be reloaded in full
+ */
+public record ResyncLiveUpdateDTO(
+        String reason
+) {}
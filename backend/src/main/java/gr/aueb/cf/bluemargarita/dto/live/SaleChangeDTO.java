@@ -0,0 +1,8 @@
+package gr.aueb.cf.bluemargarita.dto.live;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+
+public record SaleChangeDTO(
+        Long saleId,
+        EntityChangeType changeType
+) {}
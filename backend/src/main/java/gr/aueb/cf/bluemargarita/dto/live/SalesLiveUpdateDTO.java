@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.dto.live;
+
+import gr.aueb.cf.bluemargarita.dto.sale.SalesSummaryDTO;
+
+import java.util.List;
+
+/**
+ * Sales changed since the previous update, with the weekly and monthly totals as they stand after them
+ */
+public record SalesLiveUpdateDTO(
+        List<SaleChangeDTO> changes,
+        SalesSummaryDTO weeklySummary,
+        SalesSummaryDTO monthlySummary
+) {}
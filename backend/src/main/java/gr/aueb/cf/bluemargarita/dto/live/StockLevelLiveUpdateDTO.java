@@ -0,0 +1,9 @@
+package gr.aueb.cf.bluemargarita.dto.live;
+
+public record StockLevelLiveUpdateDTO(
+        Long productId,
+        String productCode,
+        Integer stock,
+        Integer lowStockAlert,
+        boolean isLowStock
+) {}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.bluemargarita.dto.live;
+
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+import gr.aueb.cf.bluemargarita.core.enums.TaskStatus;
+
+public record TaskLiveUpdateDTO(
+        Long taskId,
+        EntityChangeType changeType,
+        TaskStatus status
+) {}
@@ -10,6 +10,10 @@ public record LocationAnalyticsDTO(
         BigDecimal averageOrderValue,
         LocalDate lastSaleDate,
 
+        // Today
+        Integer todaySalesCount,
+        BigDecimal todayRevenue,
+
         // Recent performance (last 30 days)
         Integer recentSalesCount,
         BigDecimal recentRevenue,
@@ -0,0 +1,12 @@
+package gr.aueb.cf.bluemargarita.dto.location;
+
+import java.math.BigDecimal;
+
+public record LocationComparisonDTO(
+        Long locationId,
+        String name,
+        LocationAnalyticsDTO analytics,
+
+        // Share of the year-to-date revenue of all compared locations, as a percentage
+        BigDecimal yearlyRevenueShare
+) {}
@@ -24,6 +24,10 @@ public record LocationDetailedViewDTO(
         BigDecimal averageOrderValue,
         LocalDate lastSaleDate,
 
+        // Today
+        Integer todaySalesCount,
+        BigDecimal todayRevenue,
+
         // Simple recent performance (last 30 days)
         Integer recentSalesCount,
         BigDecimal recentRevenue,
@@ -0,0 +1,11 @@
+package gr.aueb.cf.bluemargarita.dto.material;
+
+import gr.aueb.cf.bluemargarita.dto.product.ProductRepricingResultDTO;
+
+/**
+ * Result of a material update. productRepricing is null when the unit cost did not change
+ */
+public record MaterialUpdateResultDTO(
+        MaterialReadOnlyDTO material,
+        ProductRepricingResultDTO productRepricing
+) {}
@@ -0,0 +1,13 @@
+package gr.aueb.cf.bluemargarita.dto.product;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO with the result of repricing the products that depend on a material
+ */
+public record ProductRepricingResultDTO(
+        Long materialId,
+        int productsRepriced,
+        long durationMs,
+        LocalDateTime repricedAt
+) {}
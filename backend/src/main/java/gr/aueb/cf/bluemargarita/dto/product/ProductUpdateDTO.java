@@ -43,5 +43,10 @@ public record ProductUpdateDTO(
         @Nullable
         @Min(value = 0, message = "Το όριο χαμηλού αποθέματος δεν μπορεί να είναι αρνητικό")
         @Max(value = 9999, message = "Το όριο χαμηλού αποθέματος δεν μπορεί να υπερβαίνει τις 9999 μονάδες")
-        Integer lowStockAlert
+        Integer lowStockAlert,
+
+        // stock shown when the form was loaded, the stock is only changed if it still holds this value.
+        // Without it a sent stock is set unconditionally
+        @Nullable
+        Integer expectedStock
 ) {}
@@ -0,0 +1,21 @@
+package gr.aueb.cf.bluemargarita.dto.purchase;
+
+import gr.aueb.cf.bluemargarita.core.filters.CursorPaginated;
+
+/**
+ * A keyset page of purchases. The summary covers every matching purchase and is only sent
+ * with the first page. It is null on later pages, where clients keep the first page's summary
+ */
+public class CursorPaginatedFilteredPurchasesWithSummary extends CursorPaginated<PurchaseReadOnlyDTO> {
+
+    PurchaseSummaryDTO summary;
+
+    public CursorPaginatedFilteredPurchasesWithSummary(CursorPaginated<PurchaseReadOnlyDTO> page, PurchaseSummaryDTO summary) {
+        super(page);
+        this.summary = summary;
+    }
+
+    public PurchaseSummaryDTO getSummary() {
+        return summary;
+    }
+}
@@ -1,15 +1,16 @@
 package gr.aueb.cf.bluemargarita.dto.purchase;
 
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class PaginatedFilteredPurchasesWithSummary extends Paginated<PurchaseReadOnlyDTO> {
 
     PurchaseSummaryDTO summary;
 
-    public PaginatedFilteredPurchasesWithSummary(Page<PurchaseReadOnlyDTO> page,
+    public PaginatedFilteredPurchasesWithSummary(Slice<PurchaseReadOnlyDTO> slice,
                                                  PurchaseSummaryDTO summary){
-        super(page);
+        // the summary already counts every matching row, so the page needs no count of its own
+        super(slice, summary.totalPurchasesCount(), true);
         this.summary = summary;
     }
 
@@ -0,0 +1,21 @@
+package gr.aueb.cf.bluemargarita.dto.sale;
+
+import gr.aueb.cf.bluemargarita.core.filters.CursorPaginated;
+
+/**
+ * A keyset page of sales. The summary covers every matching sale and is only sent
+ * with the first page. It is null on later pages, where clients keep the first page's summary
+ */
+public class CursorPaginatedFilteredSalesWithSummary extends CursorPaginated<SaleReadOnlyDTO> {
+
+    SalesSummaryDTO summary;
+
+    public CursorPaginatedFilteredSalesWithSummary(CursorPaginated<SaleReadOnlyDTO> page, SalesSummaryDTO summary) {
+        super(page);
+        this.summary = summary;
+    }
+
+    public SalesSummaryDTO getSummary() {
+        return summary;
+    }
+}
@@ -1,14 +1,15 @@
 package gr.aueb.cf.bluemargarita.dto.sale;
 
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class PaginatedFilteredSalesWithSummary extends Paginated<SaleReadOnlyDTO> {
 
     SalesSummaryDTO summary;
 
-    public PaginatedFilteredSalesWithSummary(Page<SaleReadOnlyDTO> page, SalesSummaryDTO summary) {
-        super(page);
+    public PaginatedFilteredSalesWithSummary(Slice<SaleReadOnlyDTO> slice, SalesSummaryDTO summary) {
+        // the summary already counts every matching row, so the page needs no count of its own
+        super(slice, summary.totalSalesCount(), true);
         this.summary = summary;
     }
 
@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.dto.stock;
+
+import java.util.List;
+
+/**
+ * DTO for bulk stock update results, one entry per requested update in request order
+ */
+public record BulkStockUpdateResultDTO(
+        int totalRequested,
+        int successCount,
+        int failureCount,
+        List<StockUpdateResultDTO> results
+) {
+}
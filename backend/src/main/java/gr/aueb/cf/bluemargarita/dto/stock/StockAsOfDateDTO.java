@@ -0,0 +1,15 @@
+package gr.aueb.cf.bluemargarita.dto.stock;
+
+import java.time.LocalDate;
+
+/**
+ * Stock of a product at the end of the given date, derived from the stock ledger
+ */
+public record StockAsOfDateDTO(
+        Long productId,
+        String productCode,
+        LocalDate asOfDate,
+        Integer stockAtDate,
+        Integer currentStock,
+        long movementsSince
+) {}
@@ -0,0 +1,18 @@
+package gr.aueb.cf.bluemargarita.dto.stock;
+
+import gr.aueb.cf.bluemargarita.core.enums.StockMovementReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single stock ledger entry with the stock right after it
+ */
+public record StockMovementDTO(
+        Long movementId,
+        LocalDateTime movementDate,
+        Integer delta,
+        StockMovementReason reason,
+        Long saleId,
+        String username,
+        Integer stockAfter
+) {}
@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.dto.stock;
+
+import java.time.LocalDate;
+
+/**
+ * Stock in/out of one period (day, week or month) and the running net change
+ */
+public record StockNetMovementDTO(
+        LocalDate periodStart,
+        long stockIn,
+        long stockOut,
+        long netChange,
+        long cumulativeNetChange
+) {}
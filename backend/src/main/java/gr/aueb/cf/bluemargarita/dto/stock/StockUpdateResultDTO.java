@@ -14,6 +14,7 @@ public record StockUpdateResultDTO(
         boolean success,
 
         String operationType,        // "ADD", "REMOVE", "SET"
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        String errorMessage          // null when success is true
 ) {
 }
@@ -0,0 +1,21 @@
+package gr.aueb.cf.bluemargarita.dto.supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SupplierMaterialPriceRankDTO(
+        Long materialId,
+        String materialName,
+        String unitOfMeasure,
+        Long supplierId,
+        String supplierName,
+        BigDecimal weightedAverageUnitPrice,
+        BigDecimal lastUnitPrice,
+        BigDecimal totalQuantityPurchased,
+        Integer purchaseCount,
+        LocalDate lastPurchaseDate,
+        Integer priceRank, // 1 = cheapest supplier of the material, ties go to the most recent purchase
+        Integer recencyRank, // 1 = supplier the material was bought from most recently
+        Integer suppliersForMaterial,
+        BigDecimal premiumOverBestPercentage
+) {}
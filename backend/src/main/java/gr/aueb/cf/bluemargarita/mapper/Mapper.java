@@ -1,11 +1,13 @@
 package gr.aueb.cf.bluemargarita.mapper;
 
+import gr.aueb.cf.bluemargarita.core.enums.JobStatus;
 import gr.aueb.cf.bluemargarita.core.enums.Role;
 import gr.aueb.cf.bluemargarita.core.enums.StockStatus;
 import gr.aueb.cf.bluemargarita.core.enums.TaskStatus;
 import gr.aueb.cf.bluemargarita.dto.category.*;
 import gr.aueb.cf.bluemargarita.dto.customer.*;
 import gr.aueb.cf.bluemargarita.dto.expense.ExpenseReadOnlyDTO;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.location.*;
 import gr.aueb.cf.bluemargarita.dto.material.*;
 import gr.aueb.cf.bluemargarita.dto.procedure.*;
@@ -26,6 +28,7 @@ import gr.aueb.cf.bluemargarita.dto.user.UserInsertDTO;
 import gr.aueb.cf.bluemargarita.dto.user.UserReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.user.UserUpdateDTO;
 import gr.aueb.cf.bluemargarita.model.*;
+import gr.aueb.cf.bluemargarita.repository.ProductListRepository.ProductListRow;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -97,6 +100,7 @@ public class Mapper {
                 analytics.recentRevenue(),
                 analytics.yearlySalesCount(),
                 analytics.yearlySalesRevenue(),
+                analytics.statsRefreshedAt(),
 
                 topProducts
         );
@@ -128,7 +132,7 @@ public class Mapper {
         return existingCustomer;
     }
 
-    public CustomerListItemDTO mapToCustomerListItemDTO(Customer customer) {
+    public CustomerListItemDTO mapToCustomerListItemDTO(Customer customer, CustomerStats stats) {
         return new CustomerListItemDTO(
                 customer.getId(),
                 customer.getFirstname(),
@@ -137,7 +141,11 @@ public class Mapper {
                 customer.getAddress(),
                 customer.getEmail(),
                 customer.getTin(),
-                customer.getGender()
+                customer.getGender(),
+                stats != null ? stats.getTotalOrders() : 0,
+                stats != null ? stats.getTotalRevenue() : BigDecimal.ZERO,
+                stats != null ? stats.getLastOrderDate() : null,
+                stats != null ? stats.getRfmScore() : null
         );
     }
 
@@ -198,6 +206,33 @@ public class Mapper {
     }
 
 
+    // Job
+
+    public JobReadOnlyDTO mapToJobReadOnlyDTO(Job job){
+        Integer progressPercentage = null;
+        if (job.getStatus() == JobStatus.COMPLETED) {
+            progressPercentage = 100;
+        } else if (job.getTotalItems() != null && job.getTotalItems() > 0) {
+            progressPercentage = Math.min(100, job.getProcessedItems() * 100 / job.getTotalItems());
+        }
+
+        return new JobReadOnlyDTO(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.getTotalItems(),
+                job.getProcessedItems(),
+                progressPercentage,
+                job.getCancelRequested(),
+                job.getCreatedByUsername(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getErrorMessage(),
+                job.getResult()
+        );
+    }
+
     // Location
 
     public Location mapLocationInsertToModel(LocationInsertDTO dto){
@@ -243,6 +278,8 @@ public class Mapper {
                 analytics.totalSalesCount(),
                 analytics.averageOrderValue(),
                 analytics.lastSaleDate(),
+                analytics.todaySalesCount(),
+                analytics.todayRevenue(),
                 analytics.recentSalesCount(),
                 analytics.recentRevenue(),
                 analytics.yearlySalesCount(),
@@ -402,7 +439,6 @@ public class Mapper {
         existingProduct.setFinalSellingPriceRetail(dto.finalSellingPriceRetail());
         existingProduct.setFinalSellingPriceWholesale(dto.finalSellingPriceWholesale());
         existingProduct.setMinutesToMake(dto.minutesToMake());
-        existingProduct.setStock(dto.stock());
         existingProduct.setLowStockAlert(dto.lowStockAlert());
         return existingProduct;
     }
@@ -426,6 +462,25 @@ public class Mapper {
         );
     }
 
+    public ProductListItemDTO mapToProductListItemDTO(ProductListRow row, ProductCostDataDTO data) {
+
+        return new ProductListItemDTO(
+                row.id(),
+                row.name(),
+                row.code(),
+                row.categoryName() != null ? row.categoryName() : "No Category",
+                row.minutesToMake(),
+                data.totalCost(),
+                row.suggestedRetailPrice(),
+                row.finalRetailPrice(),
+                data.percentageDifference(),
+                row.isActive(),
+                data.isLowStock(),
+                row.stock(),
+                row.lowStockAlert()
+        );
+    }
+
     //Purchase
 
     public PurchaseReadOnlyDTO mapToPurchaseReadOnlyDTO(Purchase purchase) {
@@ -0,0 +1,86 @@
+package gr.aueb.cf.bluemargarita.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/* Precomputed sales statistics, one row per customer, so the customer list can be sorted and
+filtered by spend and the detail view does not aggregate the customer's sales on every request.
+Totals and the 30-day / year-to-date figures are refreshed by CustomerStatsService in the same
+transaction as every sale write. The recency / frequency / monetary scores are quintiles across
+all customers and are recomputed periodically, together with the windows as days pass.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "customer_stats", indexes = {
+        @Index(name = "idx_customer_stats_revenue", columnList = "total_revenue, customer_id"),
+        @Index(name = "idx_customer_stats_rfm", columnList = "rfm_score, total_revenue"),
+        @Index(name = "idx_customer_stats_last_order", columnList = "last_order_date")
+})
+public class CustomerStats {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "customer_id")
+    private Customer customer;
+
+    @Column(name = "total_orders", nullable = false)
+    @Builder.Default
+    private Integer totalOrders = 0;
+
+    @Column(name = "total_revenue", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    @Column(name = "first_order_date")
+    private LocalDate firstOrderDate;
+
+    @Column(name = "last_order_date")
+    private LocalDate lastOrderDate;
+
+    // last 30 days
+    @Column(name = "recent_orders", nullable = false)
+    @Builder.Default
+    private Integer recentOrders = 0;
+
+    @Column(name = "recent_revenue", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal recentRevenue = BigDecimal.ZERO;
+
+    // since the start of the current year
+    @Column(name = "yearly_orders", nullable = false)
+    @Builder.Default
+    private Integer yearlyOrders = 0;
+
+    @Column(name = "yearly_revenue", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal yearlyRevenue = BigDecimal.ZERO;
+
+    // 1 (lowest) to 5 (highest), null for customers without sales or not scored yet
+    @Column(name = "recency_score")
+    private Integer recencyScore;
+
+    @Column(name = "frequency_score")
+    private Integer frequencyScore;
+
+    @Column(name = "monetary_score")
+    private Integer monetaryScore;
+
+    // sum of the three scores, 3 to 15
+    @Column(name = "rfm_score")
+    private Integer rfmScore;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
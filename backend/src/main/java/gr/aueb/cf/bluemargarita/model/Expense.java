@@ -15,7 +15,10 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_date_id", columnList = "expense_date, id"),
+        @Index(name = "idx_expenses_amount_id", columnList = "amount, id")
+})
 public class Expense extends AbstractEntity {
 
     @Id
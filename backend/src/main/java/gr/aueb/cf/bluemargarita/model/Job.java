@@ -0,0 +1,65 @@
+package gr.aueb.cf.bluemargarita.model;
+
+import gr.aueb.cf.bluemargarita.core.enums.JobStatus;
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/* A long-running administrative operation executed in the background by JobService.
+Progress is written after every committed chunk, so GET /api/jobs/{id} can be polled
+while the job runs. The result is kept as the JSON of the operation's result DTO.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_type_status", columnList = "type, status")
+})
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    @Column(name = "total_items")
+    private Integer totalItems;
+
+    @Column(name = "processed_items", nullable = false)
+    @Builder.Default
+    private Integer processedItems = 0;
+
+    @Column(name = "cancel_requested", nullable = false)
+    @Builder.Default
+    private Boolean cancelRequested = false;
+
+    @Column(name = "result", columnDefinition = "TEXT")
+    private String result;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_by_username", length = 50)
+    private String createdByUsername;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -46,7 +46,24 @@ public class Product extends AbstractEntity {
     @Column(name = "minutes_to_make")
     private Integer minutesToMake;
 
-    @Column(name = "stock")
+    /* Cost breakdown kept in sync by ProductCostService whenever materials, procedures,
+    minutesToMake or a material's unit cost change, so lists can read, sort and filter
+    by cost without walking the material and procedure collections
+     */
+    @Column(name = "material_cost", precision = 10, scale = 2)
+    private BigDecimal materialCost;
+
+    @Column(name = "procedure_cost", precision = 10, scale = 2)
+    private BigDecimal procedureCost;
+
+    @Column(name = "labor_cost", precision = 10, scale = 2)
+    private BigDecimal laborCost;
+
+    @Column(name = "total_cost", precision = 10, scale = 2)
+    private BigDecimal totalCost;
+
+    // written only through the atomic stock statements of ProductRepository
+    @Column(name = "stock", updatable = false)
     private Integer stock;
 
     @Column(name = "low_stock_alert")
@@ -60,6 +77,11 @@ public class Product extends AbstractEntity {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
@@ -68,6 +90,7 @@ public class Product extends AbstractEntity {
     because we would lose the sale info (product name, quantity, price )
      */
     @OneToMany(mappedBy = "product", fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
     @Builder.Default
     @Getter(AccessLevel.PRIVATE)
     private Set<SaleProduct> saleProducts = new HashSet<>();
@@ -15,7 +15,11 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "purchases")
+@Table(name = "purchases", indexes = {
+        @Index(name = "idx_purchases_date_id", columnList = "purchase_date, id"),
+        @Index(name = "idx_purchases_total_id", columnList = "total_cost, id"),
+        @Index(name = "idx_purchases_supplier_date", columnList = "supplier_id, purchase_date")
+})
 public class Purchase extends AbstractEntity {
 
     @Id
@@ -29,7 +33,7 @@ public class Purchase extends AbstractEntity {
     @Column(name = "purchase_date", nullable = false)
     private LocalDate purchaseDate;
 
-    @Column(name = "total_cost", precision = 10, scale = 2)
+    @Column(name = "total_cost", precision = 10, scale = 2, nullable = false)
     private BigDecimal totalCost;
 
     @OneToOne(mappedBy = "purchase", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
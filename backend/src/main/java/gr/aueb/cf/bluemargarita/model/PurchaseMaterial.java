@@ -12,7 +12,9 @@ import java.math.RoundingMode;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "purchase_material")
+@Table(name = "purchase_material", indexes = {
+        @Index(name = "idx_purchase_material_purchase", columnList = "purchase_id")
+})
 public class PurchaseMaterial {
 
     @Id
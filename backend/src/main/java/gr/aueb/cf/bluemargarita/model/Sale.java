@@ -16,7 +16,11 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_date_id", columnList = "sale_date, id"),
+        @Index(name = "idx_sales_total_id", columnList = "final_total_price, id"),
+        @Index(name = "idx_sales_customer_date", columnList = "customer_id, sale_date")
+})
 public class Sale extends AbstractEntity {
 
     @Id
@@ -0,0 +1,65 @@
+package gr.aueb.cf.bluemargarita.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/* Sales fact per sale line and component, one row per material and per procedure of the product sold.
+Written by SaleComponentService when the sale is recorded, so material and procedure analytics
+follow the recipe the product had when it was sold, not the one it has today.
+The references are plain id columns: the rows are history and must not stop a material,
+procedure or product from being deleted. The covering (component, sale_date) indexes are
+in sql/production-init.sql.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "sale_product_component", indexes = {
+        @Index(name = "idx_sale_component_sale", columnList = "sale_id")
+})
+public class SaleProductComponent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_id", nullable = false)
+    private Long saleId;
+
+    @Column(name = "sale_product_id", nullable = false)
+    private Long saleProductId;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // exactly one of material_id and procedure_id is set
+    @Column(name = "material_id")
+    private Long materialId;
+
+    @Column(name = "procedure_id")
+    private Long procedureId;
+
+    // product units sold on the line
+    @Column(name = "sold_quantity", precision = 12, scale = 3, nullable = false)
+    private BigDecimal soldQuantity;
+
+    // material quantity per product unit at the time of the sale, 1 for procedures
+    @Column(name = "component_quantity", precision = 8, scale = 3, nullable = false)
+    private BigDecimal componentQuantity;
+
+    // material unit cost or procedure cost at the time of the sale
+    @Column(name = "component_cost", precision = 10, scale = 2)
+    private BigDecimal componentCost;
+
+    // quantity * priceAtTheTime of the line, attributed in full to each of its components
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,71 @@
+package gr.aueb.cf.bluemargarita.model;
+
+import gr.aueb.cf.bluemargarita.core.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/* Daily sales fact table, one row per (day, product, location, customer, payment method, wholesale flag).
+Maintained by SalesRollupService in the same transaction as the sale, so analytics
+can aggregate a few rows per day instead of rescanning every sale_product line.
+The key is made unique by uq_sales_daily_rollup_key in sql/production-init.sql (an expression
+index on COALESCE(customer_id, 0), which @Table cannot declare).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "sales_daily_rollup", indexes = {
+        @Index(name = "idx_sales_rollup_date", columnList = "sale_date"),
+        @Index(name = "idx_sales_rollup_product_date", columnList = "product_id, sale_date"),
+        @Index(name = "idx_sales_rollup_location_date", columnList = "location_id, sale_date"),
+        @Index(name = "idx_sales_rollup_customer_date", columnList = "customer_id, sale_date")
+})
+public class SalesDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id", nullable = false)
+    private Location location;
+
+    // null for walk-in customers
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id")
+    private Customer customer;
+
+    @Column(name = "payment_method", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "is_wholesale", nullable = false)
+    private Boolean isWholesale;
+
+    @Column(precision = 12, scale = 3, nullable = false)
+    private BigDecimal quantity;
+
+    // quantity * priceAtTheTime (actual selling price after discount)
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    // quantity * suggestedPriceAtTheTime (price before discount)
+    @Column(name = "suggested_revenue", precision = 14, scale = 2, nullable = false)
+    private BigDecimal suggestedRevenue;
+
+    // number of sale lines (= sales containing the product) behind this row
+    @Column(name = "sale_count", nullable = false)
+    private Integer saleCount;
+}
@@ -0,0 +1,49 @@
+package gr.aueb.cf.bluemargarita.model;
+
+import gr.aueb.cf.bluemargarita.core.enums.StockMovementReason;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/* Append-only stock ledger, one row per stock change of a product.
+Rows are inserted in JDBC batches by StockMovementRepository and never updated.
+Product, sale and user are plain ids without foreign keys, so the history survives
+the deletion of a sale (RESTORE rows point to it) or the hard delete of a product.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product_created", columnList = "product_id, created_at"),
+        @Index(name = "idx_stock_movements_created", columnList = "created_at")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // positive for stock added, negative for stock removed
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementReason reason;
+
+    @Column(name = "sale_id")
+    private Long saleId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
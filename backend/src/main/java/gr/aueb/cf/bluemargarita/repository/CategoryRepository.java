@@ -10,7 +10,7 @@ import java.util.List;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long>,
-        JpaSpecificationExecutor<Category> {
+        JpaSpecificationExecutor<Category>, CategoryStatsRepository {
     boolean existsByName(String name);
     List<Category> findByIsActiveTrue();
 
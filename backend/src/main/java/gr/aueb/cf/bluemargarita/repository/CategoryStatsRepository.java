@@ -0,0 +1,46 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the category_sales_stats and category_product_sales_stats materialized views
+ * (see sql/production-init.sql). Their figures are as of the last refresh, which is
+ * returned with them.
+ */
+public interface CategoryStatsRepository {
+
+    /**
+     * Sales totals of the category, empty if none of its products has been sold
+     */
+    Optional<CategorySalesStats> findCategorySalesStats(Long categoryId);
+
+    /**
+     * Time of the last refresh of the views, as stored in them. Empty while they have no rows
+     */
+    Optional<LocalDateTime> findCategoryStatsRefreshedAt();
+
+    /**
+     * Best selling products of the category by revenue
+     */
+    List<ProductStatsSummaryDTO> findTopProductsByCategoryId(Long categoryId, int limit);
+
+    /**
+     * Recomputes both views without blocking their readers
+     */
+    void refreshCategoryStats();
+
+    record CategorySalesStats(Integer totalSalesCount,
+                              BigDecimal totalRevenue,
+                              LocalDate lastSaleDate,
+                              Integer recentSalesCount,
+                              BigDecimal recentRevenue,
+                              Integer yearlySalesCount,
+                              BigDecimal yearlyRevenue,
+                              LocalDateTime refreshedAt) {}
+}
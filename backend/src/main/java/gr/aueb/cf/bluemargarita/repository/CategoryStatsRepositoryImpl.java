@@ -0,0 +1,90 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class CategoryStatsRepositoryImpl implements CategoryStatsRepository {
+
+    private static final String CATEGORY_SALES_STATS_SQL = """
+            SELECT total_sales_count, total_revenue, last_sale_date,
+                   recent_sales_count, recent_revenue, yearly_sales_count, yearly_revenue, refreshed_at
+            FROM category_sales_stats
+            WHERE category_id = ?
+            """;
+
+    // Every row of a refresh has the same refreshed_at, the refreshing transaction's now()
+    private static final String REFRESHED_AT_SQL = """
+            SELECT MAX(refreshed_at) FROM category_sales_stats
+            """;
+
+    // Answered by idx_category_product_sales_stats_category_revenue
+    private static final String TOP_PRODUCTS_SQL = """
+            SELECT product_id, product_name, product_code, total_quantity, total_revenue, last_sale_date
+            FROM category_product_sales_stats
+            WHERE category_id = ? AND total_quantity > 0
+            ORDER BY total_revenue DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoryStatsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<CategorySalesStats> findCategorySalesStats(Long categoryId) {
+        return jdbcTemplate.query(CATEGORY_SALES_STATS_SQL,
+                        (resultSet, rowNum) -> new CategorySalesStats(
+                                resultSet.getInt(1),
+                                resultSet.getBigDecimal(2),
+                                toLocalDate(resultSet, 3),
+                                resultSet.getInt(4),
+                                resultSet.getBigDecimal(5),
+                                resultSet.getInt(6),
+                                resultSet.getBigDecimal(7),
+                                resultSet.getTimestamp(8).toLocalDateTime()),
+                        categoryId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<LocalDateTime> findCategoryStatsRefreshedAt() {
+        Timestamp refreshedAt = jdbcTemplate.queryForObject(REFRESHED_AT_SQL, Timestamp.class);
+        return Optional.ofNullable(refreshedAt).map(Timestamp::toLocalDateTime);
+    }
+
+    @Override
+    public List<ProductStatsSummaryDTO> findTopProductsByCategoryId(Long categoryId, int limit) {
+        return jdbcTemplate.query(TOP_PRODUCTS_SQL,
+                (resultSet, rowNum) -> new ProductStatsSummaryDTO(
+                        resultSet.getLong(1),
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        resultSet.getBigDecimal(4),
+                        resultSet.getBigDecimal(5),
+                        toLocalDate(resultSet, 6)),
+                categoryId, limit);
+    }
+
+    @Override
+    public void refreshCategoryStats() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY category_sales_stats");
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY category_product_sales_stats");
+    }
+
+    private LocalDate toLocalDate(ResultSet resultSet, int column) throws SQLException {
+        Date date = resultSet.getDate(column);
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.customer.CustomerListItemDTO;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Read model of the customer list page. Each row is the customer's columns together with its
+ * customer_stats row, so the list can be sorted by spend, orders or RFM score in the database.
+ */
+public interface CustomerListRepository {
+
+    /**
+     * Reads a page of list rows for the customers matching the specification, without counting
+     * the matches. Sort properties of CustomerStats (totalRevenue, rfmScore, ...) sort by the stats row
+     */
+    Slice<CustomerListItemDTO> findListRows(Specification<Customer> spec, Pageable pageable);
+}
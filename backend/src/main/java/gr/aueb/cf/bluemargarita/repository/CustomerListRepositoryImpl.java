@@ -0,0 +1,90 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.customer.CustomerListItemDTO;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.CustomerStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Constructor projection of the customer list, joined with customer_stats. Every customer has a
+ * stats row (CustomerStatsService creates it with the customer), so the join is an inner one.
+ * The specification is applied through SpecificationPredicates, as in the other fragments.
+ */
+public class CustomerListRepositoryImpl implements CustomerListRepository {
+
+    private static final Set<String> STATS_SORT_PROPERTIES = Set.of(
+            "totalOrders", "totalRevenue", "firstOrderDate", "lastOrderDate",
+            "recentOrders", "recentRevenue", "yearlyOrders", "yearlyRevenue", "rfmScore");
+
+    private final EntityManager entityManager;
+
+    public CustomerListRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<CustomerListItemDTO> findListRows(Specification<Customer> spec, Pageable pageable) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerListItemDTO> query = criteriaBuilder.createQuery(CustomerListItemDTO.class);
+        Root<Customer> root = query.from(Customer.class);
+        Root<CustomerStats> stats = query.from(CustomerStats.class);
+
+        query.select(criteriaBuilder.construct(CustomerListItemDTO.class,
+                        root.get("id"),
+                        root.get("firstname"),
+                        root.get("lastname"),
+                        root.get("phoneNumber"),
+                        root.get("address"),
+                        root.get("email"),
+                        root.get("tin"),
+                        root.get("gender"),
+                        stats.get("totalOrders"),
+                        stats.get("totalRevenue"),
+                        stats.get("lastOrderDate"),
+                        stats.get("rfmScore")))
+                .where(criteriaBuilder.equal(stats.get("customerId"), root.get("id")),
+                        SpecificationPredicates.matching(spec, Customer.class, "id", root, query, criteriaBuilder))
+                .orderBy(toOrders(pageable.getSort(), root, stats, criteriaBuilder));
+
+        List<CustomerListItemDTO> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<CustomerListItemDTO> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Sorts each property on the root it belongs to, with the customer id last so that customers
+     * with equal totals keep the same order from page to page
+     */
+    private List<Order> toOrders(Sort sort, Root<Customer> root, Root<CustomerStats> stats,
+                                 CriteriaBuilder criteriaBuilder) {
+        List<Order> orders = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            From<?, ?> from = STATS_SORT_PROPERTIES.contains(order.getProperty()) ? stats : root;
+            orders.addAll(QueryUtils.toOrders(Sort.by(order), from, criteriaBuilder));
+        }
+
+        if (sort.getOrderFor("id") == null) {
+            orders.add(criteriaBuilder.asc(root.get("id")));
+        }
+        return orders;
+    }
+}
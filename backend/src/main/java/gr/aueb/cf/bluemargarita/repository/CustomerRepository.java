@@ -11,7 +11,7 @@ import java.util.List;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long>,
-        JpaSpecificationExecutor<Customer> {
+        JpaSpecificationExecutor<Customer>, SliceRepository<Customer>, CustomerListRepository {
     boolean existsByEmail(String email);
     boolean existsByTin(String tin);
     boolean existsByPhoneNumber(String phoneNumber);
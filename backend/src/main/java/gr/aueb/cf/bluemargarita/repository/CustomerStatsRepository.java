@@ -0,0 +1,138 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.CustomerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, Long> {
+
+    // =============================================================================
+    // INCREMENTAL MAINTENANCE - Called by CustomerStatsService
+    // =============================================================================
+
+    /**
+     * Locks the customers' rows until the end of the transaction, in id order. FOR NO KEY UPDATE
+     * does not conflict with the key share lock a sale insert takes on its customer, so it only
+     * serializes the stats refreshes of the same customer
+     */
+    @Query(value = "SELECT c.id FROM customers c WHERE c.id IN (:customerIds) ORDER BY c.id FOR NO KEY UPDATE",
+            nativeQuery = true)
+    List<Long> lockCustomers(@Param("customerIds") Collection<Long> customerIds);
+
+    /**
+     * Recomputes the totals and windows of the given customers from their sales, creating the
+     * rows that do not exist yet. Reads only these customers' sales, through idx_sales_customer_date.
+     * Scores are kept until the next scoring run, except for customers left without sales
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customer_stats (customer_id, total_orders, total_revenue, first_order_date, last_order_date,
+                                        recent_orders, recent_revenue, yearly_orders, yearly_revenue, updated_at)
+            SELECT c.id,
+                   COUNT(s.id),
+                   COALESCE(SUM(s.final_total_price), 0),
+                   MIN(s.sale_date),
+                   MAX(s.sale_date),
+                   COUNT(s.id) FILTER (WHERE s.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE),
+                   COALESCE(SUM(s.final_total_price) FILTER (WHERE s.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE), 0),
+                   COUNT(s.id) FILTER (WHERE s.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE),
+                   COALESCE(SUM(s.final_total_price) FILTER (WHERE s.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE), 0),
+                   now()
+            FROM customers c
+            LEFT JOIN sales s ON s.customer_id = c.id
+            WHERE c.id IN (:customerIds)
+            GROUP BY c.id
+            ON CONFLICT (customer_id) DO UPDATE
+            SET total_orders = EXCLUDED.total_orders,
+                total_revenue = EXCLUDED.total_revenue,
+                first_order_date = EXCLUDED.first_order_date,
+                last_order_date = EXCLUDED.last_order_date,
+                recent_orders = EXCLUDED.recent_orders,
+                recent_revenue = EXCLUDED.recent_revenue,
+                yearly_orders = EXCLUDED.yearly_orders,
+                yearly_revenue = EXCLUDED.yearly_revenue,
+                recency_score = CASE WHEN EXCLUDED.total_orders = 0 THEN NULL ELSE customer_stats.recency_score END,
+                frequency_score = CASE WHEN EXCLUDED.total_orders = 0 THEN NULL ELSE customer_stats.frequency_score END,
+                monetary_score = CASE WHEN EXCLUDED.total_orders = 0 THEN NULL ELSE customer_stats.monetary_score END,
+                rfm_score = CASE WHEN EXCLUDED.total_orders = 0 THEN NULL ELSE customer_stats.rfm_score END,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int refreshCustomers(@Param("customerIds") Collection<Long> customerIds);
+
+    // =============================================================================
+    // PERIODIC REFRESH - Run by CustomerStatsService outside any other transaction
+    // =============================================================================
+
+    /**
+     * Takes the lock of lockCustomers for every customer with a stats row, in the same id order
+     */
+    @Query(value = """
+            SELECT c.id FROM customers c
+            JOIN customer_stats cs ON cs.customer_id = c.id
+            ORDER BY c.id
+            FOR NO KEY UPDATE OF c
+            """, nativeQuery = true)
+    List<Long> lockCustomersWithStats();
+
+    /**
+     * Moves the 30-day and year-to-date figures of every customer to the current date.
+     * Only sales since the earlier of the two window starts are read.
+     * Must run after lockCustomersWithStats in the same transaction, see CustomerStatsService
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE customer_stats cs
+            SET recent_orders = COALESCE(w.recent_orders, 0),
+                recent_revenue = COALESCE(w.recent_revenue, 0),
+                yearly_orders = COALESCE(w.yearly_orders, 0),
+                yearly_revenue = COALESCE(w.yearly_revenue, 0)
+            FROM customer_stats base
+            LEFT JOIN (
+                SELECT s.customer_id,
+                       COUNT(*) FILTER (WHERE s.sale_date >= CURRENT_DATE - 30) AS recent_orders,
+                       SUM(s.final_total_price) FILTER (WHERE s.sale_date >= CURRENT_DATE - 30) AS recent_revenue,
+                       COUNT(*) FILTER (WHERE s.sale_date >= date_trunc('year', CURRENT_DATE)::date) AS yearly_orders,
+                       SUM(s.final_total_price) FILTER (WHERE s.sale_date >= date_trunc('year', CURRENT_DATE)::date) AS yearly_revenue
+                FROM sales s
+                WHERE s.customer_id IS NOT NULL
+                  AND s.sale_date BETWEEN LEAST(CURRENT_DATE - 30, date_trunc('year', CURRENT_DATE)::date) AND CURRENT_DATE
+                GROUP BY s.customer_id
+            ) w ON w.customer_id = base.customer_id
+            WHERE base.customer_id = cs.customer_id
+            """, nativeQuery = true)
+    int refreshWindows();
+
+    /**
+     * Ranks the customers with sales into quintiles of last order date, number of orders and
+     * revenue (5 = most recent / most frequent / highest spend). Customers without sales get no score
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE customer_stats cs
+            SET recency_score = r.recency_score,
+                frequency_score = r.frequency_score,
+                monetary_score = r.monetary_score,
+                rfm_score = r.recency_score + r.frequency_score + r.monetary_score
+            FROM customer_stats base
+            LEFT JOIN (
+                SELECT customer_id,
+                       NTILE(5) OVER (ORDER BY last_order_date, customer_id) AS recency_score,
+                       NTILE(5) OVER (ORDER BY total_orders, customer_id) AS frequency_score,
+                       NTILE(5) OVER (ORDER BY total_revenue, customer_id) AS monetary_score
+                FROM customer_stats
+                WHERE total_orders > 0
+            ) r ON r.customer_id = base.customer_id
+            WHERE base.customer_id = cs.customer_id
+            """, nativeQuery = true)
+    int refreshScores();
+}
@@ -15,7 +15,8 @@ import java.util.List;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long>,
-        JpaSpecificationExecutor<Expense> {
+        JpaSpecificationExecutor<Expense>, SpecificationAggregateRepository<Expense>,
+        KeysetPaginationRepository<Expense>, SliceRepository<Expense> {
     Boolean existsByPurchaseId(Long id);
 
     // Gets expenses by actual date first, then by creation time
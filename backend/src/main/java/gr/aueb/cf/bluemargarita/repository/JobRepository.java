@@ -0,0 +1,92 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.core.enums.JobStatus;
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
+import gr.aueb.cf.bluemargarita.model.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    Optional<Job> findFirstByTypeAndStatusInOrderByIdDesc(JobType type, Collection<JobStatus> statuses);
+
+    List<Job> findTop20ByOrderByIdDesc();
+
+    // Progress is written by the job thread after every chunk, outside any other transaction,
+    // so each update is committed and visible to pollers immediately
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.totalItems = :totalItems WHERE j.id = :jobId")
+    void updateTotalItems(@Param("jobId") Long jobId, @Param("totalItems") int totalItems);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.processedItems = j.processedItems + :items WHERE j.id = :jobId")
+    void addProcessedItems(@Param("jobId") Long jobId, @Param("items") int items);
+
+    /**
+     * Read by the job thread between chunks, so a cancellation committed by the request thread is honoured
+     */
+    @Query("SELECT j.cancelRequested FROM Job j WHERE j.id = :jobId")
+    boolean isCancelRequested(@Param("jobId") Long jobId);
+
+    // Status changes are conditional on the current status, so a cancellation, the executor picking
+    // up the job and the job finishing cannot overwrite each other
+
+    /**
+     * @return 1 if the job was still queued and is now running
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = gr.aueb.cf.bluemargarita.core.enums.JobStatus.RUNNING, j.startedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = gr.aueb.cf.bluemargarita.core.enums.JobStatus.QUEUED")
+    int markRunning(@Param("jobId") Long jobId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.cancelRequested = true WHERE j.id = :jobId")
+    void markCancelRequested(@Param("jobId") Long jobId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = gr.aueb.cf.bluemargarita.core.enums.JobStatus.CANCELLED, j.finishedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = gr.aueb.cf.bluemargarita.core.enums.JobStatus.QUEUED")
+    int cancelIfQueued(@Param("jobId") Long jobId, @Param("now") LocalDateTime now);
+
+    /**
+     * @return 1 if the job was still in currentStatus and is now finished with status
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = :status, j.result = :result, j.errorMessage = :errorMessage, j.finishedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = :currentStatus")
+    int finish(@Param("jobId") Long jobId,
+               @Param("currentStatus") JobStatus currentStatus,
+               @Param("status") JobStatus status,
+               @Param("result") String result,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Jobs still queued or running when the application stopped will never finish.
+     * Only valid on startup of the single application instance, see JobService
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = gr.aueb.cf.bluemargarita.core.enums.JobStatus.FAILED, " +
+            "j.errorMessage = :message, j.finishedAt = :now " +
+            "WHERE j.status IN (gr.aueb.cf.bluemargarita.core.enums.JobStatus.QUEUED, " +
+            "gr.aueb.cf.bluemargarita.core.enums.JobStatus.RUNNING)")
+    int failUnfinishedJobs(@Param("message") String message, @Param("now") LocalDateTime now);
+}
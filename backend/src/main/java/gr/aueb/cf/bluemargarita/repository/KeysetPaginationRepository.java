@@ -0,0 +1,19 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Repository fragment that reads keyset (seek) pages for any Specification.
+ * Repositories opt in by extending this interface next to JpaSpecificationExecutor.
+ */
+public interface KeysetPaginationRepository<T> {
+
+    /**
+     * Reads up to pageSize + 1 entities matching the specification that follow the request's cursor,
+     * in the request's query order (sort attribute, then id)
+     */
+    List<T> findKeysetPage(Specification<T> spec, KeysetPageRequest<T> request);
+}
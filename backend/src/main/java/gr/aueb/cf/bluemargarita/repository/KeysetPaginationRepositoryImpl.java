@@ -0,0 +1,79 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.core.filters.KeysetCursor;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared implementation of the keyset fragment. The domain type is taken from the
+ * calling repository, so one instance serves every repository that extends the fragment.
+ *
+ * The page continues with WHERE (sort > :value) OR (sort = :value AND id > :id), reversed for
+ * descending order, ordered by sort and id with LIMIT, so an index on (sort column, id) answers
+ * any page with a short range scan. The specification is applied through SpecificationPredicates,
+ * so filters joining collections cannot repeat a row.
+ */
+public class KeysetPaginationRepositoryImpl<T> implements KeysetPaginationRepository<T>, RepositoryMetadataAccess {
+
+    private final EntityManager entityManager;
+
+    public KeysetPaginationRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> findKeysetPage(Specification<T> spec, KeysetPageRequest<T> request) {
+
+        Class<T> domainClass = (Class<T>) RepositoryMethodContext.getContext().getMetadata().getDomainType();
+        String idAttribute = SpecificationPredicates.idAttribute(entityManager, domainClass);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+
+        Path<Long> id = root.get(idAttribute);
+        boolean sortById = request.getSortBy().equals(idAttribute);
+        boolean ascending = request.getQueryDirection() == Sort.Direction.ASC;
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(SpecificationPredicates.matching(spec, domainClass, idAttribute, root, query, criteriaBuilder));
+
+        KeysetCursor cursor = request.getCursor();
+        if (cursor != null) {
+            Predicate afterId = ascending ? criteriaBuilder.greaterThan(id, cursor.id()) : criteriaBuilder.lessThan(id, cursor.id());
+
+            if (sortById) {
+                predicates.add(afterId);
+            } else {
+                Path<Comparable<Object>> sort = root.get(request.getSortBy());
+                Comparable<Object> value = (Comparable<Object>) request.getCursorSortValue();
+                predicates.add(criteriaBuilder.or(
+                        ascending ? criteriaBuilder.greaterThan(sort, value) : criteriaBuilder.lessThan(sort, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(sort, value), afterId)));
+            }
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (!sortById) {
+            orders.add(ascending ? criteriaBuilder.asc(root.get(request.getSortBy())) : criteriaBuilder.desc(root.get(request.getSortBy())));
+        }
+        orders.add(ascending ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(request.getPageSize() + 1)
+                .getResultList();
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long>,
-        JpaSpecificationExecutor<Location> {
+        JpaSpecificationExecutor<Location>, SliceRepository<Location> {
     boolean existsByName(String name);
     List<Location> findByIsActiveTrue();
     List<Location> findByIsActiveFalse();
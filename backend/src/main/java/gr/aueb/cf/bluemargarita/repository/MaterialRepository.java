@@ -12,7 +12,7 @@ import java.util.List;
 
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, Long>,
-        JpaSpecificationExecutor<Material> {
+        JpaSpecificationExecutor<Material>, SliceRepository<Material> {
     boolean existsByName(String name);
     List<Material> findByNameContainingIgnoreCaseAndIsActiveTrue(String name);
 
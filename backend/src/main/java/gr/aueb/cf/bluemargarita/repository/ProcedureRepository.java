@@ -9,7 +9,7 @@ import java.util.List;
 
 @Repository
 public interface ProcedureRepository extends JpaRepository<Procedure, Long>,
-        JpaSpecificationExecutor<Procedure> {
+        JpaSpecificationExecutor<Procedure>, SliceRepository<Procedure> {
     boolean existsByName(String name);
     List<Procedure> findByIsActiveTrue();
     List<Procedure> findByNameContainingIgnoreCaseAndIsActiveTrue(String name);
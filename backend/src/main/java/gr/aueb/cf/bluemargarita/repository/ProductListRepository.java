@@ -0,0 +1,33 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model of the product list page. Rows are selected column by column into records,
+ * so a page never loads Product entities, their category proxies or their collections.
+ */
+public interface ProductListRepository {
+
+    /**
+     * Reads a page of list rows for the products matching the specification,
+     * in the order of the pageable's sort, without counting the matches
+     */
+    Slice<ProductListRow> findListRows(Specification<Product> spec, Pageable pageable);
+
+    record ProductListRow(Long id,
+                          String name,
+                          String code,
+                          String categoryName,
+                          Integer minutesToMake,
+                          BigDecimal totalCost,
+                          BigDecimal suggestedRetailPrice,
+                          BigDecimal finalRetailPrice,
+                          Boolean isActive,
+                          Integer stock,
+                          Integer lowStockAlert) {}
+}
@@ -0,0 +1,61 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Constructor projection of the product list. The specification is applied through
+ * SpecificationPredicates, as in the other fragments, so every ProductFilters option keeps
+ * working, including the material and procedure filters that join collections.
+ */
+public class ProductListRepositoryImpl implements ProductListRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductListRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<ProductListRow> findListRows(Specification<Product> spec, Pageable pageable) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductListRow> query = criteriaBuilder.createQuery(ProductListRow.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(criteriaBuilder.construct(ProductListRow.class,
+                        root.get("id"),
+                        root.get("name"),
+                        root.get("code"),
+                        category.get("name"),
+                        root.get("minutesToMake"),
+                        root.get("totalCost"),
+                        root.get("suggestedRetailSellingPrice"),
+                        root.get("finalSellingPriceRetail"),
+                        root.get("isActive"),
+                        root.get("stock"),
+                        root.get("lowStockAlert")))
+                .where(SpecificationPredicates.matching(spec, Product.class, "id", root, query, criteriaBuilder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        List<ProductListRow> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<ProductListRow> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -1,19 +1,25 @@
 package gr.aueb.cf.bluemargarita.repository;
 
 import gr.aueb.cf.bluemargarita.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>,
-        JpaSpecificationExecutor<Product> {
+        JpaSpecificationExecutor<Product>, ProductStockBatchRepository, SliceRepository<Product>,
+        ProductListRepository {
 
     boolean existsByName(String name);
     boolean existsByCode(String code);
@@ -53,31 +59,255 @@ public interface ProductRepository extends JpaRepository<Product, Long>,
     @Query("SELECT COALESCE(SUM(p.stock * p.finalSellingPriceRetail), 0) FROM Product p WHERE p.isActive = true AND p.stock IS NOT NULL AND p.stock > 0")
     BigDecimal calculateTotalInventoryValue();
 
+    // Both low stock queries are served by the partial expression index
+    // idx_products_low_stock_deficit (see sql/production-init.sql), which holds only
+    // the active products at or below their alert level, ordered by deficit.
+
+    /**
+     * Top-N low stock products, largest deficit (alert level - stock) first
+     */
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stock <= p.lowStockAlert " +
+            "ORDER BY (p.lowStockAlert - p.stock) DESC, p.id")
+    List<Product> findLowStockOrderByDeficit(Limit limit);
+
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stock <= p.lowStockAlert " +
+            "ORDER BY (p.lowStockAlert - p.stock) DESC, p.id")
+    Slice<Product> findLowStockOrderByDeficit(Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND p.stock <= p.lowStockAlert")
+    long countLowStock();
+
+
+    // =============================================================================
+    // ATOMIC STOCK UPDATES
+    // =============================================================================
+    // Stock is never written through the entity (the column is not updatable), so concurrent
+    // sales cannot overwrite each other's decrement with a stale value read earlier.
+
+    /**
+     * Adds a (possibly negative) delta to a product that tracks stock.
+     *
+     * @return the new stock, or null if the product does not track stock
+     */
+    @Transactional
+    @Query(value = "UPDATE products SET stock = stock + :delta WHERE id = :productId AND stock IS NOT NULL RETURNING stock",
+            nativeQuery = true)
+    Integer addToTrackedStock(@Param("productId") Long productId, @Param("delta") int delta);
+
+    /**
+     * Adds a (possibly negative) delta, starting from zero if the product had no stock yet
+     *
+     * @return the new stock
+     */
+    @Transactional
+    @Query(value = "UPDATE products SET stock = COALESCE(stock, 0) + :delta WHERE id = :productId RETURNING stock",
+            nativeQuery = true)
+    Integer addToStock(@Param("productId") Long productId, @Param("delta") int delta);
+
+    /**
+     * Sets an absolute stock value under a row lock
+     *
+     * @return the stock before the change
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE products p SET stock = CAST(:stock AS integer)
+            FROM (SELECT id, stock FROM products WHERE id = :productId FOR UPDATE) previous
+            WHERE p.id = previous.id
+            RETURNING previous.stock
+            """, nativeQuery = true)
+    Integer replaceStock(@Param("productId") Long productId, @Param("stock") Integer stock);
+
+    /**
+     * Sets an absolute stock value only if the stock still equals the expected one
+     *
+     * @return the product id, or null if the stock had changed in the meantime
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE products SET stock = CAST(:stock AS integer)
+            WHERE id = :productId AND stock IS NOT DISTINCT FROM CAST(:expectedStock AS integer)
+            RETURNING id
+            """, nativeQuery = true)
+    Long replaceStockIfUnchanged(@Param("productId") Long productId,
+                                 @Param("expectedStock") Integer expectedStock,
+                                 @Param("stock") Integer stock);
 
     // =============================================================================
     // WRONG PRICING ALERT
     // =============================================================================
+    // retail_deviation_pct and wholesale_deviation_pct are stored generated columns,
+    // (suggested - final) / final * 100, added and indexed by sql/production-init.sql.
+    // They are not mapped on Product, so both queries are native. A product is mispriced
+    // when either deviation reaches the threshold; the issue type is derived the same way
+    // as PricingIssueType. nameOrCode, categoryId and issueType are optional (null = any)
+
+    String MISPRICED_FILTER = """
+            FROM products p
+            JOIN categories c ON c.id = p.category_id
+            WHERE p.is_active = true
+              AND (p.retail_deviation_pct >= :threshold OR p.wholesale_deviation_pct >= :threshold)
+              AND (CAST(:nameOrCode AS text) IS NULL
+                   OR p.name ILIKE CONCAT('%', CAST(:nameOrCode AS text), '%')
+                   OR p.code ILIKE CONCAT('%', CAST(:nameOrCode AS text), '%'))
+              AND (CAST(:categoryId AS bigint) IS NULL OR p.category_id = CAST(:categoryId AS bigint))
+              AND (CAST(:issueType AS text) IS NULL OR CAST(:issueType AS text) =
+                   CASE WHEN p.retail_deviation_pct >= :threshold AND p.wholesale_deviation_pct >= :threshold
+                        THEN 'BOTH_UNDERPRICED'
+                        WHEN p.retail_deviation_pct >= :threshold THEN 'RETAIL_UNDERPRICED'
+                        ELSE 'WHOLESALE_UNDERPRICED' END)
+            """;
+
+    /**
+     * One page of mispriced products, largest absolute deviation first.
+     * Each row: id, name, code, category_id, category_name, suggested_retail, final_retail,
+     * retail_deviation_pct, suggested_wholesale, final_wholesale, wholesale_deviation_pct
+     */
+    @Query(value = """
+            SELECT p.id, p.name, p.code, c.id AS category_id, c.name AS category_name,
+                   p.suggested_retail_selling_price, p.final_selling_price_retail, p.retail_deviation_pct,
+                   p.suggested_wholesale_selling_price, p.final_selling_price_wholesale, p.wholesale_deviation_pct
+            """ + MISPRICED_FILTER + """
+            ORDER BY GREATEST(ABS(COALESCE(p.retail_deviation_pct, 0)), ABS(COALESCE(p.wholesale_deviation_pct, 0))) DESC, p.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Object[]> findMispricedProducts(@Param("threshold") BigDecimal threshold,
+                                         @Param("nameOrCode") String nameOrCode,
+                                         @Param("categoryId") Long categoryId,
+                                         @Param("issueType") String issueType,
+                                         @Param("limit") int limit,
+                                         @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) " + MISPRICED_FILTER, nativeQuery = true)
+    long countMispricedProducts(@Param("threshold") BigDecimal threshold,
+                                @Param("nameOrCode") String nameOrCode,
+                                @Param("categoryId") Long categoryId,
+                                @Param("issueType") String issueType);
+
+    // =============================================================================
+    // COST COLUMNS
+    // =============================================================================
+
+    // The cost formula itself is the product_costs() function created by sql/production-init.sql
+
+    @Query(value = """
+            SELECT c.product_id AS productId, c.material_cost AS materialCost, c.procedure_cost AS procedureCost,
+                   c.labor_cost AS laborCost, c.total_cost AS totalCost
+            FROM product_costs(:hourlyLaborRate, ARRAY[:productIds]) c
+            """, nativeQuery = true)
+    List<ProductCosts> findCostsByProductIds(@Param("productIds") Collection<Long> productIds,
+                                             @Param("hourlyLaborRate") BigDecimal hourlyLaborRate);
+
+    /**
+     * Fills the cost columns of products saved before they were introduced
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE products p
+            SET material_cost = c.material_cost,
+                procedure_cost = c.procedure_cost,
+                labor_cost = c.labor_cost,
+                total_cost = c.total_cost
+            FROM product_costs(:hourlyLaborRate, ARRAY(SELECT pr.id FROM products pr WHERE pr.total_cost IS NULL)) c
+            WHERE p.id = c.product_id
+            """, nativeQuery = true)
+    int backfillMissingCosts(@Param("hourlyLaborRate") BigDecimal hourlyLaborRate);
+
+    /**
+     * Recomputes the cost columns and suggested prices of every active product that uses the
+     * material, in one statement, and records the updater. Inactive products are repriced when
+     * they are restored
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE products p
+            SET material_cost = c.material_cost,
+                procedure_cost = c.procedure_cost,
+                labor_cost = c.labor_cost,
+                total_cost = c.total_cost,
+                suggested_retail_selling_price = ROUND(c.total_cost * :retailMarkup, 2),
+                suggested_wholesale_selling_price = ROUND(c.total_cost * :wholesaleMarkup, 2),
+                last_updated_by = CAST(:updaterId AS bigint),
+                updated_at = LOCALTIMESTAMP,
+                version = COALESCE(p.version, 0) + 1
+            FROM product_costs(:hourlyLaborRate,
+                               ARRAY(SELECT pm.product_id FROM product_material pm
+                                     JOIN products a ON a.id = pm.product_id
+                                     WHERE pm.material_id = :materialId AND a.is_active = true)) c
+            WHERE p.id = c.product_id
+            """, nativeQuery = true)
+    int repriceByMaterialId(@Param("materialId") Long materialId,
+                            @Param("hourlyLaborRate") BigDecimal hourlyLaborRate,
+                            @Param("retailMarkup") BigDecimal retailMarkup,
+                            @Param("wholesaleMarkup") BigDecimal wholesaleMarkup,
+                            @Param("updaterId") Long updaterId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.isActive = true ORDER BY p.id")
+    List<Long> findActiveProductIds();
+
+    /**
+     * Recomputes the cost columns and suggested prices of the active products with ids in
+     * [fromId, toId] in one statement. Only rows whose costs or prices actually change are written.
+     * A product counts as updated when one of its suggested prices changed, which is also when
+     * the updater is recorded. Not @Modifying, since it returns the counts: callers must run it
+     * in a read-write transaction (see ProductCostService)
+     */
+    @Query(value = """
+            WITH priced AS (
+                SELECT c.*,
+                       pr.suggested_retail_selling_price AS old_retail,
+                       pr.suggested_wholesale_selling_price AS old_wholesale,
+                       ROUND(c.total_cost * :retailMarkup, 2) AS new_retail,
+                       ROUND(c.total_cost * :wholesaleMarkup, 2) AS new_wholesale
+                FROM product_costs(:hourlyLaborRate,
+                                   ARRAY(SELECT a.id FROM products a
+                                         WHERE a.is_active = true AND a.id BETWEEN :fromId AND :toId)) c
+                JOIN products pr ON pr.id = c.product_id
+            ),
+            repriced AS (
+                UPDATE products p
+                SET material_cost = priced.material_cost,
+                    procedure_cost = priced.procedure_cost,
+                    labor_cost = priced.labor_cost,
+                    total_cost = priced.total_cost,
+                    suggested_retail_selling_price = priced.new_retail,
+                    suggested_wholesale_selling_price = priced.new_wholesale,
+                    last_updated_by = CASE WHEN priced.old_retail IS DISTINCT FROM priced.new_retail
+                                             OR priced.old_wholesale IS DISTINCT FROM priced.new_wholesale
+                                           THEN CAST(:updaterId AS bigint) ELSE p.last_updated_by END,
+                    updated_at = LOCALTIMESTAMP,
+                    version = COALESCE(p.version, 0) + 1
+                FROM priced
+                WHERE p.id = priced.product_id
+                  AND (p.material_cost IS DISTINCT FROM priced.material_cost
+                       OR p.procedure_cost IS DISTINCT FROM priced.procedure_cost
+                       OR p.labor_cost IS DISTINCT FROM priced.labor_cost
+                       OR p.total_cost IS DISTINCT FROM priced.total_cost
+                       OR priced.old_retail IS DISTINCT FROM priced.new_retail
+                       OR priced.old_wholesale IS DISTINCT FROM priced.new_wholesale)
+                RETURNING priced.old_retail IS DISTINCT FROM priced.new_retail
+                       OR priced.old_wholesale IS DISTINCT FROM priced.new_wholesale AS price_changed
+            )
+            SELECT (SELECT COUNT(*) FROM priced) AS processed,
+                   (SELECT COUNT(*) FROM repriced WHERE price_changed) AS updated
+            """, nativeQuery = true)
+    RepricingCounts repriceActiveInRange(@Param("hourlyLaborRate") BigDecimal hourlyLaborRate,
+                                         @Param("retailMarkup") BigDecimal retailMarkup,
+                                         @Param("wholesaleMarkup") BigDecimal wholesaleMarkup,
+                                         @Param("updaterId") Long updaterId,
+                                         @Param("fromId") Long fromId,
+                                         @Param("toId") Long toId);
+
+    interface ProductCosts {
+        Long getProductId();
+        BigDecimal getMaterialCost();
+        BigDecimal getProcedureCost();
+        BigDecimal getLaborCost();
+        BigDecimal getTotalCost();
+    }
 
-    @Query("""
-    SELECT p FROM Product p
-    WHERE p.isActive = true
-        AND (
-          ((p.suggestedRetailSellingPrice - p.finalSellingPriceRetail) / p.finalSellingPriceRetail) * 100 >= :threshold
-          OR
-          ((p.suggestedWholeSaleSellingPrice - p.finalSellingPriceWholesale) / p.finalSellingPriceRetail) * 100 >= :threshold
-      )
-    """)
-    List<Product> findProductsWithAnyPricingIssues(@Param("threshold") BigDecimal threshold, Pageable pageable);
-
-
-    @Query("""
-    SELECT COUNT(p) FROM Product p
-    WHERE p.isActive = true
-      AND (
-          ((p.suggestedRetailSellingPrice - p.finalSellingPriceRetail) / p.finalSellingPriceRetail) * 100 >= :threshold
-          OR
-          ((p.suggestedWholeSaleSellingPrice - p.finalSellingPriceWholesale) / p.finalSellingPriceRetail) * 100 >= :threshold
-      )
-    """)
-    long countProductsWithPricingIssues(@Param("threshold") BigDecimal threshold);
+    interface RepricingCounts {
+        long getProcessed();
+        long getUpdated();
+    }
 }
@@ -0,0 +1,23 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import java.util.List;
+
+/**
+ * Set-based stock writes for many products at once, used by the bulk stock update.
+ * All changes are applied by one statement under row locks taken in product id order.
+ */
+public interface ProductStockBatchRepository {
+
+    /**
+     * Applies the changes and returns the stock before and after each one.
+     * Products that do not exist are not returned
+     */
+    List<StockChangeResult> applyStockChanges(List<StockChange> changes, Long updaterId);
+
+    /**
+     * @param absolute true to set the stock to quantity (SET), false to add quantity to it (ADD/REMOVE)
+     */
+    record StockChange(Long productId, int quantity, boolean absolute) {}
+
+    record StockChangeResult(Long productId, Integer previousStock, Integer newStock) {}
+}
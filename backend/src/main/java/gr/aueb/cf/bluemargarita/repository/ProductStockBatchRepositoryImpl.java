@@ -0,0 +1,77 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProductStockBatchRepositoryImpl implements ProductStockBatchRepository {
+
+    // The changes are passed as three parallel arrays. The locking CTE is materialized
+    // (it has row marks), so every row is locked before any of them is updated
+    private static final String APPLY_STOCK_CHANGES_SQL = """
+            WITH changes AS (
+                SELECT * FROM unnest(?, ?, ?) AS c(product_id, quantity, is_absolute)
+            ),
+            previous AS (
+                SELECT p.id, p.stock
+                FROM products p
+                WHERE p.id IN (SELECT product_id FROM changes)
+                ORDER BY p.id
+                FOR UPDATE
+            )
+            UPDATE products p
+            SET stock = CASE WHEN c.is_absolute THEN c.quantity ELSE COALESCE(previous.stock, 0) + c.quantity END,
+                last_updated_by = ?,
+                updated_at = ?
+            FROM changes c
+            JOIN previous ON previous.id = c.product_id
+            WHERE p.id = c.product_id
+            RETURNING p.id, previous.stock, p.stock
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<StockChangeResult> applyStockChanges(List<StockChange> changes, Long updaterId) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+
+        Long[] productIds = changes.stream().map(StockChange::productId).toArray(Long[]::new);
+        Integer[] quantities = changes.stream().map(StockChange::quantity).toArray(Integer[]::new);
+        Boolean[] absolute = changes.stream().map(StockChange::absolute).toArray(Boolean[]::new);
+
+        return jdbcTemplate.query(
+                (Connection connection) -> {
+                    PreparedStatement statement = connection.prepareStatement(APPLY_STOCK_CHANGES_SQL);
+                    Array productIdArray = connection.createArrayOf("bigint", productIds);
+                    Array quantityArray = connection.createArrayOf("integer", quantities);
+                    Array absoluteArray = connection.createArrayOf("boolean", absolute);
+                    statement.setArray(1, productIdArray);
+                    statement.setArray(2, quantityArray);
+                    statement.setArray(3, absoluteArray);
+                    if (updaterId != null) {
+                        statement.setLong(4, updaterId);
+                    } else {
+                        statement.setNull(4, Types.BIGINT);
+                    }
+                    statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                    return statement;
+                },
+                (resultSet, rowNum) -> new StockChangeResult(
+                        resultSet.getLong(1),
+                        resultSet.getObject(2, Integer.class),
+                        resultSet.getObject(3, Integer.class)
+                ));
+    }
+}
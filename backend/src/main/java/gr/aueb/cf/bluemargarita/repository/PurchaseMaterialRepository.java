@@ -1,6 +1,8 @@
 package gr.aueb.cf.bluemargarita.repository;
 
+import gr.aueb.cf.bluemargarita.dto.material.MaterialStatsSummaryDTO;
 import gr.aueb.cf.bluemargarita.model.PurchaseMaterial;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -10,7 +12,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
-public interface PurchaseMaterialRepository extends JpaRepository<PurchaseMaterial, Long>, JpaSpecificationExecutor<PurchaseMaterial> {
+public interface PurchaseMaterialRepository extends JpaRepository<PurchaseMaterial, Long>, JpaSpecificationExecutor<PurchaseMaterial>,
+        SupplierPriceRankingRepository {
 
     // =============================================================================
     // MATERIAL QUERIES
@@ -43,15 +46,11 @@ public interface PurchaseMaterialRepository extends JpaRepository<PurchaseMateri
     // SUPPLIER + MATERIAL
     // =============================================================================
 
-    @Query("SELECT DISTINCT pm.material.id FROM PurchaseMaterial pm WHERE pm.purchase.supplier.id = :supplierId")
-    List<Long> findDistinctMaterialIdsBySupplierId(@Param("supplierId") Long supplierId);
-
-    @Query("SELECT COALESCE(SUM(pm.quantity), 0) FROM PurchaseMaterial pm WHERE pm.purchase.supplier.id = :supplierId AND pm.material.id = :materialId")
-    BigDecimal sumQuantityBySupplierIdAndMaterialId(@Param("supplierId") Long supplierId, @Param("materialId") Long materialId);
-
-    @Query("SELECT COALESCE(SUM(pm.quantity * pm.priceAtTheTime), 0) FROM PurchaseMaterial pm WHERE pm.purchase.supplier.id = :supplierId AND pm.material.id = :materialId")
-    BigDecimal sumCostBySupplierIdAndMaterialId(@Param("supplierId") Long supplierId, @Param("materialId") Long materialId);
-
-    @Query("SELECT MAX(pm.purchase.purchaseDate) FROM PurchaseMaterial pm WHERE pm.purchase.supplier.id = :supplierId AND pm.material.id = :materialId")
-    LocalDate findLastPurchaseDateBySupplierIdAndMaterialId(@Param("supplierId") Long supplierId, @Param("materialId") Long materialId);
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.material.MaterialStatsSummaryDTO(" +
+            "m.id, m.name, COALESCE(SUM(pm.quantity), 0), COALESCE(SUM(pm.quantity * pm.priceAtTheTime), 0), MAX(p.purchaseDate)) " +
+            "FROM PurchaseMaterial pm JOIN pm.purchase p JOIN pm.material m " +
+            "WHERE p.supplier.id = :supplierId " +
+            "GROUP BY m.id, m.name " +
+            "ORDER BY COALESCE(SUM(pm.quantity * pm.priceAtTheTime), 0) DESC, m.id")
+    List<MaterialStatsSummaryDTO> findMaterialStatsBySupplierId(@Param("supplierId") Long supplierId, Limit limit);
 }
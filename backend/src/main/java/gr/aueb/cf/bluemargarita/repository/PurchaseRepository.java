@@ -12,7 +12,8 @@ import java.time.LocalDate;
 
 @Repository
 public interface PurchaseRepository extends JpaRepository<Purchase, Long>,
-        JpaSpecificationExecutor<Purchase> {
+        JpaSpecificationExecutor<Purchase>, SpecificationAggregateRepository<Purchase>,
+        KeysetPaginationRepository<Purchase>, SliceRepository<Purchase> {
 
 
     // =============================================================================
@@ -0,0 +1,70 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO;
+import gr.aueb.cf.bluemargarita.model.SaleProductComponent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface SaleProductComponentRepository extends JpaRepository<SaleProductComponent, Long> {
+
+    // =============================================================================
+    // MAINTENANCE - Called by SaleComponentService
+    // =============================================================================
+
+    @Modifying
+    @Query("DELETE FROM SaleProductComponent c WHERE c.saleId = :saleId")
+    int deleteBySaleId(@Param("saleId") Long saleId);
+
+    /**
+     * Carries a sale's new date and line prices over to its components, keeping the recipe recorded at sale time
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE sale_product_component c
+            SET sale_date = s.sale_date,
+                sold_quantity = sp.quantity,
+                revenue = sp.quantity * COALESCE(sp.price_at_the_time, 0)
+            FROM sale_product sp
+            JOIN sales s ON s.id = sp.sale_id
+            WHERE c.sale_product_id = sp.id AND c.sale_id = :saleId
+            """, nativeQuery = true)
+    int refreshFromSale(@Param("saleId") Long saleId);
+
+    // =============================================================================
+    // MATERIAL ANALYTICS
+    // =============================================================================
+
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO(" +
+            "COUNT(DISTINCT c.saleId), COALESCE(SUM(c.revenue), 0), MAX(c.saleDate)) " +
+            "FROM SaleProductComponent c WHERE c.materialId = :materialId")
+    ComponentSalesStatsDTO findSalesStatsByMaterialId(@Param("materialId") Long materialId);
+
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO(" +
+            "COUNT(DISTINCT c.saleId), COALESCE(SUM(c.revenue), 0), MAX(c.saleDate)) " +
+            "FROM SaleProductComponent c WHERE c.materialId = :materialId AND c.saleDate BETWEEN :startDate AND :endDate")
+    ComponentSalesStatsDTO findSalesStatsByMaterialIdAndDateRange(@Param("materialId") Long materialId,
+                                                                  @Param("startDate") LocalDate startDate,
+                                                                  @Param("endDate") LocalDate endDate);
+
+    // =============================================================================
+    // PROCEDURE ANALYTICS
+    // =============================================================================
+
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO(" +
+            "COUNT(DISTINCT c.saleId), COALESCE(SUM(c.revenue), 0), MAX(c.saleDate)) " +
+            "FROM SaleProductComponent c WHERE c.procedureId = :procedureId")
+    ComponentSalesStatsDTO findSalesStatsByProcedureId(@Param("procedureId") Long procedureId);
+
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO(" +
+            "COUNT(DISTINCT c.saleId), COALESCE(SUM(c.revenue), 0), MAX(c.saleDate)) " +
+            "FROM SaleProductComponent c WHERE c.procedureId = :procedureId AND c.saleDate BETWEEN :startDate AND :endDate")
+    ComponentSalesStatsDTO findSalesStatsByProcedureIdAndDateRange(@Param("procedureId") Long procedureId,
+                                                                   @Param("startDate") LocalDate startDate,
+                                                                   @Param("endDate") LocalDate endDate);
+}
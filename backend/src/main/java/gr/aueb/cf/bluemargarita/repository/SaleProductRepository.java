@@ -1,6 +1,9 @@
 package gr.aueb.cf.bluemargarita.repository;
 
+import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
 import gr.aueb.cf.bluemargarita.model.SaleProduct;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -55,10 +58,115 @@ public interface SaleProductRepository extends JpaRepository<SaleProduct, Long>,
                                                                    @Param("startDate") LocalDate startDate,
                                                                    @Param("endDate") LocalDate endDate);
 
+    // =============================================================================
+    // PRODUCT SALES ANALYTICS - COMPOSITE QUERIES
+    // =============================================================================
+
+    /**
+     * All scalar figures of the product analytics page in one pass over the product's sale lines.
+     * Single row: period sale count, period quantity, period revenue, period average price,
+     * week quantity, week revenue, month quantity, month revenue, year quantity, year revenue, last sale date
+     */
+    @Query(value = """
+            SELECT COUNT(DISTINCT s.id) FILTER (WHERE s.sale_date BETWEEN :startDate AND :endDate),
+                   COALESCE(SUM(sp.quantity) FILTER (WHERE s.sale_date BETWEEN :startDate AND :endDate), 0),
+                   COALESCE(SUM(sp.quantity * sp.price_at_the_time) FILTER (WHERE s.sale_date BETWEEN :startDate AND :endDate), 0),
+                   COALESCE(AVG(sp.price_at_the_time) FILTER (WHERE s.sale_date BETWEEN :startDate AND :endDate), 0),
+                   COALESCE(SUM(sp.quantity) FILTER (WHERE s.sale_date BETWEEN :weekStart AND :weekEnd), 0),
+                   COALESCE(SUM(sp.quantity * sp.price_at_the_time) FILTER (WHERE s.sale_date BETWEEN :weekStart AND :weekEnd), 0),
+                   COALESCE(SUM(sp.quantity) FILTER (WHERE s.sale_date BETWEEN :monthStart AND :monthEnd), 0),
+                   COALESCE(SUM(sp.quantity * sp.price_at_the_time) FILTER (WHERE s.sale_date BETWEEN :monthStart AND :monthEnd), 0),
+                   COALESCE(SUM(sp.quantity) FILTER (WHERE s.sale_date BETWEEN :yearStart AND :yearEnd), 0),
+                   COALESCE(SUM(sp.quantity * sp.price_at_the_time) FILTER (WHERE s.sale_date BETWEEN :yearStart AND :yearEnd), 0),
+                   MAX(s.sale_date)
+            FROM sale_product sp JOIN sales s ON s.id = sp.sale_id
+            WHERE sp.product_id = :productId
+            """, nativeQuery = true)
+    List<Object[]> findProductSalesSummary(@Param("productId") Long productId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("weekStart") LocalDate weekStart,
+                                           @Param("weekEnd") LocalDate weekEnd,
+                                           @Param("monthStart") LocalDate monthStart,
+                                           @Param("monthEnd") LocalDate monthEnd,
+                                           @Param("yearStart") LocalDate yearStart,
+                                           @Param("yearEnd") LocalDate yearEnd);
+
+    /**
+     * Top locations and top customers of a product for the period, grouped with GROUPING SETS
+     * and ranked by revenue in SQL. Walk-in sales are excluded from the customer ranking.
+     * Each row: is_customer_row, location or customer id, name, email, quantity, revenue,
+     * number of sales, last order date of the customer (any product)
+     */
+    @Query(value = """
+            WITH lines AS (
+                SELECT s.id AS sale_id, s.location_id, s.customer_id, sp.quantity,
+                       sp.quantity * sp.price_at_the_time AS revenue
+                FROM sale_product sp JOIN sales s ON s.id = sp.sale_id
+                WHERE sp.product_id = :productId AND s.sale_date BETWEEN :startDate AND :endDate
+            ),
+            grouped AS (
+                SELECT GROUPING(location_id) AS is_customer_row, location_id, customer_id,
+                       SUM(quantity) AS quantity, COALESCE(SUM(revenue), 0) AS revenue,
+                       COUNT(DISTINCT sale_id) AS sales_count
+                FROM lines
+                GROUP BY GROUPING SETS ((location_id), (customer_id))
+            ),
+            ranked AS (
+                SELECT g.*, ROW_NUMBER() OVER (PARTITION BY g.is_customer_row
+                                               ORDER BY g.revenue DESC, COALESCE(g.location_id, g.customer_id)) AS position
+                FROM grouped g
+                WHERE g.is_customer_row = 0 OR g.customer_id IS NOT NULL
+            )
+            SELECT r.is_customer_row,
+                   COALESCE(r.location_id, r.customer_id),
+                   CASE WHEN r.is_customer_row = 0 THEN l.name ELSE CONCAT(c.firstname, ' ', c.lastname) END,
+                   c.email,
+                   r.quantity,
+                   r.revenue,
+                   r.sales_count,
+                   (SELECT MAX(cs.sale_date) FROM sales cs WHERE cs.customer_id = r.customer_id)
+            FROM ranked r
+            LEFT JOIN locations l ON r.is_customer_row = 0 AND l.id = r.location_id
+            LEFT JOIN customers c ON r.is_customer_row = 1 AND c.id = r.customer_id
+            WHERE r.position <= :limit
+            ORDER BY r.is_customer_row, r.position
+            """, nativeQuery = true)
+    List<Object[]> findTopLocationsAndCustomersByProduct(@Param("productId") Long productId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         @Param("limit") int limit);
+
     @Query("SELECT DISTINCT sp.product.id FROM SaleProduct sp JOIN sp.sale s WHERE s.saleDate BETWEEN :startDate AND :endDate AND sp.product.isActive = true")
     List<Long> findDistinctProductIdsByDateRange(@Param("startDate") LocalDate startDate,
                                                  @Param("endDate") LocalDate endDate);
 
+    /**
+     * Ranks active products by their sales in the period with a single grouped query.
+     * Ordering and paging are applied by the database through the given pageable,
+     * lastSaleDate is the product's last sale overall (not limited to the period)
+     */
+    @Query(value = """
+            SELECT new gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO(
+                p.id,
+                p.name,
+                p.code,
+                SUM(sp.quantity),
+                SUM(sp.quantity * sp.priceAtTheTime),
+                (SELECT MAX(s2.saleDate) FROM SaleProduct sp2 JOIN sp2.sale s2 WHERE sp2.product.id = p.id)
+            )
+            FROM SaleProduct sp JOIN sp.sale s JOIN sp.product p
+            WHERE s.saleDate BETWEEN :startDate AND :endDate AND p.isActive = true
+            GROUP BY p.id, p.name, p.code
+            """,
+            countQuery = """
+            SELECT COUNT(DISTINCT sp.product.id) FROM SaleProduct sp JOIN sp.sale s
+            WHERE s.saleDate BETWEEN :startDate AND :endDate AND sp.product.isActive = true
+            """)
+    Page<ProductStatsSummaryDTO> findProductStatsByDateRange(@Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate,
+                                                             Pageable pageable);
+
     @Query("SELECT DISTINCT s.location.id FROM SaleProduct sp JOIN sp.sale s WHERE sp.product.id = :productId AND s.saleDate BETWEEN :startDate AND :endDate")
     List<Long> findDistinctLocationIdsByProductIdAndDateRange(@Param("productId") Long productId,
                                                               @Param("startDate") LocalDate startDate,
@@ -122,6 +230,15 @@ public interface SaleProductRepository extends JpaRepository<SaleProduct, Long>,
     @Query("SELECT DISTINCT sp.product.id FROM SaleProduct sp JOIN sp.sale s WHERE s.location.id = :locationId")
     List<Long> findDistinctProductIdsByLocationId(@Param("locationId") Long locationId);
 
+    /**
+     * Line totals per location, product and day, used to load the in-memory location counters.
+     * Each row: location id, product id, sale date, number of lines, quantity, revenue
+     */
+    @Query("SELECT s.location.id, sp.product.id, s.saleDate, COUNT(sp), SUM(sp.quantity), " +
+            "COALESCE(SUM(sp.quantity * sp.priceAtTheTime), 0) " +
+            "FROM SaleProduct sp JOIN sp.sale s GROUP BY s.location.id, sp.product.id, s.saleDate")
+    List<Object[]> sumLineTotalsGroupedByLocationProductAndDate();
+
     // =============================================================================
     // LOCATION + DATE RANGE
     // =============================================================================
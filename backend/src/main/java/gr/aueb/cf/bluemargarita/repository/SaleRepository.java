@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.repository;
 
 import gr.aueb.cf.bluemargarita.model.Sale;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -9,10 +10,34 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long>,
-        JpaSpecificationExecutor<Sale> {
+        JpaSpecificationExecutor<Sale>, SpecificationAggregateRepository<Sale>,
+        KeysetPaginationRepository<Sale>, SliceRepository<Sale> {
+
+    // =============================================================================
+    // FETCH PLAN QUERIES
+    // =============================================================================
+    // Sale lists are read in two steps: a page of ids first, then one query loading those
+    // sales with everything the sale DTO mappers touch, instead of one lazy select per
+    // customer, location, user, line and product of every sale on the page.
+
+    @Query("SELECT DISTINCT s FROM Sale s " +
+            "LEFT JOIN FETCH s.customer " +
+            "JOIN FETCH s.location " +
+            "LEFT JOIN FETCH s.createdBy " +
+            "LEFT JOIN FETCH s.lastUpdatedBy " +
+            "LEFT JOIN FETCH s.saleProducts sp " +
+            "LEFT JOIN FETCH sp.product p " +
+            "LEFT JOIN FETCH p.category " +
+            "WHERE s.id IN :ids")
+    List<Sale> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id FROM Sale s ORDER BY s.saleDate DESC, s.createdAt DESC")
+    List<Long> findRecentSaleIds(Limit limit);
 
     // =============================================================================
     // LOCATION QUERIES
@@ -27,6 +52,31 @@ public interface SaleRepository extends JpaRepository<Sale, Long>,
     @Query("SELECT MAX(s.saleDate) FROM Sale s WHERE s.location.id = :locationId")
     LocalDate findLastSaleDateByLocationId(@Param("locationId") Long locationId);
 
+    // =============================================================================
+    // LOCATION SALES COUNTERS - Transaction ids and snapshots, see LocationSalesCounters
+    // =============================================================================
+
+    /**
+     * Id of the current transaction, assigning one if it has not written yet
+     */
+    @Query(value = "SELECT CAST(CAST(pg_current_xact_id() AS text) AS bigint)", nativeQuery = true)
+    Long currentTransactionId();
+
+    /**
+     * The current snapshot as xmin:xmax:xip_list. Under REPEATABLE READ it is the snapshot
+     * every query of the transaction reads
+     */
+    @Query(value = "SELECT CAST(pg_current_snapshot() AS text)", nativeQuery = true)
+    String currentSnapshot();
+
+    /**
+     * Sale totals per location and day, used to load the in-memory location counters.
+     * Each row: location id, sale date, number of sales, revenue
+     */
+    @Query("SELECT s.location.id, s.saleDate, COUNT(s), COALESCE(SUM(s.finalTotalPrice), 0) " +
+            "FROM Sale s GROUP BY s.location.id, s.saleDate")
+    List<Object[]> sumSaleTotalsGroupedByLocationAndDate();
+
     // =============================================================================
     // LOCATION + DATE RANGE QUERIES
     // =============================================================================
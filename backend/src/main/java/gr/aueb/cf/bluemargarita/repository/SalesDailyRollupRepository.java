@@ -0,0 +1,257 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
+import gr.aueb.cf.bluemargarita.model.SalesDailyRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+
+    // =============================================================================
+    // INCREMENTAL MAINTENANCE
+    // =============================================================================
+
+    /**
+     * Adds a delta to the row of the given key, creating the row if the key does not exist yet.
+     * Walk-in sales use customerKey = 0. The conflict target is the unique key index
+     * uq_sales_daily_rollup_key (see sql/production-init.sql), so two concurrent first sales
+     * of the same key add up in one row instead of inserting two
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_daily_rollup (sale_date, product_id, location_id, customer_id, payment_method, is_wholesale,
+                                            quantity, revenue, suggested_revenue, sale_count)
+            VALUES (:saleDate, :productId, :locationId, NULLIF(:customerKey, 0), :paymentMethod, :isWholesale,
+                    :quantity, :revenue, :suggestedRevenue, :saleCount)
+            ON CONFLICT (sale_date, product_id, location_id, (COALESCE(customer_id, 0)), payment_method, is_wholesale)
+            DO UPDATE SET quantity = sales_daily_rollup.quantity + EXCLUDED.quantity,
+                          revenue = sales_daily_rollup.revenue + EXCLUDED.revenue,
+                          suggested_revenue = sales_daily_rollup.suggested_revenue + EXCLUDED.suggested_revenue,
+                          sale_count = sales_daily_rollup.sale_count + EXCLUDED.sale_count
+            """, nativeQuery = true)
+    int addDelta(@Param("saleDate") LocalDate saleDate,
+                 @Param("productId") Long productId,
+                 @Param("locationId") Long locationId,
+                 @Param("customerKey") Long customerKey,
+                 @Param("paymentMethod") String paymentMethod,
+                 @Param("isWholesale") boolean isWholesale,
+                 @Param("quantity") BigDecimal quantity,
+                 @Param("revenue") BigDecimal revenue,
+                 @Param("suggestedRevenue") BigDecimal suggestedRevenue,
+                 @Param("saleCount") int saleCount);
+
+    /**
+     * Subtracts a delta from the row of the given key. Walk-in sales are matched with customerKey = 0
+     *
+     * @return number of rows updated, 0 if the key does not exist
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE sales_daily_rollup
+            SET quantity = quantity - :quantity,
+                revenue = revenue - :revenue,
+                suggested_revenue = suggested_revenue - :suggestedRevenue,
+                sale_count = sale_count - :saleCount
+            WHERE sale_date = :saleDate
+              AND product_id = :productId
+              AND location_id = :locationId
+              AND COALESCE(customer_id, 0) = :customerKey
+              AND payment_method = :paymentMethod
+              AND is_wholesale = :isWholesale
+            """, nativeQuery = true)
+    int subtractDelta(@Param("saleDate") LocalDate saleDate,
+                      @Param("productId") Long productId,
+                      @Param("locationId") Long locationId,
+                      @Param("customerKey") Long customerKey,
+                      @Param("paymentMethod") String paymentMethod,
+                      @Param("isWholesale") boolean isWholesale,
+                      @Param("quantity") BigDecimal quantity,
+                      @Param("revenue") BigDecimal revenue,
+                      @Param("suggestedRevenue") BigDecimal suggestedRevenue,
+                      @Param("saleCount") int saleCount);
+
+    /**
+     * Deletes the row of the given key once a subtraction has left no sale lines behind it
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM sales_daily_rollup
+            WHERE sale_date = :saleDate
+              AND product_id = :productId
+              AND location_id = :locationId
+              AND COALESCE(customer_id, 0) = :customerKey
+              AND payment_method = :paymentMethod
+              AND is_wholesale = :isWholesale
+              AND sale_count <= 0
+            """, nativeQuery = true)
+    int deleteIfEmpty(@Param("saleDate") LocalDate saleDate,
+                      @Param("productId") Long productId,
+                      @Param("locationId") Long locationId,
+                      @Param("customerKey") Long customerKey,
+                      @Param("paymentMethod") String paymentMethod,
+                      @Param("isWholesale") boolean isWholesale);
+
+    // =============================================================================
+    // BACKFILL AND CONSISTENCY CHECK
+    // =============================================================================
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_daily_rollup (sale_date, product_id, location_id, customer_id, payment_method, is_wholesale,
+                                            quantity, revenue, suggested_revenue, sale_count)
+            SELECT s.sale_date, sp.product_id, s.location_id, s.customer_id,
+                   COALESCE(s.payment_method, 'OTHER'), COALESCE(s.is_whole_sale, false),
+                   SUM(sp.quantity),
+                   SUM(sp.quantity * COALESCE(sp.price_at_the_time, 0)),
+                   SUM(sp.quantity * COALESCE(sp.suggested_price_at_the_time, 0)),
+                   COUNT(*)
+            FROM sale_product sp JOIN sales s ON s.id = sp.sale_id
+            GROUP BY s.sale_date, sp.product_id, s.location_id, s.customer_id,
+                     COALESCE(s.payment_method, 'OTHER'), COALESCE(s.is_whole_sale, false)
+            """, nativeQuery = true)
+    int rebuildFromSales();
+
+    /**
+     * Compares the rollup with the raw sale tables at full key granularity.
+     * Each row: sale_date, product_id, location_id, customer_id, rollup quantity, raw quantity,
+     * rollup revenue, raw revenue, rollup suggested revenue, raw suggested revenue,
+     * rollup sale count, raw sale count
+     */
+    @Query(value = """
+            WITH rolled AS (
+                SELECT sale_date, product_id, location_id, COALESCE(customer_id, 0) AS customer_key,
+                       payment_method, is_wholesale,
+                       SUM(quantity) AS quantity, SUM(revenue) AS revenue,
+                       SUM(suggested_revenue) AS suggested_revenue, SUM(sale_count) AS sale_count
+                FROM sales_daily_rollup
+                GROUP BY sale_date, product_id, location_id, COALESCE(customer_id, 0), payment_method, is_wholesale
+            ),
+            raw_lines AS (
+                SELECT s.sale_date, sp.product_id, s.location_id, COALESCE(s.customer_id, 0) AS customer_key,
+                       COALESCE(s.payment_method, 'OTHER') AS payment_method,
+                       COALESCE(s.is_whole_sale, false) AS is_wholesale,
+                       SUM(sp.quantity) AS quantity,
+                       SUM(sp.quantity * COALESCE(sp.price_at_the_time, 0)) AS revenue,
+                       SUM(sp.quantity * COALESCE(sp.suggested_price_at_the_time, 0)) AS suggested_revenue,
+                       COUNT(*) AS sale_count
+                FROM sale_product sp JOIN sales s ON s.id = sp.sale_id
+                GROUP BY s.sale_date, sp.product_id, s.location_id, COALESCE(s.customer_id, 0),
+                         COALESCE(s.payment_method, 'OTHER'), COALESCE(s.is_whole_sale, false)
+            )
+            SELECT COALESCE(r.sale_date, w.sale_date),
+                   COALESCE(r.product_id, w.product_id),
+                   COALESCE(r.location_id, w.location_id),
+                   NULLIF(COALESCE(r.customer_key, w.customer_key), 0),
+                   COALESCE(r.quantity, 0), COALESCE(w.quantity, 0),
+                   COALESCE(r.revenue, 0), COALESCE(w.revenue, 0),
+                   COALESCE(r.suggested_revenue, 0), COALESCE(w.suggested_revenue, 0),
+                   COALESCE(r.sale_count, 0), COALESCE(w.sale_count, 0)
+            FROM rolled r
+            FULL OUTER JOIN raw_lines w
+              ON r.sale_date = w.sale_date
+             AND r.product_id = w.product_id
+             AND r.location_id = w.location_id
+             AND r.customer_key = w.customer_key
+             AND r.payment_method = w.payment_method
+             AND r.is_wholesale = w.is_wholesale
+            WHERE COALESCE(r.quantity, 0) <> COALESCE(w.quantity, 0)
+               OR COALESCE(r.revenue, 0) <> COALESCE(w.revenue, 0)
+               OR COALESCE(r.suggested_revenue, 0) <> COALESCE(w.suggested_revenue, 0)
+               OR COALESCE(r.sale_count, 0) <> COALESCE(w.sale_count, 0)
+            ORDER BY 1, 2
+            LIMIT :maxResults
+            """, nativeQuery = true)
+    List<Object[]> findMismatchesWithSales(@Param("maxResults") int maxResults);
+
+    // =============================================================================
+    // PRODUCT + DATE RANGE
+    // =============================================================================
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumQuantityByProductIdAndDateRange(@Param("productId") Long productId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumRevenueByProductIdAndDateRange(@Param("productId") Long productId,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    // =============================================================================
+    // PRODUCT + LOCATION / CUSTOMER
+    // =============================================================================
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.location.id = :locationId")
+    BigDecimal sumQuantityByProductIdAndLocationId(@Param("productId") Long productId, @Param("locationId") Long locationId);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.location.id = :locationId")
+    BigDecimal sumRevenueByProductIdAndLocationId(@Param("productId") Long productId, @Param("locationId") Long locationId);
+
+    /**
+     * Products sold at the location, highest revenue first, aggregated in one query over the location's rollup rows
+     */
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO(" +
+            "p.id, p.name, p.code, SUM(r.quantity), SUM(r.revenue), MAX(r.saleDate)) " +
+            "FROM SalesDailyRollup r JOIN r.product p WHERE r.location.id = :locationId " +
+            "GROUP BY p.id, p.name, p.code HAVING SUM(r.quantity) > 0 ORDER BY SUM(r.revenue) DESC, p.id")
+    List<ProductStatsSummaryDTO> findTopProductsByLocationId(@Param("locationId") Long locationId, Limit limit);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.customer.id = :customerId")
+    BigDecimal sumQuantityByProductIdAndCustomerId(@Param("productId") Long productId, @Param("customerId") Long customerId);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.product.id = :productId AND r.customer.id = :customerId")
+    BigDecimal sumRevenueByProductIdAndCustomerId(@Param("productId") Long productId, @Param("customerId") Long customerId);
+
+    /**
+     * Products the customer bought, highest revenue first, aggregated in one query over the customer's rollup rows
+     */
+    @Query("SELECT new gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO(" +
+            "p.id, p.name, p.code, SUM(r.quantity), SUM(r.revenue), MAX(r.saleDate)) " +
+            "FROM SalesDailyRollup r JOIN r.product p WHERE r.customer.id = :customerId " +
+            "GROUP BY p.id, p.name, p.code HAVING SUM(r.quantity) > 0 ORDER BY SUM(r.revenue) DESC, p.id")
+    List<ProductStatsSummaryDTO> findTopProductsByCustomerId(@Param("customerId") Long customerId, Limit limit);
+
+    // =============================================================================
+    // CATEGORY QUERIES
+    // =============================================================================
+
+    @Query("SELECT COALESCE(SUM(r.saleCount), 0) FROM SalesDailyRollup r WHERE r.product.category.id = :categoryId")
+    Integer countByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.product.category.id = :categoryId")
+    BigDecimal sumRevenueByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT MAX(r.saleDate) FROM SalesDailyRollup r WHERE r.product.category.id = :categoryId")
+    LocalDate findLastSaleDateByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT COALESCE(SUM(r.saleCount), 0) FROM SalesDailyRollup r WHERE r.product.category.id = :categoryId AND r.saleDate BETWEEN :startDate AND :endDate")
+    Integer countByCategoryIdAndDateRange(@Param("categoryId") Long categoryId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.product.category.id = :categoryId AND r.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumRevenueByCategoryIdAndDateRange(@Param("categoryId") Long categoryId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // =============================================================================
+    // LOCATION / DATE RANGE (product line revenue, excludes packaging)
+    // =============================================================================
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.location.id = :locationId AND r.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumProductRevenueByLocationIdAndDateRange(@Param("locationId") Long locationId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM SalesDailyRollup r WHERE r.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumProductRevenueByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
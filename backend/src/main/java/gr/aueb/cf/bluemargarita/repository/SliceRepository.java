@@ -0,0 +1,23 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment that reads a page of a Specification without counting the matches.
+ * Repositories opt in by extending this interface next to JpaSpecificationExecutor.
+ */
+public interface SliceRepository<T> {
+
+    /**
+     * Reads the requested page plus one row, which only tells whether a next page exists
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    /**
+     * Same page as {@link #findSlice}, reading only the ids. Used to page a list whose rows
+     * are then loaded together with their associations by an id IN query.
+     */
+    Slice<Long> findIdSlice(Specification<T> spec, Pageable pageable);
+}
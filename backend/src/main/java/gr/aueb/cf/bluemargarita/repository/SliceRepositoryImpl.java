@@ -0,0 +1,85 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+
+import java.util.List;
+
+/**
+ * Shared implementation of the slice fragment. findAll(spec, pageable) always issues a COUNT
+ * next to the page query; this reads pageSize + 1 rows instead and drops the extra one, so
+ * paging through a list costs one query per page. The specification is applied through
+ * SpecificationPredicates, so filters joining collections cannot repeat a row.
+ */
+public class SliceRepositoryImpl<T> implements SliceRepository<T>, RepositoryMetadataAccess {
+
+    private final EntityManager entityManager;
+
+    public SliceRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+
+        Class<T> domainClass = getDomainClass();
+        String idAttribute = SpecificationPredicates.idAttribute(entityManager, domainClass);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+
+        query.select(root)
+                .where(SpecificationPredicates.matching(spec, domainClass, idAttribute, root, query, criteriaBuilder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        return readSlice(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public Slice<Long> findIdSlice(Specification<T> spec, Pageable pageable) {
+
+        Class<T> domainClass = getDomainClass();
+        String idAttribute = SpecificationPredicates.idAttribute(entityManager, domainClass);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+
+        query.select(root.<Long>get(idAttribute))
+                .where(SpecificationPredicates.matching(spec, domainClass, idAttribute, root, query, criteriaBuilder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        return readSlice(entityManager.createQuery(query), pageable);
+    }
+
+    private <R> Slice<R> readSlice(TypedQuery<R> query, Pageable pageable) {
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+
+        List<R> rows = query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<R> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> getDomainClass() {
+        return (Class<T>) RepositoryMethodContext.getContext().getMetadata().getDomainType();
+    }
+}
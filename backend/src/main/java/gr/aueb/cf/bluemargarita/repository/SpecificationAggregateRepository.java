@@ -0,0 +1,53 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository fragment that computes count/sum/avg aggregates for any Specification
+ * in a single database query, without loading the matching entities.
+ * Repositories opt in by extending this interface next to JpaSpecificationExecutor.
+ */
+public interface SpecificationAggregateRepository<T> {
+
+    /**
+     * Runs one aggregate query over the entities matching the specification.
+     * Values are returned in the same order as the selections
+     */
+    SpecificationAggregateResult aggregate(Specification<T> spec, List<AggregateSelection<T>> selections);
+
+    // =============================================================================
+    // AGGREGATE SELECTIONS
+    // =============================================================================
+
+    @FunctionalInterface
+    interface AggregateSelection<T> {
+
+        Expression<?> toExpression(Root<T> root, CriteriaBuilder criteriaBuilder);
+
+        static <T> AggregateSelection<T> count() {
+            return (root, criteriaBuilder) -> criteriaBuilder.count(root);
+        }
+
+        static <T> AggregateSelection<T> sum(String attribute) {
+            return (root, criteriaBuilder) -> criteriaBuilder.sum(root.<BigDecimal>get(attribute));
+        }
+
+        static <T> AggregateSelection<T> avg(String attribute) {
+            return (root, criteriaBuilder) -> criteriaBuilder.avg(root.<BigDecimal>get(attribute));
+        }
+
+        /**
+         * SUM(minuend - subtrahend), rows where either value is null are skipped
+         */
+        static <T> AggregateSelection<T> sumDifference(String minuend, String subtrahend) {
+            return (root, criteriaBuilder) -> criteriaBuilder.sum(
+                    criteriaBuilder.diff(root.<BigDecimal>get(minuend), root.<BigDecimal>get(subtrahend)));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared implementation of the aggregate fragment. The domain type is taken from the
+ * calling repository, so one instance serves every repository that extends the fragment.
+
+ * The specification is applied through SpecificationPredicates, so specifications that join
+ * collections cannot count and sum the same row once per joined child.
+ */
+public class SpecificationAggregateRepositoryImpl<T> implements SpecificationAggregateRepository<T>, RepositoryMetadataAccess {
+
+    private final EntityManager entityManager;
+
+    public SpecificationAggregateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public SpecificationAggregateResult aggregate(Specification<T> spec, List<AggregateSelection<T>> selections) {
+
+        Class<T> domainClass = (Class<T>) RepositoryMethodContext.getContext().getMetadata().getDomainType();
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<T> root = query.from(domainClass);
+
+        List<Selection<?>> expressions = selections.stream()
+                .<Selection<?>>map(selection -> selection.toExpression(root, criteriaBuilder))
+                .toList();
+
+        query.multiselect(expressions);
+        query.where(SpecificationPredicates.matching(spec, domainClass,
+                SpecificationPredicates.idAttribute(entityManager, domainClass), root, query, criteriaBuilder));
+
+        Object result = entityManager.createQuery(query).getSingleResult();
+
+        // a single selection comes back as a plain value, not as an array
+        List<Object> values = result instanceof Object[] row ? Arrays.asList(row) : List.of(result);
+        return new SpecificationAggregateResult(values);
+    }
+}
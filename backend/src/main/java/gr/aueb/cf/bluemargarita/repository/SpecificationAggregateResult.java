@@ -0,0 +1,34 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Values of a SpecificationAggregateRepository query, read by selection position.
+ * Aggregates over no rows (SUM/AVG = null) are returned as zero.
+ */
+public class SpecificationAggregateResult {
+
+    private final List<Object> values;
+
+    public SpecificationAggregateResult(List<Object> values) {
+        this.values = values;
+    }
+
+    public long getLong(int index) {
+        Object value = values.get(index);
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    public BigDecimal getBigDecimal(int index) {
+        Object value = values.get(index);
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return new BigDecimal(value.toString());
+    }
+
+    public BigDecimal getBigDecimal(int index, int scale) {
+        return getBigDecimal(index).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
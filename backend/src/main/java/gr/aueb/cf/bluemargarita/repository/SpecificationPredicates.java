@@ -0,0 +1,69 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Applies a specification to the root of the custom repository fragments.
+ *
+ * Specifications that join collections (category, product, material filters) would repeat a
+ * row once per joined child, so those are applied inside an id subquery:
+ * root.id IN (SELECT id FROM T WHERE spec). Every other specification is applied to the root
+ * directly, which keeps unfiltered and simply filtered lists free of the semi-join.
+ */
+final class SpecificationPredicates {
+
+    private SpecificationPredicates() {
+    }
+
+    static <T> Predicate matching(Specification<T> spec,
+                                  Class<T> domainClass,
+                                  String idAttribute,
+                                  Root<T> root,
+                                  CriteriaQuery<?> query,
+                                  CriteriaBuilder criteriaBuilder) {
+
+        if (spec == null) {
+            return criteriaBuilder.conjunction();
+        }
+
+        // applied once to a detached root to see which joins the specification makes
+        Subquery<Object> ids = query.subquery(Object.class);
+        Root<T> filtered = ids.from(domainClass);
+        Predicate predicate = spec.toPredicate(filtered, query, criteriaBuilder);
+
+        if (predicate == null) {
+            return criteriaBuilder.conjunction();
+        }
+
+        if (!joinsCollection(filtered)) {
+            Predicate direct = spec.toPredicate(root, query, criteriaBuilder);
+            return direct != null ? direct : criteriaBuilder.conjunction();
+        }
+
+        ids.select(filtered.get(idAttribute)).where(predicate);
+        return root.get(idAttribute).in(ids);
+    }
+
+    static String idAttribute(EntityManager entityManager, Class<?> domainClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(domainClass);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    private static boolean joinsCollection(From<?, ?> from) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().isCollection() || joinsCollection(join)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
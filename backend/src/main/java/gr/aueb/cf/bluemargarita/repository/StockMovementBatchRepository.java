@@ -0,0 +1,14 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.StockMovement;
+
+import java.util.List;
+
+/**
+ * Batched ledger writes, kept out of the persistence context so that recording
+ * the movements of a sale costs one JDBC batch instead of one INSERT per product
+ */
+public interface StockMovementBatchRepository {
+
+    void insertAll(List<StockMovement> movements);
+}
@@ -0,0 +1,46 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.StockMovement;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+public class StockMovementBatchRepositoryImpl implements StockMovementBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO stock_movements (product_id, delta, reason, sale_id, user_id, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, movements.size(), (statement, movement) -> {
+            statement.setLong(1, movement.getProductId());
+            statement.setInt(2, movement.getDelta());
+            statement.setString(3, movement.getReason().name());
+            if (movement.getSaleId() != null) {
+                statement.setLong(4, movement.getSaleId());
+            } else {
+                statement.setNull(4, Types.BIGINT);
+            }
+            if (movement.getUserId() != null) {
+                statement.setLong(5, movement.getUserId());
+            } else {
+                statement.setNull(5, Types.BIGINT);
+            }
+            statement.setTimestamp(6, Timestamp.valueOf(movement.getCreatedAt()));
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.model.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>,
+        StockMovementBatchRepository {
+
+    long countByProductId(Long productId);
+
+    // =============================================================================
+    // PRODUCT HISTORY
+    // =============================================================================
+
+    /**
+     * Movements of a product, newest first, with the stock right after each movement.
+     * The balance is walked back from the current stock with a running window sum of the
+     * later movements, so it is computed before LIMIT/OFFSET and is correct on every page.
+     * Each row: id, created_at, delta, reason, sale_id, username, stock_after
+     */
+    @Query(value = """
+            SELECT m.id, m.created_at, m.delta, m.reason, m.sale_id, u.username,
+                   p.stock - COALESCE(SUM(m.delta) OVER (
+                       ORDER BY m.created_at DESC, m.id DESC
+                       ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0) AS stock_after
+            FROM stock_movements m
+            JOIN products p ON p.id = m.product_id
+            LEFT JOIN users u ON u.id = m.user_id
+            WHERE m.product_id = :productId
+            ORDER BY m.created_at DESC, m.id DESC
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Object[]> findHistoryByProductId(@Param("productId") Long productId,
+                                          @Param("limit") int limit,
+                                          @Param("offset") long offset);
+
+    /**
+     * Stock of a product at a point in time: the current stock minus every movement after it.
+     * Single row: stock at that time, number of movements since
+     */
+    @Query(value = """
+            SELECT p.stock - COALESCE(SUM(m.delta), 0), COUNT(m.id)
+            FROM products p
+            LEFT JOIN stock_movements m ON m.product_id = p.id AND m.created_at >= :pointInTime
+            WHERE p.id = :productId
+            GROUP BY p.id, p.stock
+            """, nativeQuery = true)
+    List<Object[]> findStockAtPointInTime(@Param("productId") Long productId,
+                                          @Param("pointInTime") LocalDateTime pointInTime);
+
+    // =============================================================================
+    // NET MOVEMENT PER PERIOD
+    // =============================================================================
+
+    /**
+     * Stock in/out per day, week or month with a running cumulative net change.
+     * productId = 0 means all products.
+     * Each row: period_start, stock_in, stock_out, net_change, cumulative_net_change
+     */
+    @Query(value = """
+            SELECT period_start, stock_in, stock_out, net_change,
+                   SUM(net_change) OVER (ORDER BY period_start) AS cumulative_net_change
+            FROM (
+                SELECT date_trunc(CAST(:granularity AS text), m.created_at) AS period_start,
+                       SUM(CASE WHEN m.delta > 0 THEN m.delta ELSE 0 END) AS stock_in,
+                       SUM(CASE WHEN m.delta < 0 THEN -m.delta ELSE 0 END) AS stock_out,
+                       SUM(m.delta) AS net_change
+                FROM stock_movements m
+                WHERE m.created_at >= :fromTime AND m.created_at < :toTime
+                  AND (:productId = 0 OR m.product_id = :productId)
+                GROUP BY 1
+            ) periods
+            ORDER BY period_start
+            """, nativeQuery = true)
+    List<Object[]> findNetMovementPerPeriod(@Param("granularity") String granularity,
+                                            @Param("fromTime") LocalDateTime fromTime,
+                                            @Param("toTime") LocalDateTime toTime,
+                                            @Param("productId") Long productId);
+}
@@ -0,0 +1,21 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.supplier.SupplierMaterialPriceRankDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compares what each active supplier has charged for each active material, in one pass
+ * over purchase_material joined with purchases.
+ */
+public interface SupplierPriceRankingRepository {
+
+    /**
+     * Suppliers of every material ranked by weighted average unit price (total cost / total quantity),
+     * ties broken by the most recent purchase. Ordered by material name, then rank.
+     * @param since only purchases on or after this date are compared
+     * @param maxRank suppliers ranked below this are left out
+     */
+    List<SupplierMaterialPriceRankDTO> findSupplierPriceRanking(LocalDate since, int maxRank);
+}
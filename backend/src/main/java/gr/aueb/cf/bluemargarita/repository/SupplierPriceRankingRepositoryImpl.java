@@ -0,0 +1,80 @@
+package gr.aueb.cf.bluemargarita.repository;
+
+import gr.aueb.cf.bluemargarita.dto.supplier.SupplierMaterialPriceRankDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SupplierPriceRankingRepositoryImpl implements SupplierPriceRankingRepository {
+
+    // Aggregates per (material, supplier) first, so the window functions only run over one
+    // row per pair. The last unit price is the price of the latest line of the pair.
+    private static final String SUPPLIER_PRICE_RANKING_SQL = """
+            WITH supplier_prices AS (
+                SELECT pm.material_id,
+                       p.supplier_id,
+                       SUM(pm.quantity * pm.price_at_the_time) / SUM(pm.quantity) AS weighted_avg_price,
+                       (ARRAY_AGG(pm.price_at_the_time ORDER BY p.purchase_date DESC, p.id DESC))[1] AS last_unit_price,
+                       SUM(pm.quantity) AS total_quantity,
+                       COUNT(DISTINCT p.id) AS purchase_count,
+                       MAX(p.purchase_date) AS last_purchase_date
+                FROM purchase_material pm
+                JOIN purchases p ON p.id = pm.purchase_id
+                JOIN suppliers s ON s.id = p.supplier_id
+                JOIN materials m ON m.id = pm.material_id
+                WHERE s.is_active = true AND m.is_active = true
+                  AND pm.price_at_the_time IS NOT NULL AND pm.quantity > 0
+                  AND p.purchase_date >= ?
+                GROUP BY pm.material_id, p.supplier_id
+            ),
+            ranked AS (
+                SELECT sp.*,
+                       RANK() OVER (PARTITION BY material_id
+                                    ORDER BY weighted_avg_price, last_purchase_date DESC) AS price_rank,
+                       RANK() OVER (PARTITION BY material_id ORDER BY last_purchase_date DESC) AS recency_rank,
+                       COUNT(*) OVER (PARTITION BY material_id) AS supplier_count,
+                       MIN(weighted_avg_price) OVER (PARTITION BY material_id) AS best_price
+                FROM supplier_prices sp
+            )
+            SELECT r.material_id, m.name, m.unit_of_measure, r.supplier_id, s.name,
+                   ROUND(r.weighted_avg_price, 2), r.last_unit_price, r.total_quantity, r.purchase_count,
+                   r.last_purchase_date, r.price_rank, r.recency_rank, r.supplier_count,
+                   CASE WHEN r.best_price > 0
+                        THEN ROUND((r.weighted_avg_price - r.best_price) * 100 / r.best_price, 2)
+                        ELSE 0 END
+            FROM ranked r
+            JOIN materials m ON m.id = r.material_id
+            JOIN suppliers s ON s.id = r.supplier_id
+            WHERE r.price_rank <= ?
+            ORDER BY m.name, r.material_id, r.price_rank, s.name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SupplierPriceRankingRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<SupplierMaterialPriceRankDTO> findSupplierPriceRanking(LocalDate since, int maxRank) {
+        return jdbcTemplate.query(SUPPLIER_PRICE_RANKING_SQL,
+                (resultSet, rowNum) -> new SupplierMaterialPriceRankDTO(
+                        resultSet.getLong(1),
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        resultSet.getLong(4),
+                        resultSet.getString(5),
+                        resultSet.getBigDecimal(6),
+                        resultSet.getBigDecimal(7),
+                        resultSet.getBigDecimal(8),
+                        resultSet.getInt(9),
+                        resultSet.getDate(10).toLocalDate(),
+                        resultSet.getInt(11),
+                        resultSet.getInt(12),
+                        resultSet.getInt(13),
+                        resultSet.getBigDecimal(14)),
+                Date.valueOf(since), maxRank);
+    }
+}
@@ -8,7 +8,7 @@ import java.util.List;
 
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long>,
-        JpaSpecificationExecutor<Supplier> {
+        JpaSpecificationExecutor<Supplier>, SliceRepository<Supplier> {
     boolean existsByName(String name);
     boolean existsByTin(String tin);
     boolean existsByEmail(String email);
@@ -12,7 +12,7 @@ import java.util.List;
 
 @Repository
 public interface ToDoTaskRepository extends JpaRepository<ToDoTask, Long>,
-        JpaSpecificationExecutor<ToDoTask>{
+        JpaSpecificationExecutor<ToDoTask>, SliceRepository<ToDoTask> {
 
     @Query("SELECT t FROM ToDoTask t WHERE " +
             "(t.date <= :today AND t.status = 'PENDING') " +
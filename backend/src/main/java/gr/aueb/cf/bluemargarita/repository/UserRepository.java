@@ -10,7 +10,7 @@ import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long>,
-        JpaSpecificationExecutor<User> {
+        JpaSpecificationExecutor<User>, SliceRepository<User> {
 
     List<User> findByIsActiveTrue();
     Optional<User> findByUsername(String username);
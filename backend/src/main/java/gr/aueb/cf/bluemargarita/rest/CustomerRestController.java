@@ -26,6 +26,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -259,9 +260,12 @@ public class CustomerRestController {
             @Parameter(description = "General search term (searches multiple fields)") @RequestParam(required = false) String searchTerm,
             @Parameter(description = "Filter wholesale customers only") @RequestParam(required = false) Boolean wholesaleOnly,
             @Parameter(description = "Active status filter") @RequestParam(required = false) Boolean isActive,
+            @Parameter(description = "Minimum all-time revenue") @RequestParam(required = false) BigDecimal minTotalRevenue,
+            @Parameter(description = "Minimum number of orders") @RequestParam(required = false) Integer minTotalOrders,
+            @Parameter(description = "Minimum RFM score (3-15)") @RequestParam(required = false) Integer minRfmScore,
             @Parameter(description = "Page number (0-based)") @RequestParam(required = false, defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") int pageSize,
-            @Parameter(description = "Sort field") @RequestParam(required = false, defaultValue = "lastname") String sortBy,
+            @Parameter(description = "Sort field, customer fields or totalOrders, totalRevenue, lastOrderDate, rfmScore") @RequestParam(required = false, defaultValue = "lastname") String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(required = false, defaultValue = "ASC") String sortDirection) {
 
         CustomerFilters filters = CustomerFilters.builder()
@@ -272,6 +276,9 @@ public class CustomerRestController {
                 .searchTerm(searchTerm)
                 .wholesaleOnly(wholesaleOnly)
                 .isActive(isActive)
+                .minTotalRevenue(minTotalRevenue)
+                .minTotalOrders(minTotalOrders)
+                .minRfmScore(minRfmScore)
                 .build();
 
         // Set pagination properties using request parameters (with defaults)
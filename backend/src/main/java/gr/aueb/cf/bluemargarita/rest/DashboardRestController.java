@@ -7,12 +7,7 @@ import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
 import gr.aueb.cf.bluemargarita.core.filters.ToDoTaskFilters;
 import gr.aueb.cf.bluemargarita.dto.analytics.DashboardOverviewDTO;
-import gr.aueb.cf.bluemargarita.dto.product.MispricedProductAlertDTO;
 import gr.aueb.cf.bluemargarita.dto.product.ProductListItemDTO;
-import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
-import gr.aueb.cf.bluemargarita.dto.purchase.PurchaseReadOnlyDTO;
-import gr.aueb.cf.bluemargarita.dto.sale.SaleReadOnlyDTO;
-import gr.aueb.cf.bluemargarita.dto.sale.SalesSummaryDTO;
 import gr.aueb.cf.bluemargarita.dto.stock.StockAlertDTO;
 import gr.aueb.cf.bluemargarita.dto.task.*;
 import gr.aueb.cf.bluemargarita.model.Purchase;
@@ -35,7 +30,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -48,11 +42,9 @@ import java.util.Map;
 @Tag(name = "Dashboard", description = "Dashboard APIs providing complete business overview, inventory alerts, and task management for the jewelry business")
 public class DashboardRestController {
 
-    private final ISaleService saleService;
-    private final IPurchaseService purchaseService;
-    private final IProductService productService;
     private final IStockManagementService stockManagementService;
     private final IToDoTaskService toDoTaskService;
+    private final IDashboardService dashboardService;
 
     // =============================================================================
     // DASHBOARD OVERVIEW - SINGLE ENDPOINT FOR ALL DATA
@@ -62,7 +54,8 @@ public class DashboardRestController {
             summary = "Get complete dashboard overview",
             description = "Retrieves all dashboard data in a single optimized request: weekly/monthly sales summaries, " +
                     "5 recent sales, 5 recent purchases, 5 low stock products, top 5 products this month, and organized task lists. " +
-                    "Single endpoint for entire dashboard page load.",
+                    "Single endpoint for entire dashboard page load. Widgets are loaded concurrently; a widget that fails or " +
+                    "times out is returned empty and listed in unavailableWidgets.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -77,40 +70,7 @@ public class DashboardRestController {
     @GetMapping("/overview")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<DashboardOverviewDTO> getDashboardOverview() {
-
-        // Sales summaries
-        SalesSummaryDTO weeklySales = saleService.getWeeklySalesSummary();
-        SalesSummaryDTO monthlySales = saleService.getMonthlySalesSummary();
-
-
-        // Recent activity (5 each)
-        List<SaleReadOnlyDTO> recentSales = saleService.getRecentSales(5);
-        List<PurchaseReadOnlyDTO> recentPurchases = purchaseService.getRecentPurchases(5);
-
-        // Inventory alerts (5 lowest stock)
-        List<StockAlertDTO> lowStockProducts = stockManagementService.getLowStockProducts(5);
-
-        // Top products for this month (5 best performers)
-        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
-        LocalDate monthEnd = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-        List<ProductStatsSummaryDTO> topProductsThisMonth = productService.getTopProductsByMonthlyRevenue(monthStart, monthEnd, 5);
-
-        // Tasks (organized: overdue/today + this week)
-        DashboardToDoTasksDTO dashboardTasks = toDoTaskService.getDashboardTasks(5);
-
-        // Pricing alerts - products where selling price is significantly different from suggested price
-        List<MispricedProductAlertDTO> mispricedProducts = productService.getMispricedProductsAlert(BigDecimal.valueOf(20), 5);
-
-        DashboardOverviewDTO overview = new DashboardOverviewDTO(
-                weeklySales,
-                monthlySales,
-                recentSales,
-                recentPurchases,
-                lowStockProducts,
-                topProductsThisMonth,
-                dashboardTasks,
-                mispricedProducts
-        );
+        DashboardOverviewDTO overview = dashboardService.getDashboardOverview();
         return new ResponseEntity<>(overview, HttpStatus.OK);
     }
 
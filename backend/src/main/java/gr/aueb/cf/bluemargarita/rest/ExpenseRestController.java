@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.rest;
 
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotAuthorizedException;
 import gr.aueb.cf.bluemargarita.core.exceptions.ValidationException;
@@ -237,6 +238,58 @@ public class ExpenseRestController {
         return new ResponseEntity<>(expenses, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Search expenses with cursor pagination",
+            description = "Same filters as /search, but pages by keyset instead of page number, so deep pages cost the same " +
+                    "as the first. Sorts by expenseDate, amount or id, with the id as tie-breaker. Pass the nextCursor or " +
+                    "previousCursor of a page, with the same sort, to move from it. The summary is only returned with the first page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Keyset page of expenses with next/previous cursors",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CursorPaginatedFilteredExpensesWithSummary.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported sort field or invalid cursor",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPaginatedFilteredExpensesWithSummary> searchExpensesByCursor(
+            @Parameter(description = "Expense description filter") @RequestParam(required = false) String description,
+            @Parameter(description = "Expense date from (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expenseDateFrom,
+            @Parameter(description = "Expense date to (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expenseDateTo,
+            @Parameter(description = "Expense type filter") @RequestParam(required = false) String expenseType,
+            @Parameter(description = "Purchase-linked expenses only") @RequestParam(required = false) Boolean isPurchase,
+            @Parameter(description = "Cursor of the page to continue from, omitted for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") int pageSize,
+            @Parameter(description = "Sort field: expenseDate, amount or id") @RequestParam(required = false, defaultValue = "expenseDate") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(required = false, defaultValue = "DESC") String sortDirection)
+            throws EntityInvalidArgumentException {
+
+        ExpenseFilters filters = ExpenseFilters.builder()
+                .description(description)
+                .expenseDateFrom(expenseDateFrom)
+                .expenseDateTo(expenseDateTo)
+                .expenseType(expenseType)
+                .isPurchase(isPurchase)
+                .build();
+
+        filters.setCursor(cursor);
+        filters.setPageSize(pageSize);
+        filters.setSortBy(sortBy);
+        filters.setSortDirection(Sort.Direction.valueOf(sortDirection.toUpperCase()));
+
+        CursorPaginatedFilteredExpensesWithSummary expenses = expenseService.searchExpensesByCursor(filters);
+        return new ResponseEntity<>(expenses, HttpStatus.OK);
+    }
+
     // =============================================================================
     // EXPENSE ANALYTICS
     // =============================================================================
@@ -0,0 +1,116 @@
+package gr.aueb.cf.bluemargarita.rest;
+
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
+import gr.aueb.cf.bluemargarita.service.IJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Background Jobs", description = "APIs for polling and cancelling long-running administrative operations")
+public class JobRestController {
+
+    private final IJobService jobService;
+
+    @Operation(
+            summary = "Get job status",
+            description = "Returns the status, progress percentage and, once finished, the result of a background job. " +
+                    "Poll this after starting a job such as the price recalculation.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Job status",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = JobReadOnlyDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<JobReadOnlyDTO> getJob(
+            @Parameter(description = "Job ID", required = true)
+            @PathVariable Long id) throws EntityNotFoundException {
+
+        JobReadOnlyDTO job = jobService.getJob(id);
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get recent jobs",
+            description = "Returns the 20 most recent background jobs, newest first.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Recent jobs",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = JobReadOnlyDTO.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<JobReadOnlyDTO>> getRecentJobs() {
+        List<JobReadOnlyDTO> jobs = jobService.getRecentJobs();
+        return new ResponseEntity<>(jobs, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Cancel a job",
+            description = "Cancels a queued job immediately. A running job stops after the chunk it is processing; " +
+                    "the chunks already committed are kept and reported in the job's result.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Cancellation requested",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = JobReadOnlyDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Job has already finished",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Job not found",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<JobReadOnlyDTO> cancelJob(
+            @Parameter(description = "Job ID", required = true)
+            @PathVariable Long id) throws EntityNotFoundException, EntityInvalidArgumentException {
+
+        JobReadOnlyDTO job = jobService.cancelJob(id);
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+}
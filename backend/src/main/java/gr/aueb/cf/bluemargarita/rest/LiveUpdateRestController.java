@@ -0,0 +1,57 @@
+package gr.aueb.cf.bluemargarita.rest;
+
+import gr.aueb.cf.bluemargarita.core.exceptions.ServiceUnavailableException;
+import gr.aueb.cf.bluemargarita.service.ILiveUpdateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Live Updates", description = "Server-sent event stream of sale, stock and task changes")
+public class LiveUpdateRestController {
+
+    private final ILiveUpdateService liveUpdateService;
+
+    @Operation(
+            summary = "Open the live update stream",
+            description = "Streams changes as server-sent events once they are committed: 'sales' (changed sales with the " +
+                    "current weekly and monthly totals), 'stock-levels' (new stock per product), 'low-stock-alerts' " +
+                    "(products that just reached their alert level) and 'task' (task created, updated or deleted). " +
+                    "A 'resync' event means updates were lost and the view must be reloaded. Reconnect with the " +
+                    "Last-Event-ID header to receive the events missed while disconnected.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Too many live update connections, retry after the Retry-After seconds",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamLiveUpdates(
+            @Parameter(description = "Id of the last event received, sent by reconnecting clients")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            Principal principal) throws ServiceUnavailableException {
+
+        return liveUpdateService.subscribe(principal.getName(), lastEventId);
+    }
+}
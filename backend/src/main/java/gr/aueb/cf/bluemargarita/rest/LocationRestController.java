@@ -268,6 +268,27 @@ public class LocationRestController {
         return new ResponseEntity<>(locationDetails, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Compare locations",
+            description = "Retrieves the sales of all active locations side by side: today, last 30 days, year to date and all time, with each location's share of the year-to-date revenue.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Active locations with their sales analytics",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = LocationComparisonDTO.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/comparison")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<LocationComparisonDTO>> getLocationComparison() {
+        List<LocationComparisonDTO> comparison = locationService.getLocationComparison();
+        return new ResponseEntity<>(comparison, HttpStatus.OK);
+    }
+
 
 
     // =============================================================================
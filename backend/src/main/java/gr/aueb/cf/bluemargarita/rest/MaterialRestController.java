@@ -88,14 +88,14 @@ public class MaterialRestController {
 
     @Operation(
             summary = "Update material",
-            description = "Updates an existing material's information with unique name validation. Used in material management.",
+            description = "Updates an existing material's information with unique name validation. When the unit cost changes, the suggested prices of the products using the material are recalculated and the number of repriced products is returned. Used in material management.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Material updated successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = MaterialReadOnlyDTO.class)
+                                    schema = @Schema(implementation = MaterialUpdateResultDTO.class)
                             )
                     ),
                     @ApiResponse(
@@ -117,7 +117,7 @@ public class MaterialRestController {
     )
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<MaterialReadOnlyDTO> updateMaterial(
+    public ResponseEntity<MaterialUpdateResultDTO> updateMaterial(
             @PathVariable Long id,
             @Valid @RequestBody MaterialUpdateDTO materialUpdateDTO,
             BindingResult bindingResult) throws ValidationException, EntityAlreadyExistsException, EntityNotFoundException {
@@ -126,8 +126,8 @@ public class MaterialRestController {
             throw new ValidationException(bindingResult);
         }
 
-        MaterialReadOnlyDTO material = materialService.updateMaterial(materialUpdateDTO);
-        return new ResponseEntity<>(material, HttpStatus.OK);
+        MaterialUpdateResultDTO result = materialService.updateMaterial(materialUpdateDTO);
+        return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     @Operation(
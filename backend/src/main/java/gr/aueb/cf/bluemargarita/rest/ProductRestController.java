@@ -1,11 +1,13 @@
 package gr.aueb.cf.bluemargarita.rest;
 
+import gr.aueb.cf.bluemargarita.core.exceptions.AppServerException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.exceptions.ValidationException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.procedure.ProcedureReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.product.*;
 import gr.aueb.cf.bluemargarita.service.IProductService;
@@ -209,6 +211,8 @@ public class ProductRestController {
             @Parameter(description = "Material ID filter") @RequestParam(required = false) Long materialId,
             @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Minimum total cost filter") @RequestParam(required = false) BigDecimal minCost,
+            @Parameter(description = "Maximum total cost filter") @RequestParam(required = false) BigDecimal maxCost,
             @Parameter(description = "Minimum stock filter") @RequestParam(required = false) Integer minStock,
             @Parameter(description = "Maximum stock filter") @RequestParam(required = false) Integer maxStock,
             @Parameter(description = "Active status filter") @RequestParam(required = false) Boolean isActive,
@@ -226,6 +230,8 @@ public class ProductRestController {
                 .materialId(materialId)
                 .minPrice(minPrice)
                 .maxPrice(maxPrice)
+                .minCost(minCost)
+                .maxCost(maxCost)
                 .minStock(minStock)
                 .maxStock(maxStock)
                 .isActive(isActive)
@@ -518,31 +524,36 @@ public class ProductRestController {
 
     @Operation(
             summary = "Recalculate all product prices",
-            description = "Recalculates suggested prices for ALL active products based on current procedure costs and markup factors. " +
-                    "This is a bulk administrative operation that can affect many products. Use this when procedure costs have changed " +
-                    "and you want to update all product prices accordingly. Requires ADMIN role.",
+            description = "Starts a background job that recalculates suggested prices for ALL active products based on current " +
+                    "material and procedure costs and markup factors. Returns immediately with the job; poll GET /api/jobs/{id} " +
+                    "for progress and the PriceRecalculationResultDTO result. If a recalculation is already running, that job is returned.",
             responses = {
                     @ApiResponse(
-                            responseCode = "200",
-                            description = "Price recalculation completed with detailed results",
+                            responseCode = "202",
+                            description = "Price recalculation job queued",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = PriceRecalculationResultDTO.class)
+                                    schema = @Schema(implementation = JobReadOnlyDTO.class)
                             )
                     ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "User not found",
                             content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Job queue is full",
+                            content = @Content(mediaType = "application/json")
                     )
             }
     )
     @PostMapping("/recalculate-all-prices")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<PriceRecalculationResultDTO> recalculateAllProductPrices() throws EntityNotFoundException {
+    public ResponseEntity<JobReadOnlyDTO> recalculateAllProductPrices() throws EntityNotFoundException, AppServerException {
 
-        PriceRecalculationResultDTO result = productService.recalculateAllProductPrices();
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        JobReadOnlyDTO job = productService.recalculateAllProductPrices();
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
 
     }
 
@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.rest;
 
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotAuthorizedException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.exceptions.ValidationException;
@@ -183,4 +184,54 @@ public class PurchaseRestController {
         PaginatedFilteredPurchasesWithSummary purchases = purchaseService.searchPurchasesWithSummary(filters);
         return new ResponseEntity<>(purchases, HttpStatus.OK);
     }
+
+    @Operation(
+            summary = "Search purchases with cursor pagination",
+            description = "Same filters as /search, but pages by keyset instead of page number, so deep pages cost the same " +
+                    "as the first. Sorts by purchaseDate, totalCost or id, with the id as tie-breaker. Pass the nextCursor or " +
+                    "previousCursor of a page, with the same sort, to move from it. The summary is only returned with the first page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Keyset page of purchases with next/previous cursors",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CursorPaginatedFilteredPurchasesWithSummary.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported sort field or invalid cursor",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPaginatedFilteredPurchasesWithSummary> searchPurchasesByCursor(
+            @Parameter(description = "Supplier ID filter") @RequestParam(required = false) Long supplierId,
+            @Parameter(description = "Purchase date from (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate purchaseDateFrom,
+            @Parameter(description = "Purchase date to (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate purchaseDateTo,
+            @Parameter(description = "Material ID filter") @RequestParam(required = false) Long materialId,
+            @Parameter(description = "Cursor of the page to continue from, omitted for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") int pageSize,
+            @Parameter(description = "Sort field: purchaseDate, totalCost or id") @RequestParam(required = false, defaultValue = "purchaseDate") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(required = false, defaultValue = "DESC") String sortDirection)
+            throws EntityInvalidArgumentException {
+
+        PurchaseFilters filters = PurchaseFilters.builder()
+                .supplierId(supplierId)
+                .purchaseDateFrom(purchaseDateFrom)
+                .purchaseDateTo(purchaseDateTo)
+                .materialId(materialId)
+                .build();
+
+        filters.setCursor(cursor);
+        filters.setPageSize(pageSize);
+        filters.setSortBy(sortBy);
+        filters.setSortDirection(Sort.Direction.valueOf(sortDirection.toUpperCase()));
+
+        CursorPaginatedFilteredPurchasesWithSummary purchases = purchaseService.searchPurchasesByCursor(filters);
+        return new ResponseEntity<>(purchases, HttpStatus.OK);
+    }
 }
@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.rest;
 
 import gr.aueb.cf.bluemargarita.core.enums.PaymentMethod;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotAuthorizedException;
 import gr.aueb.cf.bluemargarita.core.exceptions.ValidationException;
@@ -191,4 +192,62 @@ public class SaleRestController {
         return new ResponseEntity<>(sales, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Search sales with cursor pagination",
+            description = "Same filters as /search, but pages by keyset instead of page number, so deep pages cost the same " +
+                    "as the first. Sorts by saleDate, finalTotalPrice or id, with the id as tie-breaker. Pass the nextCursor or " +
+                    "previousCursor of a page, with the same sort, to move from it. The summary is only returned with the first page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Keyset page of sales with next/previous cursors",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CursorPaginatedFilteredSalesWithSummary.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported sort field or invalid cursor",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPaginatedFilteredSalesWithSummary> searchSalesByCursor(
+            @Parameter(description = "Customer ID filter") @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Product ID filter") @RequestParam(required = false) Long productId,
+            @Parameter(description = "Location ID filter") @RequestParam(required = false) Long locationId,
+            @Parameter(description = "Category ID filter") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Sale date from (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate saleDateFrom,
+            @Parameter(description = "Sale date to (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate saleDateTo,
+            @Parameter(description = "Payment method filter") @RequestParam(required = false) PaymentMethod paymentMethod,
+            @Parameter(description = "Wholesale filter") @RequestParam(required = false) Boolean isWholesale,
+            @Parameter(description = "Cursor of the page to continue from, omitted for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") int pageSize,
+            @Parameter(description = "Sort field: saleDate, finalTotalPrice or id") @RequestParam(required = false, defaultValue = "saleDate") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(required = false, defaultValue = "DESC") String sortDirection)
+            throws EntityInvalidArgumentException {
+
+        SaleFilters filters = SaleFilters.builder()
+                .customerId(customerId)
+                .productId(productId)
+                .locationId(locationId)
+                .categoryId(categoryId)
+                .saleDateFrom(saleDateFrom)
+                .saleDateTo(saleDateTo)
+                .paymentMethod(paymentMethod)
+                .isWholesale(isWholesale)
+                .build();
+
+        filters.setCursor(cursor);
+        filters.setPageSize(pageSize);
+        filters.setSortBy(sortBy);
+        filters.setSortDirection(Sort.Direction.valueOf(sortDirection.toUpperCase()));
+
+        CursorPaginatedFilteredSalesWithSummary sales = saleService.searchSalesByCursor(filters);
+        return new ResponseEntity<>(sales, HttpStatus.OK);
+    }
+
 }
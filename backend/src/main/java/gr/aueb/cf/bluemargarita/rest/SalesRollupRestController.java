@@ -0,0 +1,72 @@
+package gr.aueb.cf.bluemargarita.rest;
+
+import gr.aueb.cf.bluemargarita.dto.analytics.SalesRollupConsistencyDTO;
+import gr.aueb.cf.bluemargarita.dto.analytics.SalesRollupRebuildResultDTO;
+import gr.aueb.cf.bluemargarita.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sales-rollup")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Sales Rollup", description = "Administrative APIs for the daily sales rollup used by analytics")
+public class SalesRollupRestController {
+
+    private final SalesRollupService salesRollupService;
+
+    @Operation(
+            summary = "Rebuild the daily sales rollup",
+            description = "Deletes the rollup and rebuilds it from the sales and sale_product tables. " +
+                    "Used for the initial backfill and to repair the rollup after a failed consistency check. Requires ADMIN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Rollup rebuilt",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SalesRollupRebuildResultDTO.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SalesRollupRebuildResultDTO> rebuildRollup() {
+        SalesRollupRebuildResultDTO result = salesRollupService.rebuildRollup();
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Check rollup consistency",
+            description = "Compares the daily sales rollup with the raw sale tables and reports up to 100 mismatching keys. Requires ADMIN role.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Consistency check result",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SalesRollupConsistencyDTO.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SalesRollupConsistencyDTO> checkConsistency() {
+        SalesRollupConsistencyDTO result = salesRollupService.checkConsistency();
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
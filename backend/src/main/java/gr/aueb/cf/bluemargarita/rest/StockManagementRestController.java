@@ -1,5 +1,6 @@
 package gr.aueb.cf.bluemargarita.rest;
 
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.exceptions.ValidationException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
@@ -18,12 +19,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -94,7 +97,7 @@ public class StockManagementRestController {
 
     @Operation(
             summary = "Get low stock products",
-            description = "Retrieves products with stock levels at or below their low stock alert thresholds. These products need restocking attention.",
+            description = "Retrieves products with stock levels at or below their low stock alert thresholds, largest deficit first. These products need restocking attention.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -117,11 +120,9 @@ public class StockManagementRestController {
                 .isActive(true)
                 .build();
 
-        // Set pagination properties
+        // Set pagination properties, results are ordered by stock deficit
         filters.setPage(page);
         filters.setPageSize(pageSize);
-        filters.setSortBy("stock");
-        filters.setSortDirection(Sort.Direction.ASC);
 
         Paginated<StockAlertDTO> products = stockManagementService.getAllLowStockProductsPaginated(filters);
         return new ResponseEntity<>(products, HttpStatus.OK);
@@ -169,6 +170,39 @@ public class StockManagementRestController {
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Update stock for multiple products",
+            description = "Applies up to 100 stock updates (ADD, REMOVE, SET) in one request, e.g. after a stock count. Returns one result per update; updates for missing or repeated products are reported as failed while the others are applied.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Bulk stock update processed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BulkStockUpdateResultDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid stock update data",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @PatchMapping("/bulk-update-stock")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<BulkStockUpdateResultDTO> bulkUpdateProductStock(
+            @Valid @RequestBody BulkStockUpdateDTO bulkUpdateDTO,
+            BindingResult bindingResult) throws ValidationException, EntityNotFoundException {
+
+        if (bindingResult.hasErrors()) {
+            throw new ValidationException(bindingResult);
+        }
+
+        BulkStockUpdateResultDTO result = stockManagementService.bulkUpdateProductStock(bulkUpdateDTO);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
 
     @Operation(
             summary = "Update stock limit for a single product",
@@ -209,6 +243,107 @@ public class StockManagementRestController {
     }
 
 
+    // =============================================================================
+    // STOCK MOVEMENT HISTORY
+    // =============================================================================
+
+    @Operation(
+            summary = "Get stock movement history of a product",
+            description = "Retrieves the stock ledger of a product, newest first. Each movement includes its reason (SALE, MANUAL, RESTORE), the related sale, the user and the stock right after the movement.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Paginated list of stock movements",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Paginated.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Product not found",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/products/{productId}/movements")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Paginated<StockMovementDTO>> getProductStockMovements(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Page number (0-based)") @RequestParam(required = false, defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(required = false, defaultValue = "20") int pageSize)
+            throws EntityNotFoundException {
+
+        Paginated<StockMovementDTO> movements = stockManagementService.getProductStockMovements(productId, page, pageSize);
+        return new ResponseEntity<>(movements, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get stock of a product at a past date",
+            description = "Calculates the stock of a product at the end of the given date by undoing the movements recorded after it.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Stock at the given date",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = StockAsOfDateDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Product not found",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/products/{productId}/stock-as-of")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StockAsOfDateDTO> getProductStockAsOfDate(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date)
+            throws EntityNotFoundException {
+
+        StockAsOfDateDTO result = stockManagementService.getProductStockAsOfDate(productId, date);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get net stock movement per period",
+            description = "Returns stock in, stock out, net change and cumulative net change per DAY, WEEK or MONTH for one product or for all products.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Net stock movement per period",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = StockNetMovementDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid date range or granularity",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/movements/net")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<StockNetMovementDTO>> getNetStockMovement(
+            @Parameter(description = "Start date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @Parameter(description = "End date (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @Parameter(description = "Period granularity: DAY, WEEK or MONTH") @RequestParam(required = false, defaultValue = "DAY") String granularity,
+            @Parameter(description = "Product ID filter (all products when omitted)") @RequestParam(required = false) Long productId)
+            throws EntityInvalidArgumentException {
+
+        List<StockNetMovementDTO> movements =
+                stockManagementService.getNetStockMovement(dateFrom, dateTo, granularity, productId);
+        return new ResponseEntity<>(movements, HttpStatus.OK);
+    }
+
     // =============================================================================
     // STOCK UPDATE TYPES HELPER
     // =============================================================================
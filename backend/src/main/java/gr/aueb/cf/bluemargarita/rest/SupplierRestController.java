@@ -19,12 +19,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -276,6 +278,37 @@ public class SupplierRestController {
         return new ResponseEntity<>(supplierDetails, HttpStatus.OK);
     }
 
+    @Operation(
+            summary = "Compare supplier prices per material",
+            description = "Ranks the active suppliers of every active material by weighted average unit price, ties going to the most recent purchase. Computed for the whole material catalog in a single request.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Supplier rankings ordered by material name, then price rank",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SupplierMaterialPriceRankDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid max rank",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/material-price-comparison")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<SupplierMaterialPriceRankDTO>> getSupplierPriceRanking(
+            @Parameter(description = "Only compare purchases on or after this date (all history if omitted)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+            @Parameter(description = "Number of suppliers to keep per material")
+            @RequestParam(required = false, defaultValue = "3") Integer maxRank) throws EntityInvalidArgumentException {
+
+        List<SupplierMaterialPriceRankDTO> ranking = supplierService.getSupplierPriceRanking(since, maxRank);
+        return new ResponseEntity<>(ranking, HttpStatus.OK);
+    }
+
 
     @Operation(
             summary = "Search suppliers for autocomplete",
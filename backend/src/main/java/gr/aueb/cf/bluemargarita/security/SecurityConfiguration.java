@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.security;
 
 import gr.aueb.cf.bluemargarita.authentication.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,6 +51,9 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints - no authentication required
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // The live update stream completes on an async dispatch, which is not re-authenticated.
+                        // The request itself was authorized when the stream was opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/authenticate").permitAll()
                         .requestMatchers("/api/users/register").permitAll()
 
@@ -75,6 +79,8 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/categories/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/materials/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/procedures/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/api/live/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // All other requests require authentication
                         .anyRequest().authenticated()
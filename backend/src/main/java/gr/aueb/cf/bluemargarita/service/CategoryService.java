@@ -12,6 +12,7 @@ import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.Category;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.CategoryRepository;
+import gr.aueb.cf.bluemargarita.repository.CategoryStatsRepository.CategorySalesStats;
 import gr.aueb.cf.bluemargarita.repository.ProductRepository;
 import gr.aueb.cf.bluemargarita.repository.SaleProductRepository;
 import org.springframework.data.jpa.domain.Specification;
@@ -22,9 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,6 +34,7 @@ public class CategoryService implements ICategoryService{
 
     private static final Logger LOGGER =
             LoggerFactory.getLogger(CategoryService.class);
+    private static final int TOP_PRODUCTS_LIMIT = 10;
     private final CategoryRepository categoryRepository;
     private final UserService userService;
     private final ProductRepository productRepository;
@@ -42,7 +42,8 @@ public class CategoryService implements ICategoryService{
     private final Mapper mapper;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, UserService userService, ProductRepository productRepository, SaleProductRepository saleProductRepository, Mapper mapper) {
+    public CategoryService(CategoryRepository categoryRepository, UserService userService, ProductRepository productRepository, SaleProductRepository saleProductRepository,
+                           Mapper mapper) {
         this.categoryRepository = categoryRepository;
         this.userService = userService;
         this.productRepository = productRepository;
@@ -239,48 +240,41 @@ public class CategoryService implements ICategoryService{
         Integer totalProducts = productRepository.countActiveByCategoryId(categoryId);
         // Check if category has products first
         if (totalProducts == 0) {
-            return createEmptyCategoryAnalytics();
+            return createEmptyCategoryAnalytics(categoryRepository.findCategoryStatsRefreshedAt().orElse(null));
         }
 
         // Product metrics
         BigDecimal averageProductPrice = productRepository.calculateAverageRetailPriceByCategoryId(categoryId);
 
-        // All-time sales metrics
-        Integer totalSalesCount = saleProductRepository.countByCategoryId(categoryId);
-        if (totalSalesCount == 0) {
-            return createEmptyCategoryAnalytics();
+        // Sales metrics (all-time, last 30 days and current year) from the category_sales_stats view
+        Optional<CategorySalesStats> found = categoryRepository.findCategorySalesStats(categoryId);
+        if (found.isEmpty()) {
+            return createEmptyCategoryAnalytics(categoryRepository.findCategoryStatsRefreshedAt().orElse(null));
+        }
+        if (found.get().totalSalesCount() == 0) {
+            return createEmptyCategoryAnalytics(found.get().refreshedAt());
         }
 
-        BigDecimal totalRevenue = saleProductRepository.sumRevenueByCategoryId(categoryId);
-        BigDecimal averageOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalSalesCount), 2, RoundingMode.HALF_UP);
-        LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByCategoryId(categoryId);
-
-        // Recent performance
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        LocalDate today = LocalDate.now();
-        Integer recentSalesCount = saleProductRepository.countByCategoryIdAndDateRange(categoryId, thirtyDaysAgo, today);
-        BigDecimal recentRevenue = saleProductRepository.sumRevenueByCategoryIdAndDateRange(categoryId, thirtyDaysAgo, today);
-
-        // Yearly performance
-        LocalDate yearStart = LocalDate.of(LocalDate.now().getYear(), 1, 1);
-        Integer yearlySalesCount = saleProductRepository.countByCategoryIdAndDateRange(categoryId, yearStart, today);
-        BigDecimal yearlySalesRevenue = saleProductRepository.sumRevenueByCategoryIdAndDateRange(categoryId, yearStart, today);
+        CategorySalesStats stats = found.get();
+        BigDecimal averageOrderValue = stats.totalRevenue()
+                .divide(BigDecimal.valueOf(stats.totalSalesCount()), 2, RoundingMode.HALF_UP);
 
         return new CategoryAnalyticsDTO(
                 totalProducts,
                 averageProductPrice != null ? averageProductPrice : BigDecimal.ZERO,
-                totalRevenue,
-                totalSalesCount,
+                stats.totalRevenue(),
+                stats.totalSalesCount(),
                 averageOrderValue,
-                lastSaleDate,
-                recentSalesCount,
-                recentRevenue,
-                yearlySalesCount,
-                yearlySalesRevenue
+                stats.lastSaleDate(),
+                stats.recentSalesCount(),
+                stats.recentRevenue(),
+                stats.yearlySalesCount(),
+                stats.yearlyRevenue(),
+                stats.refreshedAt()
         );
     }
 
-    private CategoryAnalyticsDTO createEmptyCategoryAnalytics() {
+    private CategoryAnalyticsDTO createEmptyCategoryAnalytics(LocalDateTime statsRefreshedAt) {
         return new CategoryAnalyticsDTO(
                 0,                  // totalProductsInCategory
                 BigDecimal.ZERO,    // averageProductPrice
@@ -291,37 +285,13 @@ public class CategoryService implements ICategoryService{
                 0,                  // recentSalesCount
                 BigDecimal.ZERO,    // recentRevenue
                 0,                  // yearlySalesCount
-                BigDecimal.ZERO     // yearlySalesRevenue
+                BigDecimal.ZERO,    // yearlySalesRevenue
+                statsRefreshedAt
         );
     }
 
     private List<ProductStatsSummaryDTO> getTopProductsInCategory(Long categoryId) {
-        List<Long> productIds = productRepository.findProductIdsByCategoryId(categoryId);
-
-        if(productIds.isEmpty()){
-            return Collections.emptyList();
-        }
-
-        return productIds.stream()
-                .limit(10)
-                .map(this::getProductSalesStats)
-                .flatMap(Optional::stream)
-                .sorted((p1,p2)->p2.totalRevenue().compareTo(p1.totalRevenue()))
-                .collect(Collectors.toList());
-    }
-
-    private Optional<ProductStatsSummaryDTO> getProductSalesStats(Long productId){
-        String productName = productRepository.findProductNameById(productId);
-        String productCode = productRepository.findProductCodeById(productId);
-
-        BigDecimal totalSold = saleProductRepository.sumQuantityByProductId(productId);
-        if(totalSold == null || totalSold.compareTo(BigDecimal.ZERO) == 0){
-            return Optional.empty();
-        }
-        BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductId(productId);
-        LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductId(productId);
-        return Optional.of(new ProductStatsSummaryDTO(productId,productName,productCode,totalSold,totalRevenue, lastSaleDate));
-
+        return categoryRepository.findTopProductsByCategoryId(categoryId, TOP_PRODUCTS_LIMIT);
     }
 
     // =============================================================================
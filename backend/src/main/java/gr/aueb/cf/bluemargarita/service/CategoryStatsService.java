@@ -0,0 +1,63 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.SalesRollupRebuiltEvent;
+import gr.aueb.cf.bluemargarita.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Keeps the category analytics materialized views current.
+ * They are refreshed CONCURRENTLY, so the category pages keep reading the previous
+ * contents while a refresh runs: on startup, every few minutes and after the daily
+ * sales rollup they are computed from has been rebuilt. The time of the last refresh is
+ * stored in the views themselves (refreshed_at), so every instance reports the same one.
+ */
+@Service
+public class CategoryStatsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryStatsService.class);
+
+    private final CategoryRepository categoryRepository;
+    private final ThreadPoolTaskScheduler analyticsRefreshScheduler;
+
+    @Value("${app.analytics.category-stats-refresh-ms:300000}")
+    private long refreshIntervalMs;
+
+    @Autowired
+    public CategoryStatsService(CategoryRepository categoryRepository,
+                                @Qualifier("analyticsRefreshScheduler") ThreadPoolTaskScheduler analyticsRefreshScheduler) {
+        this.categoryRepository = categoryRepository;
+        this.analyticsRefreshScheduler = analyticsRefreshScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startScheduledRefresh() {
+        analyticsRefreshScheduler.scheduleWithFixedDelay(this::refresh, Duration.ofMillis(refreshIntervalMs));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupRebuilt(SalesRollupRebuiltEvent event) {
+        analyticsRefreshScheduler.execute(this::refresh);
+    }
+
+    private void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            categoryRepository.refreshCategoryStats();
+            LOGGER.debug("Category stats refreshed in {} ms", System.currentTimeMillis() - start);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Category stats refresh failed: {}", e.getMessage());
+        }
+    }
+}
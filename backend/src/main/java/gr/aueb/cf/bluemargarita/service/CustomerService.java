@@ -10,8 +10,11 @@ import gr.aueb.cf.bluemargarita.dto.customer.*;
 import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.CustomerStats;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -21,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,19 +34,26 @@ public class CustomerService implements ICustomerService {
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomerService.class);
     private final CustomerRepository customerRepository;
     private final UserService userService;
-    private final ProductRepository productRepository;
     private final SaleRepository saleRepository;
-    private final SaleProductRepository saleProductRepository;
+    private final CustomerStatsRepository customerStatsRepository;
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final CustomerStatsService customerStatsService;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
+    private static final int TOP_PRODUCTS_LIMIT = 10;
+
     @Autowired
-    public CustomerService(CustomerRepository customerRepository, UserService userService, ProductRepository productRepository,
-                           SaleRepository saleRepository, SaleProductRepository saleProductRepository, Mapper mapper) {
+    public CustomerService(CustomerRepository customerRepository, UserService userService, SaleRepository saleRepository,
+                           CustomerStatsRepository customerStatsRepository, SalesDailyRollupRepository salesDailyRollupRepository,
+                           CustomerStatsService customerStatsService, PaginationCountCache countCache, Mapper mapper) {
         this.customerRepository = customerRepository;
         this.userService = userService;
-        this.productRepository = productRepository;
         this.saleRepository = saleRepository;
-        this.saleProductRepository = saleProductRepository;
+        this.customerStatsRepository = customerStatsRepository;
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.customerStatsService = customerStatsService;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -69,9 +78,12 @@ public class CustomerService implements ICustomerService {
 
         Customer insertedCustomer = customerRepository.save(customer);
 
+        // Every customer has a stats row, the customer list joins it
+        customerStatsService.refreshCustomers(insertedCustomer.getId());
+
         LOGGER.info("Customer created with id: {}", insertedCustomer.getId());
 
-        return mapper.mapToCustomerListItemDTO(insertedCustomer);
+        return mapper.mapToCustomerListItemDTO(insertedCustomer, getCustomerStats(insertedCustomer.getId()));
     }
 
     @Override
@@ -101,7 +113,7 @@ public class CustomerService implements ICustomerService {
 
         LOGGER.info("Customer {} updated by user {}", savedCustomer.getFullName(), updater.getUsername());
 
-        return mapper.mapToCustomerListItemDTO(savedCustomer);
+        return mapper.mapToCustomerListItemDTO(savedCustomer, getCustomerStats(savedCustomer.getId()));
     }
 
     @Override
@@ -126,6 +138,7 @@ public class CustomerService implements ICustomerService {
                     customer.getFullName(), salesCount);
         } else {
             // Hard delete if customer not used anywhere
+            customerStatsService.deleteCustomerStats(id);
             customerRepository.delete(customer);
             LOGGER.info("Customer {} hard deleted (no sales history)", customer.getFullName());
         }
@@ -156,7 +169,7 @@ public class CustomerService implements ICustomerService {
                 restoredCustomer.getLastname(),
                 currentUser.getUsername());
 
-        return mapper.mapToCustomerListItemDTO(restoredCustomer);
+        return mapper.mapToCustomerListItemDTO(restoredCustomer, getCustomerStats(restoredCustomer.getId()));
     }
 
     @Override
@@ -165,7 +178,7 @@ public class CustomerService implements ICustomerService {
 
         Customer customer = getCustomerEntityById(id);
 
-        return mapper.mapToCustomerListItemDTO(customer);
+        return mapper.mapToCustomerListItemDTO(customer, getCustomerStats(id));
     }
 
     // =============================================================================
@@ -176,13 +189,11 @@ public class CustomerService implements ICustomerService {
     @Transactional(readOnly = true)
     public Paginated<CustomerListItemDTO> getCustomersFilteredPaginated(CustomerFilters filters){
 
-        var filtered =
-                customerRepository.findAll(
-                        getSpecsFromFilters(filters),
-                        filters.getPageable()
-                );
+        Specification<Customer> spec = getSpecsFromFilters(filters);
+        Slice<CustomerListItemDTO> filtered = customerRepository.findListRows(spec, filters.getPageable());
 
-        return new Paginated<>(filtered.map(mapper::mapToCustomerListItemDTO));
+        return countCache.toPaginated(filtered, PaginationCountCache.key(Customer.class, filters),
+                () -> customerRepository.count(spec));
     }
 
     @Override
@@ -192,7 +203,7 @@ public class CustomerService implements ICustomerService {
 
         Customer customer = getCustomerEntityById(customerId);
 
-        // Get analytics data using dedicated methods
+        // Get analytics data from the precomputed stats and the daily rollup
         CustomerAnalyticsDTO analytics = getCustomerAnalytics(customerId);
         List<ProductStatsSummaryDTO> topProducts = getTopProductsForCustomer(customerId);
 
@@ -256,78 +267,32 @@ public class CustomerService implements ICustomerService {
     // PRIVATE HELPER METHODS - Calculating Analytics
     // =============================================================================
 
-    private List<ProductStatsSummaryDTO> getTopProductsForCustomer(Long customerId) {
-        // Get all products purchased by this customer
-        List<Long> productIds = saleProductRepository.findDistinctProductIdsByCustomerId(customerId);
-
-        if (productIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Get sales stats for each product for this customer
-        return productIds.stream()
-                .limit(10) // Limit to top 10 for performance
-                .map(productId -> getProductSalesStatsForCustomer(productId, customerId))
-                .flatMap(Optional::stream)
-                .sorted((p1, p2) -> p2.totalRevenue().compareTo(p1.totalRevenue()))
-                .collect(Collectors.toList());
+    private CustomerStats getCustomerStats(Long customerId) {
+        return customerStatsRepository.findById(customerId).orElse(null);
     }
 
-    private Optional<ProductStatsSummaryDTO> getProductSalesStatsForCustomer(Long productId, Long customerId) {
-        // Get basic product info
-        String productName = productRepository.findProductNameById(productId);
-        String productCode = productRepository.findProductCodeById(productId);
-
-        // Get sales statistics for this customer and product
-        BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdAndCustomerId(productId, customerId);
-        if (totalQuantity == null || totalQuantity.compareTo(BigDecimal.ZERO) == 0) {
-            return Optional.empty();
-        }
-
-        BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdAndCustomerId(productId, customerId);
-        LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductIdAndCustomerId(productId, customerId);
-
-        return Optional.of(new ProductStatsSummaryDTO(
-                productId,
-                productName,
-                productCode,
-                totalQuantity,
-                totalRevenue != null ? totalRevenue : BigDecimal.ZERO,
-                lastSaleDate
-        ));
+    private List<ProductStatsSummaryDTO> getTopProductsForCustomer(Long customerId) {
+        return salesDailyRollupRepository.findTopProductsByCustomerId(customerId, Limit.of(TOP_PRODUCTS_LIMIT));
     }
 
     private CustomerAnalyticsDTO getCustomerAnalytics(Long customerId) {
-        // All-time metrics
-        Integer totalSales = saleRepository.countByCustomerId(customerId);
-        if(totalSales == 0) {
+        CustomerStats stats = getCustomerStats(customerId);
+        if (stats == null || stats.getTotalOrders() == 0) {
             return createEmptyCustomerAnalytics();
         }
 
-        BigDecimal totalRevenue = saleRepository.sumRevenueByCustomerId(customerId);
-        BigDecimal averageOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalSales),2, RoundingMode.HALF_UP);
-        LocalDate lastOrderDate = saleRepository.findLastSaleDateByCustomerId(customerId);
-
-        // Recent performance
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        LocalDate today = LocalDate.now();
-        Integer recentSalesCount = saleRepository.countByCustomerIdAndDateRange(customerId, thirtyDaysAgo, today);
-        BigDecimal recentRevenue = saleRepository.sumRevenueByCustomerIdAndDateRange(customerId, thirtyDaysAgo, today);
-
-        // Yearly performance
-        LocalDate yearStart = LocalDate.of(LocalDate.now().getYear(),1,1);
-        Integer yearlySalesCount = saleRepository.countByCustomerIdAndDateRange(customerId,yearStart,today);
-        BigDecimal yearlySalesRevenue = saleRepository.sumRevenueByCustomerIdAndDateRange(customerId,yearStart,today);
+        BigDecimal averageOrderValue = stats.getTotalRevenue()
+                .divide(BigDecimal.valueOf(stats.getTotalOrders()), 2, RoundingMode.HALF_UP);
 
         return new CustomerAnalyticsDTO(
-                totalRevenue,
-                totalSales,
+                stats.getTotalRevenue(),
+                stats.getTotalOrders(),
                 averageOrderValue,
-                lastOrderDate,
-                recentSalesCount,
-                recentRevenue,
-                yearlySalesCount,
-                yearlySalesRevenue
+                stats.getLastOrderDate(),
+                stats.getRecentOrders(),
+                stats.getRecentRevenue(),
+                stats.getYearlyOrders(),
+                stats.getYearlyRevenue()
         );
     }
 
@@ -360,7 +325,10 @@ public class CustomerService implements ICustomerService {
                         "phone_number", filters.getPhoneNumber()))
                 .and(CustomerSpecification.searchMultipleFields(filters.getSearchTerm()))
                 .and(CustomerSpecification.wholeSaleCustomersOnly(filters.getWholesaleOnly()))
-                .and(CustomerSpecification.customerIsActive(filters.getIsActive()));
+                .and(CustomerSpecification.customerIsActive(filters.getIsActive()))
+                .and(CustomerSpecification.customerStatsAtLeast("totalRevenue", filters.getMinTotalRevenue()))
+                .and(CustomerSpecification.customerStatsAtLeast("totalOrders", filters.getMinTotalOrders()))
+                .and(CustomerSpecification.customerStatsAtLeast("rfmScore", filters.getMinRfmScore()));
     }
 
 }
@@ -0,0 +1,114 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.repository.CustomerStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maintains the customer_stats table.
+ *
+ * Customer and sale writes call refreshCustomers inside their own transaction, which recomputes
+ * the affected customers' rows from their sales. Under READ COMMITTED two transactions writing
+ * sales of the same customer would each miss the other's uncommitted sale, and the last to commit
+ * would store totals without the other's. So the recompute first locks the customer row: the second
+ * transaction waits for the first to commit and its recompute then reads both sales. The 30-day and year-to-date windows move with the calendar and the RFM scores
+ * rank every customer against the others, so both are recomputed for all customers on startup
+ * and periodically on the analytics refresh scheduler. The window refresh takes the same customer
+ * locks first, otherwise it could overwrite the windows of a sale committed while its statement ran
+ * with figures computed from a snapshot without that sale.
+ */
+@Service
+public class CustomerStatsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerStatsService.class);
+
+    private final CustomerStatsRepository customerStatsRepository;
+    private final ThreadPoolTaskScheduler analyticsRefreshScheduler;
+    private final TransactionTemplate refreshTransaction;
+
+    @Value("${app.analytics.customer-stats-refresh-ms:3600000}")
+    private long refreshIntervalMs;
+
+    @Autowired
+    public CustomerStatsService(CustomerStatsRepository customerStatsRepository,
+                                @Qualifier("analyticsRefreshScheduler") ThreadPoolTaskScheduler analyticsRefreshScheduler,
+                                PlatformTransactionManager transactionManager) {
+        this.customerStatsRepository = customerStatsRepository;
+        this.analyticsRefreshScheduler = analyticsRefreshScheduler;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // =============================================================================
+    // INCREMENTAL MAINTENANCE - Called by CustomerService and SaleService
+    // =============================================================================
+
+    /**
+     * Recomputes (or creates) the stats rows of the given customers. Null ids, i.e. walk-in
+     * sales, are skipped. Must be called after the customer or sale change has been made
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void refreshCustomers(Long... customerIds) {
+        List<Long> ids = Arrays.stream(customerIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // The refresh reads the sales table, so pending sale changes must reach it first
+        customerStatsRepository.flush();
+        // Taken before the recompute statement, whose snapshot then includes the sales committed while waiting
+        customerStatsRepository.lockCustomers(ids);
+        int refreshed = customerStatsRepository.refreshCustomers(ids);
+        LOGGER.debug("Customer stats refreshed for {} customers", refreshed);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteCustomerStats(Long customerId) {
+        customerStatsRepository.deleteById(customerId);
+    }
+
+    // =============================================================================
+    // PERIODIC REFRESH
+    // =============================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startScheduledRefresh() {
+        analyticsRefreshScheduler.scheduleWithFixedDelay(this::refreshWindowsAndScores, Duration.ofMillis(refreshIntervalMs));
+    }
+
+    private void refreshWindowsAndScores() {
+        long start = System.currentTimeMillis();
+        try {
+            // Sales committed while waiting for the locks are in the snapshot of the update,
+            // and sales committed after it wait for the locks before recomputing their customer
+            Integer windows = refreshTransaction.execute(status -> {
+                customerStatsRepository.lockCustomersWithStats();
+                return customerStatsRepository.refreshWindows();
+            });
+            int scores = customerStatsRepository.refreshScores();
+            LOGGER.debug("Customer stats windows ({}) and scores ({}) refreshed in {} ms",
+                    windows, scores, System.currentTimeMillis() - start);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Customer stats refresh failed: {}", e.getMessage());
+        }
+    }
+}
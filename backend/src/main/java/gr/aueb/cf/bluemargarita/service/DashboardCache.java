@@ -0,0 +1,152 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.*;
+import gr.aueb.cf.bluemargarita.dto.analytics.DashboardOverviewDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of the dashboard overview and of its widgets.
+ * Entries are dropped after the commit of any write that changes what a widget shows, so a
+ * repeat dashboard load is served from memory and never shows data older than the last write.
+ * Entries also expire at midnight, as the weekly/monthly summaries and task lists depend on the date.
+ *
+ * Every widget has a generation counter, bumped on invalidation. A value loaded while a write
+ * committed is tagged with the older generation and is not stored.
+ */
+@Component
+public class DashboardCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardCache.class);
+
+    public enum Widget {
+        WEEKLY_SALES,
+        MONTHLY_SALES,
+        RECENT_SALES,
+        RECENT_PURCHASES,
+        LOW_STOCK_PRODUCTS,
+        TOP_PRODUCTS_THIS_MONTH,
+        DASHBOARD_TASKS,
+        MISPRICED_PRODUCTS
+    }
+
+    private record Entry(Object value, LocalDate loadedOn) {}
+
+    private final Map<Widget, Entry> widgets = new ConcurrentHashMap<>();
+    private final Map<Widget, AtomicLong> generations = new EnumMap<>(Widget.class);
+    private final AtomicLong overviewGeneration = new AtomicLong();
+    private volatile Entry overview;
+
+    public DashboardCache() {
+        for (Widget widget : Widget.values()) {
+            generations.put(widget, new AtomicLong());
+        }
+    }
+
+    // =============================================================================
+    // READ AND STORE - Called by DashboardService
+    // =============================================================================
+
+    public long getGeneration(Widget widget) {
+        return generations.get(widget).get();
+    }
+
+    public long getOverviewGeneration() {
+        return overviewGeneration.get();
+    }
+
+    /**
+     * @return the cached widget value, or null if it is missing or from a previous day
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getWidget(Widget widget) {
+        Entry entry = widgets.get(widget);
+        return isCurrent(entry) ? (T) entry.value() : null;
+    }
+
+    /**
+     * Stores a widget value loaded when the widget was at the given generation
+     */
+    public void putWidget(Widget widget, Object value, long generation) {
+        Entry entry = new Entry(value, LocalDate.now());
+        widgets.put(widget, entry);
+        // an invalidation ran during the load, the value may predate that write
+        if (generations.get(widget).get() != generation) {
+            widgets.remove(widget, entry);
+        }
+    }
+
+    public DashboardOverviewDTO getOverview() {
+        Entry entry = overview;
+        return isCurrent(entry) ? (DashboardOverviewDTO) entry.value() : null;
+    }
+
+    public void putOverview(DashboardOverviewDTO value, long generation) {
+        Entry entry = new Entry(value, LocalDate.now());
+        overview = entry;
+        if (overviewGeneration.get() != generation && overview == entry) {
+            overview = null;
+        }
+    }
+
+    // =============================================================================
+    // INVALIDATION - After-commit events of the writing services
+    // =============================================================================
+    // fallbackExecution: writes made outside a transaction (e.g. the chunk commits of a
+    // price recalculation job) invalidate immediately
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        // a sale also moves stock and the monthly product ranking
+        invalidate(Widget.WEEKLY_SALES, Widget.MONTHLY_SALES, Widget.RECENT_SALES,
+                Widget.LOW_STOCK_PRODUCTS, Widget.TOP_PRODUCTS_THIS_MONTH);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseChanged(PurchaseChangedEvent event) {
+        invalidate(Widget.RECENT_PURCHASES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        invalidate(Widget.LOW_STOCK_PRODUCTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(Widget.DASHBOARD_TASKS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // names, codes, prices and active flags appear in every product widget
+        invalidate(Widget.MISPRICED_PRODUCTS, Widget.LOW_STOCK_PRODUCTS, Widget.TOP_PRODUCTS_THIS_MONTH);
+    }
+
+    public void invalidateAll() {
+        invalidate(Widget.values());
+    }
+
+    private void invalidate(Widget... invalidated) {
+        for (Widget widget : invalidated) {
+            generations.get(widget).incrementAndGet();
+            widgets.remove(widget);
+        }
+        overviewGeneration.incrementAndGet();
+        overview = null;
+
+        LOGGER.debug("Dashboard cache invalidated: {}", (Object) invalidated);
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return entry != null && entry.loadedOn().equals(LocalDate.now());
+    }
+}
@@ -0,0 +1,212 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.dto.analytics.DashboardOverviewDTO;
+import gr.aueb.cf.bluemargarita.dto.product.MispricedProductAlertDTO;
+import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
+import gr.aueb.cf.bluemargarita.dto.purchase.PurchaseReadOnlyDTO;
+import gr.aueb.cf.bluemargarita.dto.sale.SaleReadOnlyDTO;
+import gr.aueb.cf.bluemargarita.dto.sale.SalesSummaryDTO;
+import gr.aueb.cf.bluemargarita.dto.stock.StockAlertDTO;
+import gr.aueb.cf.bluemargarita.dto.task.DashboardToDoTasksDTO;
+import gr.aueb.cf.bluemargarita.dto.task.ToDoTaskSummaryDTO;
+import gr.aueb.cf.bluemargarita.service.DashboardCache.Widget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * The eight dashboard widgets are independent, so they are loaded concurrently on the bounded
+ * dashboardExecutor and the page takes as long as its slowest widget instead of their sum.
+ * Each widget runs in its own read-only transaction on its worker thread. The transaction's timeout
+ * is the widget timeout, so a slow widget's statement is cancelled by the database rather than left running.
+ * Complete overviews and individual widgets are served from DashboardCache until a write invalidates them.
+ * Every widget load is recorded in the dashboard.widget.load timer, tagged with the widget and
+ * whether it was loaded, served from the cache or unavailable
+ */
+@Service
+public class DashboardService implements IDashboardService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardService.class);
+    private static final int WIDGET_LIMIT = 5;
+    private static final BigDecimal MISPRICING_THRESHOLD = BigDecimal.valueOf(20);
+    private static final String WIDGET_LOAD_TIMER = "dashboard.widget.load";
+
+    private final ISaleService saleService;
+    private final IPurchaseService purchaseService;
+    private final IProductService productService;
+    private final IStockManagementService stockManagementService;
+    private final IToDoTaskService toDoTaskService;
+    private final AsyncTaskExecutor dashboardExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DashboardCache dashboardCache;
+    private final MeterRegistry meterRegistry;
+    private final long widgetTimeoutMs;
+
+    @Autowired
+    public DashboardService(ISaleService saleService, IPurchaseService purchaseService, IProductService productService,
+                            IStockManagementService stockManagementService, IToDoTaskService toDoTaskService,
+                            @Qualifier("dashboardExecutor") AsyncTaskExecutor dashboardExecutor,
+                            PlatformTransactionManager transactionManager, DashboardCache dashboardCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.dashboard.widget-timeout-ms:3000}") long widgetTimeoutMs) {
+        this.saleService = saleService;
+        this.purchaseService = purchaseService;
+        this.productService = productService;
+        this.stockManagementService = stockManagementService;
+        this.toDoTaskService = toDoTaskService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // applied by Spring as the query timeout of every statement in the transaction (whole seconds)
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(widgetTimeoutMs + 999)));
+        this.dashboardCache = dashboardCache;
+        this.meterRegistry = meterRegistry;
+        this.widgetTimeoutMs = widgetTimeoutMs;
+    }
+
+    @Override
+    public DashboardOverviewDTO getDashboardOverview() {
+        DashboardOverviewDTO cached = dashboardCache.getOverview();
+        if (cached != null) {
+            return cached;
+        }
+
+        long overviewGeneration = dashboardCache.getOverviewGeneration();
+        long start = System.currentTimeMillis();
+
+        List<String> unavailableWidgets = Collections.synchronizedList(new ArrayList<>());
+
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate monthEnd = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+
+        CompletableFuture<SalesSummaryDTO> weeklySales = loadWidget(Widget.WEEKLY_SALES,
+                saleService::getWeeklySalesSummary, emptySalesSummary(), unavailableWidgets);
+        CompletableFuture<SalesSummaryDTO> monthlySales = loadWidget(Widget.MONTHLY_SALES,
+                saleService::getMonthlySalesSummary, emptySalesSummary(), unavailableWidgets);
+        CompletableFuture<List<SaleReadOnlyDTO>> recentSales = loadWidget(Widget.RECENT_SALES,
+                () -> saleService.getRecentSales(WIDGET_LIMIT), List.of(), unavailableWidgets);
+        CompletableFuture<List<PurchaseReadOnlyDTO>> recentPurchases = loadWidget(Widget.RECENT_PURCHASES,
+                () -> purchaseService.getRecentPurchases(WIDGET_LIMIT), List.of(), unavailableWidgets);
+        CompletableFuture<List<StockAlertDTO>> lowStockProducts = loadWidget(Widget.LOW_STOCK_PRODUCTS,
+                () -> stockManagementService.getLowStockProducts(WIDGET_LIMIT), List.of(), unavailableWidgets);
+        CompletableFuture<List<ProductStatsSummaryDTO>> topProducts = loadWidget(Widget.TOP_PRODUCTS_THIS_MONTH,
+                () -> productService.getTopProductsByMonthlyRevenue(monthStart, monthEnd, WIDGET_LIMIT),
+                List.of(), unavailableWidgets);
+        CompletableFuture<DashboardToDoTasksDTO> dashboardTasks = loadWidget(Widget.DASHBOARD_TASKS,
+                () -> toDoTaskService.getDashboardTasks(WIDGET_LIMIT), emptyDashboardTasks(), unavailableWidgets);
+        CompletableFuture<List<MispricedProductAlertDTO>> mispricedProducts = loadWidget(Widget.MISPRICED_PRODUCTS,
+                () -> productService.getMispricedProductsAlert(MISPRICING_THRESHOLD, WIDGET_LIMIT),
+                List.of(), unavailableWidgets);
+
+        // every future completes normally, with the widget or its fallback
+        DashboardOverviewDTO overview = new DashboardOverviewDTO(
+                weeklySales.join(),
+                monthlySales.join(),
+                recentSales.join(),
+                recentPurchases.join(),
+                lowStockProducts.join(),
+                topProducts.join(),
+                dashboardTasks.join(),
+                mispricedProducts.join(),
+                List.copyOf(unavailableWidgets)
+        );
+
+        LOGGER.debug("Dashboard overview loaded in {} ms", System.currentTimeMillis() - start);
+
+        // partial overviews are not cached, the next load retries the missing widgets
+        if (overview.unavailableWidgets().isEmpty()) {
+            dashboardCache.putOverview(overview, overviewGeneration);
+        }
+
+        return overview;
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS - Widget Loading
+    // =============================================================================
+
+    private <T> CompletableFuture<T> loadWidget(Widget widget, Supplier<T> loader, T fallback,
+                                                List<String> unavailableWidgets) {
+        String widgetName = widgetName(widget);
+
+        T cached = dashboardCache.getWidget(widget);
+        if (cached != null) {
+            recordLoadTime(widgetName, "cached", 0);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation = dashboardCache.getGeneration(widget);
+        long start = System.currentTimeMillis();
+        // set by whichever comes first, the loaded widget or the timeout, so a late result is not cached
+        AtomicBoolean settled = new AtomicBoolean(false);
+
+        // When the executor is saturated the caller runs the loader and orTimeout only applies after it
+        // returns, so the transaction timeout is what bounds the widget's queries in that case
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    T result = readOnlyTransaction.execute(status -> loader.get());
+                    long elapsed = System.currentTimeMillis() - start;
+                    if (elapsed <= widgetTimeoutMs && settled.compareAndSet(false, true)) {
+                        recordLoadTime(widgetName, "loaded", elapsed);
+                        dashboardCache.putWidget(widget, result, generation);
+                    }
+                    return result;
+                }, dashboardExecutor)
+                .orTimeout(widgetTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    long elapsed = System.currentTimeMillis() - start;
+                    if (settled.compareAndSet(false, true)) {
+                        recordLoadTime(widgetName, "unavailable", elapsed);
+                    }
+                    unavailableWidgets.add(widgetName);
+                    LOGGER.warn("Dashboard widget {} unavailable after {} ms: {}", widgetName, elapsed, e.toString());
+                    return fallback;
+                });
+    }
+
+    private void recordLoadTime(String widgetName, String outcome, long elapsedMs) {
+        Timer.builder(WIDGET_LOAD_TIMER)
+                .description("Time to load a dashboard widget")
+                .tag("widget", widgetName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    // the DashboardOverviewDTO field name, e.g. TOP_PRODUCTS_THIS_MONTH -> topProductsThisMonth
+    private String widgetName(Widget widget) {
+        String[] words = widget.name().toLowerCase().split("_");
+        StringBuilder name = new StringBuilder(words[0]);
+        for (int i = 1; i < words.length; i++) {
+            name.append(Character.toUpperCase(words[i].charAt(0))).append(words[i].substring(1));
+        }
+        return name.toString();
+    }
+
+    private SalesSummaryDTO emptySalesSummary() {
+        return new SalesSummaryDTO(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private DashboardToDoTasksDTO emptyDashboardTasks() {
+        return new DashboardToDoTasksDTO(List.of(), List.of(), new ToDoTaskSummaryDTO(0L, 0L, 0L, 0L),
+                WIDGET_LIMIT, false);
+    }
+}
@@ -2,18 +2,22 @@ package gr.aueb.cf.bluemargarita.service;
 
 import gr.aueb.cf.bluemargarita.core.enums.ExpenseType;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest.SortKey;
 import gr.aueb.cf.bluemargarita.core.filters.ExpenseFilters;
 import gr.aueb.cf.bluemargarita.core.specifications.ExpenseSpecification;
 import gr.aueb.cf.bluemargarita.dto.expense.*;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
+import gr.aueb.cf.bluemargarita.repository.SpecificationAggregateRepository.AggregateSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +34,12 @@ public class ExpenseService implements IExpenseService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseService.class);
 
+    // Cursor pagination sorts, each backed by an index on (column, id)
+    private static final Map<String, SortKey<Expense>> CURSOR_SORT_KEYS = Map.of(
+            "expenseDate", SortKey.ofDate(Expense::getExpenseDate),
+            "amount", SortKey.ofDecimal(Expense::getAmount),
+            "id", SortKey.ofLong(Expense::getId));
+
     private final ExpenseRepository expenseRepository;
     private final UserService userService;
     private final PurchaseRepository purchaseRepository;
@@ -174,19 +184,30 @@ public class ExpenseService implements IExpenseService {
     @Transactional(readOnly = true)
     public PaginatedFilteredExpensesWithSummary searchExpensesWithSummary(ExpenseFilters filters) {
 
-        Page<ExpenseReadOnlyDTO> filtered = expenseRepository.findAll(getSpecsFromFilters(filters), filters.getPageable())
+        Slice<ExpenseReadOnlyDTO> filtered = expenseRepository.findSlice(getSpecsFromFilters(filters), filters.getPageable())
                 .map(mapper::mapToExpenseReadOnlyDTO);
 
-        long totalFilteredResults = filtered.getTotalElements();
-        ExpenseSummaryDTO summary = null;
-
-        if (totalFilteredResults <= 100) {
-            summary = calculateExpenseSummary(filters);
-        }
+        ExpenseSummaryDTO summary = calculateExpenseSummary(filters);
 
         return new PaginatedFilteredExpensesWithSummary(filtered, summary);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedFilteredExpensesWithSummary searchExpensesByCursor(ExpenseFilters filters)
+            throws EntityInvalidArgumentException {
+
+        KeysetPageRequest<Expense> pageRequest = KeysetPageRequest.of(filters, CURSOR_SORT_KEYS, Expense::getId);
+
+        List<Expense> rows = expenseRepository.findKeysetPage(getSpecsFromFilters(filters), pageRequest);
+
+        // The summary aggregates every matching row, so it is only paid for once per search
+        ExpenseSummaryDTO summary = pageRequest.isFirstPage() ? calculateExpenseSummary(filters) : null;
+
+        return new CursorPaginatedFilteredExpensesWithSummary(
+                pageRequest.toPage(rows, mapper::mapToExpenseReadOnlyDTO), summary);
+    }
+
     @Override
     @Transactional
     public List<ExpenseTypeDTO> getAllAvailableExpenseTypes() {
@@ -306,13 +327,15 @@ public class ExpenseService implements IExpenseService {
 
     private ExpenseSummaryDTO calculateExpenseSummary(ExpenseFilters filters) {
 
-        Integer totalCount = countExpensesByFilters(filters);
+        SpecificationAggregateResult aggregates = aggregateExpensesByFilters(filters);
+
+        int totalCount = (int) aggregates.getLong(0);
 
         if(totalCount == 0) {
             return new ExpenseSummaryDTO(0,BigDecimal.ZERO,BigDecimal.ZERO);
         }
 
-        BigDecimal totalAmount = sumTotalCostByFilters(filters);
+        BigDecimal totalAmount = aggregates.getBigDecimal(1);
 
         BigDecimal averageAmount = totalAmount.divide(
                 BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP
@@ -325,19 +348,15 @@ public class ExpenseService implements IExpenseService {
         );
     }
 
-    private Integer countExpensesByFilters(ExpenseFilters filters) {
-        Specification<Expense> spec = getSpecsFromFilters(filters);
-        return (int) expenseRepository.count(spec);
-    }
-
     public BigDecimal sumTotalCostByFilters(ExpenseFilters filters) {
-        Specification<Expense> spec = getSpecsFromFilters(filters);
-        List<Expense> expenses = expenseRepository.findAll(spec);
+        return aggregateExpensesByFilters(filters).getBigDecimal(1);
+    }
 
-        return expenses.stream()
-                .map(Expense::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private SpecificationAggregateResult aggregateExpensesByFilters(ExpenseFilters filters) {
+        return expenseRepository.aggregate(getSpecsFromFilters(filters), List.of(
+                AggregateSelection.count(),
+                AggregateSelection.sum("amount")
+        ));
     }
 
     private Specification<Expense> getSpecsFromFilters(ExpenseFilters filters) {
@@ -0,0 +1,18 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.dto.analytics.DashboardOverviewDTO;
+
+/**
+ * Service interface for the dashboard page.
+ * Assembles the overview from the widgets of the sale, purchase, stock, product and task services.
+ */
+public interface IDashboardService {
+
+    /**
+     * Loads all dashboard widgets concurrently: weekly/monthly sales summaries, 5 recent sales,
+     * 5 recent purchases, 5 low stock products, top 5 products this month, tasks and mispriced alerts.
+     * A widget that fails or exceeds its timeout is returned empty and listed in unavailableWidgets,
+     * so one slow widget does not hold back the page
+     */
+    DashboardOverviewDTO getDashboardOverview();
+}
@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.service;
 
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.ExpenseFilters;
 import gr.aueb.cf.bluemargarita.dto.expense.*;
@@ -77,6 +78,19 @@ public interface IExpenseService {
      */
     PaginatedFilteredExpensesWithSummary searchExpensesWithSummary(ExpenseFilters filters);
 
+    /**
+     * Cursor (keyset) paginated variant of searchExpensesWithSummary, with the same filters.
+     * Sorts by expenseDate, amount or id, with the id as tie-breaker, and continues
+     * from the cursor in the filters, so a deep page costs the same as the first.
+     * The summary is calculated for the first page only
+     *
+     * @param filters Filter criteria with sort, page size and the cursor of the previous page
+     * @return Keyset page with next/previous cursors and, on the first page, the summary
+     * @throws EntityInvalidArgumentException if the sort is not supported or the cursor is invalid
+     */
+    CursorPaginatedFilteredExpensesWithSummary searchExpensesByCursor(ExpenseFilters filters)
+            throws EntityInvalidArgumentException;
+
     /**
      * Returns all available expense types
      * @return a list of dtos containing ExpenseType and display name for each type of expense
@@ -0,0 +1,43 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
+import gr.aueb.cf.bluemargarita.core.exceptions.AppServerException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service interface for long-running administrative operations.
+ * Jobs run on a bounded background executor and commit their work chunk by chunk,
+ * so the HTTP request that starts them returns immediately with a job id.
+ */
+public interface IJobService {
+
+    /**
+     * Queues a job. If a job of the same type is already queued or running, that job is
+     * returned instead of starting a second one
+     *
+     * @param task the work, receiving the job's progress handle and returning the result DTO
+     * @throws AppServerException if the job queue is full
+     */
+    JobReadOnlyDTO submitJob(JobType type, String username, Function<JobProgress, Object> task)
+            throws AppServerException;
+
+    JobReadOnlyDTO getJob(Long jobId) throws EntityNotFoundException;
+
+    /**
+     * Most recent jobs first, for the admin overview
+     */
+    List<JobReadOnlyDTO> getRecentJobs();
+
+    /**
+     * Cancels a queued job immediately. A running job stops after its current chunk,
+     * keeping the chunks already committed
+     *
+     * @throws EntityInvalidArgumentException if the job has already finished
+     */
+    JobReadOnlyDTO cancelJob(Long jobId) throws EntityNotFoundException, EntityInvalidArgumentException;
+}
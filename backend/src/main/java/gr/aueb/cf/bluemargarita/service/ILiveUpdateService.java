@@ -0,0 +1,24 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.exceptions.ServiceUnavailableException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service interface for the live update stream, which pushes sale, stock and task
+ * changes to connected clients after they commit
+ */
+public interface ILiveUpdateService {
+
+    /**
+     * Opens a live update stream for the user. A reconnecting client passes the id of the
+     * last event it received and gets the events it missed replayed, or a resync event
+     * if they are no longer buffered
+     * @param username the connecting user
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, null on first connect
+     * @return the emitter the events are written to
+     * @throws ServiceUnavailableException if the maximum number of live connections is reached
+     */
+    SseEmitter subscribe(String username, Long lastEventId) throws ServiceUnavailableException;
+
+    int getConnectionCount();
+}
@@ -5,6 +5,7 @@ import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.LocationFilters;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
+import gr.aueb.cf.bluemargarita.dto.location.LocationComparisonDTO;
 import gr.aueb.cf.bluemargarita.dto.location.LocationDetailedViewDTO;
 import gr.aueb.cf.bluemargarita.dto.location.LocationForDropdownDTO;
 import gr.aueb.cf.bluemargarita.dto.location.LocationInsertDTO;
@@ -139,6 +140,15 @@ public interface ILocationService {
      */
     LocationDetailedViewDTO getLocationDetailedById(Long id) throws EntityNotFoundException;
 
+    /**
+     * Compares the sales of all active locations side by side: today, last 30 days,
+     * year to date and all time, with each location's share of the year-to-date revenue.
+     * Served from the in-memory location sales counters
+     *
+     * @return Active locations with their analytics, highest year-to-date revenue first
+     */
+    List<LocationComparisonDTO> getLocationComparison();
+
 
     // =============================================================================
     // RECORD SALE PAGE - DROPDOWN LIST
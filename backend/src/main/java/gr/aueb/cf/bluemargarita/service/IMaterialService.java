@@ -50,13 +50,14 @@ public interface IMaterialService {
      * 2. Validates description uniqueness if description is being changed
      * 3. Validates updater user exists
      * 4. Updates material information and audit data
+     * 5. If the unit cost changed, reprices only the products that use the material
      *
      * @param dto Material update data containing ID, new information, and updater user ID
-     * @return Updated material as read-only DTO
+     * @return Updated material and, if the unit cost changed, the repricing result
      * @throws EntityAlreadyExistsException if new description conflicts with existing material
      * @throws EntityNotFoundException if material or updater user not found
      */
-    MaterialReadOnlyDTO updateMaterial(MaterialUpdateDTO dto)
+    MaterialUpdateResultDTO updateMaterial(MaterialUpdateDTO dto)
             throws EntityAlreadyExistsException, EntityNotFoundException;
 
     /**
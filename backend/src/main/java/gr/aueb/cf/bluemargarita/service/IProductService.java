@@ -1,11 +1,13 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.exceptions.AppServerException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
 import gr.aueb.cf.bluemargarita.dto.customer.CustomerSalesDataDTO;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.product.*;
 import gr.aueb.cf.bluemargarita.dto.sale.MonthlySalesDataDTO;
 import gr.aueb.cf.bluemargarita.dto.sale.WeeklySalesDataDTO;
@@ -230,12 +232,14 @@ public interface IProductService {
     /**
      * Recalculates suggested prices for all active products based on current material costs and markup factors
      * Used when material costs change or markup factors are updated
-     * This is a bulk administrative operation that can affect many products
+     * This is a bulk administrative operation that can affect many products, so it runs as a background job.
+     * The job's result is a PriceRecalculationResultDTO with success/failure counts and failed product codes
      *
-     * @return Results of the recalculation operation including success/failure counts and failed product codes
+     * @return The queued job (or the price recalculation job already in progress), to be polled via /api/jobs/{id}
      * @throws EntityNotFoundException if updater user not found
+     * @throws AppServerException if the job queue is full
      */
-    PriceRecalculationResultDTO recalculateAllProductPrices() throws EntityNotFoundException;
+    JobReadOnlyDTO recalculateAllProductPrices() throws EntityNotFoundException, AppServerException;
 
     ProductListItemDTO updateFinalRetailPrice(Long productId, BigDecimal newPrice) throws EntityNotFoundException;
     ProductListItemDTO updateFinalWholesalePrice(Long productId, BigDecimal newPrice) throws EntityNotFoundException;
@@ -1,6 +1,7 @@
 package gr.aueb.cf.bluemargarita.service;
 
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.PurchaseFilters;
@@ -83,6 +84,19 @@ public interface IPurchaseService {
 
     PaginatedFilteredPurchasesWithSummary searchPurchasesWithSummary(PurchaseFilters filters);
 
+    /**
+     * Cursor (keyset) paginated variant of searchPurchasesWithSummary, with the same filters.
+     * Sorts by purchaseDate, totalCost or id, with the id as tie-breaker, and continues
+     * from the cursor in the filters, so a deep page costs the same as the first.
+     * The summary is calculated for the first page only
+     *
+     * @param filters Filter criteria with sort, page size and the cursor of the previous page
+     * @return Keyset page with next/previous cursors and, on the first page, the summary
+     * @throws EntityInvalidArgumentException if the sort is not supported or the cursor is invalid
+     */
+    CursorPaginatedFilteredPurchasesWithSummary searchPurchasesByCursor(PurchaseFilters filters)
+            throws EntityInvalidArgumentException;
+
 
     /**
      * Retrieves detailed purchase information with all materials
@@ -1,5 +1,6 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.SaleFilters;
 import gr.aueb.cf.bluemargarita.dto.price_calculation.PriceCalculationRequestDTO;
@@ -112,6 +113,18 @@ public interface ISaleService {
      */
     PaginatedFilteredSalesWithSummary searchSalesWithSummary(SaleFilters filters);
 
+    /**
+     * Cursor (keyset) paginated variant of searchSalesWithSummary, with the same filters.
+     * Sorts by saleDate, finalTotalPrice or id, with the id as tie-breaker, and continues
+     * from the cursor in the filters, so a deep page costs the same as the first.
+     * The summary is calculated for the first page only
+     *
+     * @param filters Filter criteria with sort, page size and the cursor of the previous page
+     * @return Keyset page with next/previous cursors and, on the first page, the summary
+     * @throws EntityInvalidArgumentException if the sort is not supported or the cursor is invalid
+     */
+    CursorPaginatedFilteredSalesWithSummary searchSalesByCursor(SaleFilters filters) throws EntityInvalidArgumentException;
+
     /**
      * Retrieves comprehensive details for a specific sale
      * Used for "View Details" button on sales page
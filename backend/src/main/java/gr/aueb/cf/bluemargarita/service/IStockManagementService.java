@@ -6,6 +6,7 @@ import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
 import gr.aueb.cf.bluemargarita.dto.stock.*;
 import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.model.User;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -30,6 +31,13 @@ public interface IStockManagementService {
     StockUpdateResultDTO updateProductStock(StockUpdateDTO updateDTO)
             throws EntityNotFoundException;
 
+    /**
+     * Updates stock for many products at once, e.g. after a stock count
+     * Returns one result per update, failed updates do not prevent the others
+     */
+    BulkStockUpdateResultDTO bulkUpdateProductStock(BulkStockUpdateDTO bulkUpdateDTO)
+            throws EntityNotFoundException;
+
 
     /**
      * Updates stock limit alert for a single product manually
@@ -49,16 +57,25 @@ public interface IStockManagementService {
     // =============================================================================
 
     /**
-     * Reduces stock for products after a sale is recorded
+     * Reduces stock for products after a sale is recorded and writes SALE movements
      * Called by SaleService.recordSale()
      */
-    void reduceStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId);
+    void reduceStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId, User user);
 
     /**
-     * Restores stock for products after a sale is deleted
+     * Restores stock for products after a sale is deleted and writes RESTORE movements
      * Called by SaleService.deleteSale()
      */
-    void restoreStockAfterSaleDeleted(Map<Product, BigDecimal> productQuantities, Long saleId);
+    void restoreStockAfterSaleDeleted(Map<Product, BigDecimal> productQuantities, Long saleId, User user);
+
+    /**
+     * Sets the stock edited on the product form and writes a MANUAL movement, only if the stock
+     * still holds the value the form was loaded with. Without an expected stock the value is set
+     * unconditionally. Called by ProductService.updateProduct()
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if a sale or another
+     * adjustment changed the stock in the meantime
+     */
+    void replaceStockIfUnchanged(Product product, Integer expectedStock, Integer newStock, User user);
 
     // =============================================================================
     // STOCK MONITORING AND ALERTS
@@ -76,5 +93,29 @@ public interface IStockManagementService {
      */
     Paginated<StockAlertDTO> getAllLowStockProductsPaginated(ProductFilters filters);
 
+    // =============================================================================
+    // STOCK MOVEMENT HISTORY
+    // =============================================================================
+
+    /**
+     * Gets the stock movements of a product, newest first, with the stock after each movement
+     * Used in the stock history view of a product
+     */
+    Paginated<StockMovementDTO> getProductStockMovements(Long productId, int page, int pageSize)
+            throws EntityNotFoundException;
+
+    /**
+     * Gets the stock of a product at the end of the given date
+     */
+    StockAsOfDateDTO getProductStockAsOfDate(Long productId, LocalDate date)
+            throws EntityNotFoundException;
+
+    /**
+     * Gets stock in/out and net change per day, week or month,
+     * for one product or for all products when productId is null
+     */
+    List<StockNetMovementDTO> getNetStockMovement(LocalDate dateFrom, LocalDate dateTo,
+                                                  String granularity, Long productId)
+            throws EntityInvalidArgumentException;
 
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.SupplierFilters;
 import gr.aueb.cf.bluemargarita.dto.supplier.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -102,6 +103,22 @@ public interface ISupplierService {
      */
     SupplierDetailedViewDTO getSupplierDetailedView(Long supplierId) throws EntityNotFoundException;
 
+    /**
+     * Ranks the active suppliers of every active material by the weighted average unit price
+     * they charged (total cost / total quantity), ties going to the most recent purchase.
+     * Each row also carries the supplier's recency rank for the material and how much more
+     * it charged than the cheapest supplier, in percent.
+     *
+     * All materials are compared in a single grouped query with window functions.
+     *
+     * @param since only purchases on or after this date are compared, all history if null
+     * @param maxRank suppliers ranked below this are left out, 3 if null
+     * @return Rankings ordered by material name, then price rank
+     * @throws EntityInvalidArgumentException if maxRank is less than 1
+     */
+    List<SupplierMaterialPriceRankDTO> getSupplierPriceRanking(LocalDate since, Integer maxRank)
+            throws EntityInvalidArgumentException;
+
     /**
      * Retrieves active suppliers matching search term for autocomplete in purchase recording
      *
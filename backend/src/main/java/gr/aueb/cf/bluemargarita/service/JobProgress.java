@@ -0,0 +1,28 @@
+package gr.aueb.cf.bluemargarita.service;
+
+/**
+ * Handed to a background job's task by JobService. Tasks report their size and the items
+ * committed after every chunk, and stop at the next chunk boundary once cancellation is requested.
+ * Callers running the same work synchronously pass NONE
+ */
+public interface JobProgress {
+
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void start(int totalItems) {}
+
+        @Override
+        public void advance(int items) {}
+
+        @Override
+        public boolean isCancelRequested() {
+            return false;
+        }
+    };
+
+    void start(int totalItems);
+
+    void advance(int items);
+
+    boolean isCancelRequested();
+}
@@ -0,0 +1,213 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.bluemargarita.core.enums.JobStatus;
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
+import gr.aueb.cf.bluemargarita.core.exceptions.AppServerException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
+import gr.aueb.cf.bluemargarita.mapper.Mapper;
+import gr.aueb.cf.bluemargarita.model.Job;
+import gr.aueb.cf.bluemargarita.repository.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Runs jobs on the bounded jobExecutor. No method here is transactional: the job row is
+ * saved and updated in short transactions of its own, so pollers see every status and
+ * progress change as soon as it happens, and the task itself controls its chunk commits.
+ * A cancellation is stored in the job row and read by the task between chunks.
+ * Only one application instance is supported: jobs run on this instance's executor and
+ * any unfinished job is treated as interrupted on startup
+ */
+@Service
+public class JobService implements IJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobService.class);
+    private static final List<JobStatus> UNFINISHED_STATUSES = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final JobRepository jobRepository;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final ObjectMapper objectMapper;
+    private final Mapper mapper;
+
+    @Autowired
+    public JobService(JobRepository jobRepository, @Qualifier("jobExecutor") ThreadPoolTaskExecutor jobExecutor,
+                      ObjectMapper objectMapper, Mapper mapper) {
+        this.jobRepository = jobRepository;
+        this.jobExecutor = jobExecutor;
+        this.objectMapper = objectMapper;
+        this.mapper = mapper;
+    }
+
+    // =============================================================================
+    // JOB SUBMISSION AND STATUS
+    // =============================================================================
+
+    @Override
+    public synchronized JobReadOnlyDTO submitJob(JobType type, String username, Function<JobProgress, Object> task)
+            throws AppServerException {
+
+        Optional<Job> unfinished = jobRepository.findFirstByTypeAndStatusInOrderByIdDesc(type, UNFINISHED_STATUSES);
+        if (unfinished.isPresent()) {
+            LOGGER.info("Job {} of type {} is already {}, not starting another",
+                    unfinished.get().getId(), type, unfinished.get().getStatus());
+            return mapper.mapToJobReadOnlyDTO(unfinished.get());
+        }
+
+        Job job = jobRepository.save(Job.builder()
+                .type(type)
+                .status(JobStatus.QUEUED)
+                .createdByUsername(username)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        Long jobId = job.getId();
+
+        try {
+            jobExecutor.execute(() -> runJob(jobId, task));
+        } catch (TaskRejectedException e) {
+            finishJob(jobId, JobStatus.QUEUED, JobStatus.FAILED, null, "Job queue is full");
+            throw new AppServerException("JobQueueFull", "Too many background jobs are running, please try again later");
+        }
+
+        LOGGER.info("Job {} of type {} queued by {}", jobId, type, username);
+
+        return mapper.mapToJobReadOnlyDTO(job);
+    }
+
+    @Override
+    public JobReadOnlyDTO getJob(Long jobId) throws EntityNotFoundException {
+        return mapper.mapToJobReadOnlyDTO(getJobEntityById(jobId));
+    }
+
+    @Override
+    public List<JobReadOnlyDTO> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByIdDesc().stream()
+                .map(mapper::mapToJobReadOnlyDTO)
+                .toList();
+    }
+
+    @Override
+    public JobReadOnlyDTO cancelJob(Long jobId) throws EntityNotFoundException, EntityInvalidArgumentException {
+        Job job = getJobEntityById(jobId);
+
+        if (job.getStatus().isFinished()) {
+            throw new EntityInvalidArgumentException("Job", "Job " + jobId + " has already finished");
+        }
+
+        jobRepository.markCancelRequested(jobId);
+        // a job the executor has not picked up yet is cancelled right away, runJob will skip it
+        jobRepository.cancelIfQueued(jobId, LocalDateTime.now());
+
+        LOGGER.info("Cancellation requested for job {}", jobId);
+
+        return getJob(jobId);
+    }
+
+    /**
+     * A restart loses the executor's queue, so jobs left unfinished by the previous run are marked failed.
+     * With a second instance running this would also fail its live jobs, which is why only one is supported
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int interrupted = jobRepository.failUnfinishedJobs("Interrupted by a server restart", LocalDateTime.now());
+        if (interrupted > 0) {
+            LOGGER.warn("Marked {} interrupted jobs as failed", interrupted);
+        }
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS - Execution
+    // =============================================================================
+
+    private void runJob(Long jobId, Function<JobProgress, Object> task) {
+        try {
+            if (jobRepository.markRunning(jobId, LocalDateTime.now()) == 0) {
+                return;
+            }
+
+            PersistentJobProgress progress = new PersistentJobProgress(jobId);
+            Object result = task.apply(progress);
+            // A cancellation the task never saw came too late to stop any work: the job completed
+            JobStatus status = progress.cancelObserved ? JobStatus.CANCELLED : JobStatus.COMPLETED;
+            finishJob(jobId, JobStatus.RUNNING, status, result, null);
+
+            LOGGER.info("Job {} finished with status {}", jobId, status);
+        } catch (Exception e) {
+            LOGGER.error("Job {} failed: {}", jobId, e.getMessage(), e);
+            finishJob(jobId, JobStatus.RUNNING, JobStatus.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void finishJob(Long jobId, JobStatus currentStatus, JobStatus status, Object result, String errorMessage) {
+        if (errorMessage != null && errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH) {
+            errorMessage = errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+        }
+
+        if (jobRepository.finish(jobId, currentStatus, status, toJson(result), errorMessage, LocalDateTime.now()) == 0) {
+            LOGGER.warn("Job {} was no longer {}, not marking it {}", jobId, currentStatus, status);
+        }
+    }
+
+    private String toJson(Object result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Could not serialize job result: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Job getJobEntityById(Long jobId) throws EntityNotFoundException {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Job", "Job with id=" + jobId + " was not found"));
+    }
+
+    private class PersistentJobProgress implements JobProgress {
+
+        private final Long jobId;
+        // only touched by the job thread
+        private boolean cancelObserved;
+
+        PersistentJobProgress(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void start(int totalItems) {
+            jobRepository.updateTotalItems(jobId, totalItems);
+        }
+
+        @Override
+        public void advance(int items) {
+            jobRepository.addProcessedItems(jobId, items);
+        }
+
+        @Override
+        public boolean isCancelRequested() {
+            if (!cancelObserved) {
+                cancelObserved = jobRepository.isCancelRequested(jobId);
+            }
+            return cancelObserved;
+        }
+    }
+}
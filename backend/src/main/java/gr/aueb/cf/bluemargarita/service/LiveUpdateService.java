@@ -0,0 +1,398 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.SaleChangedEvent;
+import gr.aueb.cf.bluemargarita.core.events.StockChangedEvent;
+import gr.aueb.cf.bluemargarita.core.events.StockChangedEvent.StockLevelChange;
+import gr.aueb.cf.bluemargarita.core.events.TaskChangedEvent;
+import gr.aueb.cf.bluemargarita.core.exceptions.ServiceUnavailableException;
+import gr.aueb.cf.bluemargarita.dto.live.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes sale, stock and task changes to the connected clients as server-sent events once
+ * the writing transaction commits, so open dashboard and stock pages patch their view instead of polling.
+ *
+ * Every event gets an increasing id and the latest ones are kept in a bounded replay buffer:
+ * a client reconnecting with Last-Event-ID receives what it missed, or a resync event telling it
+ * to reload when the buffer no longer reaches back that far.
+ * Each connection has a bounded queue drained by one sender at a time. A client that falls behind
+ * by more than the queue holds has its backlog dropped and gets a resync event instead, so a slow
+ * connection never holds unbounded memory. A send blocks while the client is not reading: the
+ * liveUpdateExecutor has a sender thread per allowed connection, so this only delays that client,
+ * and a send still blocked after app.live.send-timeout-ms closes the connection at the next heartbeat.
+ * Its sender thread stays blocked until the container's socket write timeout fails the write
+ */
+@Service
+public class LiveUpdateService implements ILiveUpdateService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private static final String SALES_EVENT = "sales";
+    private static final String STOCK_LEVELS_EVENT = "stock-levels";
+    private static final String LOW_STOCK_ALERTS_EVENT = "low-stock-alerts";
+    private static final String TASK_EVENT = "task";
+    private static final String RESYNC_EVENT = "resync";
+
+    // sent as Retry-After when the connection limit is reached
+    private static final long CONNECTION_RETRY_AFTER_SECONDS = 30;
+
+    // marker queued to send an SSE comment, keeping idle connections open through proxies
+    private static final LiveEvent HEARTBEAT = new LiveEvent(0, null, null);
+
+    private final ISaleService saleService;
+    private final ThreadPoolTaskExecutor liveUpdateExecutor;
+    private final ThreadPoolTaskScheduler liveUpdateScheduler;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.live.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${app.live.connection-queue-capacity:64}")
+    private int connectionQueueCapacity;
+
+    @Value("${app.live.replay-buffer-size:256}")
+    private int replayBufferSize;
+
+    @Value("${app.live.connection-timeout-ms:1800000}")
+    private long connectionTimeoutMs;
+
+    @Value("${app.live.heartbeat-interval-ms:25000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.live.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    // guarded by itself, together with lastEventId
+    private final Deque<LiveEvent> replayBuffer = new ArrayDeque<>();
+    // starts from the clock so ids held by clients from before a restart are recognised as stale
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    // sale changes are coalesced, one totals query serves every change committed meanwhile
+    private final Queue<SaleChangeDTO> pendingSaleChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean salesUpdateScheduled = new AtomicBoolean();
+
+    @Autowired
+    public LiveUpdateService(ISaleService saleService,
+                             @Qualifier("liveUpdateExecutor") ThreadPoolTaskExecutor liveUpdateExecutor,
+                             @Qualifier("liveUpdateScheduler") ThreadPoolTaskScheduler liveUpdateScheduler,
+                             PlatformTransactionManager transactionManager) {
+        this.saleService = saleService;
+        this.liveUpdateExecutor = liveUpdateExecutor;
+        this.liveUpdateScheduler = liveUpdateScheduler;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // =============================================================================
+    // CONNECTIONS
+    // =============================================================================
+
+    @Override
+    public SseEmitter subscribe(String username, Long lastEventId) throws ServiceUnavailableException {
+
+        if (connections.size() >= maxConnections) {
+            throw new ServiceUnavailableException("LiveConnectionsExhausted",
+                    "Too many live update connections. Please try again later", CONNECTION_RETRY_AFTER_SECONDS);
+        }
+
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMs);
+        Connection connection = new Connection(username, emitter);
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(() -> {
+            connection.close();
+            emitter.complete();
+        });
+        emitter.onError(e -> connection.close());
+
+        synchronized (replayBuffer) {
+            if (lastEventId != null && lastEventId != this.lastEventId) {
+                replayMissedEvents(connection, lastEventId);
+            }
+            connections.add(connection);
+        }
+        // flushes the response headers so the client sees the stream open at once
+        connection.offer(HEARTBEAT);
+
+        LOGGER.debug("Live update connection opened by {} (last event id: {}), {} open",
+                username, lastEventId, connections.size());
+
+        return emitter;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHeartbeats() {
+        liveUpdateScheduler.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            for (Connection connection : connections) {
+                if (connection.isSendStalled(now)) {
+                    connection.closeStalled();
+                } else {
+                    connection.offer(HEARTBEAT);
+                }
+            }
+        }, Duration.ofMillis(heartbeatIntervalMs));
+    }
+
+    // =============================================================================
+    // AFTER-COMMIT EVENTS OF THE WRITING SERVICES
+    // =============================================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        pendingSaleChanges.add(new SaleChangeDTO(event.saleId(), event.changeType()));
+
+        if (salesUpdateScheduled.compareAndSet(false, true)) {
+            try {
+                liveUpdateExecutor.execute(this::publishSalesUpdate);
+            } catch (TaskRejectedException e) {
+                // the pending changes go out with the next sale change
+                salesUpdateScheduled.set(false);
+                LOGGER.warn("Live sales update could not be scheduled: {}", e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        publish(STOCK_LEVELS_EVENT, event.changes().stream()
+                .map(this::toStockLevelLiveUpdateDTO)
+                .toList());
+
+        List<StockLevelLiveUpdateDTO> newAlerts = event.changes().stream()
+                .filter(StockLevelChange::isNewLowStockAlert)
+                .map(this::toStockLevelLiveUpdateDTO)
+                .toList();
+
+        if (!newAlerts.isEmpty()) {
+            publish(LOW_STOCK_ALERTS_EVENT, newAlerts);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        publish(TASK_EVENT, new TaskLiveUpdateDTO(event.taskId(), event.changeType(), event.status()));
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS
+    // =============================================================================
+
+    private void publishSalesUpdate() {
+        // cleared first, so a change committed while the totals load schedules another update
+        salesUpdateScheduled.set(false);
+
+        List<SaleChangeDTO> changes = new ArrayList<>();
+        SaleChangeDTO change;
+        while ((change = pendingSaleChanges.poll()) != null) {
+            changes.add(change);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        SalesLiveUpdateDTO update;
+        try {
+            update = readOnlyTransaction.execute(status -> new SalesLiveUpdateDTO(changes,
+                    saleService.getWeeklySalesSummary(), saleService.getMonthlySalesSummary()));
+        } catch (RuntimeException e) {
+            // the changes are still worth sending, clients refetch the totals themselves
+            LOGGER.warn("Sales totals for the live update could not be loaded: {}", e.getMessage());
+            update = new SalesLiveUpdateDTO(changes, null, null);
+        }
+
+        publish(SALES_EVENT, update);
+    }
+
+    private void publish(String name, Object data) {
+        synchronized (replayBuffer) {
+            LiveEvent event = new LiveEvent(++lastEventId, name, data);
+
+            replayBuffer.addLast(event);
+            if (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+
+            // offering never blocks, so every connection receives the events in id order
+            for (Connection connection : connections) {
+                connection.offer(event);
+            }
+        }
+    }
+
+    // caller holds the replayBuffer lock
+    private void replayMissedEvents(Connection connection, long clientLastEventId) {
+        LiveEvent oldest = replayBuffer.peekFirst();
+
+        if (oldest == null || clientLastEventId < oldest.id() - 1 || clientLastEventId > lastEventId) {
+            connection.offer(new LiveEvent(lastEventId, RESYNC_EVENT,
+                    new ResyncLiveUpdateDTO("Missed updates are no longer available")));
+            return;
+        }
+
+        for (LiveEvent event : replayBuffer) {
+            if (event.id() > clientLastEventId) {
+                connection.offer(event);
+            }
+        }
+    }
+
+    private StockLevelLiveUpdateDTO toStockLevelLiveUpdateDTO(StockLevelChange change) {
+        return new StockLevelLiveUpdateDTO(change.productId(), change.productCode(), change.stock(),
+                change.lowStockAlert(), change.isLowStock());
+    }
+
+    private record LiveEvent(long id, String name, Object data) {}
+
+    /**
+     * One open stream. Events wait in a bounded queue and are written by a single sender task,
+     * scheduled on the liveUpdateExecutor whenever the queue has events and no sender is running
+     */
+    private final class Connection {
+
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the send in progress started, 0 while no send is in progress
+        private volatile long sendStartedAt;
+        private volatile boolean stalled;
+
+        private Connection(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(connectionQueueCapacity);
+        }
+
+        private void offer(LiveEvent event) {
+            if (closed) {
+                return;
+            }
+
+            // a heartbeat is only needed when nothing else is waiting
+            if (!queue.offer(event) && event != HEARTBEAT) {
+                // the client is not keeping up: drop its backlog and have it reload instead
+                queue.clear();
+                queue.offer(new LiveEvent(event.id(), RESYNC_EVENT,
+                        new ResyncLiveUpdateDTO("The connection fell behind")));
+                LOGGER.info("Live update connection of {} fell behind, backlog dropped", username);
+            }
+
+            scheduleSending();
+        }
+
+        private void scheduleSending() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    liveUpdateExecutor.execute(this::sendQueued);
+                } catch (TaskRejectedException e) {
+                    // the events stay queued and are sent on the next offer or heartbeat
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                LiveEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter already completed
+                LOGGER.debug("Live update connection of {} closed: {}", username, e.getMessage());
+                close();
+            } finally {
+                sending.set(false);
+            }
+
+            if (stalled) {
+                // the stalled send has returned, end the stream the client no longer receives events on
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Stalled live update connection of {} already completed: {}", username, e.getMessage());
+                }
+                return;
+            }
+
+            if (!closed && !queue.isEmpty()) {
+                scheduleSending();
+            }
+        }
+
+        private void send(LiveEvent event) throws IOException {
+            sendStartedAt = System.nanoTime();
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    return;
+                }
+
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id()))
+                        .name(event.name())
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        private boolean isSendStalled(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > Duration.ofMillis(sendTimeoutMs).toNanos();
+        }
+
+        /**
+         * Called by the heartbeat while the sender is still blocked in a send. The emitter cannot be
+         * completed from here, its send lock is held by the blocked sender, so the connection only
+         * stops receiving events and frees its place, and the sender completes the emitter once the write returns
+         */
+        private void closeStalled() {
+            LOGGER.info("Live update connection of {} closed, a send did not complete within {} ms",
+                    username, sendTimeoutMs);
+            stalled = true;
+            close();
+            // in case the send returned meanwhile, a sender pass completes the emitter
+            scheduleSending();
+        }
+
+        private void close() {
+            closed = true;
+            connections.remove(this);
+            queue.clear();
+        }
+    }
+}
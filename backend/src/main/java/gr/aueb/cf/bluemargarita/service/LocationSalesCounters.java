@@ -0,0 +1,405 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.SaleChangedEvent;
+import gr.aueb.cf.bluemargarita.core.events.SaleSnapshot;
+import gr.aueb.cf.bluemargarita.dto.location.LocationAnalyticsDTO;
+import gr.aueb.cf.bluemargarita.repository.SaleProductRepository;
+import gr.aueb.cf.bluemargarita.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory sales counters per location: totals per day, all-time totals and totals per product.
+ * There are only a handful of locations, so the location pages and the location comparison are
+ * served from here without reading the sales tables.
+ *
+ * The counters are loaded from the database on startup and then kept current from the after-commit
+ * SaleChangedEvent, by subtracting the previous state of the sale and adding the current one.
+ * Every counter can be decremented exactly, including the last sale dates, which come from the
+ * per-day entries. Today, last 30 days and year-to-date are summed from the day entries when read.
+ *
+ * Locations are guarded by a fixed set of striped read/write locks. A load reads both aggregates in
+ * one REPEATABLE READ transaction and keeps its PostgreSQL snapshot. Every event carries the id of
+ * the transaction that changed the sale, and an event whose transaction is in the snapshot is already
+ * counted and is ignored, however late it arrives. Events arriving while a load runs are kept and
+ * replayed on the loaded counters under the same rule, so no sale is lost or counted twice.
+ * Until the first load completes isReady() is false and callers read the database.
+ */
+@Component
+public class LocationSalesCounters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationSalesCounters.class);
+    private static final int LOCK_STRIPES = 16;
+    private static final Comparator<ProductTotals> BY_REVENUE =
+            Comparator.comparing(ProductTotals::revenue).thenComparing(ProductTotals::productId, Comparator.reverseOrder());
+
+    private final SaleRepository saleRepository;
+    private final SaleProductRepository saleProductRepository;
+    private final ThreadPoolTaskScheduler analyticsRefreshScheduler;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final ReadWriteLock[] stripes = new ReadWriteLock[LOCK_STRIPES];
+    private final Map<Long, Counters> countersByLocation = new ConcurrentHashMap<>();
+    // changes received while a load runs, replayed on the loaded counters
+    private final Queue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    // the flags and the snapshot only change with every stripe locked
+    private volatile boolean loading;
+    private volatile boolean ready;
+    private volatile DatabaseSnapshot loadedSnapshot;
+
+    /**
+     * All-time sales of a product at a location
+     */
+    public record ProductTotals(Long productId, BigDecimal quantity, BigDecimal revenue, LocalDate lastSaleDate) {}
+
+    @Autowired
+    public LocationSalesCounters(SaleRepository saleRepository,
+                                 SaleProductRepository saleProductRepository,
+                                 @Qualifier("analyticsRefreshScheduler") ThreadPoolTaskScheduler analyticsRefreshScheduler,
+                                 PlatformTransactionManager transactionManager) {
+        this.saleRepository = saleRepository;
+        this.saleProductRepository = saleProductRepository;
+        this.analyticsRefreshScheduler = analyticsRefreshScheduler;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // =============================================================================
+    // READ - Called by LocationService
+    // =============================================================================
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the location's analytics as of today, null if it has no sales
+     */
+    public LocationAnalyticsDTO getAnalytics(Long locationId) {
+        LocalDate today = LocalDate.now();
+        ReadWriteLock lock = stripeFor(locationId);
+
+        lock.readLock().lock();
+        try {
+            Counters counters = countersByLocation.get(locationId);
+            return counters != null && counters.totalSalesCount > 0 ? counters.toAnalytics(today) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the location's products with the highest all-time revenue, highest first
+     */
+    public List<ProductTotals> getTopProducts(Long locationId, int limit) {
+        ReadWriteLock lock = stripeFor(locationId);
+
+        lock.readLock().lock();
+        try {
+            Counters counters = countersByLocation.get(locationId);
+            return counters != null ? counters.topProducts(limit) : Collections.emptyList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // =============================================================================
+    // MAINTENANCE - Startup load and after-commit sale events
+    // =============================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoad() {
+        analyticsRefreshScheduler.execute(this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        apply(new PendingChange(event.previous(), -1, event.transactionId()));
+        apply(new PendingChange(event.current(), 1, event.transactionId()));
+    }
+
+    private void apply(PendingChange change) {
+        if (change.sale() == null) {
+            return;
+        }
+
+        ReadWriteLock lock = stripeFor(change.sale().locationId());
+        lock.writeLock().lock();
+        try {
+            // A change received before a load started was committed before its snapshot was taken
+            if (loading) {
+                pendingChanges.add(change);
+            }
+            if (ready) {
+                applyUnlessLoaded(change, loadedSnapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the counters from the database, replacing the current ones. Package-private for the tests
+     */
+    void load() {
+        long start = System.currentTimeMillis();
+
+        lockAll();
+        try {
+            pendingChanges.clear();
+            loading = true;
+        } finally {
+            unlockAll();
+        }
+
+        LoadedCounters loaded;
+        try {
+            loaded = snapshotTransaction.execute(status -> new LoadedCounters(
+                    DatabaseSnapshot.parse(saleRepository.currentSnapshot()), readFromDatabase()));
+        } catch (DataAccessException | TransactionException e) {
+            LOGGER.warn("Location sales counters could not be loaded: {}", e.getMessage());
+            lockAll();
+            try {
+                loading = false;
+                pendingChanges.clear();
+            } finally {
+                unlockAll();
+            }
+            return;
+        }
+
+        lockAll();
+        try {
+            countersByLocation.clear();
+            countersByLocation.putAll(loaded.counters());
+            loadedSnapshot = loaded.snapshot();
+
+            int replayed = 0;
+            for (PendingChange change : pendingChanges) {
+                replayed += applyUnlessLoaded(change, loadedSnapshot) ? 1 : 0;
+            }
+            pendingChanges.clear();
+            loading = false;
+            ready = true;
+
+            LOGGER.info("Location sales counters loaded for {} locations in {} ms, {} later changes replayed",
+                    loaded.counters().size(), System.currentTimeMillis() - start, replayed);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Called with the location's stripe (or every stripe) locked
+    private boolean applyUnlessLoaded(PendingChange change, DatabaseSnapshot snapshot) {
+        if (snapshot.contains(change.transactionId())) {
+            return false;
+        }
+        countersByLocation.computeIfAbsent(change.sale().locationId(), id -> new Counters())
+                .apply(change.sale(), change.sign());
+        return true;
+    }
+
+    // Both aggregates are read in the snapshot transaction, so they describe the same sales
+    private Map<Long, Counters> readFromDatabase() {
+        Map<Long, Counters> loaded = new HashMap<>();
+
+        for (Object[] row : saleRepository.sumSaleTotalsGroupedByLocationAndDate()) {
+            loaded.computeIfAbsent((Long) row[0], id -> new Counters())
+                    .addSales((LocalDate) row[1], ((Number) row[2]).intValue(), toBigDecimal(row[3]));
+        }
+
+        for (Object[] row : saleProductRepository.sumLineTotalsGroupedByLocationProductAndDate()) {
+            loaded.computeIfAbsent((Long) row[0], id -> new Counters())
+                    .addLines((Long) row[1], (LocalDate) row[2], ((Number) row[3]).intValue(),
+                            toBigDecimal(row[4]), toBigDecimal(row[5]));
+        }
+        return loaded;
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS
+    // =============================================================================
+
+    private ReadWriteLock stripeFor(Long locationId) {
+        return stripes[Math.floorMod(locationId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void lockAll() {
+        for (ReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+            stripes[i].writeLock().unlock();
+        }
+    }
+
+    private record PendingChange(SaleSnapshot sale, int sign, Long transactionId) {}
+
+    private record LoadedCounters(DatabaseSnapshot snapshot, Map<Long, Counters> counters) {}
+
+    /**
+     * A PostgreSQL snapshot, parsed from pg_current_snapshot(). Transactions below xmin had finished
+     * when it was taken and those from xmax on had not started. In between, the ones listed were still
+     * in progress, the others had finished. A sale change is in the snapshot when its transaction had
+     * finished (changes are only published by committed transactions)
+     */
+    private record DatabaseSnapshot(long xmin, long xmax, Set<Long> inProgress) {
+
+        static DatabaseSnapshot parse(String snapshot) {
+            String[] parts = snapshot.split(":");
+            Set<Long> inProgress = parts.length > 2
+                    ? Arrays.stream(parts[2].split(",")).map(Long::valueOf).collect(Collectors.toSet())
+                    : Set.of();
+            return new DatabaseSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+        }
+
+        boolean contains(Long transactionId) {
+            if (transactionId == null) {
+                return false;
+            }
+            return transactionId < xmin || (transactionId < xmax && !inProgress.contains(transactionId));
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * Counters of one location, only accessed under the location's stripe lock
+     */
+    private static final class Counters {
+
+        private int totalSalesCount = 0;
+        private BigDecimal totalRevenue = BigDecimal.ZERO;
+        private final NavigableMap<LocalDate, DayTotals> days = new TreeMap<>();
+        private final Map<Long, ProductCounters> products = new HashMap<>();
+
+        void apply(SaleSnapshot sale, int sign) {
+            BigDecimal multiplier = BigDecimal.valueOf(sign);
+            addSales(sale.saleDate(), sign, sale.finalTotalPrice().multiply(multiplier));
+
+            for (SaleSnapshot.Line line : sale.lines()) {
+                addLines(line.productId(), sale.saleDate(), sign,
+                        line.quantity().multiply(multiplier), line.revenue().multiply(multiplier));
+            }
+        }
+
+        void addSales(LocalDate date, int count, BigDecimal revenue) {
+            totalSalesCount += count;
+            totalRevenue = totalRevenue.add(revenue);
+
+            DayTotals day = days.computeIfAbsent(date, d -> new DayTotals());
+            day.count += count;
+            day.revenue = day.revenue.add(revenue);
+            if (day.count <= 0) {
+                days.remove(date);
+            }
+        }
+
+        void addLines(Long productId, LocalDate date, int lines, BigDecimal quantity, BigDecimal revenue) {
+            ProductCounters product = products.computeIfAbsent(productId, id -> new ProductCounters());
+            product.quantity = product.quantity.add(quantity);
+            product.revenue = product.revenue.add(revenue);
+            product.linesByDay.merge(date, lines, Integer::sum);
+            if (product.linesByDay.get(date) <= 0) {
+                product.linesByDay.remove(date);
+            }
+            if (product.linesByDay.isEmpty()) {
+                products.remove(productId);
+            }
+        }
+
+        LocationAnalyticsDTO toAnalytics(LocalDate today) {
+            DayTotals todayTotals = sum(today, today);
+            DayTotals recent = sum(today.minusDays(30), today);
+            DayTotals yearly = sum(today.withDayOfYear(1), today);
+
+            return new LocationAnalyticsDTO(
+                    totalRevenue,
+                    totalSalesCount,
+                    totalRevenue.divide(BigDecimal.valueOf(totalSalesCount), 2, RoundingMode.HALF_UP),
+                    days.lastKey(),
+                    todayTotals.count,
+                    todayTotals.revenue,
+                    recent.count,
+                    recent.revenue,
+                    yearly.count,
+                    yearly.revenue
+            );
+        }
+
+        /**
+         * Keeps the top products in a min-heap bounded to the limit, so a location with many
+         * products is ranked without sorting all of them
+         */
+        List<ProductTotals> topProducts(int limit) {
+            PriorityQueue<ProductTotals> heap = new PriorityQueue<>(limit + 1, BY_REVENUE);
+
+            for (Map.Entry<Long, ProductCounters> entry : products.entrySet()) {
+                ProductCounters product = entry.getValue();
+                heap.offer(new ProductTotals(entry.getKey(), product.quantity, product.revenue,
+                        product.linesByDay.lastKey()));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+
+            List<ProductTotals> top = new ArrayList<>(heap);
+            top.sort(BY_REVENUE.reversed());
+            return top;
+        }
+
+        private DayTotals sum(LocalDate from, LocalDate to) {
+            DayTotals total = new DayTotals();
+            for (DayTotals day : days.subMap(from, true, to, true).values()) {
+                total.count += day.count;
+                total.revenue = total.revenue.add(day.revenue);
+            }
+            return total;
+        }
+    }
+
+    private static final class DayTotals {
+        private int count = 0;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+
+    private static final class ProductCounters {
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private final NavigableMap<LocalDate, Integer> linesByDay = new TreeMap<>();
+    }
+}
@@ -11,6 +11,8 @@ import gr.aueb.cf.bluemargarita.dto.product.ProductStatsSummaryDTO;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -34,17 +36,24 @@ public class LocationService implements ILocationService {
     private final UserService userService;
     private final SaleRepository saleRepository;
     private final ProductRepository productRepository;
-    private final SaleProductRepository saleProductRepository;
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final LocationSalesCounters locationSalesCounters;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
+    private static final int TOP_PRODUCTS_LIMIT = 10;
+
     @Autowired
     public LocationService(LocationRepository locationRepository, UserService userService,
-                           SaleRepository saleRepository, ProductRepository productRepository, SaleProductRepository saleProductRepository, Mapper mapper) {
+                           SaleRepository saleRepository, ProductRepository productRepository, SalesDailyRollupRepository salesDailyRollupRepository,
+                           LocationSalesCounters locationSalesCounters, PaginationCountCache countCache, Mapper mapper) {
         this.locationRepository = locationRepository;
         this.userService = userService;
         this.saleRepository = saleRepository;
         this.productRepository = productRepository;
-        this.saleProductRepository = saleProductRepository;
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.locationSalesCounters = locationSalesCounters;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -162,11 +171,11 @@ public class LocationService implements ILocationService {
     @Override
     @Transactional(readOnly = true)
     public Paginated<LocationReadOnlyDTO> getLocationsFilteredPaginated(LocationFilters filters) {
-        var filtered = locationRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToLocationReadOnlyDTO));
+        Specification<Location> spec = getSpecsFromFilters(filters);
+        Slice<LocationReadOnlyDTO> filtered = locationRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToLocationReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(Location.class, filters),
+                () -> locationRepository.count(spec));
     }
 
     @Override
@@ -183,6 +192,34 @@ public class LocationService implements ILocationService {
 
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocationComparisonDTO> getLocationComparison() {
+
+        List<Location> locations = locationRepository.findByIsActiveTrue();
+
+        Map<Long, LocationAnalyticsDTO> analyticsByLocation = new HashMap<>();
+        BigDecimal yearlyRevenueOfAll = BigDecimal.ZERO;
+        for (Location location : locations) {
+            LocationAnalyticsDTO analytics = getLocationAnalytics(location.getId());
+            analyticsByLocation.put(location.getId(), analytics);
+            yearlyRevenueOfAll = yearlyRevenueOfAll.add(analytics.yearlySalesRevenue());
+        }
+
+        List<LocationComparisonDTO> comparison = new ArrayList<>();
+        for (Location location : locations) {
+            LocationAnalyticsDTO analytics = analyticsByLocation.get(location.getId());
+            BigDecimal share = yearlyRevenueOfAll.compareTo(BigDecimal.ZERO) > 0 ?
+                    analytics.yearlySalesRevenue().multiply(BigDecimal.valueOf(100))
+                            .divide(yearlyRevenueOfAll, 2, RoundingMode.HALF_UP) :
+                    BigDecimal.ZERO;
+            comparison.add(new LocationComparisonDTO(location.getId(), location.getName(), analytics, share));
+        }
+
+        comparison.sort((l1, l2) -> l2.analytics().yearlySalesRevenue().compareTo(l1.analytics().yearlySalesRevenue()));
+        return comparison;
+    }
+
     // =============================================================================
     // RECORD SALE PAGE
     // =============================================================================
@@ -227,7 +264,18 @@ public class LocationService implements ILocationService {
     // PRIVATE HELPER METHODS - Analytics Calculations
     // =============================================================================
 
+    /**
+     * Served from the in-memory location counters, or from the database until they are loaded
+     */
     private LocationAnalyticsDTO getLocationAnalytics(Long locationId) {
+        if (locationSalesCounters.isReady()) {
+            LocationAnalyticsDTO analytics = locationSalesCounters.getAnalytics(locationId);
+            return analytics != null ? analytics : createEmptyLocationAnalytics();
+        }
+        return getLocationAnalyticsFromDatabase(locationId);
+    }
+
+    private LocationAnalyticsDTO getLocationAnalyticsFromDatabase(Long locationId) {
         // All-time metrics
         Integer totalSalesCount = saleRepository.countByLocationId(locationId);
         if (totalSalesCount == 0) {
@@ -238,14 +286,18 @@ public class LocationService implements ILocationService {
         BigDecimal averageOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalSalesCount), 2, RoundingMode.HALF_UP);
         LocalDate lastSaleDate = saleRepository.findLastSaleDateByLocationId(locationId);
 
-        // Recent performance
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+        // Today
         LocalDate today = LocalDate.now();
+        Integer todaySalesCount = saleRepository.countByLocationIdAndDateRange(locationId, today, today);
+        BigDecimal todayRevenue = saleRepository.sumRevenueByLocationIdAndDateRange(locationId, today, today);
+
+        // Recent performance
+        LocalDate thirtyDaysAgo = today.minusDays(30);
         Integer recentSalesCount = saleRepository.countByLocationIdAndDateRange(locationId, thirtyDaysAgo, today);
         BigDecimal recentRevenue = saleRepository.sumRevenueByLocationIdAndDateRange(locationId, thirtyDaysAgo, today);
 
         // Yearly performance
-        LocalDate yearStart = LocalDate.of(LocalDate.now().getYear(), 1, 1);
+        LocalDate yearStart = LocalDate.of(today.getYear(), 1, 1);
         Integer yearlySalesCount = saleRepository.countByLocationIdAndDateRange(locationId, yearStart, today);
         BigDecimal yearlySalesRevenue = saleRepository.sumRevenueByLocationIdAndDateRange(locationId, yearStart, today);
 
@@ -254,6 +306,8 @@ public class LocationService implements ILocationService {
                 totalSalesCount,
                 averageOrderValue,
                 lastSaleDate,
+                todaySalesCount,
+                todayRevenue,
                 recentSalesCount,
                 recentRevenue,
                 yearlySalesCount,
@@ -267,6 +321,8 @@ public class LocationService implements ILocationService {
                 0,                  // totalSalesCount
                 BigDecimal.ZERO,    // averageOrderValue
                 null,               // lastSaleDate
+                0,                  // todaySalesCount
+                BigDecimal.ZERO,    // todayRevenue
                 0,                  // recentSalesCount
                 BigDecimal.ZERO,    // recentRevenue
                 0,                  // yearlySalesCount
@@ -276,37 +332,32 @@ public class LocationService implements ILocationService {
 
     List<ProductStatsSummaryDTO> getTopProductsInLocation(Long locationId){
 
-        List<Long> productIds = saleProductRepository.findDistinctProductIdsByLocationId(locationId);
+        if (!locationSalesCounters.isReady()) {
+            return salesDailyRollupRepository.findTopProductsByLocationId(locationId, Limit.of(TOP_PRODUCTS_LIMIT));
+        }
 
-        if(productIds.isEmpty()) {
+        List<LocationSalesCounters.ProductTotals> topProducts = locationSalesCounters.getTopProducts(locationId, TOP_PRODUCTS_LIMIT);
+        if (topProducts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return productIds.stream()
-                .limit(10)
-                .map(productId -> getProductSalesStatsForLocation(productId,locationId))
-                .flatMap(Optional::stream)
-                .sorted((p1,p2)-> p2.totalRevenue().compareTo(p1.totalRevenue()))
+        // Names and codes may have changed since the sales, they are read from the products
+        Map<Long, Product> productsById = productRepository.findAllById(topProducts.stream()
+                        .map(LocationSalesCounters.ProductTotals::productId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        return topProducts.stream()
+                .filter(totals -> productsById.containsKey(totals.productId()))
+                .map(totals -> {
+                    Product product = productsById.get(totals.productId());
+                    return new ProductStatsSummaryDTO(totals.productId(), product.getName(), product.getCode(),
+                            totals.quantity(), totals.revenue(), totals.lastSaleDate());
+                })
                 .collect(Collectors.toList());
     }
 
-    private Optional<ProductStatsSummaryDTO> getProductSalesStatsForLocation(Long productId, Long locationId) {
-
-        String productName = productRepository.findProductNameById(productId);
-        String productCode = productRepository.findProductCodeById(productId);
-        BigDecimal totalSold = saleProductRepository.sumQuantityByProductIdAndLocationId(productId, locationId);
-        if(totalSold == null || totalSold.compareTo(BigDecimal.ZERO) == 0){
-            return Optional.empty();
-        }
-
-        BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdAndLocationId(productId, locationId);
-        LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductIdAndLocationId(productId, locationId);
-
-        return Optional.of(new ProductStatsSummaryDTO(productId, productName, productCode, totalSold, totalRevenue, lastSaleDate));
-
-
-    }
-
     // =============================================================================
     // PRIVATE HELPER METHODS - Filtering and Specifications
     // =============================================================================
@@ -10,14 +10,16 @@ import gr.aueb.cf.bluemargarita.core.specifications.MaterialSpecification;
 import gr.aueb.cf.bluemargarita.core.specifications.ProductSpecification;
 import gr.aueb.cf.bluemargarita.dto.category.CategoryUsageDTO;
 import gr.aueb.cf.bluemargarita.dto.material.*;
+import gr.aueb.cf.bluemargarita.dto.product.ProductRepricingResultDTO;
 import gr.aueb.cf.bluemargarita.dto.product.ProductUsageDTO;
+import gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.Material;
 import gr.aueb.cf.bluemargarita.model.Product;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -42,23 +44,28 @@ public class MaterialService implements IMaterialService {
     private final UserService userService;
     private final ProductRepository productRepository;
     private final ProductMaterialRepository productMaterialRepository;
-    private final SaleProductRepository saleProductRepository;
+    private final SaleProductComponentRepository saleProductComponentRepository;
     private final CategoryRepository categoryRepository;
     private final PurchaseMaterialRepository purchaseMaterialRepository;
+    private final ProductCostService productCostService;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
     public MaterialService(MaterialRepository materialRepository, UserService userService,
                            ProductRepository productRepository, ProductMaterialRepository productMaterialRepository,
-                           SaleProductRepository saleProductRepository, CategoryRepository categoryRepository,
-                           PurchaseMaterialRepository purchaseMaterialRepository, Mapper mapper) {
+                           SaleProductComponentRepository saleProductComponentRepository, CategoryRepository categoryRepository,
+                           PurchaseMaterialRepository purchaseMaterialRepository, ProductCostService productCostService,
+                           PaginationCountCache countCache, Mapper mapper) {
         this.materialRepository = materialRepository;
         this.userService = userService;
         this.productRepository = productRepository;
         this.productMaterialRepository = productMaterialRepository;
-        this.saleProductRepository = saleProductRepository;
+        this.saleProductComponentRepository = saleProductComponentRepository;
         this.categoryRepository = categoryRepository;
         this.purchaseMaterialRepository = purchaseMaterialRepository;
+        this.productCostService = productCostService;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -88,7 +95,7 @@ public class MaterialService implements IMaterialService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public MaterialReadOnlyDTO updateMaterial(MaterialUpdateDTO dto) throws EntityAlreadyExistsException, EntityNotFoundException {
+    public MaterialUpdateResultDTO updateMaterial(MaterialUpdateDTO dto) throws EntityAlreadyExistsException, EntityNotFoundException {
 
         Material existingMaterial = getMaterialEntityById(dto.materialId());
 
@@ -97,15 +104,28 @@ public class MaterialService implements IMaterialService {
         }
 
         User updater = userService.getCurrentUserOrThrow();
+        BigDecimal previousUnitCost = existingMaterial.getCurrentUnitCost();
 
         Material updatedMaterial = mapper.mapMaterialUpdateToModel(dto, existingMaterial);
         updatedMaterial.setLastUpdatedBy(updater);
 
         Material savedMaterial = materialRepository.save(updatedMaterial);
 
+        // Reprice only the products using this material. Compared by value: the form sends 12.5
+        // for a stored 12.50, which is not a change
+        BigDecimal newUnitCost = savedMaterial.getCurrentUnitCost();
+        boolean unitCostChanged = previousUnitCost == null || newUnitCost == null
+                ? previousUnitCost != newUnitCost
+                : previousUnitCost.compareTo(newUnitCost) != 0;
+
+        ProductRepricingResultDTO repricing = null;
+        if (unitCostChanged) {
+            repricing = productCostService.repriceProductsForMaterial(savedMaterial.getId(), updater);
+        }
+
         LOGGER.info("Material {} updated by user {}", savedMaterial.getName(), updater.getUsername());
 
-        return mapper.mapToMaterialReadOnlyDTO(savedMaterial);
+        return new MaterialUpdateResultDTO(mapper.mapToMaterialReadOnlyDTO(savedMaterial), repricing);
     }
 
     @Override
@@ -181,11 +201,11 @@ public class MaterialService implements IMaterialService {
     @Override
     @Transactional(readOnly = true)
     public Paginated<MaterialReadOnlyDTO> getMaterialsFilteredPaginated(MaterialFilters filters) {
-        var filtered = materialRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToMaterialReadOnlyDTO));
+        Specification<Material> spec = getSpecsFromFilters(filters);
+        Slice<MaterialReadOnlyDTO> filtered = materialRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToMaterialReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(Material.class, filters),
+                () -> materialRepository.count(spec));
     }
 
     @Override
@@ -220,10 +240,10 @@ public class MaterialService implements IMaterialService {
                 .where(ProductSpecification.hasProductMaterial(materialId))
                 .and(getProductSpecsFromFilters(filters));
 
-        Page<Product> products = productRepository.findAll(spec, filters.getPageable());
+        Slice<Product> products = productRepository.findSlice(spec, filters.getPageable());
 
         // Map to DTOs with material usage information
-        Page<ProductUsageDTO> mappedProducts = products.map(product -> {
+        Slice<ProductUsageDTO> mappedProducts = products.map(product -> {
             try {
                 return product.getAllProductMaterials()
                         .stream()
@@ -251,7 +271,8 @@ public class MaterialService implements IMaterialService {
             }
         });
 
-        return new Paginated<>(mappedProducts);
+        return countCache.toPaginated(mappedProducts, PaginationCountCache.key(Product.class, "material=" + materialId, filters),
+                () -> productRepository.count(spec));
     }
 
     // =============================================================================
@@ -326,22 +347,21 @@ public class MaterialService implements IMaterialService {
             lastYearAveragePurchasePrice = null;
         }
 
-        Integer totalSalesCount = saleProductRepository.countSalesByMaterialId(materialId);
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        LocalDate lastSaleDate = null;
-
-        if(totalSalesCount > 0){
-            totalRevenue = saleProductRepository.sumRevenueByMaterialId(materialId);
-            lastSaleDate = saleProductRepository.findLastSaleDateByMaterialId(materialId);
-        }
+        // Sales of the products that contained the material when they were sold
+        ComponentSalesStatsDTO allTimeSales = saleProductComponentRepository.findSalesStatsByMaterialId(materialId);
+        Integer totalSalesCount = allTimeSales.salesCount().intValue();
+        BigDecimal totalRevenue = allTimeSales.revenue();
+        LocalDate lastSaleDate = allTimeSales.lastSaleDate();
 
         // Recent sales  (last 30 days)
-        Integer recentSalesCount = saleProductRepository.countSalesByMaterialIdAndDateRange(materialId, thirtyDaysAgo, today);
-        BigDecimal recentRevenue = saleProductRepository.sumRevenueByMaterialIdAndDateRange(materialId, thirtyDaysAgo, today);
+        ComponentSalesStatsDTO recentSales = saleProductComponentRepository.findSalesStatsByMaterialIdAndDateRange(materialId, thirtyDaysAgo, today);
+        Integer recentSalesCount = recentSales.salesCount().intValue();
+        BigDecimal recentRevenue = recentSales.revenue();
 
         // Yearly performance
-        Integer yearlySalesCount = saleProductRepository.countSalesByMaterialIdAndDateRange(materialId, yearStart, today);
-        BigDecimal yearlySalesRevenue = saleProductRepository.sumRevenueByMaterialIdAndDateRange(materialId, yearStart, today);
+        ComponentSalesStatsDTO yearlySales = saleProductComponentRepository.findSalesStatsByMaterialIdAndDateRange(materialId, yearStart, today);
+        Integer yearlySalesCount = yearlySales.salesCount().intValue();
+        BigDecimal yearlySalesRevenue = yearlySales.revenue();
 
         return new MaterialAnalyticsDTO(
                 totalProductsUsing,
@@ -0,0 +1,80 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.filters.Paginated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of list totals, so paging through a filtered list does not repeat the
+ * same COUNT for every page. The list itself is read as a slice (page size + 1 rows); the
+ * total is then taken, in order of preference, from:
+ * - the slice itself, when it is the last page (exact, nothing to count)
+ * - a count of the same filters made in the last few seconds (reported as not exact)
+ * - a new count, which is stored for the following pages
+ *
+ * Keys are built from the entity and the filters' toString, which leaves out the page,
+ * page size and sort of GenericFilters, so every page of the same search shares one entry.
+ */
+@Component
+public class PaginationCountCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    @Value("${app.pagination.count-cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    private record Entry(long total, long countedAt) {}
+
+    private final Map<String, Entry> totals = new ConcurrentHashMap<>();
+
+    public static String key(Class<?> entity, Object... filters) {
+        StringBuilder key = new StringBuilder(entity.getSimpleName());
+        for (Object filter : filters) {
+            key.append('|').append(filter);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Wraps a slice into a page, counting the matching rows only when neither the slice
+     * nor a recent count already gives the total
+     * @param slice the page read without a count
+     * @param key the cache key, see {@link #key(Class, Object...)}
+     * @param counter counts all rows matching the same filters
+     */
+    public <T> Paginated<T> toPaginated(Slice<T> slice, String key, LongSupplier counter) {
+
+        long now = System.currentTimeMillis();
+
+        if (!slice.hasNext() && (slice.hasContent() || slice.getNumber() == 0)) {
+            long total = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+            store(key, new Entry(total, now));
+            return new Paginated<>(slice, total, true);
+        }
+
+        Entry cached = totals.get(key);
+        if (cached != null && now - cached.countedAt() < ttlMillis) {
+            return new Paginated<>(slice, cached.total(), false);
+        }
+
+        long total = counter.getAsLong();
+        store(key, new Entry(total, now));
+        return new Paginated<>(slice, total, true);
+    }
+
+    private void store(String key, Entry entry) {
+        if (totals.size() >= MAX_ENTRIES) {
+            long now = System.currentTimeMillis();
+            totals.values().removeIf(existing -> now - existing.countedAt() >= ttlMillis);
+            if (totals.size() >= MAX_ENTRIES) {
+                totals.clear();
+            }
+        }
+        totals.put(key, entry);
+    }
+}
@@ -11,11 +11,12 @@ import gr.aueb.cf.bluemargarita.core.specifications.ProductSpecification;
 import gr.aueb.cf.bluemargarita.dto.category.CategoryUsageDTO;
 import gr.aueb.cf.bluemargarita.dto.procedure.*;
 import gr.aueb.cf.bluemargarita.dto.product.ProductUsageDTO;
+import gr.aueb.cf.bluemargarita.dto.analytics.ComponentSalesStatsDTO;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -39,19 +40,21 @@ public class ProcedureService implements IProcedureService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductProcedureRepository productProcedureRepository;
-    private final SaleProductRepository saleProductRepository;
+    private final SaleProductComponentRepository saleProductComponentRepository;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
     public ProcedureService(ProcedureRepository procedureRepository, UserService userService, ProductRepository productRepository,
                             CategoryRepository categoryRepository, ProductProcedureRepository productProcedureRepository,
-                            SaleProductRepository saleProductRepository, Mapper mapper) {
+                            SaleProductComponentRepository saleProductComponentRepository, PaginationCountCache countCache, Mapper mapper) {
         this.procedureRepository = procedureRepository;
         this.userService = userService;
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.productProcedureRepository = productProcedureRepository;
-        this.saleProductRepository = saleProductRepository;
+        this.saleProductComponentRepository = saleProductComponentRepository;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -172,11 +175,11 @@ public class ProcedureService implements IProcedureService {
     @Override
     @Transactional(readOnly = true)
     public Paginated<ProcedureReadOnlyDTO> getProceduresFilteredPaginated(ProcedureFilters filters) {
-        var filtered = procedureRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToProcedureReadOnlyDTO));
+        Specification<Procedure> spec = getSpecsFromFilters(filters);
+        Slice<ProcedureReadOnlyDTO> filtered = procedureRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToProcedureReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(Procedure.class, filters),
+                () -> procedureRepository.count(spec));
     }
 
     @Override
@@ -211,10 +214,10 @@ public class ProcedureService implements IProcedureService {
                 .where(ProductSpecification.productUsesProcedureById(procedureId))
                 .and(getProductSpecsFromFilters(filters));
 
-        Page<Product> products = productRepository.findAll(spec, filters.getPageable());
+        Slice<Product> products = productRepository.findSlice(spec, filters.getPageable());
 
         // Map to DTOs with procedure usage information
-        Page<ProductUsageDTO> mappedProducts = products.map(product -> {
+        Slice<ProductUsageDTO> mappedProducts = products.map(product -> {
             try {
                 return product.getAllProcedureProducts()
                         .stream()
@@ -241,7 +244,8 @@ public class ProcedureService implements IProcedureService {
             }
         });
 
-        return new Paginated<>(mappedProducts);
+        return countCache.toPaginated(mappedProducts, PaginationCountCache.key(Product.class, "procedure=" + procedureId, filters),
+                () -> productRepository.count(spec));
 
     }
 
@@ -310,26 +314,24 @@ public class ProcedureService implements IProcedureService {
 
         BigDecimal averageProductSellingPrice = productProcedureRepository.calculateAverageProductPriceByProcedureId(procedureId);
 
-        // All-time sales metrics
-        Integer totalSalesCount = saleProductRepository.countSalesByProcedureId(procedureId);
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        LocalDate lastSaleDate = null;
-
-        if (totalSalesCount > 0) {
-            totalRevenue = saleProductRepository.sumRevenueByProcedureId(procedureId);
-            lastSaleDate = saleProductRepository.findLastSaleDateByProcedureId(procedureId);
-        }
+        // All-time sales metrics, of the products that used the procedure when they were sold
+        ComponentSalesStatsDTO allTimeSales = saleProductComponentRepository.findSalesStatsByProcedureId(procedureId);
+        Integer totalSalesCount = allTimeSales.salesCount().intValue();
+        BigDecimal totalRevenue = allTimeSales.revenue();
+        LocalDate lastSaleDate = allTimeSales.lastSaleDate();
 
         // Recent performance (last 30 days)
         LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
         LocalDate today = LocalDate.now();
-        Integer recentSalesCount = saleProductRepository.countSalesByProcedureIdAndDateRange(procedureId, thirtyDaysAgo, today);
-        BigDecimal recentRevenue = saleProductRepository.sumRevenueByProcedureIdAndDateRange(procedureId, thirtyDaysAgo, today);
+        ComponentSalesStatsDTO recentSales = saleProductComponentRepository.findSalesStatsByProcedureIdAndDateRange(procedureId, thirtyDaysAgo, today);
+        Integer recentSalesCount = recentSales.salesCount().intValue();
+        BigDecimal recentRevenue = recentSales.revenue();
 
         // Yearly performance
         LocalDate yearStart = LocalDate.of(LocalDate.now().getYear(), 1, 1);
-        Integer yearlySalesCount = saleProductRepository.countSalesByProcedureIdAndDateRange(procedureId, yearStart, today);
-        BigDecimal yearlySalesRevenue = saleProductRepository.sumRevenueByProcedureIdAndDateRange(procedureId, yearStart, today);
+        ComponentSalesStatsDTO yearlySales = saleProductComponentRepository.findSalesStatsByProcedureIdAndDateRange(procedureId, yearStart, today);
+        Integer yearlySalesCount = yearlySales.salesCount().intValue();
+        BigDecimal yearlySalesRevenue = yearlySales.revenue();
 
         return new ProcedureAnalyticsDTO(
                 totalProductsUsing,
@@ -0,0 +1,301 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.ProductChangedEvent;
+import gr.aueb.cf.bluemargarita.dto.product.PriceRecalculationResultDTO;
+import gr.aueb.cf.bluemargarita.dto.product.ProductRepricingResultDTO;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.model.User;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository.ProductCosts;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository.RepricingCounts;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the denormalized cost columns of products (material, procedure, labor, total) and the
+ * suggested prices derived from them current. The costs themselves are always computed by the
+ * product_costs() SQL function (sql/production-init.sql), with the labor rate passed from here,
+ * so the single product, dependent product and whole catalog paths cannot drift apart.
+
+ * ProductService calls applyCosts() after any change to a product's materials, procedures
+ * or minutesToMake. MaterialService calls repriceProductsForMaterial() when a unit cost changes,
+ * which reprices only the dependent products, with one statement. ProductService calls
+ * repriceAllActiveProducts() for the bulk recalculation of the whole catalog.
+ */
+@Service
+public class ProductCostService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductCostService.class);
+    private static final BigDecimal HOURLY_LABOR_RATE = BigDecimal.valueOf(7.0);
+    private static final BigDecimal RETAIL_MARKUP_FACTOR = BigDecimal.valueOf(3.0);
+    private static final BigDecimal WHOLESALE_MARKUP_FACTOR = BigDecimal.valueOf(1.86);
+    private static final int REPRICE_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+
+    @Autowired
+    public ProductCostService(ProductRepository productRepository, EntityManagerFactory entityManagerFactory,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =============================================================================
+    // SINGLE PRODUCT - Called by ProductService
+    // =============================================================================
+
+    /**
+     * Recomputes the cost columns from the product's current materials, procedures and minutesToMake.
+     * The product's pending changes are flushed first so the cost function sees them
+     */
+    public void applyCosts(Product product) {
+        productRepository.flush();
+        List<ProductCosts> costs = productRepository.findCostsByProductIds(List.of(product.getId()), HOURLY_LABOR_RATE);
+        setCosts(product, costs.get(0));
+    }
+
+    public BigDecimal calculateSuggestedRetailPrice(BigDecimal totalCost) {
+        return totalCost.multiply(RETAIL_MARKUP_FACTOR).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal calculateSuggestedWholesalePrice(BigDecimal totalCost) {
+        return totalCost.multiply(WHOLESALE_MARKUP_FACTOR).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Fills the cost columns of products saved before they were introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(rollbackFor = Exception.class)
+    public void backfillMissingCosts() {
+        int backfilled = productRepository.backfillMissingCosts(HOURLY_LABOR_RATE);
+        if (backfilled > 0) {
+            LOGGER.info("Backfilled the cost columns of {} products", backfilled);
+        }
+    }
+
+    // =============================================================================
+    // DEPENDENT PRODUCTS - Called by MaterialService
+    // =============================================================================
+
+    /**
+     * Recomputes the cost columns and suggested retail/wholesale prices of the active products
+     * that use the material, recording the updater. Final prices are left to the user
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ProductRepricingResultDTO repriceProductsForMaterial(Long materialId, User updater) {
+        long start = System.currentTimeMillis();
+
+        int repriced = productRepository.repriceByMaterialId(materialId, HOURLY_LABOR_RATE,
+                RETAIL_MARKUP_FACTOR, WHOLESALE_MARKUP_FACTOR, updater.getId());
+
+        long duration = System.currentTimeMillis() - start;
+        LOGGER.info("Repriced {} products using material {} in {} ms", repriced, materialId, duration);
+        if (repriced > 0) {
+            eventPublisher.publishEvent(ProductChangedEvent.manyProducts());
+        }
+
+        return new ProductRepricingResultDTO(materialId, repriced, duration, LocalDateTime.now());
+    }
+
+    // =============================================================================
+    // WHOLE CATALOG - Called by ProductService
+    // =============================================================================
+
+    public PriceRecalculationResultDTO repriceAllActiveProducts(User updater) {
+        return repriceAllActiveProducts(updater, JobProgress.NONE);
+    }
+
+    /**
+     * Recomputes the cost columns and suggested prices of every active product, in chunks of
+     * consecutive ids. Each chunk is one set-based statement committed on its own, so progress
+     * is reported and cancellation honoured between chunks. Should a chunk's statement fail
+     * (e.g. one product's values overflow a column), that chunk is repriced through a
+     * StatelessSession instead, so a bad row is reported as failed without losing the others
+     */
+    public PriceRecalculationResultDTO repriceAllActiveProducts(User updater, JobProgress progress) {
+        long start = System.currentTimeMillis();
+
+        List<Long> productIds = productRepository.findActiveProductIds();
+        progress.start(productIds.size());
+
+        int processed = 0;
+        int updated = 0;
+        int skipped = 0;
+        List<String> failedProductCodes = new ArrayList<>();
+
+        for (int from = 0; from < productIds.size(); from += REPRICE_CHUNK_SIZE) {
+            if (progress.isCancelRequested()) {
+                LOGGER.info("Price recalculation cancelled after {} of {} products", processed, productIds.size());
+                break;
+            }
+
+            List<Long> chunk = productIds.subList(from, Math.min(from + REPRICE_CHUNK_SIZE, productIds.size()));
+            ChunkResult chunkResult = repriceChunkSetBased(chunk, updater);
+
+            processed += chunk.size();
+            updated += chunkResult.updated();
+            skipped += chunkResult.skipped();
+            failedProductCodes.addAll(chunkResult.failedProductCodes());
+            progress.advance(chunk.size());
+        }
+
+        LOGGER.info("Price recalculation completed in {} ms. Updated: {}, Skipped: {}, Failed: {}",
+                System.currentTimeMillis() - start, updated, skipped, failedProductCodes.size());
+        if (updated > 0) {
+            eventPublisher.publishEvent(ProductChangedEvent.manyProducts());
+        }
+
+        return new PriceRecalculationResultDTO(processed, updated, skipped, failedProductCodes.size(),
+                LocalDateTime.now(), updater.getUsername(), failedProductCodes);
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS - Chunked Repricing
+    // =============================================================================
+
+    // The statement writes although it is run as a query, so it gets a read-write transaction of its own
+    // rather than the read-only default of repository query methods. It commits with the chunk
+    private ChunkResult repriceChunkSetBased(List<Long> chunk, User updater) {
+        try {
+            RepricingCounts counts = chunkTransaction.execute(status -> productRepository.repriceActiveInRange(
+                    HOURLY_LABOR_RATE, RETAIL_MARKUP_FACTOR, WHOLESALE_MARKUP_FACTOR, updater.getId(),
+                    chunk.get(0), chunk.get(chunk.size() - 1)));
+
+            int chunkUpdated = (int) counts.getUpdated();
+            return new ChunkResult(chunkUpdated, (int) counts.getProcessed() - chunkUpdated, new ArrayList<>());
+        } catch (DataAccessException e) {
+            LOGGER.warn("Set-based repricing of products {}-{} failed, repricing them one by one: {}",
+                    chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+            return repriceChunkStateless(chunk, updater);
+        }
+    }
+
+    // The chunk's costs are read first, then its products are updated and committed on their own. A StatelessSession
+    // keeps no persistence context, so memory and flush cost stay flat however large the catalog is
+    private ChunkResult repriceChunkStateless(List<Long> chunk, User updater) {
+        ChunkResult chunkResult = repriceChunk(chunk, updater);
+        if (chunkResult != null) {
+            return chunkResult;
+        }
+
+        // Retry one product per transaction to isolate the rows that fail
+        chunkResult = new ChunkResult(0, 0, new ArrayList<>());
+        for (Long productId : chunk) {
+            ChunkResult single = repriceChunk(List.of(productId), updater);
+            if (single == null) {
+                chunkResult.failedProductCodes().add(productRepository.findProductCodeById(productId));
+            } else {
+                chunkResult = chunkResult.plus(single);
+            }
+        }
+        return chunkResult;
+    }
+
+    /**
+     * @return the chunk's counts, or null if the chunk was rolled back
+     */
+    private ChunkResult repriceChunk(List<Long> productIds, User updater) {
+        Map<Long, ProductCosts> costsById;
+        try {
+            costsById = productRepository.findCostsByProductIds(productIds, HOURLY_LABOR_RATE).stream()
+                    .collect(Collectors.toMap(ProductCosts::getProductId, Function.identity()));
+        } catch (DataAccessException e) {
+            LOGGER.error("Failed to compute the costs of products {}: {}", productIds, e.getMessage());
+            return null;
+        }
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                List<Product> products = session.createQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                        .setParameter("ids", productIds)
+                        .getResultList();
+
+                int updated = 0;
+                int skipped = 0;
+                for (Product product : products) {
+                    BigDecimal currentRetailPrice = product.getSuggestedRetailSellingPrice();
+                    BigDecimal currentWholesalePrice = product.getSuggestedWholeSaleSellingPrice();
+
+                    setCosts(product, costsById.get(product.getId()));
+                    BigDecimal newRetailPrice = calculateSuggestedRetailPrice(product.getTotalCost());
+                    BigDecimal newWholesalePrice = calculateSuggestedWholesalePrice(product.getTotalCost());
+
+                    if (isDifferent(currentRetailPrice, newRetailPrice) || isDifferent(currentWholesalePrice, newWholesalePrice)) {
+                        product.setSuggestedRetailSellingPrice(newRetailPrice);
+                        product.setSuggestedWholeSaleSellingPrice(newWholesalePrice);
+                        product.setLastUpdatedBy(updater);
+                        updated++;
+                    } else {
+                        skipped++;
+                    }
+                    product.setUpdatedAt(LocalDateTime.now());
+                    session.update(product);
+                }
+
+                transaction.commit();
+                return new ChunkResult(updated, skipped, new ArrayList<>());
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                LOGGER.error("Failed to reprice products {}: {}", productIds, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private boolean isDifferent(BigDecimal current, BigDecimal calculated) {
+        return current == null || current.compareTo(calculated) != 0;
+    }
+
+    private record ChunkResult(int updated, int skipped, List<String> failedProductCodes) {
+
+        ChunkResult plus(ChunkResult other) {
+            List<String> failed = new ArrayList<>(failedProductCodes);
+            failed.addAll(other.failedProductCodes());
+            return new ChunkResult(updated + other.updated(), skipped + other.skipped(), failed);
+        }
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS - Cost Columns
+    // =============================================================================
+
+    private void setCosts(Product product, ProductCosts costs) {
+        product.setMaterialCost(costs.getMaterialCost());
+        product.setProcedureCost(costs.getProcedureCost());
+        product.setLaborCost(costs.getLaborCost());
+        product.setTotalCost(costs.getTotalCost());
+    }
+}
@@ -8,48 +8,58 @@ import gr.aueb.cf.bluemargarita.dto.sale.MonthlySalesDataDTO;
 import gr.aueb.cf.bluemargarita.dto.sale.WeeklySalesDataDTO;
 import gr.aueb.cf.bluemargarita.dto.sale.YearlySalesDataDTO;
 import gr.aueb.cf.bluemargarita.model.Product;
-import gr.aueb.cf.bluemargarita.repository.*;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.repository.SaleProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Date;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.WeekFields;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductSalesAnalyticsService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductSalesAnalyticsService.class);
+    private static final int TOP_LOCATIONS_AND_CUSTOMERS_LIMIT = 5;
+    private static final Map<String, String> TOP_PRODUCTS_SORT_EXPRESSIONS = Map.of(
+            "totalRevenue", "SUM(sp.quantity * sp.priceAtTheTime)",
+            "totalItemsSold", "SUM(sp.quantity)",
+            "productName", "p.name",
+            "productCode", "p.code"
+    );
+
     private final SaleProductRepository saleProductRepository;
     private final ProductRepository productRepository;
-    private final LocationRepository locationRepository;
-    private final CustomerRepository customerRepository;
-    private final SaleRepository saleRepository;
 
     @Autowired
     public ProductSalesAnalyticsService(SaleProductRepository saleProductRepository,
-                                        ProductRepository productRepository,
-                                        LocationRepository locationRepository,
-                                        CustomerRepository customerRepository,
-                                        SaleRepository saleRepository) {
+                                        ProductRepository productRepository) {
         this.saleProductRepository = saleProductRepository;
         this.productRepository = productRepository;
-        this.locationRepository = locationRepository;
-        this.customerRepository = customerRepository;
-        this.saleRepository = saleRepository;
     }
 
+    /**
+     * Builds the analytics with two statements after the product lookup: one pass over the
+     * product's sale lines for every scalar figure and one GROUPING SETS query that ranks the
+     * top locations and customers in the database
+     */
     public ProductSalesAnalyticsDTO getProductSalesAnalytics(Long productId,
                                                              LocalDate startDate,
                                                              LocalDate endDate)
@@ -57,39 +67,61 @@ public class ProductSalesAnalyticsService {
 
         Product product = getProductEntityById(productId);
 
-        Integer salesCount = saleProductRepository.countSalesByProductIdAndDateRange(productId, startDate, endDate);
-        BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(productId, startDate, endDate);
-        BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(productId, startDate, endDate);
-        BigDecimal avgSellingPrice = saleProductRepository.calculateAverageSellingPriceByProductIdAndDateRange(productId, startDate, endDate);
-
-        if (salesCount == 0) {
-            return createEmptyAnalytics(product, startDate, endDate);
-        }
+        LocalDate today = LocalDate.now();
+        LocalDate lastWeekStart = today.minusWeeks(1).with(DayOfWeek.MONDAY);
+        LocalDate lastWeekEnd = lastWeekStart.plusDays(6);
+        LocalDate lastMonthStart = today.minusMonths(1).withDayOfMonth(1);
+        LocalDate lastMonthEnd = lastMonthStart.withDayOfMonth(lastMonthStart.lengthOfMonth());
+        int lastYear = today.getYear() - 1;
+        LocalDate lastYearStart = LocalDate.of(lastYear, 1, 1);
+        LocalDate lastYearEnd = LocalDate.of(lastYear, 12, 31);
 
-        // Calculate derived metrics
-        BigDecimal avgQuantityPerSale = salesCount > 0 ?
-                totalQuantity.divide(BigDecimal.valueOf(salesCount), 2, RoundingMode.HALF_UP) :
-                BigDecimal.ZERO;
+        Object[] summary = saleProductRepository.findProductSalesSummary(productId, startDate, endDate,
+                lastWeekStart, lastWeekEnd, lastMonthStart, lastMonthEnd, lastYearStart, lastYearEnd).get(0);
 
-        BigDecimal avgRevenuePerSale = salesCount > 0 ?
-                totalRevenue.divide(BigDecimal.valueOf(salesCount), 2, RoundingMode.HALF_UP) :
-                BigDecimal.ZERO;
+        Integer salesCount = toInteger(summary[0]);
+        BigDecimal totalQuantity = toBigDecimal(summary[1]);
+        BigDecimal totalRevenue = toBigDecimal(summary[2]);
+        BigDecimal avgSellingPrice = toBigDecimal(summary[3]);
 
         //last week data
-        WeeklySalesDataDTO weeklyData = getWeeklySalesData(productId);
+        WeeklySalesDataDTO weeklyData = new WeeklySalesDataDTO(
+                lastWeekStart.getYear(),
+                lastWeekStart.get(WeekFields.ISO.weekOfYear()),
+                toBigDecimal(summary[4]),
+                toBigDecimal(summary[5])
+        );
         //last month data
-        MonthlySalesDataDTO monthlyData = getMonthlySalesData(productId);
+        MonthlySalesDataDTO monthlyData = new MonthlySalesDataDTO(
+                lastMonthStart.getYear(),
+                lastMonthStart.getMonthValue(),
+                toBigDecimal(summary[6]),
+                toBigDecimal(summary[7])
+        );
         //last year data
-        YearlySalesDataDTO yearlyData = getLastYearSalesData(productId);
+        YearlySalesDataDTO yearlyData = new YearlySalesDataDTO(
+                lastYear,
+                toBigDecimal(summary[8]),
+                toBigDecimal(summary[9])
+        );
+
+        if (salesCount == 0) {
+            return createEmptyAnalytics(product, startDate, endDate, weeklyData, monthlyData, yearlyData);
+        }
+
+        // Calculate derived metrics
+        BigDecimal avgQuantityPerSale = totalQuantity.divide(BigDecimal.valueOf(salesCount), 2, RoundingMode.HALF_UP);
+        BigDecimal avgRevenuePerSale = totalRevenue.divide(BigDecimal.valueOf(salesCount), 2, RoundingMode.HALF_UP);
 
-        // Get top locations and customers using optimized queries
-        List<LocationSalesDataDTO> topLocations = getTopLocationsByProductSales(productId, startDate, endDate, 5);
-        List<CustomerSalesDataDTO> topCustomers = getTopCustomersByProductPurchases(productId, startDate, endDate, 5);
+        // Top locations and customers, ranked in the database
+        List<LocationSalesDataDTO> topLocations = new ArrayList<>();
+        List<CustomerSalesDataDTO> topCustomers = new ArrayList<>();
+        collectTopLocationsAndCustomers(productId, startDate, endDate, TOP_LOCATIONS_AND_CUSTOMERS_LIMIT,
+                topLocations, topCustomers);
 
-        // Get last sale date using repository query
-        LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductId(productId);
+        LocalDate lastSaleDate = toLocalDate(summary[10]);
 
-        LOGGER.debug("Optimized analytics completed: salesCount={}, totalQuantity={}, totalRevenue={}",
+        LOGGER.debug("Analytics completed: salesCount={}, totalQuantity={}, totalRevenue={}",
                 salesCount, totalQuantity, totalRevenue);
 
         return new ProductSalesAnalyticsDTO(
@@ -115,201 +147,82 @@ public class ProductSalesAnalyticsService {
         );
     }
 
-    private WeeklySalesDataDTO getWeeklySalesData(Long productId) {
-
-        LocalDate today = LocalDate.now();
-        LocalDate lastWeekStart = today.minusWeeks(1).with(DayOfWeek.MONDAY);
-        LocalDate lastWeekEnd = lastWeekStart.plusDays(6);
-
-        BigDecimal weeklyQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(
-                productId, lastWeekStart, lastWeekEnd);
-        BigDecimal weeklyRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(
-                productId, lastWeekStart, lastWeekEnd);
-
-
-        return new WeeklySalesDataDTO(
-                lastWeekStart.getYear(),
-                lastWeekStart.get(WeekFields.ISO.weekOfYear()),
-                weeklyQuantity,
-                weeklyRevenue
-        );
-    }
-
-    private MonthlySalesDataDTO getMonthlySalesData(Long productId) {
-
-        LocalDate today = LocalDate.now();
-        LocalDate lastMonthStart = today.minusMonths(1).withDayOfMonth(1);
-        LocalDate lastMonthEnd = lastMonthStart.withDayOfMonth(lastMonthStart.lengthOfMonth());
-
-        BigDecimal monthlyQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(
-                productId, lastMonthStart, lastMonthEnd);
-        BigDecimal monthlyRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(
-                productId, lastMonthStart, lastMonthEnd);
-
-        return new MonthlySalesDataDTO(
-                lastMonthStart.getYear(),
-                lastMonthStart.getMonthValue(),
-                monthlyQuantity,
-                monthlyRevenue
-        );
+    private void collectTopLocationsAndCustomers(Long productId,
+                                                 LocalDate startDate,
+                                                 LocalDate endDate,
+                                                 int limit,
+                                                 List<LocationSalesDataDTO> topLocations,
+                                                 List<CustomerSalesDataDTO> topCustomers) {
+
+        for (Object[] row : saleProductRepository.findTopLocationsAndCustomersByProduct(productId, startDate, endDate, limit)) {
+            boolean isCustomerRow = toInteger(row[0]) == 1;
+            Long id = ((Number) row[1]).longValue();
+            String name = (String) row[2];
+            BigDecimal quantity = toBigDecimal(row[4]);
+            BigDecimal revenue = toBigDecimal(row[5]);
+            Integer numberOfSales = toInteger(row[6]);
+
+            BigDecimal averagePrice = quantity.compareTo(BigDecimal.ZERO) > 0 ?
+                    revenue.divide(quantity, 2, RoundingMode.HALF_UP) :
+                    BigDecimal.ZERO;
+
+            if (isCustomerRow) {
+                topCustomers.add(new CustomerSalesDataDTO(
+                        id,
+                        name,
+                        (String) row[3],
+                        quantity,
+                        revenue,
+                        numberOfSales,
+                        averagePrice,
+                        toLocalDate(row[7])
+                ));
+            } else {
+                topLocations.add(new LocationSalesDataDTO(
+                        id,
+                        name,
+                        quantity,
+                        revenue,
+                        numberOfSales,
+                        averagePrice
+                ));
+            }
+        }
     }
 
-    private YearlySalesDataDTO getLastYearSalesData(Long productId) {
-        LocalDate today = LocalDate.now();
-        int lastYear = today.getYear() - 1;
-        LocalDate lastYearStart = LocalDate.of(lastYear, 1, 1);
-        LocalDate lastYearEnd = LocalDate.of(lastYear, 12, 31);
-
-        BigDecimal yearlyQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(
-                productId, lastYearStart, lastYearEnd);
-        BigDecimal yearlyRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(
-                productId, lastYearStart, lastYearEnd);
+    public List<ProductStatsSummaryDTO> getTopProductsByRevenue(LocalDate startDate,
+                                                                LocalDate endDate,
+                                                                int limit) {
+        Pageable pageable = PageRequest.of(0, limit, getTopProductsSort(Sort.by(Sort.Direction.DESC, "totalRevenue")));
 
-        return new YearlySalesDataDTO(
-                lastYear,
-                yearlyQuantity,
-                yearlyRevenue
-        );
+        return saleProductRepository.findProductStatsByDateRange(startDate, endDate, pageable)
+                .getContent();
     }
 
-    private List<CustomerSalesDataDTO> getTopCustomersByProductPurchases(Long productId,
-                                                                        LocalDate startDate,
+    public Paginated<ProductStatsSummaryDTO> getAllTopProductsForPeriod(LocalDate startDate,
                                                                         LocalDate endDate,
-                                                                        int limit) {
-        List<Long> customerIds = saleProductRepository.findDistinctCustomerIdsByProductIdAndDateRange(productId, startDate, endDate);
-
-        return customerIds.stream()
-                .map(customerId -> {
-                    String customerName = customerRepository.findCustomerNameById(customerId);
-                    String customerEmail = customerRepository.findCustomerEmailById(customerId);
-                    BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdCustomerIdAndDateRange(productId, customerId, startDate, endDate);
-                    BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdCustomerIdAndDateRange(productId, customerId, startDate, endDate);
-                    Integer numberOfPurchases = saleProductRepository.countSalesByProductIdCustomerIdAndDateRange(productId, customerId, startDate, endDate);
-                    LocalDate lastOrderDate = saleRepository.findLastSaleDateByCustomerId(customerId);
-
-                    BigDecimal averagePrice = totalQuantity.compareTo(BigDecimal.ZERO) > 0 ?
-                            totalRevenue.divide(totalQuantity, 2, RoundingMode.HALF_UP) :
-                            BigDecimal.ZERO;
-
-                    return new CustomerSalesDataDTO(
-                            customerId,
-                            customerName,
-                            customerEmail,
-                            totalQuantity,
-                            totalRevenue,
-                            numberOfPurchases,
-                            averagePrice,
-                            lastOrderDate
-
-                    );
-                })
-                .sorted((c1, c2) -> c2.totalRevenue().compareTo(c1.totalRevenue()))
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
+                                                                        Pageable pageable) {
+        Pageable rankedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                getTopProductsSort(pageable.getSort()));
 
-    private List<LocationSalesDataDTO> getTopLocationsByProductSales(Long productId,
-                                                                    LocalDate startDate,
-                                                                    LocalDate endDate,
-                                                                    int limit) {
-        List<Long> locationIds = saleProductRepository.findDistinctLocationIdsByProductIdAndDateRange(productId, startDate, endDate);
-
-        return locationIds.stream()
-                .map(locationId -> {
-                    String locationName = locationRepository.findLocationNameById(locationId);
-                    BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdLocationIdAndDateRange(productId, locationId, startDate, endDate);
-                    BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdLocationIdAndDateRange(productId, locationId, startDate, endDate);
-                    Integer numberOfSales = saleProductRepository.countSalesByProductIdLocationIdAndDateRange(productId, locationId, startDate, endDate);
-
-                    BigDecimal averagePrice = totalQuantity.compareTo(BigDecimal.ZERO) > 0 ?
-                            totalRevenue.divide(totalQuantity, 2, RoundingMode.HALF_UP) :
-                            BigDecimal.ZERO;
-
-                    return new LocationSalesDataDTO(
-                            locationId,
-                            locationName,
-                            totalQuantity,
-                            totalRevenue,
-                            numberOfSales,
-                            averagePrice
-                    );
-                })
-                .sorted((l1, l2) -> l2.revenue().compareTo(l1.revenue()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        Page<ProductStatsSummaryDTO> page = saleProductRepository.findProductStatsByDateRange(startDate, endDate, rankedPageable);
 
+        return new Paginated<>(page);
     }
 
-    public List<ProductStatsSummaryDTO> getTopProductsByRevenue(LocalDate startDate,
-                                                                LocalDate endDate,
-                                                                int limit) {
-        // Get distinct products that had sales in the period
-        List<Long> productIds = saleProductRepository.findDistinctProductIdsByDateRange(startDate, endDate);
-
-        return productIds.stream()
-                .map(productId -> {
-                    String productName = productRepository.findProductNameById(productId);
-                    String productCode = productRepository.findProductCodeById(productId);
-                    BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(productId, startDate, endDate);
-                    BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(productId, startDate, endDate);
-                    LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductId(productId);
-
-                    return new ProductStatsSummaryDTO(
-                            productId,
-                            productName,
-                            productCode,
-                            totalQuantity,
-                            totalRevenue,
-                            lastSaleDate
-                    );
-                })
-                .sorted((p1, p2) -> p2.totalRevenue().compareTo(p1.totalRevenue()))
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
+    /**
+     * Translates the requested DTO sort field to the matching aggregate expression
+     * of the ranking query. Unknown fields fall back to revenue, product id breaks ties
+     */
+    private Sort getTopProductsSort(Sort requested) {
+        Sort.Order order = requested.stream().findFirst()
+                .orElse(Sort.Order.desc("totalRevenue"));
 
-    public Paginated<ProductStatsSummaryDTO> getAllTopProductsForPeriod(LocalDate startDate,
-                                                                        LocalDate endDate,
-                                                                        Pageable pageable) {
-        // Get distinct products that had sales in the period
-        List<Long> productIds = saleProductRepository.findDistinctProductIdsByDateRange(startDate, endDate);
-
-        // Calculate stats for all products
-        List<ProductStatsSummaryDTO> allProducts = productIds.stream()
-                .map(productId -> {
-                    String productName = productRepository.findProductNameById(productId);
-                    String productCode = productRepository.findProductCodeById(productId);
-                    BigDecimal totalQuantity = saleProductRepository.sumQuantityByProductIdAndDateRange(productId, startDate, endDate);
-                    BigDecimal totalRevenue = saleProductRepository.sumRevenueByProductIdAndDateRange(productId, startDate, endDate);
-                    LocalDate lastSaleDate = saleProductRepository.findLastSaleDateByProductId(productId);
-
-                    return new ProductStatsSummaryDTO(
-                            productId,
-                            productName,
-                            productCode,
-                            totalQuantity,
-                            totalRevenue,
-                            lastSaleDate
-                    );
-                })
-                .sorted((p1, p2) -> p2.totalRevenue().compareTo(p1.totalRevenue()))
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), allProducts.size());
-
-        List<ProductStatsSummaryDTO> pageContent = new ArrayList<>();
-        if (start < allProducts.size()) {
-            pageContent = allProducts.subList(start, end);
-        }
+        String expression = TOP_PRODUCTS_SORT_EXPRESSIONS.getOrDefault(order.getProperty(),
+                TOP_PRODUCTS_SORT_EXPRESSIONS.get("totalRevenue"));
 
-        // Use our second Paginated constructor with manual pagination data
-        return new Paginated<>(
-                pageContent,                    // content
-                pageable.getPageNumber(),       // currentPage
-                pageable.getPageSize(),         // pageSize
-                allProducts.size()             // totalElements
-        );
+        return JpaSort.unsafe(order.getDirection(), expression)
+                .andUnsafe(Sort.Direction.ASC, "p.id");
     }
 
     private Product getProductEntityById(Long productId) throws EntityNotFoundException {
@@ -317,7 +230,12 @@ public class ProductSalesAnalyticsService {
                 .orElseThrow(() -> new EntityNotFoundException("Product", "Product with id " + productId + " not found"));
     }
 
-    private ProductSalesAnalyticsDTO createEmptyAnalytics(Product product, LocalDate startDate, LocalDate endDate) {
+    private ProductSalesAnalyticsDTO createEmptyAnalytics(Product product,
+                                                          LocalDate startDate,
+                                                          LocalDate endDate,
+                                                          WeeklySalesDataDTO weeklyData,
+                                                          MonthlySalesDataDTO monthlyData,
+                                                          YearlySalesDataDTO yearlyData) {
         return new ProductSalesAnalyticsDTO(
                 product.getId(),
                 product.getName(),
@@ -330,9 +248,9 @@ public class ProductSalesAnalyticsService {
                 BigDecimal.ZERO, // avgQuantityPerSale
                 BigDecimal.ZERO, // avgRevenuePerSale
                 BigDecimal.ZERO, // avgSellingPrice
-                getWeeklySalesData(product.getId()), // weeklyData
-                getMonthlySalesData(product.getId()), // monthlyData
-                getLastYearSalesData(product.getId()), // yearlyData
+                weeklyData,
+                monthlyData,
+                yearlyData,
                 Collections.emptyList(), // topLocations
                 Collections.emptyList(), // topCustomers
                 null, // lastSaleDate
@@ -340,4 +258,19 @@ public class ProductSalesAnalyticsService {
                 product.getIsActive()
         );
     }
+
+    private Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return new BigDecimal(value.toString());
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) return date.toLocalDate();
+        return (LocalDate) value;
+    }
 }
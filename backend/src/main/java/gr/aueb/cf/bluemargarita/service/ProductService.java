@@ -1,22 +1,29 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+import gr.aueb.cf.bluemargarita.core.enums.JobType;
 import gr.aueb.cf.bluemargarita.core.enums.PricingIssueType;
+import gr.aueb.cf.bluemargarita.core.events.ProductChangedEvent;
+import gr.aueb.cf.bluemargarita.core.exceptions.AppServerException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
 import gr.aueb.cf.bluemargarita.core.specifications.ProductSpecification;
+import gr.aueb.cf.bluemargarita.dto.job.JobReadOnlyDTO;
 import gr.aueb.cf.bluemargarita.dto.product.*;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
+import gr.aueb.cf.bluemargarita.repository.ProductListRepository.ProductListRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,10 +40,6 @@ import java.util.stream.Collectors;
 public class ProductService implements IProductService{
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductService.class);
-    private static final BigDecimal HOURLY_LABOR_RATE = BigDecimal.valueOf(7.0);
-    private static final BigDecimal RETAIL_MARKUP_FACTOR = BigDecimal.valueOf(3.0);
-    private static final BigDecimal WHOLESALE_MARKUP_FACTOR = BigDecimal.valueOf(1.86);
-    private static final BigDecimal MINUTES_PER_HOUR = BigDecimal.valueOf(60.0);
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
@@ -47,11 +50,18 @@ public class ProductService implements IProductService{
     private final SaleProductRepository saleProductRepository;
 
     private final ProductSalesAnalyticsService analyticsService;
+    private final ProductCostService costService;
+    private final IJobService jobService;
+    private final IStockManagementService stockManagementService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
     public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, MaterialRepository materialRepository, ProcedureRepository procedureRepository,
-                          ProductProcedureRepository productProcedureRepository, UserService userService,SaleProductRepository saleProductRepository, ProductSalesAnalyticsService analyticsService, Mapper mapper) {
+                          ProductProcedureRepository productProcedureRepository, UserService userService,SaleProductRepository saleProductRepository, ProductSalesAnalyticsService analyticsService,
+                          ProductCostService costService, IJobService jobService, IStockManagementService stockManagementService,
+                          ApplicationEventPublisher eventPublisher, PaginationCountCache countCache, Mapper mapper) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.materialRepository = materialRepository;
@@ -60,6 +70,11 @@ public class ProductService implements IProductService{
         this.userService = userService;
         this.saleProductRepository = saleProductRepository;
         this.analyticsService = analyticsService;
+        this.costService = costService;
+        this.jobService = jobService;
+        this.stockManagementService = stockManagementService;
+        this.eventPublisher = eventPublisher;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -103,6 +118,7 @@ public class ProductService implements IProductService{
 
         LOGGER.info("Product created with id: {} and productCode: {}",
                 savedProduct.getId(), savedProduct.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.CREATED));
 
         ProductCostDataDTO data = calculateProductCostData(savedProduct);
 
@@ -134,20 +150,31 @@ public class ProductService implements IProductService{
             category = getCategoryEntityById(dto.categoryId());
         }
 
+        User updaterUser = userService.getCurrentUserOrThrow();
+
+        // Stock is edited relative to the value the form was loaded with, so a sale committed
+        // in between makes the edit fail instead of being silently undone. A missing stock is left as it is
+        if (dto.stock() != null && !Objects.equals(dto.stock(), dto.expectedStock())) {
+            stockManagementService.replaceStockIfUnchanged(existingProduct, dto.expectedStock(), dto.stock(), updaterUser);
+        }
+
         // Update product fields
         Product updatedProduct = mapper.mapProductUpdateToModel(dto, existingProduct);
         if (category != null) {
             updatedProduct.setCategory(category);
         }
-        User updaterUser = userService.getCurrentUserOrThrow();
 
         updateProductFields(existingProduct, dto, category, updaterUser);
 
+        // minutesToMake may have changed the labor cost
+        costService.applyCosts(existingProduct);
+
         Product savedProduct = productRepository.save(updatedProduct);
 
         ProductCostDataDTO data = getDataDTOForProduct(savedProduct);
 
         LOGGER.info("Product {} updated", savedProduct.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -188,6 +215,8 @@ public class ProductService implements IProductService{
             LOGGER.info("Product {} hard deleted (not used in any sales)",
                     product.getCode());
         }
+
+        eventPublisher.publishEvent(new ProductChangedEvent(id, EntityChangeType.DELETED));
     }
 
     @Override
@@ -208,6 +237,9 @@ public class ProductService implements IProductService{
         User currentUser = userService.getCurrentUserOrThrow();
         product.setLastUpdatedBy(currentUser);
 
+        // Material cost changes skip inactive products, so the costs may be stale
+        updateProductPricing(product);
+
         Product restoredProduct = productRepository.save(product);
 
         // Get product data for enhanced DTO
@@ -216,6 +248,7 @@ public class ProductService implements IProductService{
         LOGGER.info("Product {} restored by user {}",
                 restoredProduct.getCode(),
                 currentUser.getUsername());
+        eventPublisher.publishEvent(new ProductChangedEvent(restoredProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(restoredProduct, data);
     }
@@ -227,16 +260,16 @@ public class ProductService implements IProductService{
     @Override
     @Transactional(readOnly = true)
     public Paginated<ProductListItemDTO> getProductListItemsPaginated(ProductFilters filters) {
-        Page<Product> filtered = productRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
+        Specification<Product> spec = getSpecsFromFilters(filters);
+        Slice<ProductListRow> filtered = productRepository.findListRows(spec, filters.getPageable());
 
-        Page<ProductListItemDTO> mappedPage = filtered.map(product -> {
-            ProductCostDataDTO data = getDataDTOForProduct(product);
-            return mapper.mapToProductListItemDTO(product, data);
+        Slice<ProductListItemDTO> mappedPage = filtered.map(row -> {
+            ProductCostDataDTO data = getCostData(row.totalCost(), row.suggestedRetailPrice(),
+                    row.finalRetailPrice(), row.stock(), row.lowStockAlert());
+            return mapper.mapToProductListItemDTO(row, data);
         });
-        return new Paginated<>(mappedPage);
+        return countCache.toPaginated(mappedPage, PaginationCountCache.key(Product.class, filters),
+                () -> productRepository.count(spec));
     }
 
     @Override
@@ -336,6 +369,7 @@ public class ProductService implements IProductService{
 
         LOGGER.info("Added material {} (quantity: {}) to product {}",
                 material.getName(), quantity, product.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -359,6 +393,7 @@ public class ProductService implements IProductService{
 
         LOGGER.info("Removed material {} from product {}",
                 material.getName(), product.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -387,6 +422,7 @@ public class ProductService implements IProductService{
 
         LOGGER.info("Added procedure {} (cost: {}) to product {}",
                 procedure.getName(), cost, product.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -411,6 +447,7 @@ public class ProductService implements IProductService{
 
         LOGGER.info("Removed procedure {} from product {}",
                 procedure.getName(), product.getCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -420,105 +457,17 @@ public class ProductService implements IProductService{
     // BULK OPERATIONS AND PRICING
     // =============================================================================
 
+    // Not transactional: the job runs in the background and ProductCostService commits chunk by chunk
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public PriceRecalculationResultDTO recalculateAllProductPrices() throws EntityNotFoundException {
+    public JobReadOnlyDTO recalculateAllProductPrices() throws EntityNotFoundException, AppServerException {
 
-        // Validate updater user exists
+        // Validate updater user exists, the job thread has no security context of its own
         User updaterUser = userService.getCurrentUserOrThrow();
 
-        // Get all active products
-        List<Product> activeProducts = productRepository.findByIsActiveTrue();
-
-        int updatedCount = 0;
-        int skippedCount = 0;
-        int failedCount = 0;
-        List<String> failedProductCodes = new ArrayList<>();
-
-        if (activeProducts.isEmpty()) {
-            LOGGER.info("No active products found for price recalculation");
-            return new PriceRecalculationResultDTO(
-                    0, 0, 0, 0,
-                    LocalDateTime.now(),
-                    updaterUser.getUsername(),
-                    Collections.emptyList()
-            );
-        }
-
-        LOGGER.info("Starting price recalculation for {} active products", activeProducts.size());
-
-        for (Product product : activeProducts) {
-            try {
-                // Calculate new suggested prices
-                BigDecimal newRetailPrice = calculateSuggestedRetailPrice(product).setScale(2, RoundingMode.HALF_UP);
-                BigDecimal newWholesalePrice = calculateSuggestedWholesalePrice(product).setScale(2, RoundingMode.HALF_UP);
-
-                // Get current prices
-                BigDecimal currentRetailPrice = product.getSuggestedRetailSellingPrice();
-                BigDecimal currentWholesalePrice = product.getSuggestedWholeSaleSellingPrice();
-
-                // Normalize current prices to same scale
-                if (currentRetailPrice != null) {
-                    currentRetailPrice = currentRetailPrice.setScale(2, RoundingMode.HALF_UP);
-                }
-                if (currentWholesalePrice != null) {
-                    currentWholesalePrice = currentWholesalePrice.setScale(2, RoundingMode.HALF_UP);
-                }
-
-                // Check if prices actually changed to avoid unnecessary updates
-                boolean retailPriceChanged = areBigDecimalsEqual(newRetailPrice, currentRetailPrice);
-                boolean wholesalePriceChanged = areBigDecimalsEqual(newWholesalePrice, currentWholesalePrice);
-
-                if (retailPriceChanged || wholesalePriceChanged) {
-                    // Update prices
-                    if (retailPriceChanged) {
-                        BigDecimal oldRetailPrice = product.getSuggestedRetailSellingPrice();
-                        product.setSuggestedRetailSellingPrice(newRetailPrice);
-                        LOGGER.debug("Product {}: Retail price updated from {} to {}",
-                                product.getCode(), oldRetailPrice, newRetailPrice);
-                    }
-
-                    if (wholesalePriceChanged) {
-                        BigDecimal oldWholesalePrice = product.getSuggestedWholeSaleSellingPrice();
-                        product.setSuggestedWholeSaleSellingPrice(newWholesalePrice);
-                        LOGGER.debug("Product {}: Wholesale price updated from {} to {}",
-                                product.getCode(), oldWholesalePrice, newWholesalePrice);
-                    }
-
-                    // Update audit fields
-                    product.setLastUpdatedBy(updaterUser);
-
-                    // Save the product
-                    productRepository.save(product);
-                    updatedCount++;
-
-                    LOGGER.debug("Updated pricing for product: {}", product.getCode());
-                } else {
-                    skippedCount++;
-                    LOGGER.debug("No price changes needed for product: {}", product.getCode());
-                }
-
-            } catch (Exception e) {
-                // Log error but continue with other products
-                LOGGER.error("Failed to recalculate prices for product {}: {}",
-                        product.getCode(), e.getMessage(), e);
-                failedCount++;
-                failedProductCodes.add(product.getCode());
-            }
-        }
+        LOGGER.info("Queueing price recalculation for all active products");
 
-        LOGGER.info("Price recalculation completed. Updated: {} products, Skipped: {} products, Failed: {} products",
-                updatedCount, skippedCount, failedCount);
-
-        return new PriceRecalculationResultDTO(
-                activeProducts.size(),
-                updatedCount,
-                skippedCount,
-                failedCount,
-                LocalDateTime.now(),
-                updaterUser.getUsername(),
-                failedProductCodes
-        );
+        return jobService.submitJob(JobType.PRICE_RECALCULATION, updaterUser.getUsername(),
+                progress -> costService.repriceAllActiveProducts(updaterUser, progress));
     }
 
     @Override
@@ -531,6 +480,7 @@ public class ProductService implements IProductService{
         product.setLastUpdatedBy(updater);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
 
         ProductCostDataDTO data = getDataDTOForProduct(savedProduct);
         return mapper.mapToProductListItemDTO(savedProduct, data);
@@ -546,6 +496,7 @@ public class ProductService implements IProductService{
         product.setLastUpdatedBy(updater);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), EntityChangeType.UPDATED));
         ProductCostDataDTO data = getDataDTOForProduct(savedProduct);
         return mapper.mapToProductListItemDTO(savedProduct, data);
     }
@@ -557,18 +508,13 @@ public class ProductService implements IProductService{
     @Override
     @Transactional(readOnly = true)
     public List<MispricedProductAlertDTO> getMispricedProductsAlert(BigDecimal thresholdPercentage, int limit) {
-        Pageable pageable = PageRequest.of(0, limit * 2);
-        List<Product> productsWithIssues = productRepository.findProductsWithAnyPricingIssues(thresholdPercentage, pageable);
-
-        List<MispricedProductAlertDTO> mispricedProducts = productsWithIssues.stream()
-                .map(product -> createMispricedProductAlertDTO(product, thresholdPercentage))
-                .filter(Objects::nonNull)
-                .sorted((p1,p2)->p2.priceDifferencePercentage().compareTo(p1.priceDifferencePercentage()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<MispricedProductAlertDTO> mispricedProducts = productRepository
+                .findMispricedProducts(thresholdPercentage, null, null, null, limit, 0)
+                .stream()
+                .map(row -> mapToMispricedProductAlertDTO(row, thresholdPercentage))
+                .toList();
 
-        LOGGER.info("Found {} mispriced products out of {} candidates",
-                mispricedProducts.size(), productsWithIssues.size());
+        LOGGER.info("Found {} mispriced products for the dashboard", mispricedProducts.size());
 
         return mispricedProducts;
     }
@@ -581,40 +527,26 @@ public class ProductService implements IProductService{
             Long categoryId,
             String issueType,
             Pageable pageable) {
-        // We multiply by 3 to account for products that might be filtered out
-        int batchSize = Math.max(1000, (pageable.getPageNumber() + 1) * pageable.getPageSize() * 3);
-        Pageable candidatePageable = PageRequest.of(0, batchSize);
-
-        // Get candidate products with potential pricing issues
-        List<Product> candidateProducts = productRepository.findProductsWithAnyPricingIssues(thresholdPercentage, candidatePageable);
-
-        // Convert to DTOs and filter out products that don't meet our criteria
-        // Remove products that don't have significant pricing issues
-        List<MispricedProductAlertDTO> allMispricedProducts = candidateProducts.stream()
-                .map(product -> createMispricedProductAlertDTO(product, thresholdPercentage))
-                .filter(Objects::nonNull).sorted((p1, p2) -> {
-                    // Compare by absolute value of price difference (most significant issues first)
-                    BigDecimal p1MaxDiff = p1.priceDifferencePercentage().abs()
-                            .max(p1.wholesalePriceDifferencePercentage().abs());
-                    BigDecimal p2MaxDiff = p2.priceDifferencePercentage().abs()
-                            .max(p2.wholesalePriceDifferencePercentage().abs());
-                    return p2MaxDiff.compareTo(p1MaxDiff);
-                }).collect(Collectors.toList());
-
-        // Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), allMispricedProducts.size());
-
-        List<MispricedProductAlertDTO> pageContent = new ArrayList<>();
-        if (start < allMispricedProducts.size()) {
-            pageContent = allMispricedProducts.subList(start, end);
-        }
+
+        // Filtering, ordering by deviation and paging all happen on the indexed deviation columns
+        String nameOrCodeFilter = nameOrCode != null && !nameOrCode.isBlank() ? nameOrCode.trim() : null;
+        String issueTypeFilter = issueType != null && !issueType.isBlank() ? issueType.trim().toUpperCase() : null;
+
+        List<MispricedProductAlertDTO> pageContent = productRepository
+                .findMispricedProducts(thresholdPercentage, nameOrCodeFilter, categoryId, issueTypeFilter,
+                        pageable.getPageSize(), pageable.getOffset())
+                .stream()
+                .map(row -> mapToMispricedProductAlertDTO(row, thresholdPercentage))
+                .toList();
+
+        long totalElements = productRepository.countMispricedProducts(
+                thresholdPercentage, nameOrCodeFilter, categoryId, issueTypeFilter);
 
         return new Paginated<>(
                 pageContent,
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
-                allMispricedProducts.size()
+                totalElements
         );
     }
 
@@ -627,10 +559,10 @@ public class ProductService implements IProductService{
      */
 
     private ProductDetailedViewDTO mapToProductDetailsDTO(Product product) {
-        BigDecimal materialCost = calculateMaterialCost(product);
-        BigDecimal laborCost = calculateLaborCost(product);
-        BigDecimal procedureCost = calculateProcedureCost(product);
-        BigDecimal totalCost = materialCost.add(laborCost).add(procedureCost);
+        BigDecimal materialCost = costOrZero(product.getMaterialCost());
+        BigDecimal laborCost = costOrZero(product.getLaborCost());
+        BigDecimal procedureCost = costOrZero(product.getProcedureCost());
+        BigDecimal totalCost = costOrZero(product.getTotalCost());
 
         // Calculate profit margins
         BigDecimal profitMarginRetail = calculateProfitMargin(product.getFinalSellingPriceRetail(), totalCost);
@@ -697,22 +629,28 @@ public class ProductService implements IProductService{
      */
 
     private ProductCostDataDTO getDataDTOForProduct(Product product) {
+        return getCostData(product.getTotalCost(), product.getSuggestedRetailSellingPrice(),
+                product.getFinalSellingPriceRetail(), product.getStock(), product.getLowStockAlert());
+    }
 
-        BigDecimal totalCost = calculateMaterialCost(product).add(calculateProcedureCost(product));
+    private ProductCostDataDTO getCostData(BigDecimal storedTotalCost, BigDecimal suggestedRetailPrice,
+                                           BigDecimal finalRetailPrice, Integer stock, Integer lowStockAlert) {
+
+        BigDecimal totalCost = costOrZero(storedTotalCost);
 
         BigDecimal percentageDiff = BigDecimal.ZERO;
-        if (product.getSuggestedRetailSellingPrice() != null &&
-                product.getSuggestedRetailSellingPrice().compareTo(BigDecimal.ZERO) != 0) {
-            percentageDiff = product.getFinalSellingPriceRetail()
-                    .subtract(product.getSuggestedRetailSellingPrice())
-                    .divide(product.getSuggestedRetailSellingPrice(), 4, RoundingMode.HALF_UP)
+        if (suggestedRetailPrice != null &&
+                suggestedRetailPrice.compareTo(BigDecimal.ZERO) != 0) {
+            percentageDiff = finalRetailPrice
+                    .subtract(suggestedRetailPrice)
+                    .divide(suggestedRetailPrice, 4, RoundingMode.HALF_UP)
                     .multiply(BigDecimal.valueOf(100));
         }
 
         boolean isLowStock;
 
-        isLowStock = (product.getStock()!= null && product.getLowStockAlert()!=null
-                && product.getStock() <= product.getLowStockAlert());
+        isLowStock = (stock != null && lowStockAlert != null
+                && stock <= lowStockAlert);
 
         return new ProductCostDataDTO(
                 totalCost,
@@ -741,23 +679,6 @@ public class ProductService implements IProductService{
         updatedProduct.setLastUpdatedBy(updater);
     }
 
-    /**
-     * Helper method to properly compare BigDecimal values handling null cases
-     * BigDecimal.equals() compares both value and scale, so we need to use compareTo()
-     */
-
-    private boolean areBigDecimalsEqual(BigDecimal value1, BigDecimal value2) {
-        // Handle null cases
-        if (value1 == null && value2 == null) {
-            return false;
-        }
-        if (value1 == null || value2 == null) {
-            return true;
-        }
-
-        return value1.compareTo(value2) != 0;
-    }
-
 
     // =============================================================================
     // PRIVATE HELPER METHODS - Entity Validation and Retrieval
@@ -929,6 +850,8 @@ public class ProductService implements IProductService{
     // =============================================================================
 
     private void updateProductPricing(Product product) {
+        costService.applyCosts(product);
+
         BigDecimal newRetailPrice = calculateSuggestedRetailPrice(product);
         BigDecimal newWholesalePrice = calculateSuggestedWholesalePrice(product);
 
@@ -939,45 +862,17 @@ public class ProductService implements IProductService{
                 product.getCode(), newRetailPrice, newWholesalePrice);
     }
 
+    // Both suggested prices are based on the cost columns, which must be current (see ProductCostService)
     private BigDecimal calculateSuggestedRetailPrice(Product product) {
-        BigDecimal totalCost = calculateTotalProductCost(product);
-        return totalCost.multiply(RETAIL_MARKUP_FACTOR).setScale(2, RoundingMode.HALF_UP);
+        return costService.calculateSuggestedRetailPrice(costOrZero(product.getTotalCost()));
     }
 
     private BigDecimal calculateSuggestedWholesalePrice(Product product) {
-        BigDecimal totalCost = calculateTotalProductCost(product);
-        return totalCost.multiply(WHOLESALE_MARKUP_FACTOR).setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateTotalProductCost(Product product) {
-        BigDecimal materialCost = calculateMaterialCost(product);
-        BigDecimal laborCost = calculateLaborCost(product);
-        BigDecimal procedureCost = calculateProcedureCost(product);
-        return materialCost.add(laborCost).add(procedureCost).setScale(2, RoundingMode.HALF_UP);
+        return costService.calculateSuggestedWholesalePrice(costOrZero(product.getTotalCost()));
     }
 
-    private BigDecimal calculateMaterialCost(Product product) {
-        return product.getAllProductMaterials().stream()
-                .filter(pm -> pm.getMaterial().getCurrentUnitCost() != null && pm.getQuantity() != null)
-                .map(pm -> pm.getMaterial().getCurrentUnitCost().multiply(pm.getQuantity()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateLaborCost(Product product) {
-        if (product.getMinutesToMake() == null || product.getMinutesToMake() <= 0) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-        }
-
-        BigDecimal hoursToMake = BigDecimal.valueOf(product.getMinutesToMake())
-                .divide(MINUTES_PER_HOUR, 4, RoundingMode.HALF_UP);
-
-        return hoursToMake.multiply(HOURLY_LABOR_RATE).setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateProcedureCost(Product product) {
-        BigDecimal cost = productProcedureRepository.sumCostByProductId(product.getId());
-        return cost != null ? cost.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private BigDecimal costOrZero(BigDecimal cost) {
+        return cost != null ? cost : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
     }
 
     private BigDecimal calculatePercentageDifference(BigDecimal current, BigDecimal suggested) {
@@ -1011,6 +906,7 @@ public class ProductService implements IProductService{
                 .where(ProductSpecification.productNameOrCodeLike(filters.getNameOrCode()))
                 .and(ProductSpecification.productCategoryId(filters.getCategoryId()))
                 .and(ProductSpecification.productRetailPriceBetween(filters.getMinPrice(), filters.getMaxPrice()))
+                .and(ProductSpecification.productTotalCostBetween(filters.getMinCost(), filters.getMaxCost()))
                 .and(ProductSpecification.productStockBetween(filters.getMinStock(), filters.getMaxStock()))
                 .and(ProductSpecification.productIsActive(isActiveFilter))
                 .and(ProductSpecification.productLowStock(filters.getLowStock()));
@@ -1034,7 +930,7 @@ public class ProductService implements IProductService{
     // =============================================================================
 
     private ProductCostDataDTO calculateProductCostData(Product product) {
-        BigDecimal totalCost = calculateMaterialCost(product).add(calculateProcedureCost(product));
+        BigDecimal totalCost = costOrZero(product.getTotalCost());
 
         BigDecimal percentageDiff = BigDecimal.ZERO;
         if (product.getSuggestedRetailSellingPrice() != null &&
@@ -1056,49 +952,29 @@ public class ProductService implements IProductService{
     // PRIVATE HELPER METHODS - Mispricing calculations
     // =============================================================================
 
-    private MispricedProductAlertDTO createMispricedProductAlertDTO(Product product, BigDecimal thresholdPercentage) {
-
-        // Calculate percentage differences
-        BigDecimal retailDifference = calculatePriceDifferencePercentage(
-                product.getSuggestedRetailSellingPrice(),
-                product.getFinalSellingPriceRetail()
-        );
-
-        BigDecimal wholesaleDifference = calculatePriceDifferencePercentage(
-                product.getSuggestedWholeSaleSellingPrice(),
-                product.getFinalSellingPriceWholesale()
-        );
-
-        if (retailDifference.abs().compareTo(thresholdPercentage) < 0 &&
-                wholesaleDifference.abs().compareTo(thresholdPercentage) < 0) {
-            return null; // Neither price difference is significant enough
-        }
-
-        // Determine issue type
-        PricingIssueType issueType = determinePricingIssueType(
-                retailDifference, wholesaleDifference, thresholdPercentage
-        );
+    private MispricedProductAlertDTO mapToMispricedProductAlertDTO(Object[] row, BigDecimal thresholdPercentage) {
+        BigDecimal retailDifference = deviationOrZero(row[7]);
+        BigDecimal wholesaleDifference = deviationOrZero(row[10]);
 
         return new MispricedProductAlertDTO(
-                product.getId(),
-                product.getName(),
-                product.getCode(),
-                product.getCategory().getId(),
-                product.getCategory().getName(),
-                product.getSuggestedRetailSellingPrice(),
-                product.getFinalSellingPriceRetail(),
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                ((Number) row[3]).longValue(),
+                (String) row[4],
+                (BigDecimal) row[5],
+                (BigDecimal) row[6],
                 retailDifference,
-                product.getSuggestedWholeSaleSellingPrice(),
-                product.getFinalSellingPriceWholesale(),
+                (BigDecimal) row[8],
+                (BigDecimal) row[9],
                 wholesaleDifference,
-                issueType
+                determinePricingIssueType(retailDifference, wholesaleDifference, thresholdPercentage)
         );
     }
 
-    private BigDecimal calculatePriceDifferencePercentage(BigDecimal suggestedPrice, BigDecimal finalPrice) {
-        return suggestedPrice.subtract(finalPrice)
-                .divide(finalPrice, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
+    // a deviation is null when the final price is missing or zero, it never counts as an issue
+    private BigDecimal deviationOrZero(Object deviation) {
+        return deviation != null ? (BigDecimal) deviation : BigDecimal.ZERO;
     }
 
     private PricingIssueType determinePricingIssueType(
@@ -1,19 +1,26 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
+import gr.aueb.cf.bluemargarita.core.events.PurchaseChangedEvent;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityAlreadyExistsException;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest.SortKey;
 import gr.aueb.cf.bluemargarita.core.filters.PurchaseFilters;
 import gr.aueb.cf.bluemargarita.core.specifications.PurchaseSpecification;
 import gr.aueb.cf.bluemargarita.dto.purchase.*;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
+import gr.aueb.cf.bluemargarita.repository.SpecificationAggregateRepository.AggregateSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,12 +34,19 @@ import java.util.stream.Collectors;
 public class PurchaseService implements IPurchaseService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PurchaseService.class);
+
+    // Cursor pagination sorts, each backed by an index on (column, id)
+    private static final Map<String, SortKey<Purchase>> CURSOR_SORT_KEYS = Map.of(
+            "purchaseDate", SortKey.ofDate(Purchase::getPurchaseDate),
+            "totalCost", SortKey.ofDecimal(Purchase::getTotalCost),
+            "id", SortKey.ofLong(Purchase::getId));
     private final PurchaseRepository purchaseRepository;
     private final SupplierRepository supplierRepository;
     private final MaterialRepository materialRepository;
     private final UserService userService;
     private final ExpenseRepository expenseRepository;
     private final IExpenseService expenseService;
+    private final ApplicationEventPublisher eventPublisher;
     private final Mapper mapper;
 
     @Autowired
@@ -42,6 +56,7 @@ public class PurchaseService implements IPurchaseService {
                            UserService userService,
                            ExpenseRepository expenseRepository,
                            IExpenseService expenseService,
+                           ApplicationEventPublisher eventPublisher,
                            Mapper mapper) {
         this.purchaseRepository = purchaseRepository;
         this.supplierRepository = supplierRepository;
@@ -49,6 +64,7 @@ public class PurchaseService implements IPurchaseService {
         this.userService = userService;
         this.expenseRepository = expenseRepository;
         this.expenseService = expenseService;
+        this.eventPublisher = eventPublisher;
         this.mapper = mapper;
     }
 
@@ -91,6 +107,8 @@ public class PurchaseService implements IPurchaseService {
                 savedPurchase.getPurchaseDate()
         );
 
+        eventPublisher.publishEvent(new PurchaseChangedEvent(savedPurchase.getId(), EntityChangeType.CREATED));
+
         LOGGER.info("Purchase recorded with id: {}, total cost: {}", savedPurchase.getId(), totalCost);
 
         return mapper.mapToPurchaseDetailedViewDTO(savedPurchase);
@@ -118,6 +136,8 @@ public class PurchaseService implements IPurchaseService {
                 savedPurchase.getPurchaseDate()
         );
 
+        eventPublisher.publishEvent(new PurchaseChangedEvent(savedPurchase.getId(), EntityChangeType.UPDATED));
+
         LOGGER.info("Purchase {} updated", savedPurchase.getId());
 
         return mapper.mapToPurchaseReadOnlyDTO(savedPurchase);
@@ -138,6 +158,8 @@ public class PurchaseService implements IPurchaseService {
         // Hard delete - purchases can be deleted completely
         purchaseRepository.delete(purchase);
 
+        eventPublisher.publishEvent(new PurchaseChangedEvent(purchaseId, EntityChangeType.DELETED));
+
         LOGGER.info("Purchase {} deleted", purchaseId);
     }
 
@@ -165,20 +187,30 @@ public class PurchaseService implements IPurchaseService {
     @Transactional(readOnly = true)
     public PaginatedFilteredPurchasesWithSummary searchPurchasesWithSummary(PurchaseFilters filters){
 
-        Page<PurchaseReadOnlyDTO> filtered = purchaseRepository.findAll(getSpecsFromFilters(filters), filters.getPageable())
+        Slice<PurchaseReadOnlyDTO> filtered = purchaseRepository.findSlice(getSpecsFromFilters(filters), filters.getPageable())
                 .map(mapper::mapToPurchaseReadOnlyDTO);
 
-        long totalFilteredResults = filtered.getTotalElements();
-        PurchaseSummaryDTO summary = null;
-
-        // Only calculate summary if total results are 100 or less (performance optimization)
-        if(totalFilteredResults <= 100) {
-            summary = calculatePurchaseSummary(filters);
-        }
+        PurchaseSummaryDTO summary = calculatePurchaseSummary(filters);
 
         return new PaginatedFilteredPurchasesWithSummary(filtered, summary);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedFilteredPurchasesWithSummary searchPurchasesByCursor(PurchaseFilters filters)
+            throws EntityInvalidArgumentException {
+
+        KeysetPageRequest<Purchase> pageRequest = KeysetPageRequest.of(filters, CURSOR_SORT_KEYS, Purchase::getId);
+
+        List<Purchase> rows = purchaseRepository.findKeysetPage(getSpecsFromFilters(filters), pageRequest);
+
+        // The summary aggregates every matching row, so it is only paid for once per search
+        PurchaseSummaryDTO summary = pageRequest.isFirstPage() ? calculatePurchaseSummary(filters) : null;
+
+        return new CursorPaginatedFilteredPurchasesWithSummary(
+                pageRequest.toPage(rows, mapper::mapToPurchaseReadOnlyDTO), summary);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PurchaseDetailedViewDTO getPurchaseDetailedView(Long purchaseId) throws EntityNotFoundException {
@@ -246,13 +278,18 @@ public class PurchaseService implements IPurchaseService {
 
     private PurchaseSummaryDTO calculatePurchaseSummary(PurchaseFilters filters){
 
-        Integer totalCount = countPurchasesByFilters(filters);
+        SpecificationAggregateResult aggregates = purchaseRepository.aggregate(getSpecsFromFilters(filters), List.of(
+                AggregateSelection.count(),
+                AggregateSelection.sum("totalCost")
+        ));
+
+        int totalCount = (int) aggregates.getLong(0);
 
         if(totalCount == 0){
             return new PurchaseSummaryDTO(0,BigDecimal.ZERO);
         }
 
-        BigDecimal totalRevenue = sumTotalCostByFilters(filters);
+        BigDecimal totalRevenue = aggregates.getBigDecimal(1);
 
         LOGGER.debug("Summary calculated: count={}, revenue={}", totalCount, totalRevenue);
 
@@ -314,22 +351,6 @@ public class PurchaseService implements IPurchaseService {
     }
 
 
-    private Integer countPurchasesByFilters(PurchaseFilters filters) {
-        Specification<Purchase> spec = getSpecsFromFilters(filters);
-        return (int) purchaseRepository.count(spec);
-    }
-
-    private BigDecimal sumTotalCostByFilters(PurchaseFilters filters) {
-        Specification<Purchase> spec = getSpecsFromFilters(filters);
-        List<Purchase> purchases = purchaseRepository.findAll(spec);
-
-        return purchases.stream()
-                .map(Purchase::getTotalCost)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-
     private Specification<Purchase> getSpecsFromFilters(PurchaseFilters filters) {
 
         return Specification
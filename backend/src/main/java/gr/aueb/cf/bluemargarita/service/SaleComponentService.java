@@ -0,0 +1,108 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.model.*;
+import gr.aueb.cf.bluemargarita.repository.SaleProductComponentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the sale_product_component fact table.
+ *
+ * A recorded sale snapshots the materials and procedures of every product it sells, as they
+ * are at that moment. Updating the sale only carries its new date and prices over to the
+ * snapshot, so later recipe changes never rewrite the history of past sales.
+ * All methods run inside the sale's own transaction.
+ */
+@Service
+public class SaleComponentService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaleComponentService.class);
+
+    private final SaleProductComponentRepository componentRepository;
+
+    @Autowired
+    public SaleComponentService(SaleProductComponentRepository componentRepository) {
+        this.componentRepository = componentRepository;
+    }
+
+    // =============================================================================
+    // INCREMENTAL MAINTENANCE - Called by SaleService
+    // =============================================================================
+
+    /**
+     * Snapshots the components of the sale's products. The sale and its lines must already be saved
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void addSale(Sale sale) {
+        List<SaleProductComponent> components = new ArrayList<>();
+
+        for (SaleProduct saleProduct : sale.getAllSaleProducts()) {
+            Product product = saleProduct.getProduct();
+            BigDecimal revenue = lineRevenue(saleProduct);
+
+            for (ProductMaterial productMaterial : product.getAllProductMaterials()) {
+                components.add(baseComponent(sale, saleProduct, revenue)
+                        .materialId(productMaterial.getMaterial().getId())
+                        .componentQuantity(productMaterial.getQuantity())
+                        .componentCost(productMaterial.getMaterial().getCurrentUnitCost())
+                        .build());
+            }
+
+            for (ProductProcedure productProcedure : product.getAllProcedureProducts()) {
+                components.add(baseComponent(sale, saleProduct, revenue)
+                        .procedureId(productProcedure.getProcedure().getId())
+                        .componentQuantity(BigDecimal.ONE)
+                        .componentCost(productProcedure.getCost())
+                        .build());
+            }
+        }
+
+        componentRepository.saveAll(components);
+        LOGGER.debug("Recorded {} sale components for sale {}", components.size(), sale.getId());
+    }
+
+    /**
+     * Updates the date, quantities and revenue of the sale's components after the sale was changed and saved
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void updateSale(Sale sale) {
+        int updated = componentRepository.refreshFromSale(sale.getId());
+        LOGGER.debug("Updated {} sale components for sale {}", updated, sale.getId());
+    }
+
+    /**
+     * Removes the sale's components. Must be called before the sale is deleted
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void removeSale(Long saleId) {
+        int deleted = componentRepository.deleteBySaleId(saleId);
+        LOGGER.debug("Deleted {} sale components for sale {}", deleted, saleId);
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS
+    // =============================================================================
+
+    private SaleProductComponent.SaleProductComponentBuilder baseComponent(Sale sale, SaleProduct saleProduct,
+                                                                          BigDecimal revenue) {
+        return SaleProductComponent.builder()
+                .saleId(sale.getId())
+                .saleProductId(saleProduct.getId())
+                .saleDate(sale.getSaleDate())
+                .productId(saleProduct.getProduct().getId())
+                .soldQuantity(saleProduct.getQuantity())
+                .revenue(revenue);
+    }
+
+    private BigDecimal lineRevenue(SaleProduct saleProduct) {
+        BigDecimal price = saleProduct.getPriceAtTheTime() != null ? saleProduct.getPriceAtTheTime() : BigDecimal.ZERO;
+        return saleProduct.getQuantity().multiply(price);
+    }
+}
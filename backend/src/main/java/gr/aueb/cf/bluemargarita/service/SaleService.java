@@ -1,8 +1,14 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
 import gr.aueb.cf.bluemargarita.core.enums.PaymentMethod;
+import gr.aueb.cf.bluemargarita.core.events.SaleChangedEvent;
+import gr.aueb.cf.bluemargarita.core.events.SaleSnapshot;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.dto.sale.PaginatedFilteredSalesWithSummary;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest;
+import gr.aueb.cf.bluemargarita.core.filters.KeysetPageRequest.SortKey;
 import gr.aueb.cf.bluemargarita.core.filters.SaleFilters;
 import gr.aueb.cf.bluemargarita.core.specifications.SaleSpecification;
 import gr.aueb.cf.bluemargarita.dto.price_calculation.PriceCalculationRequestDTO;
@@ -12,12 +18,14 @@ import gr.aueb.cf.bluemargarita.dto.price_calculation.CartItemDTO;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.*;
 import gr.aueb.cf.bluemargarita.repository.*;
+import gr.aueb.cf.bluemargarita.repository.SpecificationAggregateRepository.AggregateSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +35,7 @@ import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
@@ -35,6 +44,12 @@ public class SaleService implements ISaleService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SaleService.class);
 
+    // Cursor pagination sorts, each backed by an index on (column, id)
+    private static final Map<String, SortKey<Sale>> CURSOR_SORT_KEYS = Map.of(
+            "saleDate", SortKey.ofDate(Sale::getSaleDate),
+            "finalTotalPrice", SortKey.ofDecimal(Sale::getFinalTotalPrice),
+            "id", SortKey.ofLong(Sale::getId));
+
     private final SaleRepository saleRepository;
     private final ProductRepository productRepository;
     private final CustomerRepository customerRepository;
@@ -44,6 +59,10 @@ public class SaleService implements ISaleService {
     private final IStockManagementService stockManagementService;
 
     private final SalePricingService pricingService;
+    private final SalesRollupService salesRollupService;
+    private final SaleComponentService saleComponentService;
+    private final CustomerStatsService customerStatsService;
+    private final ApplicationEventPublisher eventPublisher;
     private final Mapper mapper;
 
     @Autowired
@@ -54,6 +73,10 @@ public class SaleService implements ISaleService {
                        UserService userService,
                        IStockManagementService stockManagementService,
                        SalePricingService pricingService,
+                       SalesRollupService salesRollupService,
+                       SaleComponentService saleComponentService,
+                       CustomerStatsService customerStatsService,
+                       ApplicationEventPublisher eventPublisher,
                        Mapper mapper) {
         this.saleRepository = saleRepository;
         this.productRepository = productRepository;
@@ -62,6 +85,10 @@ public class SaleService implements ISaleService {
         this.userService = userService;
         this.stockManagementService = stockManagementService;
         this.pricingService = pricingService;
+        this.salesRollupService = salesRollupService;
+        this.saleComponentService = saleComponentService;
+        this.customerStatsService = customerStatsService;
+        this.eventPublisher = eventPublisher;
         this.mapper = mapper;
     }
 
@@ -95,11 +122,23 @@ public class SaleService implements ISaleService {
         Sale savedSale = saleRepository.save(sale);
 
         //update stock for products included in the sale
-        updateProductStockAfterSale(productQuantities, sale.getId());
+        updateProductStockAfterSale(productQuantities, sale.getId(), creator);
+
+        //add the sale to the daily sales rollup
+        salesRollupService.addSale(savedSale);
+
+        //snapshot the materials and procedures sold for component analytics
+        saleComponentService.addSale(savedSale);
 
         //if first time customer , set first sale date
         updateCustomerFirstSaleDate(customer, request.saleDate());
 
+        //update the customer's precomputed stats
+        customerStatsService.refreshCustomers(customer != null ? customer.getId() : null);
+
+        eventPublisher.publishEvent(new SaleChangedEvent(savedSale.getId(), EntityChangeType.CREATED,
+                null, snapshotOf(savedSale), saleRepository.currentTransactionId()));
+
         LOGGER.info("Sale recorded with id: {}", savedSale.getId());
 
         return mapper.mapToSaleDetailedViewDTO(savedSale);
@@ -116,6 +155,11 @@ public class SaleService implements ISaleService {
         Customer customer = getCustomerEntityByIdIfProvided(dto.customerId());
         User updater = userService.getCurrentUserOrThrow();
 
+        // Remove the old state of the sale from the rollup before changing it
+        salesRollupService.removeSale(existingSale);
+        Long previousCustomerId = existingSale.getCustomer() != null ? existingSale.getCustomer().getId() : null;
+        SaleSnapshot previousState = snapshotOf(existingSale);
+
         // Update basic fields
         updateSaleBasicFields(existingSale, dto, location, customer, updater);
 
@@ -123,6 +167,18 @@ public class SaleService implements ISaleService {
 
         Sale savedSale = saleRepository.save(existingSale);
 
+        salesRollupService.addSale(savedSale);
+
+        // Flush so the component update reads the new date and prices from the database
+        saleRepository.flush();
+        saleComponentService.updateSale(savedSale);
+
+        // The sale may have moved to another customer, both sides need their stats refreshed
+        customerStatsService.refreshCustomers(previousCustomerId, customer != null ? customer.getId() : null);
+
+        eventPublisher.publishEvent(new SaleChangedEvent(savedSale.getId(), EntityChangeType.UPDATED,
+                previousState, snapshotOf(savedSale), saleRepository.currentTransactionId()));
+
         LOGGER.info("Sale {} updated by user {}", savedSale.getId(), updater.getUsername());
 
         return mapper.mapToSaleReadOnlyDTO(savedSale);
@@ -133,11 +189,20 @@ public class SaleService implements ISaleService {
     public void deleteSale(Long saleId) throws EntityNotFoundException {
 
         Sale sale = getSaleEntityById(saleId);
+        User currentUser = userService.getCurrentUserOrThrow();
 
         // Restore stock before deleting sale
-        restoreProductStockAfterSaleDeletion(sale);
+        restoreProductStockAfterSaleDeletion(sale, currentUser);
+
+        salesRollupService.removeSale(sale);
+        saleComponentService.removeSale(saleId);
+        SaleSnapshot previousState = snapshotOf(sale);
 
         saleRepository.delete(sale);
+        customerStatsService.refreshCustomers(sale.getCustomer() != null ? sale.getCustomer().getId() : null);
+
+        eventPublisher.publishEvent(new SaleChangedEvent(saleId, EntityChangeType.DELETED,
+                previousState, null, saleRepository.currentTransactionId()));
         LOGGER.info("Sale {} deleted", saleId);
     }
 
@@ -148,9 +213,7 @@ public class SaleService implements ISaleService {
     @Override
     @Transactional(readOnly = true)
     public List<SaleReadOnlyDTO> getRecentSales(int limit) {
-        return saleRepository.findAll(
-                        PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "saleDate", "createdAt"))
-                )
+        return findAllWithItemsInOrder(saleRepository.findRecentSaleIds(Limit.of(limit)))
                 .stream()
                 .map(mapper::mapToSaleReadOnlyDTO)
                 .collect(Collectors.toList());
@@ -188,25 +251,47 @@ public class SaleService implements ISaleService {
     @Transactional(readOnly = true)
     public PaginatedFilteredSalesWithSummary searchSalesWithSummary(SaleFilters filters) {
 
-        Page<SaleReadOnlyDTO> filtered = saleRepository.findAll(getSpecsFromFilters(filters), filters.getPageable())
-                .map(mapper::mapToSaleReadOnlyDTO);
+        Slice<Long> ids = saleRepository.findIdSlice(getSpecsFromFilters(filters), filters.getPageable());
+        List<SaleReadOnlyDTO> sales = findAllWithItemsInOrder(ids.getContent())
+                .stream()
+                .map(mapper::mapToSaleReadOnlyDTO)
+                .toList();
+        Slice<SaleReadOnlyDTO> filtered = new SliceImpl<>(sales, ids.getPageable(), ids.hasNext());
+
+        SalesSummaryDTO summary = calculateSalesSummary(filters);
+
+        return new PaginatedFilteredSalesWithSummary(filtered, summary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginatedFilteredSalesWithSummary searchSalesByCursor(SaleFilters filters)
+            throws EntityInvalidArgumentException {
+
+        KeysetPageRequest<Sale> pageRequest = KeysetPageRequest.of(filters, CURSOR_SORT_KEYS, Sale::getId);
 
-        long totalFilteredResults = filtered.getTotalElements();
-        SalesSummaryDTO summary = null;
+        List<Sale> rows = saleRepository.findKeysetPage(getSpecsFromFilters(filters), pageRequest);
 
-        // Only calculate summary if total results are 100 or less
-        if (totalFilteredResults <= 100) {
-            summary = calculateSalesSummary(filters);
+        // Initializes the associations of the sales already loaded, in one query instead of one per sale
+        if (!rows.isEmpty()) {
+            saleRepository.findAllWithItemsByIdIn(rows.stream().map(Sale::getId).toList());
         }
 
-        return new PaginatedFilteredSalesWithSummary(filtered, summary);
+        // The summary aggregates every matching row, so it is only paid for once per search
+        SalesSummaryDTO summary = pageRequest.isFirstPage() ? calculateSalesSummary(filters) : null;
+
+        return new CursorPaginatedFilteredSalesWithSummary(
+                pageRequest.toPage(rows, mapper::mapToSaleReadOnlyDTO), summary);
     }
 
     @Override
     @Transactional(readOnly = true)
     public SaleDetailedViewDTO getSaleDetailedView(Long saleId) throws EntityNotFoundException {
 
-        Sale sale = getSaleEntityById(saleId);
+        Sale sale = saleRepository.findAllWithItemsByIdIn(List.of(saleId))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Sale", "Sale with id " + saleId + " not found"));
 
         return mapper.mapToSaleDetailedViewDTO(sale);
     }
@@ -267,6 +352,25 @@ public class SaleService implements ISaleService {
     // PRIVATE HELPER METHODS - Entity Validation and Retrieval
     // =============================================================================
 
+    /**
+     * Loads the sales with their customer, location, users, lines and products in one query,
+     * keeping the order of the given ids
+     */
+    private List<Sale> findAllWithItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Sale> salesById = saleRepository.findAllWithItemsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Sale::getId, Function.identity()));
+
+        return ids.stream()
+                .map(salesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     private Sale getSaleEntityById(Long id) throws EntityNotFoundException {
         return saleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Sale", "Sale with id " + id + " not found"));
@@ -354,17 +458,32 @@ public class SaleService implements ISaleService {
         sale.setLastUpdatedBy(updater);
     }
 
+    /**
+     * Copies what the after-commit listeners of SaleChangedEvent need from the sale
+     */
+    private SaleSnapshot snapshotOf(Sale sale) {
+        List<SaleSnapshot.Line> lines = sale.getAllSaleProducts().stream()
+                .map(saleProduct -> new SaleSnapshot.Line(
+                        saleProduct.getProduct().getId(),
+                        saleProduct.getQuantity(),
+                        saleProduct.getQuantity().multiply(saleProduct.getPriceAtTheTime() != null ?
+                                saleProduct.getPriceAtTheTime() : BigDecimal.ZERO)))
+                .toList();
+
+        return new SaleSnapshot(sale.getLocation().getId(), sale.getSaleDate(), sale.getFinalTotalPrice(), lines);
+    }
+
 
     // =============================================================================
     // PRIVATE HELPER METHODS - Stock Management (Simple Repository Calls)
     // =============================================================================
 
-    private void updateProductStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId){
-        stockManagementService.reduceStockAfterSale(productQuantities, saleId);
+    private void updateProductStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId, User user){
+        stockManagementService.reduceStockAfterSale(productQuantities, saleId, user);
         LOGGER.debug("Stock reduced for sale {} with {} products", saleId, productQuantities.size());
     }
 
-    private void restoreProductStockAfterSaleDeletion(Sale sale){
+    private void restoreProductStockAfterSaleDeletion(Sale sale, User user){
         // Convert SaleProducts to Product-quantity map
         Map<Product, BigDecimal> productQuantities = sale.getAllSaleProducts()
                 .stream()
@@ -373,7 +492,7 @@ public class SaleService implements ISaleService {
                         SaleProduct::getQuantity
                 ));
 
-        stockManagementService.restoreStockAfterSaleDeleted(productQuantities, sale.getId());
+        stockManagementService.restoreStockAfterSaleDeleted(productQuantities, sale.getId(), user);
         LOGGER.debug("Stock restored for deleted sale {} with {} products",
                 sale.getId(), productQuantities.size());
     }
@@ -410,31 +529,40 @@ public class SaleService implements ISaleService {
     }
 
 
+    /**
+     * Count, revenue, discount amount and average discount of all sales matching
+     * the filters, computed by a single aggregate query
+     */
     private SalesSummaryDTO calculateSalesSummary(SaleFilters filters) {
 
-        Integer totalCount = countSalesByFilters(filters);
+        SpecificationAggregateResult aggregates = saleRepository.aggregate(getSpecsFromFilters(filters), List.of(
+                AggregateSelection.count(),
+                AggregateSelection.sum("finalTotalPrice"),
+                AggregateSelection.sumDifference("suggestedTotalPrice", "finalTotalPrice"),
+                AggregateSelection.avg("discountPercentage")
+        ));
+
+        int totalCount = (int) aggregates.getLong(0);
 
         if (totalCount == 0) {
             return createEmptySalesSummary();
         }
 
-        BigDecimal totalRevenue = sumRevenueByFilters(filters);
-        BigDecimal totalDiscountAmount = sumDiscountAmountByFilters(filters);
-        BigDecimal avgDiscountPercentage = avgDiscountPercentageByFilters(filters);
+        BigDecimal totalRevenue = aggregates.getBigDecimal(1);
+        BigDecimal totalDiscountAmount = aggregates.getBigDecimal(2);
+        BigDecimal avgDiscountPercentage = aggregates.getBigDecimal(3, 2);
 
-        BigDecimal avgOrderValue = totalCount > 0 ?
-                totalRevenue.divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP) :
-                BigDecimal.ZERO;
+        BigDecimal avgOrderValue = totalRevenue.divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP);
 
         LOGGER.debug("Summary calculated: count={}, revenue={}, avgOrder={}",
                 totalCount, totalRevenue, avgOrderValue);
 
         return new SalesSummaryDTO(
                 totalCount,
-                totalRevenue != null ? totalRevenue : BigDecimal.ZERO,
+                totalRevenue,
                 avgOrderValue,
-                totalDiscountAmount != null ? totalDiscountAmount : BigDecimal.ZERO,
-                avgDiscountPercentage != null ? avgDiscountPercentage : BigDecimal.ZERO
+                totalDiscountAmount,
+                avgDiscountPercentage
         );
     }
 
@@ -443,45 +571,6 @@ public class SaleService implements ISaleService {
                 BigDecimal.ZERO, BigDecimal.ZERO);
     }
 
-    private Integer countSalesByFilters(SaleFilters filters) {
-        Specification<Sale> spec = getSpecsFromFilters(filters);
-        return (int) saleRepository.count(spec);
-    }
-
-    private BigDecimal sumRevenueByFilters(SaleFilters filters) {
-        Specification<Sale> spec = getSpecsFromFilters(filters);
-        List<Sale> sales = saleRepository.findAll(spec);
-
-        return sales.stream()
-                .map(Sale::getFinalTotalPrice)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal sumDiscountAmountByFilters(SaleFilters filters) {
-        Specification<Sale> spec = getSpecsFromFilters(filters);
-        List<Sale> sales = saleRepository.findAll(spec);
-
-        return sales.stream()
-                .filter(sale -> sale.getSuggestedTotalPrice() != null && sale.getFinalTotalPrice() != null)
-                .map(sale -> sale.getSuggestedTotalPrice().subtract(sale.getFinalTotalPrice()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal avgDiscountPercentageByFilters(SaleFilters filters) {
-        Specification<Sale> spec = getSpecsFromFilters(filters);
-        List<Sale> sales = saleRepository.findAll(spec);
-        if (sales.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal totalDiscount = sales.stream()
-                .map(Sale::getDiscountPercentage)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return totalDiscount.divide(BigDecimal.valueOf(sales.size()), 2, RoundingMode.HALF_UP);
-    }
-
     // =============================================================================
     // PRIVATE HELPER METHODS - Filtering and Specifications
     // =============================================================================
@@ -0,0 +1,204 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.enums.PaymentMethod;
+import gr.aueb.cf.bluemargarita.core.events.SalesRollupRebuiltEvent;
+import gr.aueb.cf.bluemargarita.dto.analytics.SalesRollupConsistencyDTO;
+import gr.aueb.cf.bluemargarita.dto.analytics.SalesRollupMismatchDTO;
+import gr.aueb.cf.bluemargarita.dto.analytics.SalesRollupRebuildResultDTO;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.model.Sale;
+import gr.aueb.cf.bluemargarita.model.SaleProduct;
+import gr.aueb.cf.bluemargarita.repository.SalesDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the sales_daily_rollup fact table.
+
+ * Sale writes call addSale/removeSale inside their own transaction, so the rollup
+ * is always consistent with the committed sales. rebuildRollup() is the backfill
+ * for existing data and checkConsistency() compares the rollup with the raw tables.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SalesRollupService.class);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final SalesDailyRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public SalesRollupService(SalesDailyRollupRepository rollupRepository, ApplicationEventPublisher eventPublisher) {
+        this.rollupRepository = rollupRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // =============================================================================
+    // INCREMENTAL MAINTENANCE - Called by SaleService
+    // =============================================================================
+
+    @Transactional(rollbackFor = Exception.class)
+    public void addSale(Sale sale) {
+        applySale(sale, 1);
+    }
+
+    /**
+     * Subtracts the sale's current state from the rollup.
+     * Must be called before the sale is modified or deleted
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void removeSale(Sale sale) {
+        applySale(sale, -1);
+    }
+
+    // =============================================================================
+    // BACKFILL AND CONSISTENCY CHECK
+    // =============================================================================
+
+    @Transactional(rollbackFor = Exception.class)
+    public SalesRollupRebuildResultDTO rebuildRollup() {
+        long start = System.currentTimeMillis();
+
+        int deleted = rollupRepository.deleteAllRows();
+        int written = rollupRepository.rebuildFromSales();
+
+        long duration = System.currentTimeMillis() - start;
+        LOGGER.info("Sales rollup rebuilt: {} rows deleted, {} rows written in {} ms", deleted, written, duration);
+
+        eventPublisher.publishEvent(new SalesRollupRebuiltEvent(written));
+
+        return new SalesRollupRebuildResultDTO(deleted, written, duration, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public SalesRollupConsistencyDTO checkConsistency() {
+        List<SalesRollupMismatchDTO> mismatches = rollupRepository.findMismatchesWithSales(MAX_REPORTED_MISMATCHES)
+                .stream()
+                .map(this::mapToMismatchDTO)
+                .toList();
+
+        if (!mismatches.isEmpty()) {
+            LOGGER.warn("Sales rollup consistency check found {} mismatching keys", mismatches.size());
+        }
+
+        return new SalesRollupConsistencyDTO(
+                mismatches.isEmpty(),
+                mismatches.size(),
+                mismatches,
+                LocalDateTime.now()
+        );
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS
+    // =============================================================================
+
+    private void applySale(Sale sale, int sign) {
+        Long customerKey = sale.getCustomer() != null ? sale.getCustomer().getId() : 0L;
+        PaymentMethod paymentMethod = sale.getPaymentMethod() != null ? sale.getPaymentMethod() : PaymentMethod.OTHER;
+        boolean isWholesale = Boolean.TRUE.equals(sale.getIsWholesale());
+        Long locationId = sale.getLocation().getId();
+
+        for (LineTotals totals : groupLinesByProduct(sale).values()) {
+            Long productId = totals.product.getId();
+
+            if (sign > 0) {
+                rollupRepository.addDelta(sale.getSaleDate(), productId, locationId, customerKey,
+                        paymentMethod.name(), isWholesale,
+                        totals.quantity, totals.revenue, totals.suggestedRevenue, totals.lines);
+                continue;
+            }
+
+            int updated = rollupRepository.subtractDelta(sale.getSaleDate(), productId, locationId, customerKey,
+                    paymentMethod.name(), isWholesale,
+                    totals.quantity, totals.revenue, totals.suggestedRevenue, totals.lines);
+
+            if (updated == 0) {
+                LOGGER.warn("No rollup row found for sale {} product {} on {}. Run the rollup rebuild.",
+                        sale.getId(), totals.product.getCode(), sale.getSaleDate());
+            } else {
+                rollupRepository.deleteIfEmpty(sale.getSaleDate(), productId, locationId, customerKey,
+                        paymentMethod.name(), isWholesale);
+            }
+        }
+
+        LOGGER.debug("Sales rollup {} for sale {}", sign > 0 ? "incremented" : "decremented", sale.getId());
+    }
+
+    // Ordered by product id, so concurrent sales lock their rollup rows in the same order
+    private Map<Long, LineTotals> groupLinesByProduct(Sale sale) {
+        Map<Long, LineTotals> totalsByProduct = new TreeMap<>();
+
+        for (SaleProduct saleProduct : sale.getAllSaleProducts()) {
+            BigDecimal quantity = saleProduct.getQuantity();
+            BigDecimal price = saleProduct.getPriceAtTheTime() != null ? saleProduct.getPriceAtTheTime() : BigDecimal.ZERO;
+            BigDecimal suggestedPrice = saleProduct.getSuggestedPriceAtTheTime() != null ?
+                    saleProduct.getSuggestedPriceAtTheTime() : BigDecimal.ZERO;
+
+            LineTotals totals = totalsByProduct.computeIfAbsent(saleProduct.getProduct().getId(),
+                    id -> new LineTotals(saleProduct.getProduct()));
+            totals.quantity = totals.quantity.add(quantity);
+            totals.revenue = totals.revenue.add(quantity.multiply(price));
+            totals.suggestedRevenue = totals.suggestedRevenue.add(quantity.multiply(suggestedPrice));
+            totals.lines++;
+        }
+        return totalsByProduct;
+    }
+
+    private SalesRollupMismatchDTO mapToMismatchDTO(Object[] row) {
+        return new SalesRollupMismatchDTO(
+                toLocalDate(row[0]),
+                toLong(row[1]),
+                toLong(row[2]),
+                toLong(row[3]),
+                toBigDecimal(row[4]),
+                toBigDecimal(row[5]),
+                toBigDecimal(row[6]),
+                toBigDecimal(row[7]),
+                toBigDecimal(row[8]),
+                toBigDecimal(row[9]),
+                toLong(row[10]),
+                toLong(row[11])
+        );
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) return date.toLocalDate();
+        return (LocalDate) value;
+    }
+
+    private Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return new BigDecimal(value.toString());
+    }
+
+    private static final class LineTotals {
+        private final Product product;
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private BigDecimal suggestedRevenue = BigDecimal.ZERO;
+        private int lines = 0;
+
+        private LineTotals(Product product) {
+            this.product = product;
+        }
+    }
+}
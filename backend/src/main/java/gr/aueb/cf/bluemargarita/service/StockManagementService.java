@@ -1,5 +1,9 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.enums.StockMovementReason;
+import gr.aueb.cf.bluemargarita.core.events.StockChangedEvent;
+import gr.aueb.cf.bluemargarita.core.events.StockChangedEvent.StockLevelChange;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityInvalidArgumentException;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ProductFilters;
@@ -7,20 +11,35 @@ import gr.aueb.cf.bluemargarita.core.specifications.ProductSpecification;
 import gr.aueb.cf.bluemargarita.dto.stock.*;
 import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.model.StockMovement;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.repository.ProductStockBatchRepository;
+import gr.aueb.cf.bluemargarita.repository.StockMovementRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
@@ -28,15 +47,23 @@ import java.util.stream.Collectors;
 public class StockManagementService implements IStockManagementService{
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StockManagementService.class);
+    private static final Set<String> MOVEMENT_GRANULARITIES = Set.of("day", "week", "month");
 
     private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
-    public StockManagementService(ProductRepository productRepository, UserService userService, Mapper mapper) {
+    public StockManagementService(ProductRepository productRepository, StockMovementRepository stockMovementRepository,
+                                  UserService userService, ApplicationEventPublisher eventPublisher, PaginationCountCache countCache, Mapper mapper) {
         this.productRepository = productRepository;
+        this.stockMovementRepository = stockMovementRepository;
         this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -52,40 +79,118 @@ public class StockManagementService implements IStockManagementService{
         Product product = getProductEntityById(updateDTO.productId());
         User updater = userService.getCurrentUserOrThrow();
 
-        //Calculate stock changes
-        StockCalculationResult result = calculateStockChange(product, updateDTO);
+        //Apply changes atomically in the database
+        StockCalculationResult result = applyStockChange(product, updateDTO);
+        product.setLastUpdatedBy(updater);
+        productRepository.save(product);
+
+        //Record stock movement in the ledger, a failure rolls back the stock change with it
+        if (result.changeAmount() != 0) {
+            stockMovementRepository.insertAll(List.of(
+                    createMovement(product, result.changeAmount(), StockMovementReason.MANUAL, null, updater)));
+        }
+        logStockMovement(product, result, updateDTO.updateType().toString(), StockMovementReason.MANUAL);
+        eventPublisher.publishEvent(new StockChangedEvent(
+                List.of(toStockLevelChange(product, result.previousStock()))));
+
+        return new StockUpdateResultDTO(
+                product.getId(),
+                product.getCode(),
+                result.previousStock(),
+                result.newStock(),
+                result.changeAmount(),
+                true,
+                updateDTO.updateType().toString(),
+                LocalDateTime.now(),
+                null
+        );
+    }
+
+    /**
+     * Products are loaded with one query and all changes are written by one statement.
+     * Updates for unknown or repeated products are reported as failures while the rest are applied
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BulkStockUpdateResultDTO bulkUpdateProductStock(BulkStockUpdateDTO bulkUpdateDTO)
+            throws EntityNotFoundException {
+
+        User updater = userService.getCurrentUserOrThrow();
+        List<StockUpdateDTO> updates = bulkUpdateDTO.updates();
+
+        Map<Long, Product> productsById = productRepository.findAllById(
+                        updates.stream().map(StockUpdateDTO::productId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Validate each update, only the first update of a product is applied
+        Map<Integer, String> failures = new HashMap<>();
+        Set<Long> requestedProductIds = new HashSet<>();
+        List<ProductStockBatchRepository.StockChange> changes = new ArrayList<>();
+
+        for (int i = 0; i < updates.size(); i++) {
+            StockUpdateDTO update = updates.get(i);
+
+            if (!productsById.containsKey(update.productId())) {
+                failures.put(i, "Product with id=" + update.productId() + " was not found");
+            } else if (!requestedProductIds.add(update.productId())) {
+                failures.put(i, "Product with id=" + update.productId() + " appears more than once in the request");
+            } else {
+                changes.add(toStockChange(update));
+            }
+        }
+
+        Map<Long, ProductStockBatchRepository.StockChangeResult> changeResults = productRepository
+                .applyStockChanges(changes, updater.getId())
+                .stream()
+                .collect(Collectors.toMap(ProductStockBatchRepository.StockChangeResult::productId, Function.identity()));
+
+        List<StockUpdateResultDTO> results = new ArrayList<>();
+        List<StockMovement> movements = new ArrayList<>();
+        List<StockLevelChange> levelChanges = new ArrayList<>();
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        for (int i = 0; i < updates.size(); i++) {
+            StockUpdateDTO update = updates.get(i);
+            Product product = productsById.get(update.productId());
+            String productCode = product != null ? product.getCode() : null;
+            ProductStockBatchRepository.StockChangeResult changeResult = changeResults.get(update.productId());
+
+            if (failures.containsKey(i) || changeResult == null) {
+                String errorMessage = failures.getOrDefault(i,
+                        "Product with id=" + update.productId() + " was not found");
+                Integer currentStock = product != null ? product.getStock() : null;
+                results.add(new StockUpdateResultDTO(update.productId(), productCode, currentStock, currentStock,
+                        0, false, update.updateType().toString(), updatedAt, errorMessage));
+                continue;
+            }
+
+            StockCalculationResult result = new StockCalculationResult(
+                    changeResult.previousStock() != null ? changeResult.previousStock() : 0,
+                    changeResult.newStock(),
+                    changeResult.newStock() - (changeResult.previousStock() != null ? changeResult.previousStock() : 0));
+            product.setStock(result.newStock());
+
+            if (result.changeAmount() != 0) {
+                movements.add(createMovement(product, result.changeAmount(), StockMovementReason.MANUAL, null, updater));
+            }
+            logStockMovement(product, result, update.updateType().toString(), StockMovementReason.MANUAL);
+            levelChanges.add(toStockLevelChange(product, result.previousStock()));
 
-        try {
-            //Apply changes
-            updateProductStockValue(product, result.newStock(), updater);
-
-            //Log stock movement
-            logStockMovement(product, result, updateDTO.updateType().toString(), "MANUAL");
-
-            return new StockUpdateResultDTO(
-                    product.getId(),
-                    product.getCode(),
-                    result.previousStock(),
-                    result.newStock(),
-                    result.changeAmount(),
-                    true,
-                    updateDTO.updateType().toString(),
-                    LocalDateTime.now()
-            );
-
-        } catch (Exception e) {
-            LOGGER.error("Failed to update stock for product {}: {}", product.getCode(), e.getMessage());
-            return new StockUpdateResultDTO(
-                    product.getId(),
-                    product.getCode(),
-                    result.previousStock(),
-                    result.previousStock(),
-                    0,
-                    false,
-                    updateDTO.updateType().toString(),
-                    LocalDateTime.now()
-            );
+            results.add(new StockUpdateResultDTO(product.getId(), productCode, result.previousStock(),
+                    result.newStock(), result.changeAmount(), true, update.updateType().toString(), updatedAt, null));
         }
+
+        stockMovementRepository.insertAll(movements);
+        if (!levelChanges.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(levelChanges));
+        }
+
+        int successCount = (int) results.stream().filter(StockUpdateResultDTO::success).count();
+        LOGGER.info("Bulk stock update by user {}: {} of {} updates applied",
+                updater.getUsername(), successCount, updates.size());
+
+        return new BulkStockUpdateResultDTO(updates.size(), successCount, updates.size() - successCount, results);
     }
 
     @Override
@@ -99,32 +204,21 @@ public class StockManagementService implements IStockManagementService{
         //Calculate stock changes
         StockCalculationResult result = calculateStockChange(product, updateDTO);
 
-        try {
-            //Apply changes
-            updateProductStockLimitValue(product, result.newStock(), updater);
-
-            return new StockLimitUpdateResultDTO(
-                    product.getId(),
-                    product.getCode(),
-                    result.previousStock(),
-                    result.newStock(),
-                    result.changeAmount(),
-                    true,
-                    LocalDateTime.now()
-            );
-
-        } catch (Exception e) {
-            LOGGER.error("Failed to update stock limit for product {}: {}", product.getCode(), e.getMessage());
-            return new StockLimitUpdateResultDTO(
-                    product.getId(),
-                    product.getCode(),
-                    result.previousStock(),
-                    result.previousStock(),
-                    0,
-                    false,
-                    LocalDateTime.now()
-            );
-        }
+        //Apply changes
+        updateProductStockLimitValue(product, result.newStock(), updater);
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(new StockLevelChange(
+                product.getId(), product.getCode(), product.getStock(), result.newStock(),
+                StockLevelChange.isLowStock(product.getStock(), result.previousStock())))));
+
+        return new StockLimitUpdateResultDTO(
+                product.getId(),
+                product.getCode(),
+                result.previousStock(),
+                result.newStock(),
+                result.changeAmount(),
+                true,
+                LocalDateTime.now()
+        );
     }
 
     @Override
@@ -134,82 +228,131 @@ public class StockManagementService implements IStockManagementService{
         // Ensure we only get active products
         filters.setIsActive(true);
 
-        Page<Product> products = productRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-
-        Page<StockManagementDTO> stockData = products.map(mapper::mapToStockManagementDTO);
-        return new Paginated<>(stockData);
+        Specification<Product> spec = getSpecsFromFilters(filters);
+        Slice<StockManagementDTO> stockData = productRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToStockManagementDTO);
+        return countCache.toPaginated(stockData, PaginationCountCache.key(Product.class, "stock", filters),
+                () -> productRepository.count(spec));
     }
 
     // =============================================================================
     // AUTOMATIC STOCK OPERATIONS (Called by Other Services)
     // =============================================================================
 
+    /**
+     * Products are updated in ascending id order so that concurrent sales sharing
+     * products always lock the rows in the same order and cannot deadlock
+     */
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void reduceStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId){
+    public void reduceStockAfterSale(Map<Product, BigDecimal> productQuantities, Long saleId, User user){
+
+        List<StockMovement> movements = new ArrayList<>();
+        List<StockLevelChange> levelChanges = new ArrayList<>();
 
-        for (Map.Entry<Product, BigDecimal> entry : productQuantities.entrySet()) {
+        for (Map.Entry<Product, BigDecimal> entry : inProductIdOrder(productQuantities)) {
 
             Product product = entry.getKey();
-            BigDecimal quantity = entry.getValue();
+            int quantity = entry.getValue().intValue();
 
-            if (product.getStock() == null) {
+            Integer newStock = productRepository.addToTrackedStock(product.getId(), -quantity);
+
+            if (newStock == null) {
                 LOGGER.debug("Product {} has no stock tracking enabled. Skipping stock reduction.",
                         product.getCode());
                 continue;
             }
 
-            Integer currentStock = product.getStock();
-            Integer newStock = currentStock - quantity.intValue();
+            Integer previousStock = newStock + quantity;
+            product.setStock(newStock);
 
             if (newStock < 0) {
-                LOGGER.warn("Product {} stock will go negative after sale! Current: {}, Selling: {}",
-                        product.getCode(), currentStock, quantity);
+                LOGGER.warn("Product {} stock went negative after sale! Previous: {}, Sold: {}",
+                        product.getCode(), previousStock, quantity);
             }
 
-            updateProductStockValue(product, newStock, null); // No user for automatic operations
-
-            // Log stock movement for audit
+            movements.add(createMovement(product, -quantity, StockMovementReason.SALE, saleId, user));
             logStockMovement(product,
-                    new StockCalculationResult(currentStock, newStock, -quantity.intValue()),
-                    "REMOVE", "SALE");
+                    new StockCalculationResult(previousStock, newStock, -quantity),
+                    "REMOVE", StockMovementReason.SALE);
+
+            levelChanges.add(toStockLevelChange(product, previousStock));
 
             LOGGER.debug("Reduced stock for product {} from {} to {} (sale: {})",
-                    product.getCode(), currentStock, newStock, saleId);
+                    product.getCode(), previousStock, newStock, saleId);
+        }
+
+        stockMovementRepository.insertAll(movements);
+        if (!levelChanges.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(levelChanges));
         }
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public void restoreStockAfterSaleDeleted(Map<Product, BigDecimal> productQuantities, Long saleId) {
+    public void restoreStockAfterSaleDeleted(Map<Product, BigDecimal> productQuantities, Long saleId, User user) {
+
+        List<StockMovement> movements = new ArrayList<>();
+        List<StockLevelChange> levelChanges = new ArrayList<>();
 
-        for (Map.Entry<Product, BigDecimal> entry : productQuantities.entrySet()) {
+        for (Map.Entry<Product, BigDecimal> entry : inProductIdOrder(productQuantities)) {
             Product product = entry.getKey();
-            BigDecimal quantity = entry.getValue();
+            int quantity = entry.getValue().intValue();
 
+            Integer newStock = productRepository.addToTrackedStock(product.getId(), quantity);
 
-            if (product.getStock() == null) {
+            if (newStock == null) {
                 LOGGER.debug("Product {} has no stock tracking enabled. Skipping stock restoration.",
                         product.getCode());
                 continue;
             }
 
-            Integer currentStock = product.getStock();
-            Integer newStock = currentStock + quantity.intValue();
+            Integer previousStock = newStock - quantity;
+            product.setStock(newStock);
 
-            updateProductStockValue(product, newStock, null);
-
-            // Log stock movement for audit
+            movements.add(createMovement(product, quantity, StockMovementReason.RESTORE, saleId, user));
             logStockMovement(product,
-                    new StockCalculationResult(currentStock, newStock, quantity.intValue()),
-                    "ADD", "SALE");
+                    new StockCalculationResult(previousStock, newStock, quantity),
+                    "ADD", StockMovementReason.RESTORE);
+
+            levelChanges.add(toStockLevelChange(product, previousStock));
 
             LOGGER.debug("Restored stock for product {} from {} to {} (sale deleted: {})",
-                    product.getCode(), currentStock, newStock, saleId);
+                    product.getCode(), previousStock, newStock, saleId);
+        }
+
+        stockMovementRepository.insertAll(movements);
+        if (!levelChanges.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(levelChanges));
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void replaceStockIfUnchanged(Product product, Integer expectedStock, Integer newStock, User user) {
+
+        Integer stockBefore;
+        if (expectedStock == null) {
+            // a client that does not send the loaded stock sets it unconditionally, as before
+            stockBefore = productRepository.replaceStock(product.getId(), newStock);
+        } else if (productRepository.replaceStockIfUnchanged(product.getId(), expectedStock, newStock) != null) {
+            stockBefore = expectedStock;
+        } else {
+            LOGGER.warn("Stock edit of product {} rejected, stock is no longer {}", product.getCode(), expectedStock);
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
+
+        int previousStock = stockBefore != null ? stockBefore : 0;
+        int delta = (newStock != null ? newStock : 0) - previousStock;
+        product.setStock(newStock);
+
+        if (delta != 0) {
+            stockMovementRepository.insertAll(List.of(
+                    createMovement(product, delta, StockMovementReason.MANUAL, null, user)));
         }
+        logStockMovement(product, new StockCalculationResult(previousStock, newStock, delta),
+                "SET", StockMovementReason.MANUAL);
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(toStockLevelChange(product, stockBefore))));
     }
 
     // =============================================================================
@@ -220,18 +363,10 @@ public class StockManagementService implements IStockManagementService{
     @Transactional(readOnly = true)
     public List<StockAlertDTO> getLowStockProducts(int limit) {
 
-        ProductFilters filters = ProductFilters.builder()
-                .lowStock(true)
-                .isActive(true)
-                .build();
-
-        Specification<Product> spec = getSpecsFromFilters(filters);
-
-        return productRepository.findAll(spec)
+        return productRepository.findLowStockOrderByDeficit(Limit.of(limit))
                 .stream()
                 .map(mapper::mapToStockAlertDto)
                 .collect(Collectors.toList());
-
     }
 
     @Override
@@ -241,11 +376,93 @@ public class StockManagementService implements IStockManagementService{
         filters.setLowStock(true);
         filters.setIsActive(true);
 
+        // Without search filters the whole page comes from the low stock index, largest deficit first
+        if (filters.getNameOrCode() == null && filters.getCategoryId() == null) {
+            Slice<StockAlertDTO> products = productRepository.findLowStockOrderByDeficit(
+                    PageRequest.of(filters.getPage(), filters.getPageSize()))
+                    .map(mapper::mapToStockAlertDto);
+            return countCache.toPaginated(products, PaginationCountCache.key(Product.class, "low-stock"),
+                    productRepository::countLowStock);
+        }
+
         Specification<Product> spec = getSpecsFromFilters(filters);
-        Page<Product> products = productRepository.findAll(spec, filters.getPageable());
+        Slice<StockAlertDTO> stockAlerts = productRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToStockAlertDto);
+        return countCache.toPaginated(stockAlerts, PaginationCountCache.key(Product.class, "stock", filters),
+                () -> productRepository.count(spec));
+    }
+
+    // =============================================================================
+    // STOCK MOVEMENT HISTORY
+    // =============================================================================
 
-        Page<StockAlertDTO> stockAlerts = products.map(mapper::mapToStockAlertDto);
-        return new Paginated<>(stockAlerts);
+    @Override
+    @Transactional(readOnly = true)
+    public Paginated<StockMovementDTO> getProductStockMovements(Long productId, int page, int pageSize)
+            throws EntityNotFoundException {
+
+        getProductEntityById(productId);
+
+        List<StockMovementDTO> movements = stockMovementRepository
+                .findHistoryByProductId(productId, pageSize, (long) page * pageSize)
+                .stream()
+                .map(this::mapToStockMovementDTO)
+                .toList();
+
+        long totalElements = stockMovementRepository.countByProductId(productId);
+        return new Paginated<>(movements, page, pageSize, totalElements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockAsOfDateDTO getProductStockAsOfDate(Long productId, LocalDate date)
+            throws EntityNotFoundException {
+
+        Product product = getProductEntityById(productId);
+
+        if (product.getStock() == null) {
+            return new StockAsOfDateDTO(product.getId(), product.getCode(), date, null, null, 0L);
+        }
+
+        // everything from the start of the next day onwards is undone
+        Object[] row = stockMovementRepository
+                .findStockAtPointInTime(productId, date.plusDays(1).atStartOfDay())
+                .get(0);
+
+        return new StockAsOfDateDTO(
+                product.getId(),
+                product.getCode(),
+                date,
+                toInteger(row[0]),
+                product.getStock(),
+                toLong(row[1])
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockNetMovementDTO> getNetStockMovement(LocalDate dateFrom, LocalDate dateTo,
+                                                         String granularity, Long productId)
+            throws EntityInvalidArgumentException {
+
+        String period = granularity != null ? granularity.toLowerCase() : "day";
+        if (!MOVEMENT_GRANULARITIES.contains(period)) {
+            throw new EntityInvalidArgumentException("StockMovement",
+                    "Granularity must be one of DAY, WEEK or MONTH");
+        }
+        if (dateFrom.isAfter(dateTo)) {
+            throw new EntityInvalidArgumentException("StockMovement",
+                    "Start date must be before or equal to end date");
+        }
+
+        return stockMovementRepository.findNetMovementPerPeriod(
+                        period,
+                        dateFrom.atStartOfDay(),
+                        dateTo.plusDays(1).atStartOfDay(),
+                        productId != null ? productId : 0L)
+                .stream()
+                .map(this::mapToStockNetMovementDTO)
+                .toList();
     }
 
     // =============================================================================
@@ -263,25 +480,40 @@ public class StockManagementService implements IStockManagementService{
     // PRIVATE HELPER METHODS - Stock Calculations
     // =============================================================================
 
-    private StockCalculationResult calculateStockChange(Product product, StockUpdateDTO updateDTO) {
-        Integer previousStock = product.getStock() != null ? product.getStock() : 0;
+    /**
+     * Applies a manual stock change with a single atomic statement and syncs the
+     * in-memory product with the value the database returned
+     */
+    private StockCalculationResult applyStockChange(Product product, StockUpdateDTO updateDTO) {
+        Integer previousStock;
         Integer newStock;
-        Integer changeAmount = switch (updateDTO.updateType()) {
+
+        switch (updateDTO.updateType()) {
             case ADD -> {
-                newStock = previousStock + updateDTO.quantity();
-                yield updateDTO.quantity();
+                newStock = productRepository.addToStock(product.getId(), updateDTO.quantity());
+                previousStock = newStock - updateDTO.quantity();
             }
             case REMOVE -> {
-                newStock = previousStock - updateDTO.quantity();
-                yield -updateDTO.quantity();
+                newStock = productRepository.addToStock(product.getId(), -updateDTO.quantity());
+                previousStock = newStock + updateDTO.quantity();
             }
             default -> {
+                Integer replacedStock = productRepository.replaceStock(product.getId(), updateDTO.quantity());
+                previousStock = replacedStock != null ? replacedStock : 0;
                 newStock = updateDTO.quantity();
-                yield newStock - previousStock;
             }
-        };
+        }
 
-        return new StockCalculationResult(previousStock, newStock, changeAmount);
+        product.setStock(newStock);
+        return new StockCalculationResult(previousStock, newStock, newStock - previousStock);
+    }
+
+    private ProductStockBatchRepository.StockChange toStockChange(StockUpdateDTO updateDTO) {
+        return switch (updateDTO.updateType()) {
+            case ADD -> new ProductStockBatchRepository.StockChange(updateDTO.productId(), updateDTO.quantity(), false);
+            case REMOVE -> new ProductStockBatchRepository.StockChange(updateDTO.productId(), -updateDTO.quantity(), false);
+            case SET -> new ProductStockBatchRepository.StockChange(updateDTO.productId(), updateDTO.quantity(), true);
+        };
     }
 
     private StockCalculationResult calculateStockChange(Product product, StockLimitUpdateDTO updateDTO) {
@@ -292,14 +524,6 @@ public class StockManagementService implements IStockManagementService{
         return new StockCalculationResult(previousStock, newStock, changeAmount);
     }
 
-    private void updateProductStockValue(Product product, Integer newStock, User updater) {
-        product.setStock(newStock);
-        if (updater != null) {
-            product.setLastUpdatedBy(updater);
-        }
-        productRepository.save(product);
-    }
-
     private void updateProductStockLimitValue(Product product, Integer newStock, User updater) {
         product.setLowStockAlert(newStock);
         if (updater != null) {
@@ -308,13 +532,76 @@ public class StockManagementService implements IStockManagementService{
         productRepository.save(product);
     }
 
+    // product must already hold its new stock
+    private StockLevelChange toStockLevelChange(Product product, Integer previousStock) {
+        return new StockLevelChange(product.getId(), product.getCode(), product.getStock(),
+                product.getLowStockAlert(), StockLevelChange.isLowStock(previousStock, product.getLowStockAlert()));
+    }
+
+    private List<Map.Entry<Product, BigDecimal>> inProductIdOrder(Map<Product, BigDecimal> productQuantities) {
+        return productQuantities.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Product, BigDecimal> entry) -> entry.getKey().getId()))
+                .toList();
+    }
+
+    // =============================================================================
+    // PRIVATE HELPER METHODS - Stock Movement Ledger
+    // =============================================================================
+
+    private StockMovement createMovement(Product product, int delta, StockMovementReason reason,
+                                         Long saleId, User user) {
+        return StockMovement.builder()
+                .productId(product.getId())
+                .delta(delta)
+                .reason(reason)
+                .saleId(saleId)
+                .userId(user != null ? user.getId() : null)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
     private void logStockMovement(Product product, StockCalculationResult result,
-                                  String operationType, String movementReason) {
-        LOGGER.info("STOCK_MOVEMENT: Product={}, Operation={}, Reason={}, Previous={}, New={}, Change={}",
+                                  String operationType, StockMovementReason movementReason) {
+        LOGGER.debug("Stock movement: Product={}, Operation={}, Reason={}, Previous={}, New={}, Change={}",
                 product.getCode(), operationType, movementReason, result.previousStock(),
                 result.newStock(), result.changeAmount());
     }
 
+    private StockMovementDTO mapToStockMovementDTO(Object[] row) {
+        return new StockMovementDTO(
+                toLong(row[0]),
+                toLocalDateTime(row[1]),
+                toInteger(row[2]),
+                StockMovementReason.valueOf((String) row[3]),
+                toLong(row[4]),
+                (String) row[5],
+                toInteger(row[6])
+        );
+    }
+
+    private StockNetMovementDTO mapToStockNetMovementDTO(Object[] row) {
+        return new StockNetMovementDTO(
+                toLocalDateTime(row[0]).toLocalDate(),
+                toLong(row[1]),
+                toLong(row[2]),
+                toLong(row[3]),
+                toLong(row[4])
+        );
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime();
+        return (LocalDateTime) value;
+    }
+
+    private Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+
     private Double calculateStockHealthPercentage(Integer total, Integer low) {
         if (total == 0) return 100.0;
         return ((total - low) * 100.0) / total;
@@ -12,6 +12,8 @@ import gr.aueb.cf.bluemargarita.mapper.Mapper;
 import gr.aueb.cf.bluemargarita.model.Supplier;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -31,11 +33,13 @@ import java.util.stream.Collectors;
 public class SupplierService implements ISupplierService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SupplierService.class);
+    private static final int TOP_MATERIALS_LIMIT = 5;
+    private static final int DEFAULT_PRICE_RANK_LIMIT = 3;
     private final SupplierRepository supplierRepository;
     private final PurchaseRepository purchaseRepository;
     private final PurchaseMaterialRepository purchaseMaterialRepository;
     private final UserService userService;
-    private final MaterialRepository materialRepository;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
@@ -43,13 +47,12 @@ public class SupplierService implements ISupplierService {
                            PurchaseRepository purchaseRepository,
                            PurchaseMaterialRepository purchaseMaterialRepository,
                            UserService userService,
-                           MaterialRepository materialRepository,
-                           Mapper mapper) {
+                           PaginationCountCache countCache, Mapper mapper) {
         this.supplierRepository = supplierRepository;
         this.purchaseRepository = purchaseRepository;
         this.purchaseMaterialRepository = purchaseMaterialRepository;
         this.userService = userService;
-        this.materialRepository = materialRepository;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -222,11 +225,11 @@ public class SupplierService implements ISupplierService {
     @Override
     @Transactional(readOnly = true)
     public Paginated<SupplierReadOnlyDTO> getSuppliersFilteredPaginated(SupplierFilters filters) {
-        var filtered = supplierRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToSupplierReadOnlyDTO));
+        Specification<Supplier> spec = getSpecsFromFilters(filters);
+        Slice<SupplierReadOnlyDTO> filtered = supplierRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToSupplierReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(Supplier.class, filters),
+                () -> supplierRepository.count(spec));
     }
 
     @Override
@@ -242,6 +245,23 @@ public class SupplierService implements ISupplierService {
         return  mapper.mapToSupplierDetailedView(supplier, analytics, topMaterials);
     }
 
+    // =============================================================================
+    // SUPPLIER PRICE COMPARISON
+    // =============================================================================
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SupplierMaterialPriceRankDTO> getSupplierPriceRanking(LocalDate since, Integer maxRank)
+            throws EntityInvalidArgumentException {
+
+        int rankLimit = maxRank != null ? maxRank : DEFAULT_PRICE_RANK_LIMIT;
+        if (rankLimit < 1) {
+            throw new EntityInvalidArgumentException("Supplier", "Max rank must be at least 1");
+        }
+
+        return purchaseMaterialRepository.findSupplierPriceRanking(since != null ? since : LocalDate.EPOCH, rankLimit);
+    }
+
     // =============================================================================
     // PRIVATE HELPER METHODS - Entity Validation and Retrieval
     // =============================================================================
@@ -304,27 +324,7 @@ public class SupplierService implements ISupplierService {
     }
 
     private List<MaterialStatsSummaryDTO> getTopMaterialsBySupplier(Long supplierId) {
-        // Get distinct materials purchased from this supplier
-        List<Long> materialIds = purchaseMaterialRepository.findDistinctMaterialIdsBySupplierId(supplierId);
-
-        return materialIds.stream()
-                .map(materialId -> {
-                    String materialName = materialRepository.findMaterialNameById(materialId);
-                    BigDecimal totalQuantity = purchaseMaterialRepository.sumQuantityBySupplierIdAndMaterialId(supplierId, materialId);
-                    BigDecimal totalCost = purchaseMaterialRepository.sumCostBySupplierIdAndMaterialId(supplierId, materialId);
-                    LocalDate lastPurchaseDate = purchaseMaterialRepository.findLastPurchaseDateBySupplierIdAndMaterialId(supplierId, materialId);
-
-                    return new MaterialStatsSummaryDTO(
-                            materialId,
-                            materialName,
-                            totalQuantity,
-                            totalCost,
-                            lastPurchaseDate
-                    );
-                })
-                .sorted((m1, m2) -> m2.totalCostPaid().compareTo(m1.totalCostPaid())) // Sort by cost descending
-                .limit(5)
-                .collect(Collectors.toList());
+        return purchaseMaterialRepository.findMaterialStatsBySupplierId(supplierId, Limit.of(TOP_MATERIALS_LIMIT));
     }
 
 
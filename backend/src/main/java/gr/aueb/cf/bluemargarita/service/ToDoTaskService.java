@@ -1,6 +1,8 @@
 package gr.aueb.cf.bluemargarita.service;
 
+import gr.aueb.cf.bluemargarita.core.enums.EntityChangeType;
 import gr.aueb.cf.bluemargarita.core.enums.TaskStatus;
+import gr.aueb.cf.bluemargarita.core.events.TaskChangedEvent;
 import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
 import gr.aueb.cf.bluemargarita.core.filters.Paginated;
 import gr.aueb.cf.bluemargarita.core.filters.ToDoTaskFilters;
@@ -12,7 +14,9 @@ import gr.aueb.cf.bluemargarita.repository.ToDoTaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,11 +34,15 @@ public class ToDoTaskService implements IToDoTaskService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ToDoTaskService.class);
 
     private final ToDoTaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
-    public ToDoTaskService(ToDoTaskRepository taskRepository, Mapper mapper) {
+    public ToDoTaskService(ToDoTaskRepository taskRepository, ApplicationEventPublisher eventPublisher, PaginationCountCache countCache, Mapper mapper) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -56,6 +64,8 @@ public class ToDoTaskService implements IToDoTaskService {
         ToDoTask savedTask = taskRepository.save(task);
 
         LOGGER.info("Task created with id: {}", savedTask.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(savedTask.getId(), EntityChangeType.CREATED,
+                savedTask.getStatus()));
 
         return mapper.mapToToDoTaskReadOnlyDTO(savedTask);
     }
@@ -73,6 +83,8 @@ public class ToDoTaskService implements IToDoTaskService {
         ToDoTask savedTask = taskRepository.save(existingTask);
 
         LOGGER.info("Task {} updated", savedTask.getId());
+        eventPublisher.publishEvent(new TaskChangedEvent(savedTask.getId(), EntityChangeType.UPDATED,
+                savedTask.getStatus()));
 
         return mapper.mapToToDoTaskReadOnlyDTO(savedTask);
     }
@@ -95,6 +107,8 @@ public class ToDoTaskService implements IToDoTaskService {
         ToDoTask savedTask = taskRepository.save(task);
 
         LOGGER.info("Task {} status updated to {}", savedTask.getId(), dto.status());
+        eventPublisher.publishEvent(new TaskChangedEvent(savedTask.getId(), EntityChangeType.UPDATED,
+                savedTask.getStatus()));
 
         return mapper.mapToToDoTaskReadOnlyDTO(savedTask);
     }
@@ -108,6 +122,7 @@ public class ToDoTaskService implements IToDoTaskService {
         taskRepository.delete(task);
 
         LOGGER.info("Task {} deleted", taskId);
+        eventPublisher.publishEvent(new TaskChangedEvent(taskId, EntityChangeType.DELETED, null));
     }
 
     // =============================================================================
@@ -146,11 +161,11 @@ public class ToDoTaskService implements IToDoTaskService {
 
     @Override
     public Paginated<ToDoTaskReadOnlyDTO> getFilteredTasks(ToDoTaskFilters filters) {
-        var filtered = taskRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToToDoTaskReadOnlyDTO));
+        Specification<ToDoTask> spec = getSpecsFromFilters(filters);
+        Slice<ToDoTaskReadOnlyDTO> filtered = taskRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToToDoTaskReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(ToDoTask.class, filters),
+                () -> taskRepository.count(spec));
     }
 
     @Override
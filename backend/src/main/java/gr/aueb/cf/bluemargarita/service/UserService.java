@@ -16,6 +16,7 @@ import gr.aueb.cf.bluemargarita.model.Location;
 import gr.aueb.cf.bluemargarita.model.User;
 import gr.aueb.cf.bluemargarita.repository.UserRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -37,12 +38,14 @@ public class UserService implements IUserService{
             LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PaginationCountCache countCache;
     private final Mapper mapper;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, Mapper mapper) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, PaginationCountCache countCache, Mapper mapper) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.countCache = countCache;
         this.mapper = mapper;
     }
 
@@ -171,11 +174,11 @@ public class UserService implements IUserService{
     @Override
     @Transactional(readOnly = true)
     public Paginated<UserReadOnlyDTO> getUsersFilteredPaginated(UserFilters filters) {
-        var filtered = userRepository.findAll(
-                getSpecsFromFilters(filters),
-                filters.getPageable()
-        );
-        return new Paginated<>(filtered.map(mapper::mapToUserReadOnlyDTO));
+        Specification<User> spec = getSpecsFromFilters(filters);
+        Slice<UserReadOnlyDTO> filtered = userRepository.findSlice(spec, filters.getPageable())
+                .map(mapper::mapToUserReadOnlyDTO);
+        return countCache.toPaginated(filtered, PaginationCountCache.key(User.class, filters),
+                () -> userRepository.count(spec));
     }
 
     @Override
@@ -7,3 +7,197 @@ WHERE username = 'admin';
 INSERT INTO users (id, username, password, role, is_active, uuid, created_at, updated_at)
 SELECT 1, 'admin', '$2a$11$21EG8KvlkMXoQNmlWW/0l.yREKEePCxXqEN43q3d7lx2cStVNaPl.', 'ADMIN', true, '550e8400-e29b-41d4-a716-446655440000', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
 WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'admin');
+
+-- Backfill the daily sales rollup on the first start after it was introduced
+INSERT INTO sales_daily_rollup (sale_date, product_id, location_id, customer_id, payment_method, is_wholesale,
+                                quantity, revenue, suggested_revenue, sale_count)
+SELECT s.sale_date, sp.product_id, s.location_id, s.customer_id,
+       COALESCE(s.payment_method, 'OTHER'), COALESCE(s.is_whole_sale, false),
+       SUM(sp.quantity),
+       SUM(sp.quantity * COALESCE(sp.price_at_the_time, 0)),
+       SUM(sp.quantity * COALESCE(sp.suggested_price_at_the_time, 0)),
+       COUNT(*)
+FROM sale_product sp JOIN sales s ON s.id = sp.sale_id
+WHERE NOT EXISTS (SELECT 1 FROM sales_daily_rollup)
+GROUP BY s.sale_date, sp.product_id, s.location_id, s.customer_id,
+         COALESCE(s.payment_method, 'OTHER'), COALESCE(s.is_whole_sale, false);
+
+-- One rollup row per key. Rows duplicated before the key was unique are merged into the oldest one,
+-- then the unique index is the conflict target of SalesDailyRollupRepository.addDelta
+UPDATE sales_daily_rollup r
+SET quantity = d.quantity,
+    revenue = d.revenue,
+    suggested_revenue = d.suggested_revenue,
+    sale_count = d.sale_count
+FROM (
+    SELECT MIN(id) AS keep_id,
+           SUM(quantity) AS quantity, SUM(revenue) AS revenue,
+           SUM(suggested_revenue) AS suggested_revenue, SUM(sale_count) AS sale_count
+    FROM sales_daily_rollup
+    GROUP BY sale_date, product_id, location_id, COALESCE(customer_id, 0), payment_method, is_wholesale
+    HAVING COUNT(*) > 1
+) d
+WHERE r.id = d.keep_id;
+
+DELETE FROM sales_daily_rollup r
+WHERE EXISTS (SELECT 1 FROM sales_daily_rollup o
+              WHERE o.id < r.id
+                AND o.sale_date = r.sale_date
+                AND o.product_id = r.product_id
+                AND o.location_id = r.location_id
+                AND COALESCE(o.customer_id, 0) = COALESCE(r.customer_id, 0)
+                AND o.payment_method = r.payment_method
+                AND o.is_wholesale = r.is_wholesale);
+
+DELETE FROM sales_daily_rollup WHERE sale_count <= 0;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_sales_daily_rollup_key
+    ON sales_daily_rollup (sale_date, product_id, location_id, (COALESCE(customer_id, 0)), payment_method, is_wholesale);
+
+-- Products created before optimistic versioning start at version 0
+UPDATE products SET version = 0 WHERE version IS NULL;
+
+-- Low stock watch set: only active products at or below their alert level, ordered by deficit
+CREATE INDEX IF NOT EXISTS idx_products_low_stock_deficit
+    ON products ((low_stock_alert - stock) DESC, id)
+    WHERE is_active = true AND stock <= low_stock_alert;
+
+-- The cost formula of a product, the one definition used by ProductRepository's reprice and backfill
+-- statements and by ProductCostService.applyCosts. The labor rate is passed in by ProductCostService
+CREATE OR REPLACE FUNCTION product_costs(hourly_labor_rate numeric, product_ids bigint[])
+RETURNS TABLE (product_id bigint, material_cost numeric, procedure_cost numeric, labor_cost numeric, total_cost numeric)
+LANGUAGE sql STABLE AS $$
+SELECT parts.id, parts.material_cost, parts.procedure_cost, parts.labor_cost,
+       parts.material_cost + parts.procedure_cost + parts.labor_cost
+FROM (
+    SELECT pr.id,
+           ROUND(COALESCE((SELECT SUM(m.current_unit_cost * pm.quantity)
+                           FROM product_material pm
+                           JOIN materials m ON m.id = pm.material_id
+                           WHERE pm.product_id = pr.id), 0), 2) AS material_cost,
+           ROUND(COALESCE((SELECT SUM(pp.cost)
+                           FROM procedure_product pp
+                           WHERE pp.product_id = pr.id), 0), 2) AS procedure_cost,
+           CASE WHEN pr.minutes_to_make > 0
+                THEN ROUND(ROUND(pr.minutes_to_make / 60.0, 4) * hourly_labor_rate, 2)
+                ELSE 0.00 END AS labor_cost
+    FROM products pr
+    WHERE pr.id = ANY(product_ids)
+) parts
+$$;
+
+-- Price deviation of the final from the suggested price, in percent, kept current by PostgreSQL.
+-- Not mapped on Product: Hibernate would create them as plain columns before this script runs
+ALTER TABLE products ADD COLUMN IF NOT EXISTS retail_deviation_pct numeric GENERATED ALWAYS AS (
+    CASE WHEN final_selling_price_retail > 0
+         THEN ROUND((suggested_retail_selling_price - final_selling_price_retail) / final_selling_price_retail, 4) * 100
+    END) STORED;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS wholesale_deviation_pct numeric GENERATED ALWAYS AS (
+    CASE WHEN final_selling_price_wholesale > 0
+         THEN ROUND((suggested_wholesale_selling_price - final_selling_price_wholesale) / final_selling_price_wholesale, 4) * 100
+    END) STORED;
+
+-- Mispriced products are listed by largest absolute deviation, the threshold filters are range scans
+CREATE INDEX IF NOT EXISTS idx_products_max_price_deviation
+    ON products ((GREATEST(ABS(COALESCE(retail_deviation_pct, 0)), ABS(COALESCE(wholesale_deviation_pct, 0)))) DESC, id)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_retail_deviation
+    ON products (retail_deviation_pct)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_products_wholesale_deviation
+    ON products (wholesale_deviation_pct)
+    WHERE is_active = true;
+
+-- Cursor pagination of purchases sorts by total cost, which needs the column to be not null
+UPDATE purchases SET total_cost = 0 WHERE total_cost IS NULL;
+ALTER TABLE purchases ALTER COLUMN total_cost SET NOT NULL;
+
+-- Category analytics, read by the category detail view instead of aggregating the rollup per request.
+-- Refreshed CONCURRENTLY by CategoryStatsService, which needs a unique index on each view
+CREATE MATERIALIZED VIEW IF NOT EXISTS category_sales_stats AS
+SELECT p.category_id,
+       SUM(r.sale_count) AS total_sales_count,
+       SUM(r.revenue) AS total_revenue,
+       MAX(r.sale_date) AS last_sale_date,
+       COALESCE(SUM(r.sale_count) FILTER (WHERE r.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE), 0) AS recent_sales_count,
+       COALESCE(SUM(r.revenue) FILTER (WHERE r.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE), 0) AS recent_revenue,
+       COALESCE(SUM(r.sale_count) FILTER (WHERE r.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE), 0) AS yearly_sales_count,
+       COALESCE(SUM(r.revenue) FILTER (WHERE r.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE), 0) AS yearly_revenue,
+       now() AS refreshed_at
+FROM sales_daily_rollup r
+JOIN products p ON p.id = r.product_id
+GROUP BY p.category_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_category_sales_stats_category
+    ON category_sales_stats (category_id);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS category_product_sales_stats AS
+SELECT p.category_id,
+       p.id AS product_id,
+       p.name AS product_name,
+       p.code AS product_code,
+       SUM(r.quantity) AS total_quantity,
+       SUM(r.revenue) AS total_revenue,
+       MAX(r.sale_date) AS last_sale_date,
+       now() AS refreshed_at
+FROM sales_daily_rollup r
+JOIN products p ON p.id = r.product_id
+GROUP BY p.category_id, p.id, p.name, p.code;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_category_product_sales_stats_product
+    ON category_product_sales_stats (product_id);
+
+CREATE INDEX IF NOT EXISTS idx_category_product_sales_stats_category_revenue
+    ON category_product_sales_stats (category_id, total_revenue DESC);
+
+-- Backfill the component sales fact from the current recipes on the first start after it was
+-- introduced; sales recorded from then on keep the recipe they were sold with
+INSERT INTO sale_product_component (sale_id, sale_product_id, sale_date, product_id, material_id, procedure_id,
+                                    sold_quantity, component_quantity, component_cost, revenue)
+SELECT s.id, sp.id, s.sale_date, sp.product_id, pm.material_id, NULL,
+       sp.quantity, pm.quantity, m.current_unit_cost,
+       sp.quantity * COALESCE(sp.price_at_the_time, 0)
+FROM sale_product sp
+JOIN sales s ON s.id = sp.sale_id
+JOIN product_material pm ON pm.product_id = sp.product_id
+JOIN materials m ON m.id = pm.material_id
+WHERE NOT EXISTS (SELECT 1 FROM sale_product_component)
+UNION ALL
+SELECT s.id, sp.id, s.sale_date, sp.product_id, NULL, pp.procedure_id,
+       sp.quantity, 1, pp.cost,
+       sp.quantity * COALESCE(sp.price_at_the_time, 0)
+FROM sale_product sp
+JOIN sales s ON s.id = sp.sale_id
+JOIN procedure_product pp ON pp.product_id = sp.product_id
+WHERE NOT EXISTS (SELECT 1 FROM sale_product_component);
+
+-- Material and procedure analytics read (component, date range) and need only the sale id and revenue
+CREATE INDEX IF NOT EXISTS idx_sale_component_material_date
+    ON sale_product_component (material_id, sale_date) INCLUDE (sale_id, revenue)
+    WHERE material_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_sale_component_procedure_date
+    ON sale_product_component (procedure_id, sale_date) INCLUDE (sale_id, revenue)
+    WHERE procedure_id IS NOT NULL;
+
+-- Every customer has a customer_stats row, the customer list joins it. Creates the rows missing on
+-- the first start after the table was introduced; the RFM scores are filled in by CustomerStatsService
+INSERT INTO customer_stats (customer_id, total_orders, total_revenue, first_order_date, last_order_date,
+                            recent_orders, recent_revenue, yearly_orders, yearly_revenue, updated_at)
+SELECT c.id,
+       COUNT(s.id),
+       COALESCE(SUM(s.final_total_price), 0),
+       MIN(s.sale_date),
+       MAX(s.sale_date),
+       COUNT(s.id) FILTER (WHERE s.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE),
+       COALESCE(SUM(s.final_total_price) FILTER (WHERE s.sale_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE), 0),
+       COUNT(s.id) FILTER (WHERE s.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE),
+       COALESCE(SUM(s.final_total_price) FILTER (WHERE s.sale_date BETWEEN date_trunc('year', CURRENT_DATE)::date AND CURRENT_DATE), 0),
+       now()
+FROM customers c
+LEFT JOIN sales s ON s.customer_id = c.id
+WHERE NOT EXISTS (SELECT 1 FROM customer_stats cs WHERE cs.customer_id = c.id)
+GROUP BY c.id;
@@ -0,0 +1,91 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.CustomerStats;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.repository.CustomerStatsRepository;
+import gr.aueb.cf.bluemargarita.support.ConcurrentSellers;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent sales of the same customer recompute its stats one after the other, so the
+ * stored totals include every committed sale
+ */
+@SpringBootTest
+@Import(TestDataFactory.class)
+class CustomerStatsConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SALES_PER_THREAD = 5;
+    // one unit at the fixture retail price
+    private static final BigDecimal SALE_TOTAL = new BigDecimal("20.00");
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CustomerStatsRepository customerStatsRepository;
+
+    @BeforeEach
+    void authenticate() {
+        TestDataFactory.authenticateAsAdmin();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreatedData();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentSalesOfTheSameCustomerAreAllCounted() throws Exception {
+        Category category = testData.category();
+        Location location = testData.location();
+        Customer customer = testData.customer();
+
+        // Each thread sells its own product, so the sales only contend on the customer
+        List<Product> products = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            products.add(testData.product(category, SALES_PER_THREAD));
+        }
+
+        List<Long> saleIds = ConcurrentSellers.sell(THREADS, SALES_PER_THREAD,
+                thread -> testData.recordSale(location, customer, LocalDate.now(), Map.of(products.get(thread), 1)));
+
+        int sold = THREADS * SALES_PER_THREAD;
+        assertTotals(customer, sold);
+
+        saleService.deleteSale(saleIds.get(0));
+        assertTotals(customer, sold - 1);
+    }
+
+    private void assertTotals(Customer customer, int expectedOrders) {
+        CustomerStats stats = customerStatsRepository.findById(customer.getId()).orElseThrow();
+        BigDecimal expectedRevenue = SALE_TOTAL.multiply(BigDecimal.valueOf(expectedOrders));
+
+        assertEquals(expectedOrders, stats.getTotalOrders());
+        assertEquals(0, expectedRevenue.compareTo(stats.getTotalRevenue()));
+        assertEquals(expectedOrders, stats.getRecentOrders());
+        assertEquals(expectedOrders, stats.getYearlyOrders());
+    }
+}
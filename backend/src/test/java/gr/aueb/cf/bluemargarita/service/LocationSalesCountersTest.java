@@ -0,0 +1,140 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.events.SaleChangedEvent;
+import gr.aueb.cf.bluemargarita.dto.location.LocationAnalyticsDTO;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.support.ConcurrentSellers;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A sale is counted once by the location counters, whether it reaches them through a load,
+ * its after-commit event or both
+ */
+@SpringBootTest
+@Import({TestDataFactory.class, LocationSalesCountersTest.SaleEventRecorder.class})
+class LocationSalesCountersTest {
+
+    private static final int THREADS = 4;
+    private static final int SALES_PER_THREAD = 5;
+    // one unit at the fixture retail price
+    private static final BigDecimal SALE_TOTAL = new BigDecimal("20.00");
+
+    @Autowired
+    private LocationSalesCounters counters;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private SaleEventRecorder saleEvents;
+
+    @Autowired
+    @Qualifier("analyticsRefreshScheduler")
+    private ThreadPoolTaskScheduler analyticsRefreshScheduler;
+
+    @BeforeEach
+    void waitForStartupLoad() throws Exception {
+        TestDataFactory.authenticateAsAdmin();
+        // the startup load runs on the single analytics thread
+        analyticsRefreshScheduler.submit(() -> {}).get(1, TimeUnit.MINUTES);
+        assertTrue(counters.isReady());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreatedData();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void lateEventOfASaleAlreadyLoadedIsIgnored() throws Exception {
+        Category category = testData.category();
+        Location location = testData.location();
+        Product product = testData.product(category, 10);
+
+        Long saleId = testData.recordSale(location, null, LocalDate.now(), Map.of(product, 1));
+        assertSales(location, 1);
+
+        counters.load();
+        assertSales(location, 1);
+
+        // delivered again, as an event arriving after the load that already read its sale
+        counters.onSaleChanged(saleEvents.find(saleId));
+        assertSales(location, 1);
+    }
+
+    @Test
+    void salesRecordedWhileLoadingAreCountedOnce() throws Exception {
+        Category category = testData.category();
+        Location location = testData.location();
+
+        List<Product> products = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            products.add(testData.product(category, SALES_PER_THREAD));
+        }
+
+        // loads run back to back for as long as the sales are being recorded
+        ConcurrentSellers.sell(THREADS, SALES_PER_THREAD,
+                thread -> testData.recordSale(location, null, LocalDate.now(), Map.of(products.get(thread), 1)),
+                counters::load);
+
+        assertSales(location, THREADS * SALES_PER_THREAD);
+        counters.load();
+        assertSales(location, THREADS * SALES_PER_THREAD);
+    }
+
+    private void assertSales(Location location, int expectedSales) {
+        LocationAnalyticsDTO analytics = counters.getAnalytics(location.getId());
+        BigDecimal expectedRevenue = SALE_TOTAL.multiply(BigDecimal.valueOf(expectedSales));
+
+        assertEquals(expectedSales, analytics.totalSalesCount());
+        assertEquals(0, expectedRevenue.compareTo(analytics.totalRevenue()));
+        assertEquals(expectedSales, analytics.todaySalesCount());
+        BigDecimal quantitySold = counters.getTopProducts(location.getId(), THREADS).stream()
+                .map(LocationSalesCounters.ProductTotals::quantity)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, BigDecimal.valueOf(expectedSales).compareTo(quantitySold));
+    }
+
+    @TestComponent
+    static class SaleEventRecorder {
+
+        private final List<SaleChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onSaleChanged(SaleChangedEvent event) {
+            events.add(event);
+        }
+
+        SaleChangedEvent find(Long saleId) {
+            return events.stream()
+                    .filter(event -> event.saleId().equals(saleId))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+}
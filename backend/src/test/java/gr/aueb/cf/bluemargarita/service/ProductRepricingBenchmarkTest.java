@@ -0,0 +1,83 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.dto.product.PriceRecalculationResultDTO;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.model.User;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.repository.UserRepository;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The whole catalog recalculation is set-based and chunked, so a catalog of 10k products
+ * is repriced in seconds and every chunk's statement is committed.
+ * Timed, so excluded from the test task: run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(TestDataFactory.class)
+class ProductRepricingBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductRepricingBenchmarkTest.class);
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final long MAX_DURATION_MS = 10_000;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private ProductCostService productCostService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void deleteCatalog() {
+        testData.deleteCreatedData();
+    }
+
+    @Test
+    void repricesTenThousandProductsInSeconds() {
+        Category category = testData.category();
+        // 30 minutes at 7.00 per hour: labor 3.50, suggested retail 10.50, suggested wholesale 6.51
+        List<Product> products = testData.products(category, CATALOG_SIZE, 30);
+        User admin = userRepository.findByUsername(TestDataFactory.ADMIN_USERNAME).orElseThrow();
+
+        long start = System.currentTimeMillis();
+        PriceRecalculationResultDTO result = productCostService.repriceAllActiveProducts(admin);
+        long duration = System.currentTimeMillis() - start;
+
+        LOGGER.info("Repriced {} products in {} ms", result.totalProductsProcessed(), duration);
+        assertTrue(duration < MAX_DURATION_MS, "Repricing took " + duration + " ms");
+        assertTrue(result.totalProductsProcessed() >= CATALOG_SIZE);
+        assertTrue(result.productsUpdated() >= CATALOG_SIZE);
+        assertEquals(0, result.productsFailed());
+
+        for (Long productId : List.of(products.get(0).getId(), products.get(CATALOG_SIZE - 1).getId())) {
+            Product repriced = productRepository.findById(productId).orElseThrow();
+            assertEquals(0, new BigDecimal("3.50").compareTo(repriced.getLaborCost()));
+            assertEquals(0, new BigDecimal("3.50").compareTo(repriced.getTotalCost()));
+            assertEquals(0, new BigDecimal("10.50").compareTo(repriced.getSuggestedRetailSellingPrice()));
+            assertEquals(0, new BigDecimal("6.51").compareTo(repriced.getSuggestedWholeSaleSellingPrice()));
+            assertEquals(admin.getId(), repriced.getLastUpdatedBy().getId());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.dto.product.ProductSalesAnalyticsDTO;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.support.StatementCounter;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Import({TestDataFactory.class, StatementCounter.class})
+class ProductSalesAnalyticsServiceTest {
+
+    // product lookup, sales summary, GROUPING SETS ranking of locations and customers
+    private static final long ANALYTICS_STATEMENTS = 3;
+
+    @Autowired
+    private ProductSalesAnalyticsService productSalesAnalyticsService;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void authenticate() {
+        TestDataFactory.authenticateAsAdmin();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreatedData();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void analyticsRunAFixedNumberOfStatementsWhateverTheNumberOfLocationsAndCustomers() throws Exception {
+        Category category = testData.category();
+        Product product = testData.product(category, 1000);
+        LocalDate today = LocalDate.now();
+
+        recordSales(product, today, 1);
+        assertAnalytics(product, today, 1);
+
+        recordSales(product, today, 8);
+        assertAnalytics(product, today, 9);
+    }
+
+    private void recordSales(Product product, LocalDate saleDate, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            Location location = testData.location();
+            Customer customer = testData.customer();
+            testData.recordSale(location, customer, saleDate, Map.of(product, 2));
+        }
+    }
+
+    private void assertAnalytics(Product product, LocalDate today, int expectedSales) throws Exception {
+        AtomicReference<ProductSalesAnalyticsDTO> analytics = new AtomicReference<>();
+
+        long statements = statementCounter.count(() -> analytics.set(
+                productSalesAnalyticsService.getProductSalesAnalytics(product.getId(), today.minusDays(30), today)));
+
+        assertEquals(ANALYTICS_STATEMENTS, statements);
+        assertEquals(expectedSales, analytics.get().numberOfSales());
+        assertEquals(0, BigDecimal.valueOf(expectedSales * 2L).compareTo(analytics.get().totalQuantitySold()));
+        assertEquals(Math.min(expectedSales, 5), analytics.get().topLocationsByRevenue().size());
+        assertEquals(Math.min(expectedSales, 5), analytics.get().topCustomersByQuantity().size());
+    }
+}
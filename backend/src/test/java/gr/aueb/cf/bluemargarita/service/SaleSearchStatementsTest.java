@@ -0,0 +1,115 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import gr.aueb.cf.bluemargarita.core.filters.SaleFilters;
+import gr.aueb.cf.bluemargarita.dto.sale.CursorPaginatedFilteredSalesWithSummary;
+import gr.aueb.cf.bluemargarita.dto.sale.PaginatedFilteredSalesWithSummary;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.support.StatementCounter;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * A page of sales is loaded with its customers, locations, users, lines and products by a fixed
+ * number of statements, so a larger page costs no extra round trips
+ */
+@SpringBootTest
+@Import({TestDataFactory.class, StatementCounter.class})
+class SaleSearchStatementsTest {
+
+    private static final int SALES = 12;
+    private static final int SMALL_PAGE = 2;
+    private static final int LARGE_PAGE = 10;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Location location;
+
+    @BeforeEach
+    void recordSales() throws Exception {
+        TestDataFactory.authenticateAsAdmin();
+
+        Category category = testData.category();
+        Product first = testData.product(category, 1000);
+        Product second = testData.product(category, 1000);
+        location = testData.location();
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < SALES; i++) {
+            // every sale has its own customer, except for a few walk-in sales
+            Customer customer = i % 4 == 0 ? null : testData.customer();
+            Map<Product, Integer> quantities = new LinkedHashMap<>();
+            quantities.put(first, 1);
+            quantities.put(second, 2);
+            testData.recordSale(location, customer, today.minusDays(i), quantities);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreatedData();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void offsetPageStatementsDoNotDependOnPageSize() throws Exception {
+        AtomicReference<PaginatedFilteredSalesWithSummary> page = new AtomicReference<>();
+
+        long smallPageStatements = statementCounter.count(() -> page.set(saleService.searchSalesWithSummary(filters(SMALL_PAGE))));
+        assertEquals(SMALL_PAGE, page.get().getData().size());
+        assertEquals(SALES, page.get().getSummary().totalSalesCount());
+
+        long largePageStatements = statementCounter.count(() -> page.set(saleService.searchSalesWithSummary(filters(LARGE_PAGE))));
+        assertEquals(LARGE_PAGE, page.get().getData().size());
+
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    void cursorPageStatementsDoNotDependOnPageSize() throws Exception {
+        AtomicReference<CursorPaginatedFilteredSalesWithSummary> page = new AtomicReference<>();
+
+        long smallPageStatements = statementCounter.count(() -> page.set(saleService.searchSalesByCursor(filters(SMALL_PAGE))));
+        assertEquals(SMALL_PAGE, page.get().getData().size());
+        assertNotNull(page.get().getSummary());
+
+        long largePageStatements = statementCounter.count(() -> page.set(saleService.searchSalesByCursor(filters(LARGE_PAGE))));
+        assertEquals(LARGE_PAGE, page.get().getData().size());
+
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    private SaleFilters filters(int pageSize) {
+        SaleFilters filters = SaleFilters.builder()
+                .locationId(location.getId())
+                .build();
+        filters.setPageSize(pageSize);
+        filters.setSortBy("saleDate");
+        filters.setSortDirection(Sort.Direction.DESC);
+        return filters;
+    }
+}
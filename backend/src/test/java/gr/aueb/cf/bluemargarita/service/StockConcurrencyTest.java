@@ -0,0 +1,146 @@
+package gr.aueb.cf.bluemargarita.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import gr.aueb.cf.bluemargarita.dto.product.ProductUpdateDTO;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.repository.StockMovementRepository;
+import gr.aueb.cf.bluemargarita.support.ConcurrentSellers;
+import gr.aueb.cf.bluemargarita.support.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stock is only written by atomic statements, so concurrent sales and form edits must never
+ * lose a decrement
+ */
+@SpringBootTest
+@Import(TestDataFactory.class)
+class StockConcurrencyTest {
+
+    // more sellers than pool connections, so sales also wait for a connection, not only for the product row
+    private static final int THREADS_PER_CONNECTION = 3;
+    private static final int SALES_PER_THREAD = 20;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void authenticate() {
+        TestDataFactory.authenticateAsAdmin();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreatedData();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentSalesOfTheSameProductLoseNoDecrement() throws Exception {
+        Category category = testData.category();
+        Location location = testData.location();
+        int connections = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        int threads = THREADS_PER_CONNECTION * connections;
+        int sold = threads * SALES_PER_THREAD;
+        assertTrue(sold >= 300, "Only " + sold + " sales for a pool of " + connections);
+
+        // the stock stays positive, each sale must be exactly one decrement
+        int initialStock = sold + 100;
+        Product product = testData.product(category, initialStock);
+
+        ConcurrentSellers.sell(threads, SALES_PER_THREAD,
+                thread -> testData.recordSale(location, null, LocalDate.now(), Map.of(product, 1)));
+
+        assertEquals(initialStock - sold, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(sold, stockMovementRepository.countByProductId(product.getId()));
+    }
+
+    @Test
+    void productFormEditLoadedBeforeASaleDoesNotUndoTheSale() throws Exception {
+        Category category = testData.category();
+        Location location = testData.location();
+        Product product = testData.product(category, 10);
+
+        // the form is loaded with stock 10, then a sale commits before it is saved
+        testData.recordSale(location, null, LocalDate.now(), Map.of(product, 3));
+
+        ProductUpdateDTO staleEdit = updateOf(product, category, 20, 10);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.updateProduct(staleEdit));
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+        // reloaded with the current stock, the edit applies
+        productService.updateProduct(updateOf(product, category, 20, 7));
+        assertEquals(20, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+        // an edit that leaves the stock field untouched never writes the stock
+        testData.recordSale(location, null, LocalDate.now(), Map.of(product, 2));
+        productService.updateProduct(updateOf(product, category, 20, 20));
+        assertEquals(18, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void productFormEditWithoutStockLeavesTheStockAsItIs() throws Exception {
+        Category category = testData.category();
+        Product product = testData.product(category, 5);
+
+        productService.updateProduct(updateOf(product, category, null, 5));
+
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(0, stockMovementRepository.countByProductId(product.getId()));
+    }
+
+    @Test
+    void productFormEditWithoutExpectedStockSetsTheStock() throws Exception {
+        Category category = testData.category();
+        Product product = testData.product(category, 5);
+
+        productService.updateProduct(updateOf(product, category, 12, null));
+
+        assertEquals(12, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(1, stockMovementRepository.countByProductId(product.getId()));
+    }
+
+    private ProductUpdateDTO updateOf(Product product, Category category, Integer stock, Integer expectedStock) {
+        return new ProductUpdateDTO(
+                product.getId(),
+                product.getName(),
+                product.getCode(),
+                category.getId(),
+                product.getFinalSellingPriceRetail(),
+                product.getFinalSellingPriceWholesale(),
+                product.getMinutesToMake(),
+                stock,
+                product.getLowStockAlert(),
+                expectedStock
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package gr.aueb.cf.bluemargarita.support;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records sales from several threads released together, for the tests of what concurrent sales
+ * must not lose. Each thread is authenticated as the admin user while it sells
+ */
+public final class ConcurrentSellers {
+
+    private static final long TIMEOUT_MINUTES = 2;
+
+    /**
+     * Records one sale on behalf of the given thread (0 to threads - 1) and returns its id
+     */
+    @FunctionalInterface
+    public interface Sale {
+        Long record(int thread) throws Exception;
+    }
+
+    private ConcurrentSellers() {
+    }
+
+    /**
+     * @return ids of all recorded sales
+     */
+    public static List<Long> sell(int threads, int salesPerThread, Sale sale) throws Exception {
+        return sell(threads, salesPerThread, sale, null);
+    }
+
+    /**
+     * @param whileSelling run repeatedly on the calling thread until every seller has finished, or null
+     * @return ids of all recorded sales
+     */
+    public static List<Long> sell(int threads, int salesPerThread, Sale sale, Runnable whileSelling) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    TestDataFactory.authenticateAsAdmin();
+                    try {
+                        start.await();
+                        List<Long> saleIds = new ArrayList<>(salesPerThread);
+                        for (int i = 0; i < salesPerThread; i++) {
+                            saleIds.add(sale.record(thread));
+                        }
+                        return saleIds;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+
+            start.countDown();
+            if (whileSelling != null) {
+                while (results.stream().anyMatch(result -> !result.isDone())) {
+                    whileSelling.run();
+                }
+            }
+
+            List<Long> saleIds = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                saleIds.addAll(result.get(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+            }
+            return saleIds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package gr.aueb.cf.bluemargarita.support;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements Hibernate prepares on the calling thread while an action runs.
+ * A statement inspector is registered with the session factory when this component is imported
+ * and counts only on a thread that is inside count(), so background work started by the
+ * fixtures (analytics refreshes, live updates) on other threads is never included.
+ */
+@TestComponent
+public class StatementCounter implements HibernatePropertiesCustomizer {
+
+    // statements prepared by the counting thread, null on threads that are not counting
+    private final ThreadLocal<long[]> statements = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            long[] count = statements.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        });
+    }
+
+    public long count(Action action) throws Exception {
+        long[] count = new long[1];
+        statements.set(count);
+        try {
+            action.run();
+        } finally {
+            statements.remove();
+        }
+        return count[0];
+    }
+}
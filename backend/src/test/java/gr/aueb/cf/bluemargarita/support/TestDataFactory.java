@@ -0,0 +1,212 @@
+package gr.aueb.cf.bluemargarita.support;
+
+import gr.aueb.cf.bluemargarita.core.enums.PaymentMethod;
+import gr.aueb.cf.bluemargarita.core.exceptions.EntityNotFoundException;
+import gr.aueb.cf.bluemargarita.dto.sale.RecordSaleRequestDTO;
+import gr.aueb.cf.bluemargarita.dto.sale.SaleItemRequestDTO;
+import gr.aueb.cf.bluemargarita.model.Category;
+import gr.aueb.cf.bluemargarita.model.Customer;
+import gr.aueb.cf.bluemargarita.model.Location;
+import gr.aueb.cf.bluemargarita.model.Product;
+import gr.aueb.cf.bluemargarita.repository.CategoryRepository;
+import gr.aueb.cf.bluemargarita.repository.CustomerRepository;
+import gr.aueb.cf.bluemargarita.repository.LocationRepository;
+import gr.aueb.cf.bluemargarita.repository.ProductRepository;
+import gr.aueb.cf.bluemargarita.service.SaleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Creates committed fixtures for the integration tests. Names and codes get a random suffix,
+ * since the tests share one database per context and do not roll back (the code under test
+ * relies on after-commit listeners and concurrent transactions).
+ * Sales are recorded through SaleService, so the rollup, stats and counters are maintained as in production.
+ * Every fixture is remembered and deleteCreatedData() removes them with the rows derived from them,
+ * to be called after each test
+ */
+@TestComponent
+public class TestDataFactory {
+
+    public static final String ADMIN_USERNAME = "admin"; // created by sql/production-init.sql
+
+    private final CategoryRepository categoryRepository;
+    private final LocationRepository locationRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final SaleService saleService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // sales are recorded from several threads at once
+    private final Collection<Long> categoryIds = new ConcurrentLinkedQueue<>();
+    private final Collection<Long> locationIds = new ConcurrentLinkedQueue<>();
+    private final Collection<Long> customerIds = new ConcurrentLinkedQueue<>();
+    private final Collection<Long> productIds = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public TestDataFactory(CategoryRepository categoryRepository,
+                           LocationRepository locationRepository,
+                           CustomerRepository customerRepository,
+                           ProductRepository productRepository,
+                           SaleService saleService,
+                           NamedParameterJdbcTemplate jdbcTemplate) {
+        this.categoryRepository = categoryRepository;
+        this.locationRepository = locationRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.saleService = saleService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Authenticates the calling thread as the admin user, which the writing services record as creator
+     */
+    public static void authenticateAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(ADMIN_USERNAME, null, List.of()));
+    }
+
+    public Category category() {
+        Category category = categoryRepository.save(Category.builder()
+                .name("Category " + suffix())
+                .build());
+        categoryIds.add(category.getId());
+        return category;
+    }
+
+    public Location location() {
+        Location location = locationRepository.save(Location.builder()
+                .name("Location " + suffix())
+                .build());
+        locationIds.add(location.getId());
+        return location;
+    }
+
+    public Customer customer() {
+        String suffix = suffix();
+        Customer customer = customerRepository.save(Customer.builder()
+                .firstname("Customer")
+                .lastname(suffix)
+                .email(suffix + "@test.gr")
+                .tin(suffix)
+                .build());
+        customerIds.add(customer.getId());
+        return customer;
+    }
+
+    public Product product(Category category, Integer stock) {
+        Product product = productRepository.save(newProduct(category, stock, 0));
+        productIds.add(product.getId());
+        return product;
+    }
+
+    /**
+     * Saves count products in one transaction, e.g. to size a catalog for a benchmark
+     */
+    public List<Product> products(Category category, int count, int minutesToMake) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(newProduct(category, 0, minutesToMake));
+        }
+        List<Product> saved = productRepository.saveAll(products);
+        saved.forEach(product -> productIds.add(product.getId()));
+        return saved;
+    }
+
+    /**
+     * Records a retail cash sale of the given quantities, priced at the products' retail price
+     * @param customer null for a walk-in sale
+     * @return id of the new sale
+     */
+    public Long recordSale(Location location, Customer customer, LocalDate saleDate, Map<Product, Integer> quantities)
+            throws EntityNotFoundException {
+
+        List<SaleItemRequestDTO> items = quantities.entrySet().stream()
+                .map(entry -> new SaleItemRequestDTO(entry.getKey().getId(), BigDecimal.valueOf(entry.getValue())))
+                .toList();
+
+        BigDecimal finalPrice = quantities.entrySet().stream()
+                .map(entry -> entry.getKey().getFinalSellingPriceRetail().multiply(BigDecimal.valueOf(entry.getValue())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return saleService.recordSale(new RecordSaleRequestDTO(
+                customer != null ? customer.getId() : null,
+                location.getId(),
+                PaymentMethod.CASH,
+                false,
+                BigDecimal.ZERO,
+                finalPrice,
+                saleDate,
+                items
+        )).saleId();
+    }
+
+    /**
+     * Deletes every fixture created so far, the sales recorded at the fixture locations and the rows
+     * derived from them. The in-memory location counters of the deleted locations are left as they are
+     */
+    @Transactional
+    public void deleteCreatedData() {
+        List<Long> locations = drain(locationIds);
+        List<Long> products = drain(productIds);
+        List<Long> customers = drain(customerIds);
+        List<Long> categories = drain(categoryIds);
+
+        delete("DELETE FROM sale_product_component WHERE sale_id IN " +
+                "(SELECT id FROM sales WHERE location_id IN (:ids))", locations);
+        delete("DELETE FROM sale_product WHERE sale_id IN (SELECT id FROM sales WHERE location_id IN (:ids))", locations);
+        delete("DELETE FROM sales WHERE location_id IN (:ids)", locations);
+        delete("DELETE FROM sales_daily_rollup WHERE location_id IN (:ids)", locations);
+        delete("DELETE FROM stock_movements WHERE product_id IN (:ids)", products);
+        delete("DELETE FROM customer_stats WHERE customer_id IN (:ids)", customers);
+        delete("DELETE FROM customers WHERE id IN (:ids)", customers);
+        delete("DELETE FROM products WHERE id IN (:ids)", products);
+        delete("DELETE FROM locations WHERE id IN (:ids)", locations);
+        delete("DELETE FROM categories WHERE id IN (:ids)", categories);
+    }
+
+    private void delete(String sql, List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(sql, Map.of("ids", ids));
+        }
+    }
+
+    private static List<Long> drain(Collection<Long> ids) {
+        List<Long> drained = new ArrayList<>(ids);
+        ids.removeAll(drained);
+        return drained;
+    }
+
+    private static Product newProduct(Category category, Integer stock, int minutesToMake) {
+        // The whole UUID: codes are unique and a benchmark catalog would collide on a short suffix
+        String suffix = UUID.randomUUID().toString();
+        return Product.builder()
+                .name("Product " + suffix)
+                .code("P-" + suffix)
+                .category(category)
+                .suggestedRetailSellingPrice(new BigDecimal("20.00"))
+                .suggestedWholeSaleSellingPrice(new BigDecimal("10.00"))
+                .finalSellingPriceRetail(new BigDecimal("20.00"))
+                .finalSellingPriceWholesale(new BigDecimal("10.00"))
+                .minutesToMake(minutesToMake)
+                .stock(stock)
+                .lowStockAlert(0)
+                .build();
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
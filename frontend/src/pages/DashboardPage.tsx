@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { dashboardService } from '../services/dashboardService';
+import { liveUpdateService } from '../services/liveUpdateService';
 import {
     DashboardOverviewDTO,
     ToDoTaskReadOnlyDTO,
@@ -56,6 +57,16 @@ const Dashboard: React.FC<DashboardProps> = ({ onNavigate }) => {
         }
     };
 
+    // Reloads the overview in the background, keeping the current view on screen
+    const refreshDashboard = async () => {
+        try {
+            const dashboardData = await dashboardService.getDashboardOverview();
+            setData(dashboardData);
+        } catch (err) {
+            console.error('Dashboard refresh error:', err);
+        }
+    };
+
     // Function to complete a task
     const completeTask = async (taskId: number) => {
         try {
@@ -96,6 +107,25 @@ const Dashboard: React.FC<DashboardProps> = ({ onNavigate }) => {
         loadDashboard();
     }, []);
 
+    // Live updates: sale totals are patched in place, other changes reload the overview
+    useEffect(() => {
+        return liveUpdateService.connect({
+            onSales: update => {
+                const { weeklySummary, monthlySummary } = update;
+                if (weeklySummary && monthlySummary) {
+                    setData(current => current
+                        ? { ...current, weeklySales: weeklySummary, monthlySales: monthlySummary }
+                        : current);
+                } else {
+                    refreshDashboard();
+                }
+            },
+            onLowStockAlerts: () => refreshDashboard(),
+            onTask: () => refreshDashboard(),
+            onResync: () => refreshDashboard()
+        });
+    }, []);
+
     // Loading state
     if (loading) {
         return (
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Package, Plus, Calculator } from 'lucide-react';
 import { Button, Alert, CustomCard } from '../components/ui/common';
 import { ConfirmDeleteModal, SuccessModal, PriceRecalculationResultModal, PriceRecalculationConfirmModal } from '../components/ui/modals';
@@ -74,6 +74,7 @@ const ProductManagementPage: React.FC<ProductManagementPageProps> = ({
     const [isRecalculationConfirmOpen, setIsRecalculationConfirmOpen] = useState(false);
     const [isRecalculationModalOpen, setIsRecalculationModalOpen] = useState(false);
     const [recalculationResult, setRecalculationResult] = useState<PriceRecalculationResultDTO | null>(null);
+    const recalculationAbortRef = useRef<AbortController | null>(null);
 
     const [isAdmin, setIsAdmin] = useState(false);
 
@@ -274,22 +275,33 @@ const ProductManagementPage: React.FC<ProductManagementPageProps> = ({
     };
 
     const handleRecalculateAllPrices = async () => {
+        recalculationAbortRef.current?.abort();
+        const controller = new AbortController();
+        recalculationAbortRef.current = controller;
+
         try {
             setIsRecalculating(true);
             setIsRecalculationConfirmOpen(false); // Close confirm modal
             clearErrors();
 
-            const result = await productService.recalculateAllProductPrices();
+            const result = await productService.recalculateAllProductPrices(controller.signal);
             setRecalculationResult(result);
             setIsRecalculationModalOpen(true);
 
         } catch (err) {
+            // Polling was stopped because the page unmounted, there is nothing left to update
+            if (controller.signal.aborted) return;
             await handleApiError(err);
         } finally {
             setIsRecalculating(false);
         }
     };
 
+    // Stop polling the recalculation job when leaving the page
+    useEffect(() => {
+        return () => recalculationAbortRef.current?.abort();
+    }, []);
+
     const showRecalculationConfirm = () => {
         setIsRecalculationConfirmOpen(true);
     };
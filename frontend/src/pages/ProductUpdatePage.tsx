@@ -419,7 +419,8 @@ const UpdateProductPage: React.FC<UpdateProductPageProps> = ({ productId, onNavi
                 finalSellingPriceWholesale: finalWholesalePrice,
                 minutesToMake: minutesToMake,
                 stock: currentStock,
-                lowStockAlert: lowStockAlert
+                lowStockAlert: lowStockAlert,
+                expectedStock: originalCurrentStock
             };
 
             await productService.updateProduct(productId, productData);
@@ -1,9 +1,10 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Alert, CustomCard } from '../components/ui/common';
 import { EnhancedPaginationControls } from '../components/ui/pagination';
 import { StockManagementFilterPanel } from '../components/ui/filterPanels';
 import { stockManagementService } from '../services/stockManagementService';
 import { categoryService } from '../services/categoryService';
+import { liveUpdateService } from '../services/liveUpdateService';
 import { useFormErrorHandler } from '../hooks/useFormErrorHandler';
 import type {
     StockManagementDTO,
@@ -14,6 +15,7 @@ import type {
 } from '../types/api/stockManagementInterface';
 import type { CategoryForDropdownDTO } from '../types/api/categoryInterface';
 import type { Paginated } from '../types/api/dashboardInterface';
+import type { StockLevelLiveUpdateDTO } from '../types/api/liveUpdateInterface';
 import { DEFAULT_PAGE_SIZES } from "../constants/pagination.ts";
 
 interface StockManagementPageProps {
@@ -21,6 +23,25 @@ interface StockManagementPageProps {
     stockFilter?: string;
 }
 
+// Same rules as the backend mapper: the value only counts stock on hand
+const applyStockLevel = (product: StockManagementDTO, levels: StockLevelLiveUpdateDTO[]): StockManagementDTO => {
+    const level = levels.find(l => l.productId === product.productId);
+    if (!level || level.stock === null) {
+        return product;
+    }
+
+    const lowStockAlert = level.lowStockAlert ?? product.lowStockAlert;
+    const status: StockStatus = level.stock < 0 ? 'NEGATIVE' : level.stock <= lowStockAlert ? 'LOW' : 'NORMAL';
+
+    return {
+        ...product,
+        currentStock: level.stock,
+        lowStockAlert,
+        totalStockValue: level.stock > 0 ? product.unitSellingPrice * level.stock : 0,
+        status
+    };
+};
+
 const StockManagementPage: React.FC<StockManagementPageProps> = ({ stockFilter }) => {
     // Filter states - same pattern as ProductManagementPage
     const [searchTerm, setSearchTerm] = useState('');
@@ -64,6 +85,19 @@ const StockManagementPage: React.FC<StockManagementPageProps> = ({ stockFilter }
         searchProducts();
     }, [searchTerm, selectedCategoryId, selectedStatus, minStock, maxStock, currentPage, pageSize]);
 
+    // Live updates: rows on the current page get their new stock, a resync reloads the page.
+    // The ref keeps the stream on the latest searchProducts, which reads the current filters
+    const searchProductsRef = useRef<(() => Promise<void>) | null>(null);
+
+    useEffect(() => {
+        return liveUpdateService.connect({
+            onStockLevels: levels => setProducts(current => current
+                ? { ...current, data: current.data.map(product => applyStockLevel(product, levels)) }
+                : current),
+            onResync: () => searchProductsRef.current?.()
+        });
+    }, []);
+
     // Search products function
     const searchProducts = async () => {
         try {
@@ -94,6 +128,8 @@ const StockManagementPage: React.FC<StockManagementPageProps> = ({ stockFilter }
         }
     };
 
+    searchProductsRef.current = searchProducts;
+
     // Filter handlers
     const handleClearFilters = () => {
         setSearchTerm('');
@@ -128,6 +128,9 @@ class CustomerService {
         searchTerm?: string;
         wholesaleOnly?: boolean;
         isActive?: boolean;
+        minTotalRevenue?: number;
+        minTotalOrders?: number;
+        minRfmScore?: number;
         page?: number;
         pageSize?: number;
         sortBy?: string;
@@ -0,0 +1,142 @@
+// Live update stream: sale, stock and task changes pushed by the server as they are committed
+import { authService } from './authService';
+import { LiveUpdateHandlers } from "../types/api/liveUpdateInterface.ts";
+
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL + '/live';
+const MAX_RECONNECT_DELAY_MS = 30000;
+
+// EventSource cannot send the Authorization header, so the stream is read with fetch
+class LiveUpdateService {
+
+    /**
+     * Opens the stream and keeps it open, reconnecting with Last-Event-ID so missed events are replayed.
+     * Returns a function that closes the stream
+     */
+    connect(handlers: LiveUpdateHandlers): () => void {
+        const controller = new AbortController();
+        let lastEventId: string | null = null;
+        let reconnectDelay = 1000;
+
+        const run = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const headers: Record<string, string> = {
+                        ...(authService.getAuthHeaders() as Record<string, string>),
+                        'Accept': 'text/event-stream'
+                    };
+                    if (lastEventId) {
+                        headers['Last-Event-ID'] = lastEventId;
+                    }
+
+                    const response = await fetch(`${API_BASE_URL}/stream`, {
+                        headers,
+                        signal: controller.signal
+                    });
+
+                    if (response.status === 401 || response.status === 403) {
+                        console.error('Live updates: not authorized, stream closed');
+                        return;
+                    }
+                    if (response.status === 503) {
+                        // the server is at its connection limit, wait as long as it asks
+                        const retryAfterSeconds = Number(response.headers.get('Retry-After'));
+                        if (retryAfterSeconds > 0) {
+                            reconnectDelay = Math.max(reconnectDelay, retryAfterSeconds * 1000);
+                        }
+                        throw new Error('Live update stream: too many connections');
+                    }
+                    if (!response.ok || !response.body) {
+                        throw new Error(`Live update stream failed: ${response.status}`);
+                    }
+
+                    reconnectDelay = 1000;
+                    await this.readStream(response.body, handlers, id => { lastEventId = id; });
+                } catch (error) {
+                    if (controller.signal.aborted) {
+                        return;
+                    }
+                    console.warn('Live update stream interrupted, reconnecting:', error);
+                }
+
+                await new Promise(resolve => setTimeout(resolve, reconnectDelay));
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        };
+
+        run();
+        return () => controller.abort();
+    }
+
+    private async readStream(body: ReadableStream<Uint8Array>, handlers: LiveUpdateHandlers,
+                             onEventId: (id: string) => void): Promise<void> {
+        const reader = body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+
+        while (true) {
+            const { done, value } = await reader.read();
+            if (done) {
+                return;
+            }
+
+            buffer += decoder.decode(value, { stream: true });
+
+            // events are separated by a blank line
+            let separator: number;
+            while ((separator = buffer.indexOf('\n\n')) >= 0) {
+                const rawEvent = buffer.slice(0, separator);
+                buffer = buffer.slice(separator + 2);
+                this.dispatch(rawEvent, handlers, onEventId);
+            }
+        }
+    }
+
+    private dispatch(rawEvent: string, handlers: LiveUpdateHandlers, onEventId: (id: string) => void): void {
+        let id: string | null = null;
+        let name = 'message';
+        const data: string[] = [];
+
+        for (const line of rawEvent.split('\n')) {
+            if (line.startsWith(':')) {
+                continue; // heartbeat comment
+            }
+            const colon = line.indexOf(':');
+            const field = colon >= 0 ? line.slice(0, colon) : line;
+            const value = colon >= 0 ? line.slice(colon + 1).replace(/^ /, '') : '';
+
+            if (field === 'id') id = value;
+            else if (field === 'event') name = value;
+            else if (field === 'data') data.push(value);
+        }
+
+        if (data.length === 0) {
+            return;
+        }
+        if (id) {
+            onEventId(id);
+        }
+
+        const payload = JSON.parse(data.join('\n'));
+
+        switch (name) {
+            case 'sales':
+                handlers.onSales?.(payload);
+                break;
+            case 'stock-levels':
+                handlers.onStockLevels?.(payload);
+                break;
+            case 'low-stock-alerts':
+                handlers.onLowStockAlerts?.(payload);
+                break;
+            case 'task':
+                handlers.onTask?.(payload);
+                break;
+            case 'resync':
+                handlers.onResync?.(payload);
+                break;
+        }
+    }
+}
+
+// Export singleton instance
+export const liveUpdateService = new LiveUpdateService();
@@ -6,6 +6,7 @@ import {
     LocationUpdateDTO,
     LocationForDropdownDTO,
     LocationDetailedViewDTO,
+    LocationComparisonDTO,
 } from "../types/api/locationInterface.ts";
 import { Paginated } from "../types/api/dashboardInterface.ts";
 
@@ -147,6 +148,20 @@ class LocationService {
         }
     }
 
+    async getLocationComparison(): Promise<LocationComparisonDTO[]> {
+        try {
+            const response = await ApiErrorHandler.enhancedFetch(`${API_BASE_URL}/comparison`, {
+                method: 'GET',
+                headers: this.getAuthHeaders()
+            });
+
+            return await response.json();
+        } catch (error) {
+            console.error('Get location comparison error:', error);
+            throw error;
+        }
+    }
+
     // =============================================================================
     // DROPDOWN SERVICES - FOR FORMS AND SELECT LISTS
     // =============================================================================
@@ -4,6 +4,7 @@ import {
     MaterialReadOnlyDTO,
     MaterialInsertDTO,
     MaterialUpdateDTO,
+    MaterialUpdateResultDTO,
     MaterialSearchResultDTO,
     MaterialDetailedViewDTO,
     ProductUsageDTO,
@@ -42,7 +43,7 @@ class MaterialService {
         }
     }
 
-    async updateMaterial(materialId: number, materialData: MaterialUpdateDTO): Promise<MaterialReadOnlyDTO> {
+    async updateMaterial(materialId: number, materialData: MaterialUpdateDTO): Promise<MaterialUpdateResultDTO> {
         try {
             const response = await ApiErrorHandler.enhancedFetch(`${API_BASE_URL}/${materialId}`, {
                 method: 'PUT',
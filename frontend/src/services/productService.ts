@@ -11,8 +11,31 @@ import {
     PriceRecalculationResultDTO
 } from "../types/api/productInterface.ts";
 import {MispricedProductAlertDTO, Paginated} from "../types/api/dashboardInterface.ts";
+import {JobReadOnlyDTO} from "../types/api/jobInterface.ts";
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL + '/products';
+const JOBS_API_BASE_URL = import.meta.env.VITE_API_BASE_URL + '/jobs';
+const JOB_POLL_INTERVAL_MS = 1000;
+const JOB_POLL_TIMEOUT_MS = 10 * 60 * 1000;
+const JOB_POLL_MAX_CONSECUTIVE_ERRORS = 3;
+
+// Resolves after ms, or rejects as soon as the signal is aborted
+const waitFor = (ms: number, signal?: AbortSignal): Promise<void> =>
+    new Promise((resolve, reject) => {
+        if (signal?.aborted) {
+            reject(signal.reason);
+            return;
+        }
+        const timer = setTimeout(() => {
+            signal?.removeEventListener('abort', onAbort);
+            resolve();
+        }, ms);
+        const onAbort = () => {
+            clearTimeout(timer);
+            reject(signal?.reason);
+        };
+        signal?.addEventListener('abort', onAbort, { once: true });
+    });
 
 class ProductService {
 
@@ -463,14 +486,48 @@ class ProductService {
     // BULK OPERATIONS - PRICE RECALCULATION
     // =============================================================================
 
-    async recalculateAllProductPrices(): Promise<PriceRecalculationResultDTO> {
+    // The recalculation runs as a background job, poll it until it has finished.
+    // Polling stops when the signal is aborted (e.g. the page unmounts), after JOB_POLL_TIMEOUT_MS
+    // or after JOB_POLL_MAX_CONSECUTIVE_ERRORS failed polls in a row. The job itself keeps running
+    async recalculateAllProductPrices(signal?: AbortSignal): Promise<PriceRecalculationResultDTO> {
         try {
             const response = await ApiErrorHandler.enhancedFetch(`${API_BASE_URL}/recalculate-all-prices`, {
                 method: 'POST',
-                headers: this.getAuthHeaders()
+                headers: this.getAuthHeaders(),
+                signal
             });
 
-            return await response.json();
+            let job: JobReadOnlyDTO<PriceRecalculationResultDTO> = await response.json();
+            const deadline = Date.now() + JOB_POLL_TIMEOUT_MS;
+            let consecutiveErrors = 0;
+
+            while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+                if (Date.now() >= deadline) {
+                    throw new Error('Ο επανυπολογισμός τιμών συνεχίζεται στο παρασκήνιο. Ελέγξτε ξανά αργότερα');
+                }
+                await waitFor(JOB_POLL_INTERVAL_MS, signal);
+
+                try {
+                    const pollResponse = await ApiErrorHandler.enhancedFetch(`${JOBS_API_BASE_URL}/${job.jobId}`, {
+                        method: 'GET',
+                        headers: this.getAuthHeaders(),
+                        signal
+                    });
+                    job = await pollResponse.json();
+                    consecutiveErrors = 0;
+                } catch (pollError) {
+                    if (signal?.aborted || ++consecutiveErrors >= JOB_POLL_MAX_CONSECUTIVE_ERRORS) {
+                        throw pollError;
+                    }
+                    console.warn(`Polling job ${job.jobId} failed (${consecutiveErrors}), retrying:`, pollError);
+                }
+            }
+
+            if (!job.result) {
+                throw new Error(job.errorMessage || 'Ο επανυπολογισμός τιμών απέτυχε');
+            }
+
+            return job.result;
         } catch (error) {
             console.error('Recalculate all product prices error:', error);
             throw error;
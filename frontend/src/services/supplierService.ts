@@ -8,6 +8,7 @@ import {
     SupplierUpdateDTO,
     SupplierSearchResultDTO,
     SupplierDetailedViewDTO,
+    SupplierMaterialPriceRankDTO,
 } from "../types/api/supplierInterface.ts";
 import { Paginated } from "../types/api/dashboardInterface.ts";
 
@@ -152,6 +153,24 @@ class SupplierService {
         }
     }
 
+    async getSupplierPriceRanking(since?: string, maxRank?: number): Promise<SupplierMaterialPriceRankDTO[]> {
+        try {
+            const queryParams = new URLSearchParams();
+            if (since) queryParams.append('since', since);
+            if (maxRank !== undefined) queryParams.append('maxRank', maxRank.toString());
+
+            const response = await ApiErrorHandler.enhancedFetch(`${API_BASE_URL}/material-price-comparison?${queryParams}`, {
+                method: 'GET',
+                headers: this.getAuthHeaders()
+            });
+
+            return await response.json();
+        } catch (error) {
+            console.error('Get supplier price ranking error:', error);
+            throw error;
+        }
+    }
+
     // =============================================================================
     // SUPPLIER SEARCH - FOR RECORD PURCHASE AND OTHER FORMS
     // =============================================================================
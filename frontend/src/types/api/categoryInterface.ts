@@ -56,6 +56,9 @@ export interface CategoryDetailedViewDTO {
     yearlySalesCount: number;
     yearlySalesRevenue: number;
 
+    // When the sales figures were last computed
+    statsRefreshedAt: string | null;
+
     // Top performing products in this category
     topProducts: ProductStatsSummaryDTO[];
 }
@@ -9,6 +9,12 @@ export interface CustomerListItemDTO {
     email: string;
     tin: string;
     gender: GenderType;
+
+    // From the precomputed customer stats
+    totalOrders: number;
+    totalRevenue: number;
+    lastOrderDate: string | null;
+    rfmScore: number | null;
 }
 
 export interface CustomerInsertDTO {
@@ -99,4 +105,5 @@ export interface Paginated<T> {
     numberOfElements: number;
     hasNext: boolean;
     hasPrevious: boolean;
+    totalElementsExact: boolean;
 }
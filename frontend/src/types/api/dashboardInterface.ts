@@ -7,6 +7,7 @@ export interface DashboardOverviewDTO {
     topProductsThisMonth: ProductStatsSummaryDTO[];
     dashboardTasks: DashboardToDoTasksDTO;
     mispricedProducts: MispricedProductAlertDTO[];
+    unavailableWidgets: string[];
 }
 
 export interface SaleReadOnlyDTO {
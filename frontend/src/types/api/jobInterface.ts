@@ -0,0 +1,17 @@
+export type JobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+
+export interface JobReadOnlyDTO<T = unknown> {
+    jobId: number;
+    type: string;
+    status: JobStatus;
+    totalItems: number | null;
+    processedItems: number;
+    progressPercentage: number | null;
+    cancelRequested: boolean;
+    createdByUsername: string;
+    createdAt: string;
+    startedAt: string | null;
+    finishedAt: string | null;
+    errorMessage: string | null;
+    result: T | null;
+}
@@ -0,0 +1,42 @@
+import {SalesSummaryDTO} from "./dashboardInterface.ts";
+
+export type EntityChangeType = 'CREATED' | 'UPDATED' | 'DELETED';
+
+export interface SaleChangeDTO {
+    saleId: number;
+    changeType: EntityChangeType;
+}
+
+export interface SalesLiveUpdateDTO {
+    changes: SaleChangeDTO[];
+    // null when the totals could not be loaded, refetch them instead
+    weeklySummary: SalesSummaryDTO | null;
+    monthlySummary: SalesSummaryDTO | null;
+}
+
+export interface StockLevelLiveUpdateDTO {
+    productId: number;
+    productCode: string;
+    stock: number | null;
+    lowStockAlert: number | null;
+    isLowStock: boolean;
+}
+
+export interface TaskLiveUpdateDTO {
+    taskId: number;
+    changeType: EntityChangeType;
+    status: 'PENDING' | 'COMPLETED' | null;
+}
+
+export interface ResyncLiveUpdateDTO {
+    reason: string;
+}
+
+export interface LiveUpdateHandlers {
+    onSales?: (update: SalesLiveUpdateDTO) => void;
+    onStockLevels?: (levels: StockLevelLiveUpdateDTO[]) => void;
+    onLowStockAlerts?: (alerts: StockLevelLiveUpdateDTO[]) => void;
+    onTask?: (update: TaskLiveUpdateDTO) => void;
+    // updates were lost, reload the view in full
+    onResync?: (update: ResyncLiveUpdateDTO) => void;
+}
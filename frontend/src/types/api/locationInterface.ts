@@ -42,6 +42,10 @@ export interface LocationDetailedViewDTO {
     averageOrderValue: number;
     lastSaleDate: string;
 
+    // Today
+    todaySalesCount: number;
+    todayRevenue: number;
+
     // Simple recent performance (last 30 days)
     recentSalesCount: number;
     recentRevenue: number;
@@ -52,3 +56,23 @@ export interface LocationDetailedViewDTO {
 
     topProducts: ProductStatsSummaryDTO[];
 }
+
+export interface LocationAnalyticsDTO {
+    totalRevenue: number;
+    totalSalesCount: number;
+    averageOrderValue: number;
+    lastSaleDate: string | null;
+    todaySalesCount: number;
+    todayRevenue: number;
+    recentSalesCount: number;
+    recentRevenue: number;
+    yearlySalesCount: number;
+    yearlySalesRevenue: number;
+}
+
+export interface LocationComparisonDTO {
+    locationId: number;
+    name: string;
+    analytics: LocationAnalyticsDTO;
+    yearlyRevenueShare: number;
+}
@@ -24,6 +24,18 @@ export interface MaterialUpdateDTO {
     unitOfMeasure: string;
 }
 
+export interface ProductRepricingResultDTO {
+    materialId: number;
+    productsRepriced: number;
+    durationMs: number;
+    repricedAt: string;
+}
+
+export interface MaterialUpdateResultDTO {
+    material: MaterialReadOnlyDTO;
+    productRepricing: ProductRepricingResultDTO | null;
+}
+
 export interface MaterialSearchResultDTO {
     materialId: number;
     materialName: string;
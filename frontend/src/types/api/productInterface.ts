@@ -37,6 +37,7 @@ export interface ProductUpdateDTO{
     minutesToMake: number;
     stock: number;
     lowStockAlert: number;
+    expectedStock: number;   // stock when the form was loaded, the edit is rejected if it changed since
 }
 
 export interface ProductDetailedViewDTO{
@@ -7,6 +7,7 @@ export interface StockUpdateResultDTO {
     success : boolean;
     operationType : string;
     updatedAt : string;
+    errorMessage? : string;
 }
 
 export interface StockLimitUpdateResultDTO {
@@ -66,4 +66,21 @@ export interface MaterialStatsSummaryDTO {
     totalQuantityPurchased: number;
     totalCostPaid: number;
     lastPurchaseDate: string;
-}
\ No newline at end of file
+}
+
+export interface SupplierMaterialPriceRankDTO {
+    materialId: number;
+    materialName: string;
+    unitOfMeasure: string;
+    supplierId: number;
+    supplierName: string;
+    weightedAverageUnitPrice: number;
+    lastUnitPrice: number;
+    totalQuantityPurchased: number;
+    purchaseCount: number;
+    lastPurchaseDate: string;
+    priceRank: number;
+    recencyRank: number;
+    suppliersForMaterial: number;
+    premiumOverBestPercentage: number;
+}